@@ -0,0 +1,96 @@
+package com.csi43C9.baylor.farmers_market.load;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the latencies of one operation. Samples go into a preallocated array, so recording
+ * is one atomic increment and one store; percentiles are computed exactly once the run is over.
+ */
+public class LatencyRecorder {
+
+    private final long[] samples;
+    private final AtomicInteger recorded = new AtomicInteger();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * @param capacity the most samples kept; later samples are counted but not kept.
+     */
+    public LatencyRecorder(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    /**
+     * Records a completed request.
+     *
+     * @param latencyNanos time from the request's scheduled start to its response.
+     * @param success      whether the response had the expected status.
+     */
+    public void record(long latencyNanos, boolean success) {
+        int index = recorded.getAndIncrement();
+        if (index < samples.length) {
+            samples[index] = latencyNanos;
+        }
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * Records an arrival that was not sent because too many requests were outstanding.
+     */
+    public void drop() {
+        dropped.increment();
+    }
+
+    /**
+     * Summarizes the samples: counts, throughput and latency percentiles in milliseconds.
+     *
+     * @param seconds the length of the measured phase.
+     */
+    public Map<String, Object> summarize(double seconds) {
+        int count = Math.min(recorded.get(), samples.length);
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", recorded.get());
+        summary.put("errors", errors.sum());
+        summary.put("dropped", dropped.sum());
+        summary.put("throughputPerSecond", round(recorded.get() / seconds));
+        summary.put("meanMs", count == 0 ? 0 : round(Arrays.stream(sorted).average().orElse(0) / 1e6));
+        summary.put("p50Ms", percentile(sorted, 50));
+        summary.put("p95Ms", percentile(sorted, 95));
+        summary.put("p99Ms", percentile(sorted, 99));
+        summary.put("p999Ms", percentile(sorted, 99.9));
+        summary.put("maxMs", count == 0 ? 0 : round(sorted[count - 1] / 1e6));
+        return summary;
+    }
+
+    public long requests() {
+        return recorded.get();
+    }
+
+    public long errors() {
+        return errors.sum();
+    }
+
+    /**
+     * Nearest-rank percentile, in milliseconds.
+     */
+    static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return round(sorted[Math.max(0, rank - 1)] / 1e6);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
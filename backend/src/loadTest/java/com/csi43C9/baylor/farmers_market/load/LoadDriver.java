@@ -0,0 +1,192 @@
+package com.csi43C9.baylor.farmers_market.load;
+
+import tools.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop HTTP load generator.
+ *
+ * <p>Requests are scheduled at a fixed arrival rate whether or not earlier requests have
+ * completed, and each latency is measured from the request's scheduled start rather than from
+ * when it was actually sent. A stalled server therefore shows up as growing latency instead of
+ * as fewer requests, avoiding the coordinated omission of closed-loop benchmarks.
+ *
+ * <p>The operation sequence and request bodies come from a seeded {@link Random} used only by the
+ * dispatching thread, so runs with the same configuration issue the same requests.
+ */
+public class LoadDriver {
+
+    private static final String USERNAME = "user";
+    private static final String PASSWORD = "password";
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final URI baseUri;
+    private final LoadTestConfig config;
+    private final List<UUID> vendorIds;
+    private final Random random;
+    private final Operation[] wheel;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private String token;
+
+    /**
+     * @param baseUri   the application's base URI, e.g. {@code http://localhost:8080}.
+     * @param config    the load settings.
+     * @param vendorIds existing vendors targeted by reads and updates.
+     */
+    public LoadDriver(URI baseUri, LoadTestConfig config, List<UUID> vendorIds) {
+        this.baseUri = baseUri;
+        this.config = config;
+        this.vendorIds = List.copyOf(vendorIds);
+        this.random = new Random(config.seed());
+        this.wheel = buildWheel(config.mix());
+    }
+
+    /**
+     * Logs in and keeps the token for the authenticated operations.
+     */
+    public void login() throws Exception {
+        HttpResponse<String> response = client.send(request(Operation.LOGIN), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed with HTTP " + response.statusCode() + ": " + response.body());
+        }
+        token = mapper.readTree(response.body()).get("accessToken").asString();
+    }
+
+    /**
+     * Issues requests at the configured rate for the given time, then waits for the
+     * outstanding ones to complete.
+     *
+     * @return the latencies recorded per operation.
+     */
+    public Map<Operation, LatencyRecorder> run(int seconds) throws InterruptedException {
+        Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+        int capacity = Math.max(1, config.ratePerSecond() * seconds);
+        for (Operation operation : config.mix().keySet()) {
+            recorders.put(operation, new LatencyRecorder(capacity));
+        }
+
+        long interval = TimeUnit.SECONDS.toNanos(1) / config.ratePerSecond();
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        for (long intended = start; intended - end < 0; intended += interval) {
+            parkUntil(intended);
+            Operation operation = wheel[random.nextInt(wheel.length)];
+            HttpRequest request = request(operation);
+            LatencyRecorder recorder = recorders.get(operation);
+            if (outstanding.get() >= config.maxOutstanding()) {
+                recorder.drop();
+                continue;
+            }
+            send(request, recorder, intended);
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (outstanding.get() > 0 && System.nanoTime() - deadline < 0) {
+            Thread.sleep(10);
+        }
+        return recorders;
+    }
+
+    private void send(HttpRequest request, LatencyRecorder recorder, long intended) {
+        outstanding.incrementAndGet();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    long latency = System.nanoTime() - intended;
+                    boolean success = error == null && response.statusCode() / 100 == 2;
+                    recorder.record(latency, success);
+                    outstanding.decrementAndGet();
+                });
+    }
+
+    private HttpRequest request(Operation operation) {
+        return switch (operation) {
+            case LOGIN -> post("/api/auth/login", Map.of("username", USERNAME, "password", PASSWORD), false);
+            case LIST_VENDORS -> {
+                int pages = Math.max(1, vendorIds.size() / config.pageSize());
+                yield authorized(baseUri.resolve("/api/vendor?page=" + random.nextInt(pages)
+                        + "&size=" + config.pageSize())).GET().build();
+            }
+            case GET_VENDOR -> authorized(baseUri.resolve("/api/vendor/" + randomVendor())).GET().build();
+            case CREATE_VENDOR -> post("/api/vendor", vendorBody(), true);
+            case PATCH_VENDOR -> authorized(baseUri.resolve("/api/vendor/" + randomVendor()))
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(vendorBody())))
+                    .header("Content-Type", "application/json")
+                    .build();
+        };
+    }
+
+    private HttpRequest post(String path, Object body, boolean authorized) {
+        HttpRequest.Builder builder = authorized
+                ? authorized(baseUri.resolve(path))
+                : HttpRequest.newBuilder(baseUri.resolve(path)).timeout(Duration.ofSeconds(30));
+        return builder.POST(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body)))
+                .header("Content-Type", "application/json")
+                .build();
+    }
+
+    private HttpRequest.Builder authorized(URI uri) {
+        return HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + token);
+    }
+
+    private Map<String, Object> vendorBody() {
+        int n = random.nextInt(1_000_000);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("vendorName", "Load Vendor " + n);
+        body.put("pointPerson", "Contact " + n);
+        body.put("email", "vendor" + n + "@example.com");
+        body.put("location", "Waco, TX");
+        body.put("miles", random.nextInt(200));
+        body.put("products", "Produce");
+        body.put("isActive", true);
+        body.put("isFarmer", random.nextBoolean());
+        body.put("isProduce", random.nextBoolean());
+        return body;
+    }
+
+    private UUID randomVendor() {
+        return vendorIds.get(random.nextInt(vendorIds.size()));
+    }
+
+    /**
+     * Expands the weights into a lookup table, so picking an operation is a single array index.
+     */
+    private static Operation[] buildWheel(Map<Operation, Integer> mix) {
+        List<Operation> wheel = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                wheel.add(operation);
+            }
+        });
+        return wheel.toArray(Operation[]::new);
+    }
+
+    private static void parkUntil(long nanoTime) {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
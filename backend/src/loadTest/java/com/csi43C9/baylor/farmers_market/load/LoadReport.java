@@ -0,0 +1,71 @@
+package com.csi43C9.baylor.farmers_market.load;
+
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes a load test run as JSON, tagged with the commit and environment it ran on so runs
+ * can be compared across commits.
+ */
+public final class LoadReport {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    private LoadReport() {
+    }
+
+    /**
+     * Writes {@code load-<commit>-<timestamp>.json} and a copy named {@code latest.json}.
+     *
+     * @return the path of the timestamped report.
+     */
+    public static Path write(LoadTestConfig config, Map<Operation, LatencyRecorder> results) throws IOException {
+        Instant now = Instant.now();
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("gitCommit", config.gitCommit());
+        report.put("timestamp", now.toString());
+        report.put("environment", Map.of(
+                "javaVersion", System.getProperty("java.version"),
+                "os", System.getProperty("os.name") + " " + System.getProperty("os.arch"),
+                "availableProcessors", Runtime.getRuntime().availableProcessors()));
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("ratePerSecond", config.ratePerSecond());
+        settings.put("warmupSeconds", config.warmupSeconds());
+        settings.put("durationSeconds", config.durationSeconds());
+        settings.put("mix", config.mix());
+        settings.put("seed", config.seed());
+        settings.put("vendors", config.vendors());
+        settings.put("pageSize", config.pageSize());
+        report.put("config", settings);
+
+        Map<String, Object> operations = new LinkedHashMap<>();
+        results.forEach((operation, recorder) -> operations.put(operation.name(),
+                recorder.summarize(config.durationSeconds())));
+        report.put("operations", operations);
+
+        long total = results.values().stream().mapToLong(LatencyRecorder::requests).sum();
+        report.put("totalRequests", total);
+        report.put("totalThroughputPerSecond", (double) total / config.durationSeconds());
+
+        ObjectMapper mapper = JsonMapper.builder().enable(SerializationFeature.INDENT_OUTPUT).build();
+        Path dir = Path.of(config.reportDir());
+        Files.createDirectories(dir);
+        Path file = dir.resolve("load-" + config.gitCommit() + "-" + FILE_TIMESTAMP.format(now) + ".json");
+        String json = mapper.writeValueAsString(report);
+        Files.writeString(file, json);
+        Files.writeString(dir.resolve("latest.json"), json);
+        return file;
+    }
+}
@@ -0,0 +1,66 @@
+package com.csi43C9.baylor.farmers_market.load;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Load test settings, read from {@code load.*} system properties. The Gradle {@code loadTest}
+ * task forwards {@code -Pload.*} project properties, e.g.
+ * {@code ./gradlew loadTest -Pload.rate=500 -Pload.mix=list_vendors=80,get_vendor=20}.
+ *
+ * @param ratePerSecond   request arrivals per second, independent of response times.
+ * @param warmupSeconds   seconds of load before measuring starts.
+ * @param durationSeconds seconds of measured load.
+ * @param mix             relative weight of each operation.
+ * @param seed            seed for the dataset and the operation sequence.
+ * @param vendors         vendors loaded before the run.
+ * @param pageSize        page size of {@link Operation#LIST_VENDORS}.
+ * @param maxOutstanding  requests in flight above which new arrivals are counted as dropped.
+ * @param reportDir       directory the JSON report is written to.
+ * @param gitCommit       commit the report is tagged with.
+ */
+public record LoadTestConfig(int ratePerSecond, int warmupSeconds, int durationSeconds, Map<Operation, Integer> mix,
+                             long seed, int vendors, int pageSize, int maxOutstanding, String reportDir,
+                             String gitCommit) {
+
+    private static final String DEFAULT_MIX = "login=2,list_vendors=40,get_vendor=40,create_vendor=8,patch_vendor=10";
+
+    /**
+     * @return the settings given as system properties, with defaults for the rest.
+     */
+    public static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Integer.getInteger("load.rate", 200),
+                Integer.getInteger("load.warmupSeconds", 5),
+                Integer.getInteger("load.durationSeconds", 20),
+                parseMix(System.getProperty("load.mix", DEFAULT_MIX)),
+                Long.getLong("load.seed", 42L),
+                Integer.getInteger("load.vendors", 1_000),
+                Integer.getInteger("load.pageSize", 20),
+                Integer.getInteger("load.maxOutstanding", 2_000),
+                System.getProperty("load.reportDir", "build/reports/load"),
+                System.getProperty("load.gitCommit", "unknown"));
+    }
+
+    /**
+     * Parses {@code operation=weight} pairs, e.g. {@code list_vendors=80,get_vendor=20}.
+     */
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] pair = entry.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected operation=weight but got: " + entry);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.valueOf(pair[0].trim().toUpperCase(Locale.ROOT)), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("The load mix has no operation with a positive weight");
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,17 @@
+package com.csi43C9.baylor.farmers_market.load;
+
+/**
+ * The requests the load driver can issue.
+ */
+public enum Operation {
+    /** {@code POST /api/auth/login}. */
+    LOGIN,
+    /** {@code GET /api/vendor?page=&size=}. */
+    LIST_VENDORS,
+    /** {@code GET /api/vendor/{uuid}}. */
+    GET_VENDOR,
+    /** {@code POST /api/vendor}. */
+    CREATE_VENDOR,
+    /** {@code PATCH /api/vendor/{uuid}}. */
+    PATCH_VENDOR
+}
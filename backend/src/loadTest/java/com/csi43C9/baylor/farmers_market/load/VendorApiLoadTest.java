@@ -0,0 +1,88 @@
+package com.csi43C9.baylor.farmers_market.load;
+
+import com.csi43C9.baylor.farmers_market.entity.Vendor;
+import com.csi43C9.baylor.farmers_market.repository.metadata.EntityMetadata;
+import com.csi43C9.baylor.farmers_market.repository.metadata.EntityStatement;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the auth and vendor endpoints of a running application with open-loop load.
+ *
+ * <p>The application runs on the same in-memory H2 database as the other tests, seeded with
+ * {@code load.vendors} deterministic vendors. Rate limiting is disabled so the run measures the
+ * endpoints rather than the limiter. Run with {@code ./gradlew loadTest}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "farmers.market.rate-limit.enabled=false")
+class VendorApiLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(VendorApiLoadTest.class);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Seeds the vendors, warms up, runs the measured phase and writes the report. Fails if more
+     * than 1% of the measured requests did not succeed.
+     */
+    @Test
+    void vendorAndAuthEndpointsUnderLoad() throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        List<UUID> vendorIds = seedVendors(config);
+
+        LoadDriver driver = new LoadDriver(URI.create("http://localhost:" + port), config, vendorIds);
+        driver.login();
+        driver.run(config.warmupSeconds());
+        Map<Operation, LatencyRecorder> results = driver.run(config.durationSeconds());
+
+        Path report = LoadReport.write(config, results);
+        logger.info("Load test report written to {}", report);
+
+        long requests = results.values().stream().mapToLong(LatencyRecorder::requests).sum();
+        long errors = results.values().stream().mapToLong(LatencyRecorder::errors).sum();
+        assertThat(requests).isPositive();
+        assertThat(errors).isLessThanOrEqualTo(requests / 100);
+    }
+
+    /**
+     * Replaces the vendors table with {@code config.vendors()} vendors generated from the seed.
+     */
+    private List<UUID> seedVendors(LoadTestConfig config) {
+        jdbcTemplate.execute("TRUNCATE TABLE vendors");
+        Random random = new Random(config.seed());
+        List<Vendor> vendors = new ArrayList<>(config.vendors());
+        for (int i = 0; i < config.vendors(); i++) {
+            vendors.add(Vendor.builder()
+                    .id(new UUID(random.nextLong(), random.nextLong()))
+                    .vendorName(String.format("Vendor %06d", i))
+                    .email("vendor" + i + "@example.com")
+                    .miles(random.nextInt(200))
+                    .isActive(true)
+                    .isFarmer(random.nextBoolean())
+                    .isProduce(random.nextBoolean())
+                    .build());
+        }
+        EntityStatement<Vendor> insert = EntityMetadata.of(Vendor.class).insert();
+        jdbcTemplate.batchUpdate(insert.sql(), insert.batchParams(vendors));
+        return vendors.stream().map(Vendor::getId).toList();
+    }
+}
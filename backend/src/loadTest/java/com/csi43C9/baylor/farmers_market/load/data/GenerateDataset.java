@@ -0,0 +1,54 @@
+package com.csi43C9.baylor.farmers_market.load.data;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+/**
+ * Command-line entry point that loads a synthetic dataset into an H2 file or a local MariaDB.
+ * Run with {@code ./gradlew generateData}; settings are {@code data.*} system properties, which
+ * the task forwards from {@code -Pdata.*} project properties:
+ * <ul>
+ *   <li>{@code data.url}, {@code data.username}, {@code data.password}: the target database,
+ *       an H2 file under {@code build/data} by default;</li>
+ *   <li>{@code data.vendors} (1,000,000), {@code data.seasons} (2), {@code data.firstSeason} (2023),
+ *       {@code data.seed} (42), {@code data.batchSize};</li>
+ *   <li>{@code data.createSchema}: drop and recreate the tables from the test {@code schema.sql}
+ *       first, on by default for H2 only.</li>
+ * </ul>
+ * The tables must be empty unless the schema is recreated.
+ */
+public final class GenerateDataset {
+
+    private static final Logger logger = LoggerFactory.getLogger(GenerateDataset.class);
+
+    private GenerateDataset() {
+    }
+
+    public static void main(String[] args) {
+        String url = System.getProperty("data.url", "jdbc:h2:file:./build/data/farmers-market;MODE=MySQL");
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url,
+                System.getProperty("data.username", "sa"), System.getProperty("data.password", ""));
+
+        boolean createSchema = Boolean.parseBoolean(
+                System.getProperty("data.createSchema", String.valueOf(url.startsWith("jdbc:h2:"))));
+        if (createSchema) {
+            new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        }
+
+        long vendors = Long.getLong("data.vendors", 1_000_000L);
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(new JdbcTemplate(dataSource),
+                Long.getLong("data.seed", 42L),
+                Integer.getInteger("data.firstSeason", 2023),
+                Integer.getInteger("data.seasons", 2),
+                Integer.getInteger("data.batchSize", SyntheticDataGenerator.DEFAULT_BATCH_SIZE));
+
+        long started = System.nanoTime();
+        SyntheticDataGenerator.DatasetSize size = generator.generate(0, vendors);
+        logger.info("Loaded {} vendors and {} transactions into {} in {} s", size.vendors(), size.transactions(),
+                url, (System.nanoTime() - started) / 1_000_000_000);
+    }
+}
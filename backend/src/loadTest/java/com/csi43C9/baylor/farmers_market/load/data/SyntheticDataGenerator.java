@@ -0,0 +1,249 @@
+package com.csi43C9.baylor.farmers_market.load.data;
+
+import com.csi43C9.baylor.farmers_market.entity.Vendor;
+import com.csi43C9.baylor.farmers_market.entity.VendorTransaction;
+import com.csi43C9.baylor.farmers_market.repository.metadata.EntityMetadata;
+import com.csi43C9.baylor.farmers_market.repository.metadata.EntityStatement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Deterministic generator of vendors and their market-day transactions.
+ *
+ * <p>Every vendor is derived from the seed and its index alone, so the first {@code n} vendors
+ * and their transactions are the same however the dataset is loaded: in one run, in steps of
+ * growing size, or on another machine. Vendor {@code i} attends the Saturday markets of
+ * {@code seasons} seasons (April to October) at its own attendance rate; with the default two
+ * seasons that is about ten transactions per vendor, so one million vendors come with roughly
+ * ten million transactions.
+ *
+ * <p>Rows are written with JDBC batch inserts, one transaction per {@code batchSize} vendors.
+ * Against MariaDB or MySQL, add {@code rewriteBatchedStatements=true} to the JDBC URL.
+ */
+public class SyntheticDataGenerator {
+
+    public static final int DEFAULT_BATCH_SIZE = 2_000;
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+    private static final long SEED_MIX = 0x9E3779B97F4A7C15L;
+
+    private static final String[] NAME_PREFIXES = {"Sunny", "Blue", "Red", "Green", "Golden", "Old", "Little",
+            "Wild", "Brazos", "Prairie", "Cedar", "Pecan", "Oak", "Willow", "River", "Hill Country"};
+    private static final String[] NAME_NOUNS = {"Acres", "Creek", "Hollow", "Meadow", "Ridge", "Valley", "Roots",
+            "Barn", "Orchard", "Field", "Springs", "Grove"};
+    private static final String[] NAME_KINDS = {"Farm", "Farms", "Ranch", "Gardens", "Bakery", "Creamery",
+            "Apiary", "Kitchen", "Market Garden", "Homestead"};
+    private static final String[] FIRST_NAMES = {"Maria", "James", "Linda", "Robert", "Ana", "David", "Grace",
+            "Luis", "Emily", "Michael", "Keisha", "Thanh", "Sarah", "Jose", "Hannah", "Daniel"};
+    private static final String[] LAST_NAMES = {"Garcia", "Smith", "Johnson", "Nguyen", "Williams", "Martinez",
+            "Brown", "Lopez", "Davis", "Jackson", "Miller", "Hernandez", "Wilson", "Anderson"};
+    private static final String[] LOCATIONS = {"Waco, TX", "Hewitt, TX", "Woodway, TX", "McGregor, TX",
+            "Robinson, TX", "China Spring, TX", "West, TX", "Hillsboro, TX", "Temple, TX", "Marlin, TX",
+            "Gatesville, TX", "Mexia, TX"};
+    private static final String[] PRODUCTS = {"Vegetables", "Fruit", "Eggs", "Honey", "Beef", "Pork", "Poultry",
+            "Dairy", "Bread", "Baked Goods", "Herbs", "Flowers", "Jams", "Microgreens", "Plants", "Coffee"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long seed;
+    private final List<LocalDate> marketDays;
+    private final int batchSize;
+
+    /**
+     * @param jdbcTemplate template bound to the target database.
+     * @param seed         seed the whole dataset is derived from.
+     * @param firstSeason  year of the first market season.
+     * @param seasons      number of consecutive seasons transactions are spread over.
+     * @param batchSize    vendors written per database transaction.
+     */
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate, long seed, int firstSeason, int seasons, int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(
+                new DataSourceTransactionManager(Objects.requireNonNull(jdbcTemplate.getDataSource())));
+        this.seed = seed;
+        this.marketDays = marketDays(firstSeason, seasons);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @return every Saturday from April through October of {@code seasons} years starting at {@code firstSeason}.
+     */
+    public static List<LocalDate> marketDays(int firstSeason, int seasons) {
+        List<LocalDate> days = new ArrayList<>();
+        for (int year = firstSeason; year < firstSeason + seasons; year++) {
+            LocalDate day = LocalDate.of(year, 4, 1).with(TemporalAdjusters.nextOrSame(DayOfWeek.SATURDAY));
+            LocalDate end = LocalDate.of(year, 10, 31);
+            while (!day.isAfter(end)) {
+                days.add(day);
+                day = day.plusWeeks(1);
+            }
+        }
+        return days;
+    }
+
+    public List<LocalDate> marketDays() {
+        return marketDays;
+    }
+
+    /**
+     * Inserts vendors {@code from} (inclusive) to {@code to} (exclusive) and their transactions.
+     *
+     * @return the number of rows written.
+     */
+    public DatasetSize generate(long from, long to) {
+        EntityStatement<Vendor> vendorInsert = EntityMetadata.of(Vendor.class).insert();
+        EntityStatement<VendorTransaction> transactionInsert = EntityMetadata.of(VendorTransaction.class).insert();
+        long transactions = 0;
+        long logged = from;
+
+        for (long start = from; start < to; start += batchSize) {
+            long end = Math.min(to, start + batchSize);
+            List<Vendor> vendors = new ArrayList<>((int) (end - start));
+            List<VendorTransaction> vendorTransactions = new ArrayList<>();
+            for (long index = start; index < end; index++) {
+                SplittableRandom random = randomFor(index);
+                Vendor vendor = vendor(index, random);
+                vendors.add(vendor);
+                addTransactions(vendor, random, vendorTransactions);
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(vendorInsert.sql(), vendorInsert.batchParams(vendors));
+                jdbcTemplate.batchUpdate(transactionInsert.sql(), transactionInsert.batchParams(vendorTransactions));
+            });
+            transactions += vendorTransactions.size();
+
+            if (end - logged >= 100_000 || end == to) {
+                logger.info("Generated vendors up to {} ({} transactions in this run)", end, transactions);
+                logged = end;
+            }
+        }
+        return new DatasetSize(to - from, transactions);
+    }
+
+    /**
+     * @return the id of vendor {@code index}, without generating the rest of the vendor.
+     */
+    public UUID vendorId(long index) {
+        SplittableRandom random = randomFor(index);
+        return new UUID(random.nextLong(), random.nextLong());
+    }
+
+    /**
+     * @return vendor {@code index}, as {@link #generate(long, long)} inserts it.
+     */
+    public Vendor vendor(long index) {
+        return vendor(index, randomFor(index));
+    }
+
+    private SplittableRandom randomFor(long index) {
+        return new SplittableRandom(seed * SEED_MIX + index);
+    }
+
+    private Vendor vendor(long index, SplittableRandom random) {
+        UUID id = new UUID(random.nextLong(), random.nextLong());
+        String name = "%s %s %s #%d".formatted(pick(random, NAME_PREFIXES), pick(random, NAME_NOUNS),
+                pick(random, NAME_KINDS), index);
+        String first = pick(random, FIRST_NAMES);
+        String last = pick(random, LAST_NAMES);
+        boolean farmer = random.nextDouble() < 0.6;
+
+        return Vendor.builder()
+                .id(id)
+                .vendorName(name)
+                .pointPerson(first + " " + last)
+                .email("%s.%s%d@example.com".formatted(first, last, index).toLowerCase(Locale.ROOT))
+                .location(pick(random, LOCATIONS))
+                // Most vendors are local; a long tail drives in from far away
+                .miles((int) Math.min(300, -25 * Math.log(1 - random.nextDouble())))
+                .products(products(random))
+                .isActive(random.nextDouble() < 0.9)
+                .isFarmer(farmer)
+                .isProduce(farmer && random.nextDouble() < 0.8)
+                .womanOwned(random.nextDouble() < 0.35)
+                .bipocOwned(random.nextDouble() < 0.25)
+                .veteranOwned(random.nextDouble() < 0.08)
+                .build();
+    }
+
+    private static String products(SplittableRandom random) {
+        int count = 1 + random.nextInt(3);
+        List<String> products = new ArrayList<>(count);
+        while (products.size() < count) {
+            String product = pick(random, PRODUCTS);
+            if (!products.contains(product)) {
+                products.add(product);
+            }
+        }
+        return String.join(", ", products);
+    }
+
+    /**
+     * Regulars come to about half the markets, everyone else to one in twelve. A few registered
+     * days are recorded as absences with no figures.
+     */
+    private void addTransactions(Vendor vendor, SplittableRandom random, List<VendorTransaction> out) {
+        double attendance = random.nextDouble() < 0.2 ? 0.5 : 0.08;
+        double typicalSales = Math.exp(Math.log(400) + 0.6 * random.nextGaussian());
+        double averageTicket = 12 + random.nextDouble() * 13;
+
+        for (LocalDate day : marketDays) {
+            double roll = random.nextDouble();
+            if (roll >= attendance) {
+                continue;
+            }
+            VendorTransaction.VendorTransactionBuilder transaction = VendorTransaction.builder()
+                    .id(new UUID(random.nextLong(), random.nextLong()))
+                    .vendorId(vendor.getId())
+                    .vendorName(vendor.getVendorName())
+                    .marketDate(day);
+            if (roll < attendance * 0.05) {
+                out.add(transaction.present(false).build());
+                continue;
+            }
+
+            double sales = round(typicalSales * Math.exp(0.3 * random.nextGaussian()));
+            double snap = vendor.isProduce() ? round(sales * 0.08 * random.nextDouble()) : 0;
+            double dufb = round(snap * random.nextDouble());
+            double wdfmTokens = vendor.isProduce() ? round(sales * 0.03 * random.nextDouble()) : 0;
+            double voucher = random.nextDouble() < 0.3 ? 5 * (1 + random.nextInt(4)) : 0;
+            out.add(transaction
+                    .present(true)
+                    .snap(snap)
+                    .dufb(dufb)
+                    .wdfmTokens(wdfmTokens)
+                    .voucher(voucher)
+                    .reimbursementDue(round(snap + dufb + wdfmTokens + voucher))
+                    .reportedSales(sales)
+                    .estProduceSales(vendor.isProduce() ? round(sales * 0.7) : 0)
+                    .estNumTransactions(Math.max(1, Math.round(sales / averageTicket)))
+                    .build());
+        }
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static double round(double amount) {
+        return Math.round(amount * 100) / 100.0;
+    }
+
+    /**
+     * Number of rows written by one {@link #generate(long, long)} call.
+     */
+    public record DatasetSize(long vendors, long transactions) {
+    }
+}
@@ -0,0 +1,38 @@
+package com.csi43C9.baylor.farmers_market.load.encoding;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Encoding benchmark settings, read from {@code encoding.*} system properties. The Gradle
+ * {@code encodingBenchmark} task forwards {@code -Pencoding.*} project properties, e.g.
+ * {@code ./gradlew encodingBenchmark -Pencoding.pageSizes=10,100,1000,10000}.
+ *
+ * @param pageSizes        vendors per page measured.
+ * @param seed             seed of the generated vendors.
+ * @param warmupIterations unmeasured encodes and decodes of each page.
+ * @param iterations       measured encodes and decodes of each page.
+ * @param reportDir        directory the JSON report is written to.
+ * @param gitCommit        commit the report is tagged with.
+ */
+public record EncodingBenchmarkConfig(List<Integer> pageSizes, long seed, int warmupIterations, int iterations,
+                                      String reportDir, String gitCommit) {
+
+    /**
+     * @return the settings given as system properties, with defaults for the rest.
+     */
+    public static EncodingBenchmarkConfig fromSystemProperties() {
+        List<Integer> pageSizes = Arrays.stream(System.getProperty("encoding.pageSizes", "10,100,1000").split(","))
+                .map(String::trim)
+                .map(Integer::valueOf)
+                .sorted()
+                .toList();
+        return new EncodingBenchmarkConfig(
+                pageSizes,
+                Long.getLong("encoding.seed", 42L),
+                Integer.getInteger("encoding.warmupIterations", 200),
+                Integer.getInteger("encoding.iterations", 501),
+                System.getProperty("encoding.reportDir", "build/reports/encoding"),
+                System.getProperty("encoding.gitCommit", "unknown"));
+    }
+}
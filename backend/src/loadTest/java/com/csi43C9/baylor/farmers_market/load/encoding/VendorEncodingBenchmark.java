@@ -0,0 +1,187 @@
+package com.csi43C9.baylor.farmers_market.load.encoding;
+
+import com.csi43C9.baylor.farmers_market.controller.codec.VendorColumnarCodec;
+import com.csi43C9.baylor.farmers_market.dto.PagedResponse;
+import com.csi43C9.baylor.farmers_market.entity.Vendor;
+import com.csi43C9.baylor.farmers_market.load.data.SyntheticDataGenerator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the columnar vendor page encoding with JSON: body size, raw and gzipped, and the
+ * median time to encode and decode a page, for each configured page size.
+ *
+ * <p>Pages hold synthetic vendors from {@link SyntheticDataGenerator}, so names, locations and
+ * flags are distributed like a real market. Run with {@code ./gradlew encodingBenchmark}; the JSON
+ * report in {@code build/reports/encoding} lists every measurement. Fails if a columnar page
+ * does not decode to the page encoded, or is not smaller than its JSON.
+ */
+@Tag("encoding")
+class VendorEncodingBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(VendorEncodingBenchmark.class);
+    private static final DateTimeFormatter FILE_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    private final EncodingBenchmarkConfig config = EncodingBenchmarkConfig.fromSystemProperties();
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    /**
+     * Measures each page size, writes the report and asserts that the columnar encoding round-trips
+     * and is smaller than JSON.
+     */
+    @Test
+    void columnarPagesAreSmallerThanJson() throws IOException {
+        // vendor(index) only derives values from the seed; the template is never used
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(new JdbcTemplate(new DriverManagerDataSource()),
+                config.seed(), 2023, 1, SyntheticDataGenerator.DEFAULT_BATCH_SIZE);
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (int pageSize : config.pageSizes()) {
+            List<Vendor> vendors = new ArrayList<>(pageSize);
+            for (int i = 0; i < pageSize; i++) {
+                vendors.add(generator.vendor(i));
+            }
+            PagedResponse<Vendor> page = new PagedResponse<>(vendors, 0, pageSize, pageSize * 50L, 50);
+
+            byte[] json = jsonMapper.writeValueAsBytes(page);
+            byte[] columnar = columnar(page);
+            assertThat(VendorColumnarCodec.decode(new ByteArrayInputStream(columnar)))
+                    .as("columnar page of %d vendors after a round trip", pageSize)
+                    .isEqualTo(page);
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("pageSize", pageSize);
+            result.put("json", measure(json, () -> jsonMapper.writeValueAsBytes(page),
+                    () -> jsonMapper.readValue(json, JsonPage.class)));
+            result.put("columnar", measure(columnar, () -> columnar(page),
+                    () -> decode(columnar)));
+            result.put("sizeRatio", Math.round(100.0 * columnar.length / json.length) / 100.0);
+            result.put("gzipSizeRatio", Math.round(100.0 * gzip(columnar) / gzip(json)) / 100.0);
+            results.add(result);
+            logger.info("{} vendors per page: {}", pageSize, result);
+        }
+
+        Path report = writeReport(results);
+        logger.info("Encoding report written to {}", report);
+
+        assertThat(results).allSatisfy(result -> assertThat((double) result.get("sizeRatio"))
+                .as("columnar to JSON size ratio at %s vendors per page", result.get("pageSize"))
+                .isLessThan(1.0));
+    }
+
+    private Map<String, Object> measure(byte[] body, Supplier<?> encode, Supplier<?> decode) {
+        Map<String, Object> measurement = new LinkedHashMap<>();
+        measurement.put("bytes", body.length);
+        measurement.put("gzipBytes", gzip(body));
+        measurement.put("encodeMedianMicros", medianMicros(encode));
+        measurement.put("decodeMedianMicros", medianMicros(decode));
+        return measurement;
+    }
+
+    private double medianMicros(Supplier<?> operation) {
+        for (int i = 0; i < config.warmupIterations(); i++) {
+            operation.get();
+        }
+        long[] samples = new long[config.iterations()];
+        for (int i = 0; i < samples.length; i++) {
+            long started = System.nanoTime();
+            operation.get();
+            samples[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(samples);
+        return Math.round(samples[samples.length / 2] / 1e2) / 10.0;
+    }
+
+    private static byte[] columnar(PagedResponse<Vendor> page) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            VendorColumnarCodec.encode(page, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static PagedResponse<Vendor> decode(byte[] columnar) {
+        try {
+            return VendorColumnarCodec.decode(new ByteArrayInputStream(columnar));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return the size of the body gzipped, as most clients would receive it with compression on.
+     */
+    private static int gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.size();
+    }
+
+    private Path writeReport(List<Map<String, Object>> results) throws IOException {
+        Instant now = Instant.now();
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("gitCommit", config.gitCommit());
+        report.put("timestamp", now.toString());
+        report.put("seed", config.seed());
+        report.put("iterations", config.iterations());
+        report.put("pages", results);
+
+        Path dir = Path.of(config.reportDir());
+        Files.createDirectories(dir);
+        Path file = dir.resolve("encoding-" + config.gitCommit() + "-" + FILE_TIMESTAMP.format(now) + ".json");
+        String json = JsonMapper.builder().enable(SerializationFeature.INDENT_OUTPUT).build()
+                .writeValueAsString(report);
+        Files.writeString(file, json);
+        Files.writeString(dir.resolve("latest.json"), json);
+        return file;
+    }
+
+    /**
+     * Target for decoding JSON pages. {@link PagedResponse} has no constructor Jackson can use, and
+     * Jackson binds {@link Vendor}'s all-arguments constructor, whose flag parameters are named
+     * differently from the flag properties it writes.
+     */
+    record JsonPage(List<JsonVendor> data, int pageNumber, int pageSize, long totalElements, int totalPages) {
+    }
+
+    /**
+     * A vendor as written to JSON.
+     */
+    record JsonVendor(UUID id, String vendorName, String pointPerson, String email, String location, Integer miles,
+                      String products, boolean active, boolean farmer, boolean produce, boolean womanOwned,
+                      boolean bipocOwned, boolean veteranOwned) {
+    }
+}
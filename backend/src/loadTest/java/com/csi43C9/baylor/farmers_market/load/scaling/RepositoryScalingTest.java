@@ -0,0 +1,216 @@
+package com.csi43C9.baylor.farmers_market.load.scaling;
+
+import com.csi43C9.baylor.farmers_market.load.data.SyntheticDataGenerator;
+import com.csi43C9.baylor.farmers_market.repository.VendorRepository;
+import com.csi43C9.baylor.farmers_market.repository.VendorTransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures each repository operation on synthetic datasets of growing size and fails if an
+ * operation's latency grows faster than {@code size^maxExponent}.
+ *
+ * <p>The dataset is loaded incrementally: the vendors added for a larger size are the next ones
+ * from the same seeded generator, so each size is a superset of the previous one. For every size
+ * and operation the median of {@code iterations} calls is kept, and the growth exponent is the
+ * least-squares slope of log(median) over log(size). Run with {@code ./gradlew scalingTest};
+ * the JSON report in {@code build/reports/scaling} lists every median and exponent.
+ */
+@Tag("scaling")
+class RepositoryScalingTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(RepositoryScalingTest.class);
+    private static final DateTimeFormatter FILE_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+    private static final int PAGE_SIZE = 20;
+    private static final int LOOKUP_SIZE = 100;
+
+    private ScalingConfig config;
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        config = ScalingConfig.fromSystemProperties();
+        if (config.url().isBlank()) {
+            dataSource = new EmbeddedDatabaseBuilder()
+                    .generateUniqueName(true)
+                    .setType(EmbeddedDatabaseType.H2)
+                    .addScript("schema.sql")
+                    .build();
+            jdbcTemplate = new JdbcTemplate(dataSource);
+        } else {
+            dataSource = new SingleConnectionDataSource(config.url(), config.username(), config.password(), true);
+            jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.update("delete from vendor_transactions");
+            jdbcTemplate.update("delete from vendors");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (dataSource instanceof EmbeddedDatabase embedded) {
+            embedded.shutdown();
+        } else if (dataSource instanceof SingleConnectionDataSource single) {
+            single.destroy();
+        }
+    }
+
+    /**
+     * Loads each size in turn, measures every operation, writes the report and asserts that no
+     * operation's growth exponent exceeds {@code scale.maxExponent}.
+     */
+    @Test
+    void repositoryOperationsScaleAtMostLinearly() throws IOException {
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(jdbcTemplate, config.seed(), 2023,
+                config.seasons(), SyntheticDataGenerator.DEFAULT_BATCH_SIZE);
+        VendorRepository vendors = new VendorRepository(jdbcTemplate) { };
+        VendorTransactionRepository transactions = new VendorTransactionRepository(jdbcTemplate) { };
+        LocalDate marketDay = generator.marketDays().getFirst();
+
+        Map<String, double[]> medians = new LinkedHashMap<>();
+        List<Map<String, Object>> datasets = new ArrayList<>();
+        long loaded = 0;
+        long transactionCount = 0;
+
+        for (int s = 0; s < config.sizes().size(); s++) {
+            int size = config.sizes().get(s);
+            transactionCount += generator.generate(loaded, size).transactions();
+            loaded = size;
+            datasets.add(Map.of("vendors", size, "transactions", transactionCount));
+
+            int middlePage = (int) (vendors.count() / 2 / PAGE_SIZE);
+            Map<String, Consumer<SplittableRandom>> operations = new LinkedHashMap<>();
+            operations.put("vendor.findById", random -> vendors.findById(generator.vendorId(random.nextInt(size))));
+            operations.put("vendor.findAllById", random -> vendors.findAllById(randomIds(generator, random, size)));
+            operations.put("vendor.findAllPaged.first", random -> vendors.findAllPaged(0, PAGE_SIZE));
+            operations.put("vendor.findAllPaged.middle", random -> vendors.findAllPaged(middlePage, PAGE_SIZE));
+            operations.put("vendor.count", random -> vendors.count());
+            operations.put("transaction.findByVendorAndDate", random ->
+                    transactions.findByVendorAndDate(generator.vendorId(random.nextInt(size)), marketDay));
+            operations.put("transaction.findAllPaged.first", random -> transactions.findAllPaged(0, PAGE_SIZE));
+            operations.put("transaction.count", random -> transactions.count());
+
+            for (Map.Entry<String, Consumer<SplittableRandom>> operation : operations.entrySet()) {
+                if (s == 0) {
+                    // Discard a first pass so JIT compilation does not inflate the smallest size
+                    medianMillis(operation.getValue());
+                }
+                double median = medianMillis(operation.getValue());
+                medians.computeIfAbsent(operation.getKey(), key -> new double[config.sizes().size()])[s] = median;
+                logger.info("{} vendors, {} transactions: {} median {} ms", size, transactionCount,
+                        operation.getKey(), median);
+            }
+        }
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        List<String> superLinear = new ArrayList<>();
+        medians.forEach((operation, values) -> {
+            double exponent = growthExponent(config.sizes(), values);
+            results.put(operation, Map.of("medianMs", values, "exponent", exponent));
+            if (exponent > config.maxExponent()) {
+                superLinear.add("%s grows as size^%.2f: %s ms".formatted(operation, exponent, Arrays.toString(values)));
+            }
+        });
+        Path report = writeReport(datasets, results);
+        logger.info("Scaling report written to {}", report);
+
+        assertThat(superLinear).as("operations growing faster than size^%s", config.maxExponent()).isEmpty();
+    }
+
+    private static List<UUID> randomIds(SyntheticDataGenerator generator, SplittableRandom random, int size) {
+        List<UUID> ids = new ArrayList<>(LOOKUP_SIZE);
+        for (int i = 0; i < LOOKUP_SIZE; i++) {
+            ids.add(generator.vendorId(random.nextInt(size)));
+        }
+        return ids;
+    }
+
+    private double medianMillis(Consumer<SplittableRandom> operation) {
+        SplittableRandom random = new SplittableRandom(config.seed());
+        for (int i = 0; i < config.warmupIterations(); i++) {
+            operation.accept(random);
+        }
+        long[] samples = new long[config.iterations()];
+        for (int i = 0; i < samples.length; i++) {
+            long started = System.nanoTime();
+            operation.accept(random);
+            samples[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(samples);
+        return Math.round(samples[samples.length / 2] / 1e3) / 1e3;
+    }
+
+    /**
+     * Least-squares slope of log(latency) over log(size), with latencies raised to the noise floor.
+     */
+    private double growthExponent(List<Integer> sizes, double[] medianMs) {
+        double floorMs = config.noiseFloorMicros() / 1e3;
+        int n = sizes.size();
+        double sumX = 0;
+        double sumY = 0;
+        double sumXy = 0;
+        double sumXx = 0;
+        for (int i = 0; i < n; i++) {
+            double x = Math.log(sizes.get(i));
+            double y = Math.log(Math.max(medianMs[i], floorMs));
+            sumX += x;
+            sumY += y;
+            sumXy += x * y;
+            sumXx += x * x;
+        }
+        return Math.round((n * sumXy - sumX * sumY) / (n * sumXx - sumX * sumX) * 100) / 100.0;
+    }
+
+    private Path writeReport(List<Map<String, Object>> datasets, Map<String, Object> results) throws IOException {
+        Instant now = Instant.now();
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("gitCommit", config.gitCommit());
+        report.put("timestamp", now.toString());
+        report.put("database", config.url().isBlank() ? "h2:mem" : config.url());
+        report.put("seed", config.seed());
+        report.put("iterations", config.iterations());
+        report.put("maxExponent", config.maxExponent());
+        report.put("datasets", datasets);
+        report.put("operations", results);
+
+        Path dir = Path.of(config.reportDir());
+        Files.createDirectories(dir);
+        Path file = dir.resolve("scaling-" + config.gitCommit() + "-" + FILE_TIMESTAMP.format(now) + ".json");
+        String json = JsonMapper.builder().enable(SerializationFeature.INDENT_OUTPUT).build()
+                .writeValueAsString(report);
+        Files.writeString(file, json);
+        Files.writeString(dir.resolve("latest.json"), json);
+        return file;
+    }
+}
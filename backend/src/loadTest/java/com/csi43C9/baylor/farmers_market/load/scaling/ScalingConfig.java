@@ -0,0 +1,55 @@
+package com.csi43C9.baylor.farmers_market.load.scaling;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Scaling suite settings, read from {@code scale.*} system properties. The Gradle
+ * {@code scalingTest} task forwards {@code -Pscale.*} project properties, e.g.
+ * {@code ./gradlew scalingTest -Pscale.sizes=10000,100000,1000000}.
+ *
+ * @param sizes            vendor counts measured, ascending; transactions grow with them.
+ * @param seed             seed of the generated dataset.
+ * @param seasons          market seasons each vendor's transactions are spread over.
+ * @param warmupIterations unmeasured calls of each operation per size.
+ * @param iterations       measured calls of each operation per size.
+ * @param maxExponent      largest allowed exponent {@code k} in {@code latency ~ size^k}.
+ * @param noiseFloorMicros latencies below this are treated as this, so jitter in constant-time
+ *                         operations is not mistaken for growth.
+ * @param url              JDBC URL of a scratch MariaDB or H2 database; an in-memory H2 if blank.
+ * @param username         database user.
+ * @param password         database password.
+ * @param reportDir        directory the JSON report is written to.
+ * @param gitCommit        commit the report is tagged with.
+ */
+public record ScalingConfig(List<Integer> sizes, long seed, int seasons, int warmupIterations, int iterations,
+                            double maxExponent, long noiseFloorMicros, String url, String username,
+                            String password, String reportDir, String gitCommit) {
+
+    /**
+     * @return the settings given as system properties, with defaults for the rest.
+     */
+    public static ScalingConfig fromSystemProperties() {
+        List<Integer> sizes = Arrays.stream(System.getProperty("scale.sizes", "2000,8000,32000").split(","))
+                .map(String::trim)
+                .map(Integer::valueOf)
+                .sorted()
+                .toList();
+        if (sizes.size() < 2) {
+            throw new IllegalArgumentException("scale.sizes needs at least two sizes to measure growth");
+        }
+        return new ScalingConfig(
+                sizes,
+                Long.getLong("scale.seed", 42L),
+                Integer.getInteger("scale.seasons", 2),
+                Integer.getInteger("scale.warmupIterations", 20),
+                Integer.getInteger("scale.iterations", 31),
+                Double.parseDouble(System.getProperty("scale.maxExponent", "1.25")),
+                Long.getLong("scale.noiseFloorMicros", 200L),
+                System.getProperty("scale.url", ""),
+                System.getProperty("scale.username", "sa"),
+                System.getProperty("scale.password", ""),
+                System.getProperty("scale.reportDir", "build/reports/scaling"),
+                System.getProperty("scale.gitCommit", "unknown"));
+    }
+}
@@ -0,0 +1,37 @@
+package com.csi43C9.baylor.farmers_market.config;
+
+import com.csi43C9.baylor.farmers_market.repository.migration.SchemaMigrator;
+import com.csi43C9.baylor.farmers_market.service.VendorChangeRetention;
+import com.csi43C9.baylor.farmers_market.service.cache.VendorChangePoller;
+import com.csi43C9.baylor.farmers_market.service.writebehind.WriteBehindBuffer;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.web.SecurityFilterChain;
+
+import javax.sql.DataSource;
+
+/**
+ * Keeps critical beans eager when {@code spring.main.lazy-initialization} is enabled.
+ *
+ * <p>Lazy initialization shortens startup by deferring controllers, services and repositories
+ * until their first request. The data source, the security filter chain, the schema migrator, the
+ * write-behind buffer, the change log pruner and the change log poller are still created at
+ * startup: misconfiguring them should fail the deploy rather than the first request, migrations
+ * must finish before traffic arrives, the write-behind flusher has to be running before anything
+ * is queued, the change log has to be pruned even on an instance that serves no vendor requests,
+ * and cached vendors are only served once the poller has caught up.
+ */
+@Configuration(proxyBeanMethods = false)
+public class LazyInitializationConfig {
+
+    /**
+     * @return a filter excluding the critical bean types from lazy initialization.
+     */
+    @Bean
+    static LazyInitializationExcludeFilter eagerStartupBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                DataSource.class, SecurityFilterChain.class, SchemaMigrator.class, WriteBehindBuffer.class,
+                VendorChangeRetention.class, VendorChangePoller.class);
+    }
+}
@@ -2,10 +2,12 @@ package com.csi43C9.baylor.farmers_market.controller;
 
 import java.util.Objects;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -18,6 +20,7 @@ import org.springframework.web.bind.annotation.RestController;
 import com.csi43C9.baylor.farmers_market.dto.JwtResponse;
 import com.csi43C9.baylor.farmers_market.dto.LoginRequest;
 import com.csi43C9.baylor.farmers_market.security.jwt.JwtUtil;
+import com.csi43C9.baylor.farmers_market.tenant.Markets;
 
 import lombok.AllArgsConstructor;
 import lombok.NonNull;
@@ -36,19 +39,28 @@ public class AuthController {
 
     private final AuthenticationManager authenticationManager;
     private final JwtUtil jwtUtil;
+    private final Markets markets;
 
 
     /**
      * Authenticates a user based on the provided login request.
      * This method takes the user's login credentials, authenticates them using the {@link AuthenticationManager},
      * and if successful, sets the {@link Authentication} in the {@link SecurityContextHolder}.
-     * A JWT token is then generated for the authenticated user.
+     * A JWT token is then generated for the authenticated user, scoped to the requested market,
+     * or to the first configured market if none is requested. The user must be a member of that
+     * market, i.e. hold its {@link Markets#authority(String)} authority.
      *
-     * @param loginRequest DTO containing the username and password for authentication.
-     * @return a {@link ResponseEntity} containing the {@link JwtResponse} with the JWT token.
+     * @param loginRequest DTO containing the username, password and optional market for authentication.
+     * @return a {@link ResponseEntity} containing the {@link JwtResponse} with the JWT token,
+     * HTTP 400 Bad Request if this deployment does not serve the requested market, or HTTP 403
+     * Forbidden if the user is not a member of it.
      */
     @PostMapping("/login")
     public ResponseEntity<?> authenticateUser(@RequestBody LoginRequest loginRequest) {
+        String market = loginRequest.getMarket() != null ? loginRequest.getMarket() : markets.defaultMarket();
+        if (!markets.contains(market)) {
+            return ResponseEntity.badRequest().body("Unknown market: " + market);
+        }
 
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
@@ -58,7 +70,13 @@ public class AuthController {
         if (Objects.isNull(userDetails)) {
             return ResponseEntity.badRequest().body("Invalid username or password.");
         }
-        String jwt = jwtUtil.generateToken(userDetails);
+        String marketAuthority = Markets.authority(market);
+        if (userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .noneMatch(marketAuthority::equals)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Not a member of market: " + market);
+        }
+        String jwt = jwtUtil.generateToken(userDetails, market);
 
         return ResponseEntity.ok(new JwtResponse(jwt));
     }
@@ -0,0 +1,104 @@
+package com.csi43C9.baylor.farmers_market.controller;
+
+import com.csi43C9.baylor.farmers_market.dto.report.ReportJobResponse;
+import com.csi43C9.baylor.farmers_market.dto.report.ReportRequest;
+import com.csi43C9.baylor.farmers_market.service.report.ReportJob;
+import com.csi43C9.baylor.farmers_market.service.report.ReportJobStatus;
+import com.csi43C9.baylor.farmers_market.service.report.ReportJobs;
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * REST Controller for reports too large to compute within one request, such as season exports.
+ * A report is submitted, runs in the background, is polled until it succeeds and is then
+ * downloaded as CSV.
+ *
+ * <p>This controller is protected by JWT authentication as configured in
+ * the SecurityConfig class.</p>
+ */
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/report")
+@AllArgsConstructor
+public class ReportController {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+
+    private final ReportJobs reportJobs;
+
+    /**
+     * Submits a report. Submitting a report identical to one already queued, running or finished,
+     * over data that has not changed since, returns the earlier job instead.
+     * @param request the {@link ReportRequest} describing the report.
+     * @return a {@link ResponseEntity} containing the job with HTTP 202 Accepted and its location,
+     * or HTTP 503 Service Unavailable if too many reports are already waiting.
+     */
+    @PostMapping
+    public ResponseEntity<@NonNull ReportJobResponse> submitReport(@Valid @RequestBody ReportRequest request) {
+        return reportJobs.submit(request.getType(), request.getFrom(), request.getTo())
+                .map(submission -> ResponseEntity.accepted()
+                        .location(URI.create("/api/report/" + submission.job().getId()))
+                        .body(ReportJobResponse.of(submission.job(), submission.reused())))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "30")
+                        .build());
+    }
+
+    /**
+     * Retrieves the state of a report job.
+     * @param id the UUID of the job.
+     * @return a {@link ResponseEntity} containing the job, or HTTP 404 Not Found if there is none
+     * or its result expired.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<@NonNull ReportJobResponse> getReport(@PathVariable UUID id) {
+        return reportJobs.find(id)
+                .map(job -> ResponseEntity.ok(ReportJobResponse.of(job, false)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Downloads the result of a report job, streamed from the file it was written to.
+     * @param id the UUID of the job.
+     * @return a {@link ResponseEntity} containing the CSV, HTTP 409 Conflict if the job has not
+     * succeeded (yet), or HTTP 404 Not Found if there is no such job or its result expired.
+     */
+    @GetMapping("/{id}/result")
+    public ResponseEntity<@NonNull Resource> downloadReport(@PathVariable UUID id) {
+        Optional<ReportJob> job = reportJobs.find(id);
+        if (job.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (job.get().getStatus() != ReportJobStatus.SUCCEEDED) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        String filename = job.get().getType().name().toLowerCase(Locale.ROOT) + "-" + id + ".csv";
+        return reportJobs.result(job.get())
+                .<ResponseEntity<@NonNull Resource>>map(file -> ResponseEntity.ok()
+                        .contentType(TEXT_CSV)
+                        .header(HttpHeaders.CONTENT_DISPOSITION,
+                                ContentDisposition.attachment().filename(filename).build().toString())
+                        .body(new FileSystemResource(file)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
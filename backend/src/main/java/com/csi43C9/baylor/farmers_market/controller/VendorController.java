@@ -1,13 +1,19 @@
 package com.csi43C9.baylor.farmers_market.controller;
 
+import com.csi43C9.baylor.farmers_market.controller.codec.VendorColumnarCodec;
 import com.csi43C9.baylor.farmers_market.dto.PagedResponse;
+import com.csi43C9.baylor.farmers_market.dto.vendor.BulkVendorUpdateRequest;
+import com.csi43C9.baylor.farmers_market.dto.vendor.BulkVendorUpdateResponse;
 import com.csi43C9.baylor.farmers_market.dto.vendor.SaveVendorRequest;
+import com.csi43C9.baylor.farmers_market.dto.vendor.VendorChangesResponse;
+import com.csi43C9.baylor.farmers_market.dto.vendor.VendorLookupRequest;
 import com.csi43C9.baylor.farmers_market.entity.Vendor;
 import com.csi43C9.baylor.farmers_market.service.VendorService;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import lombok.NonNull;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -15,11 +21,13 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -34,6 +42,11 @@ import java.util.UUID;
 @AllArgsConstructor
 public class VendorController {
 
+    /**
+     * Most change log entries read by one {@code GET /changes} request.
+     */
+    private static final int MAX_CHANGES_LIMIT = 1000;
+
     private final VendorService vendorService;
 
     /**
@@ -50,11 +63,13 @@ public class VendorController {
 
     /**
      * Retrieves a paged list of all vendors in the system.
+     * Clients sending {@code Accept: application/vnd.farmers-market.vendor-columnar} get the page
+     * in the compact {@link VendorColumnarCodec} encoding instead of JSON.
      * @param page 0-based page number
      * @param size page size
      * @return a {@link ResponseEntity} containing a {@link PagedResponse} of {@link Vendor}s
      */
-    @GetMapping
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, VendorColumnarCodec.MEDIA_TYPE_VALUE})
     public ResponseEntity<@NonNull PagedResponse<Vendor>> getAllVendors(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
@@ -62,6 +77,32 @@ public class VendorController {
         return ResponseEntity.ok(vendorService.getVendors(page, size));
     }
 
+    /**
+     * Retrieves every active vendor in one response, e.g. to load a tablet before market opens.
+     * Like {@code GET /api/vendor}, answers in JSON unless the columnar encoding is asked for.
+     * @return a {@link ResponseEntity} containing all active {@link Vendor}s
+     */
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_JSON_VALUE, VendorColumnarCodec.MEDIA_TYPE_VALUE})
+    public ResponseEntity<@NonNull List<Vendor>> exportVendors() {
+        return ResponseEntity.ok(vendorService.export());
+    }
+
+    /**
+     * Retrieves the vendors created, updated or deleted since a client's last sync.
+     * @param since the {@code nextSince} of the previous response; 0 for a first sync
+     * @param limit the most change log entries to read, capped at 1000
+     * @return a {@link ResponseEntity} containing a {@link VendorChangesResponse}; if its
+     * {@code fullResync} is set, the client should reload the vendor list and sync from {@code nextSince}.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<@NonNull VendorChangesResponse> getVendorChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "500") int limit) {
+
+        int boundedLimit = Math.clamp(limit, 1, MAX_CHANGES_LIMIT);
+        return ResponseEntity.ok(vendorService.getChanges(since, boundedLimit));
+    }
+
     /**
      * Retrieves a vendor by its UUID.
      * @param uuid the UUID of the vendor to retrieve.
@@ -74,15 +115,57 @@ public class VendorController {
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    /**
+     * Retrieves many vendors by UUID in one request, instead of one {@code GET /{uuid}} per vendor.
+     * @param request the {@link VendorLookupRequest} containing the UUIDs to resolve.
+     * @return a {@link ResponseEntity} containing the {@link Vendor}s found, in request order;
+     * unknown UUIDs are omitted.
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<@NonNull List<Vendor>> lookupVendors(@Valid @RequestBody VendorLookupRequest request) {
+        return ResponseEntity.ok(vendorService.getAll(request.getIds()));
+    }
+
     /**
      * Updates an existing vendor in the system.
      * @param uuid the UUID of the vendor to update.
      * @param request the {@link SaveVendorRequest} containing updated vendor details.
-     * @return a {@link ResponseEntity} containing the updated {@link Vendor}
+     * @return a {@link ResponseEntity} containing the updated {@link Vendor}, or HTTP 404 Not Found if
+     * there is no vendor with that UUID.
      */
     @PatchMapping("/{uuid}")
     public ResponseEntity<@NonNull Vendor> updateVendor(@PathVariable UUID uuid, @Valid @RequestBody SaveVendorRequest request) {
-        return new ResponseEntity<>(vendorService.update(uuid, request), HttpStatus.OK);
+        return vendorService.update(uuid, request)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Updates the vendor with a name, or creates it if no vendor has that name. Names are matched
+     * ignoring case and spacing, so retrying a create or importing a vendor list twice does not
+     * fail on duplicates.
+     * @param name the name of the vendor to update or create.
+     * @param request the {@link SaveVendorRequest} containing the vendor's details; its name is the one stored.
+     * @return a {@link ResponseEntity} containing the saved {@link Vendor}, with HTTP 201 Created if
+     * it was created or HTTP 200 OK if it was updated.
+     */
+    @PutMapping("/by-name/{name}")
+    public ResponseEntity<@NonNull Vendor> upsertVendorByName(@PathVariable String name,
+                                                               @Valid @RequestBody SaveVendorRequest request) {
+        VendorService.UpsertResult result = vendorService.upsertByName(name, request);
+        return new ResponseEntity<>(result.vendor(), result.created() ? HttpStatus.CREATED : HttpStatus.OK);
+    }
+
+    /**
+     * Sets flags on many vendors in one request, e.g. {@code {"flags": {"ACTIVE": false}}} to deactivate
+     * them, instead of one {@code DELETE /{uuid}} per vendor.
+     * @param request the {@link BulkVendorUpdateRequest} selecting vendors by id or by filter.
+     * @return a {@link ResponseEntity} containing a {@link BulkVendorUpdateResponse} with the affected counts.
+     */
+    @PatchMapping("/bulk")
+    public ResponseEntity<@NonNull BulkVendorUpdateResponse> bulkUpdateVendors(
+            @Valid @RequestBody BulkVendorUpdateRequest request) {
+        return ResponseEntity.ok(vendorService.bulkUpdate(request));
     }
 
     /**
@@ -0,0 +1,150 @@
+package com.csi43C9.baylor.farmers_market.controller;
+
+import com.csi43C9.baylor.farmers_market.dto.transaction.SaveTransactionRequest;
+import com.csi43C9.baylor.farmers_market.dto.transaction.TransactionAnalyticsResponse;
+import com.csi43C9.baylor.farmers_market.entity.VendorTransaction;
+import com.csi43C9.baylor.farmers_market.service.VendorTransactionService;
+import com.csi43C9.baylor.farmers_market.service.analytics.TransactionColumnStore;
+import com.csi43C9.baylor.farmers_market.service.analytics.TransactionGrouping;
+import com.csi43C9.baylor.farmers_market.service.analytics.TransactionMeasure;
+import com.csi43C9.baylor.farmers_market.service.analytics.TransactionQuery;
+import com.csi43C9.baylor.farmers_market.service.live.LiveTotalsBroadcaster;
+import com.csi43C9.baylor.farmers_market.service.reimbursement.ReimbursementEngine;
+import com.csi43C9.baylor.farmers_market.service.reimbursement.ReimbursementReport;
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * REST Controller for recording vendor attendance and sales figures per market day.
+ *
+ * <p>This controller is protected by JWT authentication as configured in
+ * the SecurityConfig class.</p>
+ */
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/transaction")
+@AllArgsConstructor
+public class VendorTransactionController {
+
+    private final VendorTransactionService transactionService;
+    private final LiveTotalsBroadcaster liveTotalsBroadcaster;
+    private final TransactionColumnStore transactionColumnStore;
+    private final ReimbursementEngine reimbursementEngine;
+
+    /**
+     * Records a vendor's figures for a market day.
+     *
+     * @param request the {@link SaveTransactionRequest} containing valid transaction details.
+     * @return a {@link ResponseEntity} containing the recorded {@link VendorTransaction}; HTTP 200 OK once
+     * written, HTTP 202 Accepted when the write was queued by write-behind mode, or HTTP 404 Not Found
+     * if the vendor does not exist in the caller's market.
+     */
+    @PostMapping
+    public ResponseEntity<@NonNull VendorTransaction> recordTransaction(@Valid @RequestBody SaveTransactionRequest request) {
+        HttpStatus status = transactionService.isWriteBehind() ? HttpStatus.ACCEPTED : HttpStatus.OK;
+        return transactionService.record(request)
+                .map(transaction -> new ResponseEntity<>(transaction, status))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Aggregates one figure over recorded transactions for dashboards, e.g. SNAP redeemed per month
+     * with {@code ?measure=SNAP&groupBy=MONTH}. Answered from memory by the transaction column store.
+     * @param measure the figure to sum, average and count.
+     * @param groupBy how transactions are grouped; one group if omitted.
+     * @param from first market day included, as an ISO date; unbounded if omitted.
+     * @param to last market day included, as an ISO date; unbounded if omitted.
+     * @param vendorId vendors included, repeatable; all vendors if omitted.
+     * @param presentOnly whether only transactions of vendors marked present are included.
+     * @return a {@link ResponseEntity} containing a {@link TransactionAnalyticsResponse}
+     */
+    @GetMapping("/analytics")
+    public ResponseEntity<@NonNull TransactionAnalyticsResponse> analyzeTransactions(
+            @RequestParam TransactionMeasure measure,
+            @RequestParam(defaultValue = "NONE") TransactionGrouping groupBy,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Set<UUID> vendorId,
+            @RequestParam(defaultValue = "false") boolean presentOnly) {
+
+        TransactionQuery query = TransactionQuery.builder()
+                .measure(measure)
+                .groupBy(groupBy)
+                .from(from)
+                .to(to)
+                .vendorIds(vendorId)
+                .presentOnly(presentOnly)
+                .build();
+        return ResponseEntity.ok(new TransactionAnalyticsResponse(measure, groupBy, from, to,
+                transactionColumnStore.query(query)));
+    }
+
+    /**
+     * Computes and stores the reimbursement due to every vendor for a market day from its benefit
+     * figures. Safe to repeat, e.g. after figures are corrected: unchanged reimbursements are not rewritten.
+     * @param marketDate the market day, as an ISO date.
+     * @return a {@link ResponseEntity} containing the run's {@link ReimbursementReport}, or HTTP 409
+     * Conflict if the day is already being computed.
+     */
+    @PostMapping("/reimbursements/{marketDate}")
+    public ResponseEntity<@NonNull ReimbursementReport> computeReimbursements(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate marketDate) {
+        return reimbursementEngine.run(marketDate)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+
+    /**
+     * Retrieves a vendor's figures for a market day.
+     * @param vendorId the UUID of the vendor.
+     * @param marketDate the market day, as an ISO date.
+     * @return a {@link ResponseEntity} containing the requested {@link VendorTransaction}
+     */
+    @GetMapping("/{vendorId}/{marketDate}")
+    public ResponseEntity<@NonNull VendorTransaction> getTransaction(
+            @PathVariable UUID vendorId,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate marketDate) {
+        return transactionService.get(vendorId, marketDate)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Streams today's market-wide totals as Server-Sent Events, instead of polling for them.
+     * Each {@code totals} event carries the full totals and is sent when they change; comment
+     * lines are sent as heartbeats while nothing changes.
+     * @return a {@link ResponseEntity} containing the event stream, or HTTP 503 Service Unavailable
+     * if the maximum number of streams is already open.
+     */
+    @GetMapping(path = "/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<@NonNull SseEmitter> streamLiveTotals() {
+        return liveTotalsBroadcaster.subscribe()
+                .map(emitter -> ResponseEntity.ok()
+                        .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                        // Keep nginx-style reverse proxies from buffering the stream
+                        .header("X-Accel-Buffering", "no")
+                        .body(emitter))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "5")
+                        .build());
+    }
+}
@@ -0,0 +1,401 @@
+package com.csi43C9.baylor.farmers_market.controller.codec;
+
+import com.csi43C9.baylor.farmers_market.dto.PagedResponse;
+import com.csi43C9.baylor.farmers_market.entity.Vendor;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Column-oriented binary encoding of a page of vendors, for clients on slow links.
+ *
+ * <p>JSON repeats every field name on every row and spells out each flag. Here the field names
+ * are written once per page, each field's values follow one another, the six flags share one
+ * byte per row, and a string field whose values repeat (e.g. {@code location}) is written as a
+ * dictionary of its distinct values plus one small index per row.
+ *
+ * <p>Layout; every integer is an unsigned LEB128 varint unless noted:
+ * <pre>
+ * "VCOL", version byte
+ * pageNumber, pageSize, totalElements, totalPages, rowCount
+ * columnCount, then per column: name, type byte; a FLAGS column adds its bit count and bit names
+ * then per column, in the same order, its rowCount values:
+ *   UUID        16 bytes, most significant half first
+ *   STRING      one string per row
+ *   DICTIONARY  entry count, the entries, then per row the entry's index + 1, or 0 for null
+ *   INT         per row the zigzag-encoded value + 1, or 0 for null
+ *   FLAGS       per row a bitmask, bit i set if the i-th named flag is
+ * </pre>
+ * Strings are their UTF-8 length + 1, or 0 for null, followed by the UTF-8 bytes. Field names
+ * match the JSON property names. Decoders skip columns and flag bits they do not know, so fields
+ * can be added without a new version.
+ */
+public final class VendorColumnarCodec {
+
+    public static final String MEDIA_TYPE_VALUE = "application/vnd.farmers-market.vendor-columnar";
+    public static final MediaType MEDIA_TYPE = MediaType.valueOf(MEDIA_TYPE_VALUE);
+
+    private static final byte[] MAGIC = "VCOL".getBytes(StandardCharsets.US_ASCII);
+    private static final int VERSION = 1;
+
+    private static final int TYPE_UUID = 1;
+    private static final int TYPE_STRING = 2;
+    private static final int TYPE_DICTIONARY = 3;
+    private static final int TYPE_INT = 4;
+    private static final int TYPE_FLAGS = 5;
+
+    private static final String ID_COLUMN = "id";
+    private static final String MILES_COLUMN = "miles";
+    private static final String FLAGS_COLUMN = "flags";
+
+    /**
+     * Upper bound on lengths and counts read, so a corrupt body cannot allocate unbounded memory.
+     */
+    private static final int MAX_LENGTH = 1 << 24;
+
+    private static final List<StringColumn> STRING_COLUMNS = List.of(
+            new StringColumn("vendorName", Vendor::getVendorName, Vendor::setVendorName),
+            new StringColumn("pointPerson", Vendor::getPointPerson, Vendor::setPointPerson),
+            new StringColumn("email", Vendor::getEmail, Vendor::setEmail),
+            new StringColumn("location", Vendor::getLocation, Vendor::setLocation),
+            new StringColumn("products", Vendor::getProducts, Vendor::setProducts));
+
+    private static final List<FlagBit> FLAG_BITS = List.of(
+            new FlagBit("active", Vendor::isActive, Vendor::setActive),
+            new FlagBit("farmer", Vendor::isFarmer, Vendor::setFarmer),
+            new FlagBit("produce", Vendor::isProduce, Vendor::setProduce),
+            new FlagBit("womanOwned", Vendor::isWomanOwned, Vendor::setWomanOwned),
+            new FlagBit("bipocOwned", Vendor::isBipocOwned, Vendor::setBipocOwned),
+            new FlagBit("veteranOwned", Vendor::isVeteranOwned, Vendor::setVeteranOwned));
+
+    private static final Map<String, StringColumn> STRING_COLUMNS_BY_NAME = byName(STRING_COLUMNS, StringColumn::name);
+    private static final Map<String, FlagBit> FLAG_BITS_BY_NAME = byName(FLAG_BITS, FlagBit::name);
+
+    private VendorColumnarCodec() {
+    }
+
+    /**
+     * Writes a page of vendors. Does not close the stream.
+     * @param page the page to write; its vendors must all have ids.
+     * @param target the stream to write to.
+     */
+    public static void encode(PagedResponse<Vendor> page, OutputStream target) throws IOException {
+        List<Vendor> rows = page.getData();
+        BufferedOutputStream out = new BufferedOutputStream(target);
+
+        out.write(MAGIC);
+        out.write(VERSION);
+        writeVarLong(out, page.getPageNumber());
+        writeVarLong(out, page.getPageSize());
+        writeVarLong(out, page.getTotalElements());
+        writeVarLong(out, page.getTotalPages());
+        writeVarLong(out, rows.size());
+
+        List<Map<String, Integer>> dictionaries = new ArrayList<>(STRING_COLUMNS.size());
+        for (StringColumn column : STRING_COLUMNS) {
+            dictionaries.add(dictionary(rows, column));
+        }
+
+        writeVarLong(out, STRING_COLUMNS.size() + 3);
+        writeString(out, ID_COLUMN);
+        out.write(TYPE_UUID);
+        for (int c = 0; c < STRING_COLUMNS.size(); c++) {
+            writeString(out, STRING_COLUMNS.get(c).name());
+            out.write(dictionaries.get(c) != null ? TYPE_DICTIONARY : TYPE_STRING);
+        }
+        writeString(out, MILES_COLUMN);
+        out.write(TYPE_INT);
+        writeString(out, FLAGS_COLUMN);
+        out.write(TYPE_FLAGS);
+        writeVarLong(out, FLAG_BITS.size());
+        for (FlagBit bit : FLAG_BITS) {
+            writeString(out, bit.name());
+        }
+
+        for (Vendor vendor : rows) {
+            UUID id = Objects.requireNonNull(vendor.getId(), "vendor id");
+            writeLong(out, id.getMostSignificantBits());
+            writeLong(out, id.getLeastSignificantBits());
+        }
+        for (int c = 0; c < STRING_COLUMNS.size(); c++) {
+            writeStringColumn(out, rows, STRING_COLUMNS.get(c), dictionaries.get(c));
+        }
+        for (Vendor vendor : rows) {
+            Integer miles = vendor.getMiles();
+            writeVarLong(out, miles == null ? 0 : zigzag(miles) + 1);
+        }
+        for (Vendor vendor : rows) {
+            long mask = 0;
+            for (int bit = 0; bit < FLAG_BITS.size(); bit++) {
+                if (FLAG_BITS.get(bit).getter().test(vendor)) {
+                    mask |= 1L << bit;
+                }
+            }
+            writeVarLong(out, mask);
+        }
+        out.flush();
+    }
+
+    /**
+     * Reads a page written by {@link #encode}.
+     * @param source the stream to read from.
+     * @throws IOException if the stream ends early or does not hold a vendor page.
+     */
+    public static PagedResponse<Vendor> decode(InputStream source) throws IOException {
+        InputStream in = source instanceof BufferedInputStream ? source : new BufferedInputStream(source);
+
+        byte[] magic = in.readNBytes(MAGIC.length);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Not a columnar vendor page");
+        }
+        int version = in.read();
+        if (version != VERSION) {
+            throw new IOException("Unsupported columnar vendor page version " + version);
+        }
+        int pageNumber = readLength(in);
+        int pageSize = readLength(in);
+        long totalElements = readVarLong(in);
+        int totalPages = readLength(in);
+        int rowCount = readLength(in);
+
+        int columnCount = readLength(in);
+        List<ColumnDescriptor> columns = new ArrayList<>(columnCount);
+        for (int c = 0; c < columnCount; c++) {
+            String name = readString(in);
+            int type = in.read();
+            List<String> bitNames = List.of();
+            if (type == TYPE_FLAGS) {
+                int bitCount = readLength(in);
+                bitNames = new ArrayList<>(bitCount);
+                for (int bit = 0; bit < bitCount; bit++) {
+                    bitNames.add(readString(in));
+                }
+            }
+            columns.add(new ColumnDescriptor(name, type, bitNames));
+        }
+
+        List<Vendor> rows = new ArrayList<>(rowCount);
+        for (int r = 0; r < rowCount; r++) {
+            rows.add(new Vendor());
+        }
+        for (ColumnDescriptor column : columns) {
+            readColumn(in, column, rows);
+        }
+        return new PagedResponse<>(rows, pageNumber, pageSize, totalElements, totalPages);
+    }
+
+    private static void readColumn(InputStream in, ColumnDescriptor column, List<Vendor> rows) throws IOException {
+        switch (column.type()) {
+            case TYPE_UUID -> {
+                boolean known = ID_COLUMN.equals(column.name());
+                for (Vendor vendor : rows) {
+                    UUID id = new UUID(readLong(in), readLong(in));
+                    if (known) {
+                        vendor.setId(id);
+                    }
+                }
+            }
+            case TYPE_STRING -> {
+                StringColumn known = STRING_COLUMNS_BY_NAME.get(column.name());
+                for (Vendor vendor : rows) {
+                    String value = readString(in);
+                    if (known != null) {
+                        known.setter().accept(vendor, value);
+                    }
+                }
+            }
+            case TYPE_DICTIONARY -> {
+                StringColumn known = STRING_COLUMNS_BY_NAME.get(column.name());
+                int size = readLength(in);
+                String[] entries = new String[size];
+                for (int e = 0; e < size; e++) {
+                    entries[e] = readString(in);
+                }
+                for (Vendor vendor : rows) {
+                    int index = readLength(in);
+                    if (index > size) {
+                        throw new IOException("Dictionary index " + index + " out of range in column " + column.name());
+                    }
+                    if (known != null) {
+                        known.setter().accept(vendor, index == 0 ? null : entries[index - 1]);
+                    }
+                }
+            }
+            case TYPE_INT -> {
+                boolean known = MILES_COLUMN.equals(column.name());
+                for (Vendor vendor : rows) {
+                    long value = readVarLong(in);
+                    if (known) {
+                        vendor.setMiles(value == 0 ? null : unzigzag(value - 1));
+                    }
+                }
+            }
+            case TYPE_FLAGS -> {
+                List<FlagBit> bits = column.bitNames().stream().map(FLAG_BITS_BY_NAME::get).toList();
+                for (Vendor vendor : rows) {
+                    long mask = readVarLong(in);
+                    for (int bit = 0; bit < bits.size() && bit < Long.SIZE; bit++) {
+                        if (bits.get(bit) != null) {
+                            bits.get(bit).setter().accept(vendor, (mask & (1L << bit)) != 0);
+                        }
+                    }
+                }
+            }
+            default -> throw new IOException("Unknown type " + column.type() + " of column " + column.name());
+        }
+    }
+
+    /**
+     * @return the distinct values of a column in first-seen order, mapped to their index, if they
+     * repeat enough for a dictionary to be smaller than the plain values; otherwise {@code null}.
+     */
+    private static Map<String, Integer> dictionary(List<Vendor> rows, StringColumn column) {
+        Map<String, Integer> entries = new LinkedHashMap<>();
+        int present = 0;
+        for (Vendor vendor : rows) {
+            String value = column.getter().apply(vendor);
+            if (value != null) {
+                present++;
+                entries.putIfAbsent(value, entries.size());
+            }
+        }
+        return present > 0 && entries.size() * 2 <= present ? entries : null;
+    }
+
+    private static void writeStringColumn(OutputStream out, List<Vendor> rows, StringColumn column,
+                                          Map<String, Integer> dictionary) throws IOException {
+        if (dictionary == null) {
+            for (Vendor vendor : rows) {
+                writeString(out, column.getter().apply(vendor));
+            }
+            return;
+        }
+        writeVarLong(out, dictionary.size());
+        for (String entry : dictionary.keySet()) {
+            writeString(out, entry);
+        }
+        for (Vendor vendor : rows) {
+            String value = column.getter().apply(vendor);
+            writeVarLong(out, value == null ? 0 : dictionary.get(value) + 1);
+        }
+    }
+
+    private static void writeString(OutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.write(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length + 1L);
+        out.write(bytes);
+    }
+
+    private static String readString(InputStream in) throws IOException {
+        int length = readLength(in);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = in.readNBytes(length - 1);
+        if (bytes.length != length - 1) {
+            throw new EOFException();
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarLong(OutputStream out, long value) throws IOException {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            out.write((int) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        out.write((int) remaining);
+    }
+
+    private static long readVarLong(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    /**
+     * Reads a varint used as a length, count or index.
+     */
+    private static int readLength(InputStream in) throws IOException {
+        long value = readVarLong(in);
+        if (value < 0 || value > MAX_LENGTH) {
+            throw new IOException("Length " + value + " out of range");
+        }
+        return (int) value;
+    }
+
+    private static void writeLong(OutputStream out, long value) throws IOException {
+        for (int shift = Long.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+            out.write((int) (value >>> shift));
+        }
+    }
+
+    private static long readLong(InputStream in) throws IOException {
+        byte[] bytes = in.readNBytes(Long.BYTES);
+        if (bytes.length != Long.BYTES) {
+            throw new EOFException();
+        }
+        long value = 0;
+        for (byte b : bytes) {
+            value = (value << Byte.SIZE) | (b & 0xFF);
+        }
+        return value;
+    }
+
+    /**
+     * Maps signed to unsigned so small negative values stay short: 0, -1, 1, -2 become 0, 1, 2, 3.
+     */
+    private static long zigzag(int value) {
+        return ((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL;
+    }
+
+    private static int unzigzag(long value) {
+        int bits = (int) value;
+        return (bits >>> 1) ^ -(bits & 1);
+    }
+
+    private static <T> Map<String, T> byName(List<T> values, Function<T, String> name) {
+        Map<String, T> byName = new HashMap<>();
+        values.forEach(value -> byName.put(name.apply(value), value));
+        return Map.copyOf(byName);
+    }
+
+    private record StringColumn(String name, Function<Vendor, String> getter, BiConsumer<Vendor, String> setter) {
+    }
+
+    private record FlagBit(String name, Predicate<Vendor> getter, BiConsumer<Vendor, Boolean> setter) {
+    }
+
+    private record ColumnDescriptor(String name, int type, List<String> bitNames) {
+    }
+}
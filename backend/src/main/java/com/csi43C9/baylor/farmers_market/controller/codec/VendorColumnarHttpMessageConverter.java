@@ -0,0 +1,85 @@
+package com.csi43C9.baylor.farmers_market.controller.codec;
+
+import com.csi43C9.baylor.farmers_market.dto.PagedResponse;
+import com.csi43C9.baylor.farmers_market.entity.Vendor;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Writes vendor pages and vendor lists with {@link VendorColumnarCodec} for clients that ask for
+ * {@value VendorColumnarCodec#MEDIA_TYPE_VALUE}. A list is written as a single page holding all of it.
+ *
+ * <p>Only writes when that media type was negotiated explicitly, never for {@code Accept: *}{@code /*},
+ * so endpoints that do not list it in {@code produces} keep answering in JSON.
+ */
+@Component
+public class VendorColumnarHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private static final ResolvableType VENDOR_PAGE = ResolvableType.forClassWithGenerics(PagedResponse.class, Vendor.class);
+    private static final ResolvableType VENDOR_LIST = ResolvableType.forClassWithGenerics(List.class, Vendor.class);
+
+    public VendorColumnarHttpMessageConverter() {
+        super(VendorColumnarCodec.MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return PagedResponse.class.isAssignableFrom(clazz) || List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (mediaType == null || !mediaType.isConcrete() || !VendorColumnarCodec.MEDIA_TYPE.isCompatibleWith(mediaType)) {
+            return false;
+        }
+        ResolvableType resolved = type != null ? ResolvableType.forType(type) : ResolvableType.forClass(clazz);
+        return VENDOR_PAGE.isAssignableFrom(resolved) || VENDOR_LIST.isAssignableFrom(resolved);
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return canWrite(null, clazz, mediaType);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+        PagedResponse<Vendor> page = body instanceof PagedResponse<?> paged
+                ? (PagedResponse<Vendor>) paged
+                : singlePage((List<Vendor>) body);
+        VendorColumnarCodec.encode(page, outputMessage.getBody());
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Columnar vendor pages are written only", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Columnar vendor pages are written only", inputMessage);
+    }
+
+    private static PagedResponse<Vendor> singlePage(List<Vendor> vendors) {
+        return new PagedResponse<>(vendors, 0, vendors.size(), vendors.size(), 1);
+    }
+}
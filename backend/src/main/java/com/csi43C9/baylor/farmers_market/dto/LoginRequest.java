@@ -10,7 +10,8 @@ import lombok.Setter;
  *
  * <p>This class is used to carry the username and password from the client
  * to the server for authentication purposes. It provides a structured way
- * to receive login credentials via API endpoints.
+ * to receive login credentials via API endpoints. The optional market selects
+ * which of the deployment's markets the issued token works for.
  */
 @Getter
 @Setter
@@ -19,4 +20,5 @@ import lombok.Setter;
 public class LoginRequest {
     private String username;
     private String password;
+    private String market;
 }
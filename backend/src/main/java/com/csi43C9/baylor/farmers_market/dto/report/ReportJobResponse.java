@@ -0,0 +1,63 @@
+package com.csi43C9.baylor.farmers_market.dto.report;
+
+import com.csi43C9.baylor.farmers_market.service.report.ReportJob;
+import com.csi43C9.baylor.farmers_market.service.report.ReportJobStatus;
+import com.csi43C9.baylor.farmers_market.service.report.ReportType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Data Transfer Object for the state of a report job. Clients poll it until {@code status} is
+ * {@code SUCCEEDED}, then download the result.
+ */
+@Data
+@AllArgsConstructor
+public class ReportJobResponse {
+    /**
+     * The job's id, used to poll it and download its result.
+     */
+    private UUID id;
+
+    /**
+     * The report.
+     */
+    private ReportType type;
+
+    /**
+     * First and last market day included; {@code null} if unbounded or not applicable.
+     */
+    private LocalDate from;
+    private LocalDate to;
+
+    private ReportJobStatus status;
+
+    /**
+     * Rows read from the database so far.
+     */
+    private long rowsRead;
+
+    private Instant submittedAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+
+    /**
+     * Why the job failed; {@code null} unless it did.
+     */
+    private String error;
+
+    /**
+     * Whether an identical report submitted earlier is served instead, as the data it read has not
+     * changed since.
+     */
+    private boolean reused;
+
+    public static ReportJobResponse of(ReportJob job, boolean reused) {
+        return new ReportJobResponse(job.getId(), job.getType(), job.getFrom(), job.getTo(), job.getStatus(),
+                job.getRowsRead(), job.getSubmittedAt(), job.getStartedAt(), job.getFinishedAt(), job.getError(),
+                reused);
+    }
+}
@@ -0,0 +1,44 @@
+package com.csi43C9.baylor.farmers_market.dto.report;
+
+import com.csi43C9.baylor.farmers_market.service.report.ReportType;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Data Transfer Object representing the request payload for running a report in the background,
+ * e.g. {@code {"type": "VENDOR_TOTALS", "from": "2025-04-01", "to": "2025-10-31"}} for a season.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportRequest {
+
+    /**
+     * The report to run.
+     */
+    @NotNull(message = "Report type is required")
+    private ReportType type;
+
+    /**
+     * First market day included by reports over transactions; unbounded if omitted.
+     */
+    private LocalDate from;
+
+    /**
+     * Last market day included by reports over transactions; unbounded if omitted.
+     */
+    private LocalDate to;
+
+    /**
+     * @return whether the date range does not end before it starts.
+     */
+    @AssertTrue(message = "from must not be after to")
+    public boolean isRangeOrdered() {
+        return from == null || to == null || !from.isAfter(to);
+    }
+}
@@ -0,0 +1,86 @@
+package com.csi43C9.baylor.farmers_market.dto.transaction;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Data Transfer Object representing the request payload for recording a vendor's
+ * attendance and sales figures for one market day.
+ * <p>
+ * Recording figures for a vendor and market date that already has a transaction
+ * replaces the earlier figures.
+ * </p>
+ */
+@Data
+public class SaveTransactionRequest {
+
+    /**
+     * The vendor the figures belong to.
+     */
+    @NotNull(message = "Vendor id is required")
+    private UUID vendorId;
+
+    /**
+     * The vendor's name, denormalized for reporting.
+     */
+    @NotBlank(message = "Vendor name is required")
+    private String vendorName;
+
+    /**
+     * The market day the figures were recorded for.
+     */
+    @NotNull(message = "Market date is required")
+    private LocalDate marketDate;
+
+    /**
+     * Whether the vendor attended the market on this day.
+     */
+    private boolean present;
+
+    /**
+     * SNAP benefits redeemed at the vendor.
+     */
+    @PositiveOrZero
+    private Double snap;
+
+    /**
+     * Double Up Food Bucks redeemed at the vendor.
+     */
+    @PositiveOrZero
+    private Double dufb;
+
+    /**
+     * WIC Farmers' Market Nutrition Program tokens redeemed at the vendor.
+     */
+    @PositiveOrZero
+    private Double wdfmTokens;
+
+    /**
+     * Market vouchers redeemed at the vendor.
+     */
+    @PositiveOrZero
+    private Double voucher;
+
+    /**
+     * Total sales as reported by the vendor.
+     */
+    @PositiveOrZero
+    private Double reportedSales;
+
+    /**
+     * Estimated sales of produce.
+     */
+    @PositiveOrZero
+    private Double estProduceSales;
+
+    /**
+     * Estimated number of customer transactions.
+     */
+    @PositiveOrZero
+    private Long estNumTransactions;
+}
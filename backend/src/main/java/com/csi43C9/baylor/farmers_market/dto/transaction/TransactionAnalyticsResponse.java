@@ -0,0 +1,38 @@
+package com.csi43C9.baylor.farmers_market.dto.transaction;
+
+import com.csi43C9.baylor.farmers_market.service.analytics.TransactionAggregate;
+import com.csi43C9.baylor.farmers_market.service.analytics.TransactionGrouping;
+import com.csi43C9.baylor.farmers_market.service.analytics.TransactionMeasure;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Data Transfer Object for one dashboard aggregation over recorded transactions.
+ */
+@Data
+@AllArgsConstructor
+public class TransactionAnalyticsResponse {
+    /**
+     * The column aggregated.
+     */
+    private TransactionMeasure measure;
+
+    /**
+     * How rows were grouped.
+     */
+    private TransactionGrouping groupBy;
+
+    /**
+     * First and last market day included; {@code null} if unbounded.
+     */
+    private LocalDate from;
+    private LocalDate to;
+
+    /**
+     * The aggregate of each non-empty group, ordered by group key.
+     */
+    private Map<String, TransactionAggregate> groups;
+}
@@ -1,10 +1,14 @@
 package com.csi43C9.baylor.farmers_market.entity;
 
 import com.csi43C9.baylor.farmers_market.entity.base.IdentifiableUuid;
+import com.csi43C9.baylor.farmers_market.entity.base.MarketScoped;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
 import java.util.UUID;
 
 /**
@@ -15,11 +19,17 @@ import java.util.UUID;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class Vendor implements IdentifiableUuid {
+@Table("vendors")
+public class Vendor implements IdentifiableUuid, MarketScoped {
     /** The unique identifier stored as binary(16) in the database. */
     private UUID id;
 
+    /** The market the vendor belongs to; set from the request's token, never sent to clients. */
+    @JsonIgnore
+    private String marketId;
+
     /** The name of the vendor. */
+    @Column("vendor")
     private String vendorName;
 
     /** The primary contact person for the vendor. */
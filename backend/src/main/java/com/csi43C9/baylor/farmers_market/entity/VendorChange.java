@@ -0,0 +1,35 @@
+package com.csi43C9.baylor.farmers_market.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Entry of the vendor change log, maps to the 'vendor_changes' table.
+ * Sequence numbers are assigned in commit order, so a client that has seen every change up to
+ * a sequence number never misses one with a lower number.
+ */
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VendorChange {
+    /** Position in the log; strictly increasing. */
+    private long seq;
+
+    /** The market of the vendor. */
+    private String marketId;
+
+    /** The vendor that was written. */
+    private UUID vendorId;
+
+    /** What was done to the vendor. */
+    private VendorChangeOperation operation;
+
+    /** When the write was made. */
+    private Instant changedAt;
+}
@@ -0,0 +1,13 @@
+package com.csi43C9.baylor.farmers_market.entity;
+
+/**
+ * The kind of write recorded in the vendor change log.
+ */
+public enum VendorChangeOperation {
+    /** The vendor was added. */
+    CREATED,
+    /** The vendor's details changed. */
+    UPDATED,
+    /** The vendor was deactivated. */
+    DELETED
+}
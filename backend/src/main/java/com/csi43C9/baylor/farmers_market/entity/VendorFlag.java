@@ -0,0 +1,26 @@
+package com.csi43C9.baylor.farmers_market.entity;
+
+/**
+ * Boolean attributes of a {@link Vendor} that can be set on many vendors at once.
+ */
+public enum VendorFlag {
+    ACTIVE("is_active"),
+    FARMER("is_farmer"),
+    PRODUCE("is_produce"),
+    WOMAN_OWNED("woman_owned"),
+    BIPOC_OWNED("bipoc_owned"),
+    VETERAN_OWNED("veteran_owned");
+
+    private final String column;
+
+    VendorFlag(String column) {
+        this.column = column;
+    }
+
+    /**
+     * @return the column of the {@code vendors} table holding the flag.
+     */
+    public String column() {
+        return column;
+    }
+}
@@ -0,0 +1,68 @@
+package com.csi43C9.baylor.farmers_market.entity;
+
+import com.csi43C9.baylor.farmers_market.entity.base.IdentifiableUuid;
+import com.csi43C9.baylor.farmers_market.entity.base.MarketScoped;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Entity representing a vendor's attendance and sales figures for a single market day.
+ * This class maps directly to the 'vendor_transactions' table schema, which holds at most
+ * one row per vendor and market date.
+ */
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("vendor_transactions")
+public class VendorTransaction implements IdentifiableUuid, MarketScoped {
+    /** The unique identifier stored as binary(16) in the database. */
+    private UUID id;
+
+    /** The market the transaction belongs to; set from the request's token, never sent to clients. */
+    @JsonIgnore
+    private String marketId;
+
+    /** The vendor this transaction belongs to. */
+    private UUID vendorId;
+
+    /** The vendor's name at the time of the market day. */
+    private String vendorName;
+
+    /** The market day these figures were recorded for. */
+    private LocalDate marketDate;
+
+    /** Whether the vendor attended the market on this day. */
+    private boolean present;
+
+    /** SNAP benefits redeemed at the vendor. */
+    private Double snap;
+
+    /** Double Up Food Bucks redeemed at the vendor. */
+    private Double dufb;
+
+    /** WIC Farmers' Market Nutrition Program tokens redeemed at the vendor. */
+    private Double wdfmTokens;
+
+    /** Market vouchers redeemed at the vendor. */
+    private Double voucher;
+
+    /** The amount the market owes the vendor for redeemed benefits. */
+    private Double reimbursementDue;
+
+    /** Total sales as reported by the vendor. */
+    private Double reportedSales;
+
+    /** Estimated sales of produce. */
+    private Double estProduceSales;
+
+    /** Estimated number of customer transactions. */
+    private Long estNumTransactions;
+}
@@ -0,0 +1,10 @@
+package com.csi43C9.baylor.farmers_market.entity.base;
+
+/**
+ * Interface for entities that belong to one market (e.g., Vendors, Transactions).
+ * Repositories set the market of the current thread on entities that have none before writing them.
+ */
+public interface MarketScoped {
+    String getMarketId();
+    void setMarketId(String marketId);
+}
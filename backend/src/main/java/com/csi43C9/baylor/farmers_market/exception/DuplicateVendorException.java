@@ -0,0 +1,23 @@
+package com.csi43C9.baylor.farmers_market.exception;
+
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Thrown when a vendor would be created or renamed to a name another vendor already has.
+ * Detected before any statement is sent, so it is cheap: no stack trace is filled in.
+ */
+@Getter
+public class DuplicateVendorException extends RuntimeException {
+
+    /**
+     * The vendor that already has the name.
+     */
+    private final UUID existingId;
+
+    public DuplicateVendorException(String vendorName, UUID existingId) {
+        super("A vendor named '" + vendorName + "' already exists", null, false, false);
+        this.existingId = existingId;
+    }
+}
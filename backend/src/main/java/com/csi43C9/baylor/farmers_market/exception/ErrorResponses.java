@@ -0,0 +1,184 @@
+package com.csi43C9.baylor.farmers_market.exception;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Renders JSON error bodies from pre-encoded fragments instead of building a map and running it
+ * through an {@code ObjectMapper} for every error.
+ *
+ * <p>Error floods, such as 401s when many tokens expire at once, repeat a handful of messages.
+ * The encoded bytes of each status and message are cached, and handler bodies, which carry a
+ * timestamp to the second, are reused for the rest of that second. Only the request path is
+ * encoded per response, straight into the servlet output stream.
+ */
+public final class ErrorResponses {
+
+    /**
+     * Most distinct messages or bodies kept; beyond this, new ones are encoded without caching.
+     */
+    private static final int MAX_CACHED = 256;
+
+    private static final byte[] STATUS_FIELD = ascii("{\"status\":");
+    private static final byte[] ERROR_FIELD = ascii(",\"error\":");
+    private static final byte[] MESSAGE_FIELD = ascii(",\"message\":");
+    private static final byte[] PATH_FIELD = ascii(",\"path\":");
+    private static final byte[] END = ascii("}");
+    private static final byte[] NULL = ascii("null");
+
+    private static final Map<HttpStatus, byte[]> STATUS_PREFIXES = new ConcurrentHashMap<>();
+    private static final Map<String, byte[]> ENCODED_MESSAGES = new ConcurrentHashMap<>();
+    private static final Map<BodyKey, TimestampedBody> BODIES = new ConcurrentHashMap<>();
+
+    private ErrorResponses() {
+    }
+
+    /**
+     * Writes {@code {"status":..,"error":..,"message":..,"path":..}} to a servlet response, for
+     * filters and entry points that run outside Spring MVC.
+     */
+    public static void write(HttpServletResponse response, HttpStatus status, String message, String path)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        OutputStream out = response.getOutputStream();
+        out.write(statusPrefix(status));
+        out.write(MESSAGE_FIELD);
+        out.write(encodedMessage(message));
+        out.write(PATH_FIELD);
+        writeJsonString(out, path);
+        out.write(END);
+    }
+
+    /**
+     * Builds {@code {"timestamp":..,"status":..,"error":..,"message":..}} for an exception handler.
+     */
+    public static ResponseEntity<byte[]> entity(HttpStatus status, String message) {
+        long second = System.currentTimeMillis() / 1000;
+        BodyKey key = new BodyKey(status, message);
+        TimestampedBody cached = BODIES.get(key);
+        if (cached == null || cached.second() != second) {
+            cached = new TimestampedBody(second, handlerBody(second, status, message));
+            if (BODIES.size() < MAX_CACHED || BODIES.containsKey(key)) {
+                BODIES.put(key, cached);
+            }
+        }
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(cached.body());
+    }
+
+    private static byte[] handlerBody(long second, HttpStatus status, String message) {
+        LocalDateTime timestamp = LocalDateTime.ofInstant(Instant.ofEpochSecond(second), ZoneId.systemDefault());
+        ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+        try {
+            out.write(ascii("{\"timestamp\":\"" + DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(timestamp) + "\",\"status\":"));
+            out.write(ascii(Integer.toString(status.value())));
+            out.write(ERROR_FIELD);
+            writeJsonString(out, status.getReasonPhrase());
+            out.write(MESSAGE_FIELD);
+            out.write(encodedMessage(message));
+            out.write(END);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @return {@code {"status":<code>,"error":"<reason>"}} without the closing brace.
+     */
+    private static byte[] statusPrefix(HttpStatus status) {
+        return STATUS_PREFIXES.computeIfAbsent(status, s -> {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+            try {
+                out.write(STATUS_FIELD);
+                out.write(ascii(Integer.toString(s.value())));
+                out.write(ERROR_FIELD);
+                writeJsonString(out, s.getReasonPhrase());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        });
+    }
+
+    private static byte[] encodedMessage(String message) {
+        if (message == null) {
+            return NULL;
+        }
+        byte[] cached = ENCODED_MESSAGES.get(message);
+        if (cached != null) {
+            return cached;
+        }
+        byte[] encoded = encode(message);
+        if (ENCODED_MESSAGES.size() < MAX_CACHED) {
+            ENCODED_MESSAGES.putIfAbsent(message, encoded);
+        }
+        return encoded;
+    }
+
+    private static byte[] encode(String value) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(value.length() + 2);
+        try {
+            writeJsonString(out, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes a quoted, escaped JSON string as UTF-8 without building an intermediate string.
+     */
+    static void writeJsonString(OutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.write(NULL);
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.write('\\');
+                out.write(c);
+            } else if (c < 0x20) {
+                out.write('\\');
+                out.write('u');
+                out.write('0');
+                out.write('0');
+                out.write(Character.forDigit(c >> 4, 16));
+                out.write(Character.forDigit(c & 0xF, 16));
+            } else if (c < 0x80) {
+                out.write(c);
+            } else {
+                int end = Character.isHighSurrogate(c) && i + 1 < value.length() ? i + 2 : i + 1;
+                out.write(value.substring(i, end).getBytes(StandardCharsets.UTF_8));
+                i = end - 1;
+            }
+        }
+        out.write('"');
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private record BodyKey(HttpStatus status, String message) {
+    }
+
+    private record TimestampedBody(long second, byte[] body) {
+    }
+}
@@ -1,6 +1,9 @@
 package com.csi43C9.baylor.farmers_market.exception;
 
-import lombok.NonNull;
+import com.csi43C9.baylor.farmers_market.util.LogSampler;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -11,24 +14,40 @@ import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 
-import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
+/**
+ * Turns exceptions thrown by controllers into JSON error responses.
+ *
+ * <p>Bodies are rendered by {@link ErrorResponses} from pre-encoded fragments. Server-side errors
+ * are logged with their stack trace at most once per second per kind, with a count of the ones
+ * suppressed in between. Responses are counted per status under
+ * {@code farmers.market.errors.handled}.
+ */
 @ControllerAdvice
-public class GlobalExceptionHandler {
+public class GlobalExceptionHandler implements MeterBinder {
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    private final Map<HttpStatus, LongAdder> handled = new EnumMap<>(Map.of(
+            HttpStatus.BAD_REQUEST, new LongAdder(),
+            HttpStatus.CONFLICT, new LongAdder(),
+            HttpStatus.INTERNAL_SERVER_ERROR, new LongAdder()));
+    private final LogSampler conflictLogSampler = new LogSampler(1, TimeUnit.SECONDS);
+    private final LogSampler unexpectedLogSampler = new LogSampler(1, TimeUnit.SECONDS);
+
     // 1. Handles missing body or malformed JSON
     @ExceptionHandler(org.springframework.http.converter.HttpMessageNotReadableException.class)
-    public ResponseEntity<@NonNull Map<String, Object>> handleBadRequest(Exception ex) {
+    public ResponseEntity<byte[]> handleBadRequest(Exception ex) {
         return buildResponse(HttpStatus.BAD_REQUEST, "Malformed JSON request or missing body");
     }
 
     // 2. Handles @Valid validation errors (e.g., @NotBlank, @Size)
     @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<@NonNull Map<String, Object>> handleValidationErrors(MethodArgumentNotValidException ex) {
+    public ResponseEntity<byte[]> handleValidationErrors(MethodArgumentNotValidException ex) {
         String details = ex.getBindingResult().getFieldErrors().stream()
                 .map(error -> error.getField() + ": " + error.getDefaultMessage())
                 .collect(Collectors.joining(", "));
@@ -36,10 +55,19 @@ public class GlobalExceptionHandler {
         return buildResponse(HttpStatus.BAD_REQUEST, "Validation Failed: " + details);
     }
 
-    // 3. Handles Database Constraint Violations (e.g., Duplicate Entry)
+    // 3. Handles duplicate vendor names found before reaching the database; expected, so not logged
+    @ExceptionHandler(DuplicateVendorException.class)
+    public ResponseEntity<byte[]> handleDuplicateVendor(DuplicateVendorException ex) {
+        return buildResponse(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    // 4. Handles Database Constraint Violations (e.g., Duplicate Entry)
     @ExceptionHandler(DataIntegrityViolationException.class)
-    public ResponseEntity<@NonNull Map<String, Object>> handleConflict(DataIntegrityViolationException ex) {
-        logger.error("Database error: ", ex);
+    public ResponseEntity<byte[]> handleConflict(DataIntegrityViolationException ex) {
+        long suppressed = conflictLogSampler.acquire();
+        if (suppressed >= 0) {
+            logger.error("Database error ({} similar suppressed): ", suppressed, ex);
+        }
         return buildResponse(HttpStatus.CONFLICT, "Database error: Possible duplicate entry or constraint violation.");
     }
 
@@ -53,18 +81,30 @@ public class GlobalExceptionHandler {
      * @return a {@link ResponseEntity} with a 500 Internal Server Error status.
      */
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<@NonNull Map<String, Object>> handleAllUncaughtExceptions(Exception ex, WebRequest request) {
-        logger.error("Unexpected error occurred: ", ex);
+    public ResponseEntity<byte[]> handleAllUncaughtExceptions(Exception ex, WebRequest request) {
+        long suppressed = unexpectedLogSampler.acquire();
+        if (suppressed >= 0) {
+            logger.error("Unexpected error occurred ({} similar suppressed): ", suppressed, ex);
+        }
         return buildResponse(HttpStatus.INTERNAL_SERVER_ERROR, "An unexpected error occurred");
     }
 
     // Helper method to keep code DRY
-    private ResponseEntity<@NonNull Map<String, Object>> buildResponse(HttpStatus status, String message) {
-        Map<String, Object> body = new HashMap<>();
-        body.put("timestamp", LocalDateTime.now());
-        body.put("status", status.value());
-        body.put("error", status.getReasonPhrase());
-        body.put("message", message);
-        return new ResponseEntity<>(body, status);
+    private ResponseEntity<byte[]> buildResponse(HttpStatus status, String message) {
+        handled.get(status).increment();
+        return ErrorResponses.entity(status, message);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        handled.forEach((status, count) -> FunctionCounter.builder("farmers.market.errors.handled", count, LongAdder::sum)
+                .tag("status", Integer.toString(status.value()))
+                .register(registry));
+        FunctionCounter.builder("farmers.market.errors.log.suppressed", conflictLogSampler, LogSampler::suppressedCount)
+                .tag("source", "conflict")
+                .register(registry);
+        FunctionCounter.builder("farmers.market.errors.log.suppressed", unexpectedLogSampler, LogSampler::suppressedCount)
+                .tag("source", "unexpected")
+                .register(registry);
     }
 }
@@ -0,0 +1,147 @@
+package com.csi43C9.baylor.farmers_market.repository;
+
+import com.csi43C9.baylor.farmers_market.entity.VendorChange;
+import com.csi43C9.baylor.farmers_market.entity.VendorChangeOperation;
+import com.csi43C9.baylor.farmers_market.repository.base.AbstractJdbcRepository;
+import com.csi43C9.baylor.farmers_market.util.UuidUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JDBC implementation of the vendor change log.
+ *
+ * <p>Sequence numbers come from the single row of {@code vendor_change_log_state}. Appending
+ * increments it, which locks the row until the writing transaction ends, so entries become
+ * visible in sequence order. An auto-increment key would not guarantee that: a transaction
+ * holding a lower key can commit after one holding a higher key, and a reader that had already
+ * moved past the higher key would never see the lower one.
+ *
+ * <p>Sequence numbers are shared by every market, so a market's log has gaps where other markets'
+ * entries are. Entries are appended to and read from the current market's log.
+ */
+@Repository
+public class VendorChangeRepository extends AbstractJdbcRepository {
+
+    private static final RowMapper<VendorChange> ROW_MAPPER = (rs, rowNum) -> VendorChange.builder()
+            .seq(rs.getLong("seq"))
+            .marketId(rs.getString("market_id"))
+            .vendorId(UuidUtils.fromBytes(rs.getBytes("vendor_id")))
+            .operation(VendorChangeOperation.valueOf(rs.getString("operation")))
+            .changedAt(rs.getTimestamp("changed_at").toInstant())
+            .build();
+
+    protected VendorChangeRepository(JdbcTemplate jdbcTemplate) {
+        super(jdbcTemplate);
+    }
+
+    /**
+     * Appends one entry per vendor to the current market's log, in the given order. Must run in the
+     * transaction that made the writes, so the entries commit or roll back with them.
+     * @param vendorIds the vendors written
+     * @param operation what was done to them
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(Collection<UUID> vendorIds, VendorChangeOperation operation) {
+        if (vendorIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update("update vendor_change_log_state set last_seq = last_seq + ? where id = 1", vendorIds.size());
+        Long lastSeq = jdbcTemplate.queryForObject("select last_seq from vendor_change_log_state where id = 1", Long.class);
+
+        long seq = lastSeq - vendorIds.size();
+        Timestamp now = Timestamp.from(Instant.now());
+        String market = market();
+        List<Object[]> rows = new ArrayList<>(vendorIds.size());
+        for (UUID vendorId : vendorIds) {
+            rows.add(new Object[]{++seq, market, UuidUtils.toBytes(vendorId), operation.name(), now});
+        }
+        jdbcTemplate.batchUpdate(
+                "insert into vendor_changes (seq, market_id, vendor_id, operation, changed_at) values (?, ?, ?, ?, ?)",
+                rows);
+    }
+
+    /**
+     * Retrieves the current market's entries after a sequence number, oldest first.
+     * @param seq the last sequence number already seen
+     * @param limit the most entries to return
+     */
+    public List<VendorChange> findAfter(long seq, int limit) {
+        String sql = """
+                select seq, market_id, vendor_id, operation, changed_at from vendor_changes
+                where market_id = ? and seq > ?
+                order by market_id, seq
+                offset 0 rows fetch next ? rows only
+                """;
+        return read(() -> jdbcTemplate.query(sql, ROW_MAPPER, market(), seq, limit));
+    }
+
+    /**
+     * @return the sequence number of the current market's latest entry; 0 if it has none.
+     */
+    public long lastSeq() {
+        String sql = "select max(seq) from vendor_changes where market_id = ?";
+        Long seq = read(() -> jdbcTemplate.queryForObject(sql, Long.class, market()));
+        return seq != null ? seq : 0;
+    }
+
+    /**
+     * Retrieves every market's entries after a sequence number, oldest first, e.g. to drop cached
+     * copies of the vendors written by other instances.
+     * @param seq the last sequence number already seen
+     * @param limit the most entries to return
+     */
+    public List<VendorChange> findAfterInAllMarkets(long seq, int limit) {
+        String sql = """
+                select seq, market_id, vendor_id, operation, changed_at from vendor_changes
+                where seq > ?
+                order by seq
+                offset 0 rows fetch next ? rows only
+                """;
+        return read(() -> jdbcTemplate.query(sql, ROW_MAPPER, seq, limit));
+    }
+
+    /**
+     * @return the last sequence number handed out, and the last one pruned from the log.
+     */
+    public LogState state() {
+        String sql = "select last_seq, pruned_through from vendor_change_log_state where id = 1";
+        return read(() -> jdbcTemplate.queryForObject(sql,
+                (rs, rowNum) -> new LogState(rs.getLong("last_seq"), rs.getLong("pruned_through"))));
+    }
+
+    /**
+     * Removes the entries written before a cutoff and records the last sequence number removed,
+     * so that readers further behind know they have to resynchronize.
+     * @param cutoff entries older than this are removed
+     * @return the number of entries removed
+     */
+    @Transactional
+    public int pruneBefore(Instant cutoff) {
+        Long through = jdbcTemplate.queryForObject("select max(seq) from vendor_changes where changed_at < ?",
+                Long.class, Timestamp.from(cutoff));
+        if (through == null) {
+            return 0;
+        }
+        jdbcTemplate.update("update vendor_change_log_state set pruned_through = ? where id = 1 and pruned_through < ?",
+                through, through);
+        return jdbcTemplate.update("delete from vendor_changes where seq <= ?", through);
+    }
+
+    /**
+     * State of the change log.
+     * @param lastSeq the last sequence number handed out; 0 if nothing was logged yet.
+     * @param prunedThrough entries up to and including this sequence number have been pruned.
+     */
+    public record LogState(long lastSeq, long prunedThrough) {
+    }
+}
@@ -1,25 +1,45 @@
 package com.csi43C9.baylor.farmers_market.repository;
 
 import com.csi43C9.baylor.farmers_market.entity.Vendor;
+import com.csi43C9.baylor.farmers_market.entity.VendorFlag;
 import com.csi43C9.baylor.farmers_market.repository.base.AbstractJdbcRepository;
 import com.csi43C9.baylor.farmers_market.repository.base.MarketRepository;
-import com.csi43C9.baylor.farmers_market.repository.mapper.VendorRowMapper;
+import com.csi43C9.baylor.farmers_market.repository.metadata.EntityMetadata;
+import com.csi43C9.baylor.farmers_market.repository.metadata.EntityStatement;
 import com.csi43C9.baylor.farmers_market.util.UuidUtils;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Repository;
-
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 /**
  * JDBC implementation of Vendor management.
- * Extends {@link AbstractJdbcRepository} for binary UUID mapping.
+ * Extends {@link AbstractJdbcRepository} for binary UUID mapping; statements and row
+ * mapping are derived from the {@link Vendor} entity's {@link EntityMetadata}.
+ * Every statement is restricted to the current market.
  */
 @Repository
 public class VendorRepository extends AbstractJdbcRepository implements MarketRepository<Vendor, UUID> {
 
+    private static final EntityMetadata<Vendor> METADATA = EntityMetadata.of(Vendor.class);
+
+    /**
+     * Updates every column but the market, matched on the id within the vendor's market.
+     */
+    private static final EntityStatement<Vendor> UPDATE_BY_ID = METADATA.updateBy("id", "market_id");
+
     protected VendorRepository(JdbcTemplate jdbcTemplate) {
         super(jdbcTemplate);
     }
@@ -32,8 +52,7 @@ public class VendorRepository extends AbstractJdbcRepository implements MarketRe
     @Override
     public Vendor save(Vendor vendor) {
         if (vendor.getId() == null) {
-            vendor.setId(UUID.randomUUID());
-            return insert(vendor);
+            return insert(METADATA, vendor);
         } else {
             // Return the vendor if successful, otherwise throw an exception.
             int result = update(vendor);
@@ -45,83 +64,48 @@ public class VendorRepository extends AbstractJdbcRepository implements MarketRe
     }
 
     /**
-     * Inserts a new vendor record into the database.
-     * @param vendor the vendor to insert
-     * @return the inserted vendor
+     * Updates an existing vendor record.
+     * @return the number of rows affected (should be 1 if successful, 0 if the vendor is in another market).
      */
-    private Vendor insert(Vendor vendor) {
-        String sql = """
-                insert into vendors (
-                    id, vendor, point_person, email, location, miles, products,
-                    is_active, is_farmer, is_produce, woman_owned, bipoc_owned, veteran_owned
-                )
-                values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-                """;
-
-        jdbcTemplate.update(sql,
-                UuidUtils.toBytes(vendor.getId()),
-                vendor.getVendorName(),
-                vendor.getPointPerson(),
-                vendor.getEmail(),
-                vendor.getLocation(),
-                vendor.getMiles(),
-                vendor.getProducts(),
-                vendor.isActive(),
-                vendor.isFarmer(),
-                vendor.isProduce(),
-                vendor.isWomanOwned(),
-                vendor.isBipocOwned(),
-                vendor.isVeteranOwned()
-        );
-
-        return vendor;
+    public int update(Vendor vendor) {
+        return jdbcTemplate.update(UPDATE_BY_ID.sql(), UPDATE_BY_ID.params(inMarket(vendor)));
     }
 
     /**
-     * Updates an existing vendor record.
-     * @return the number of rows affected (should be 1 if successful).
+     * Updates a batch of existing vendor records with a single JDBC batch statement, each in its own market.
+     * @param vendors the vendors to update
+     * @return the number of rows affected per vendor, in the order given
      */
-    public int update(Vendor vendor) {
-        String sql = """
-                update vendors
-                set vendor = ?, point_person = ?, email = ?, location = ?,
-                    miles = ?, products = ?, is_active = ?, is_farmer = ?,
-                    is_produce = ?, woman_owned = ?, bipoc_owned = ?,
-                    veteran_owned = ?
-                where id = ?
-                """;
-
-        return jdbcTemplate.update(sql,
-                vendor.getVendorName(),
-                vendor.getPointPerson(),
-                vendor.getEmail(),
-                vendor.getLocation(),
-                vendor.getMiles(),
-                vendor.getProducts(),
-                vendor.isActive(),
-                vendor.isFarmer(),
-                vendor.isProduce(),
-                vendor.isWomanOwned(),
-                vendor.isBipocOwned(),
-                vendor.isVeteranOwned(),
-                UuidUtils.toBytes(vendor.getId())
-        );
+    public int[] updateAll(List<Vendor> vendors) {
+        vendors.forEach(this::inMarket);
+        return jdbcTemplate.batchUpdate(UPDATE_BY_ID.sql(), UPDATE_BY_ID.batchParams(vendors));
     }
 
-
     /**
      * Retrieves a vendor by its UUID from the database.
      * @param uuid The UUID of the vendor to retrieve.
      */
     @Override
     public Optional<Vendor> findById(UUID uuid) {
-        String sql = "select * from vendors where id = ?";
-        try {
-            Vendor vendor = jdbcTemplate.queryForObject(sql, new VendorRowMapper(), UuidUtils.toBytesObject(uuid));
-            return Optional.ofNullable(vendor);
-        } catch (EmptyResultDataAccessException e) {
-            return Optional.empty();
-        }
+        String sql = METADATA.selectSql() + " where market_id = ? and id = ?";
+        return read(() -> {
+            try {
+                Vendor vendor = jdbcTemplate.queryForObject(sql, METADATA.rowMapper(), market(),
+                        UuidUtils.toBytes(uuid));
+                return Optional.ofNullable(vendor);
+            } catch (EmptyResultDataAccessException e) {
+                return Optional.empty();
+            }
+        });
+    }
+
+    /**
+     * Retrieves the vendors with the given UUIDs, active or not, in chunked {@code in} queries.
+     * @param uuids The UUIDs of the vendors to retrieve.
+     */
+    @Override
+    public List<Vendor> findAllById(Collection<UUID> uuids) {
+        return findAllByUuidIn(METADATA.selectSql() + " where", "id", uuids, METADATA.rowMapper());
     }
 
     /**
@@ -129,12 +113,31 @@ public class VendorRepository extends AbstractJdbcRepository implements MarketRe
      */
     @Override
     public List<Vendor> findAll() {
-        String sql = "select * from vendors where is_active = true";
-        return jdbcTemplate.query(sql, new VendorRowMapper());
+        String sql = METADATA.selectSql() + " where market_id = ? and is_active = true";
+        return read(() -> jdbcTemplate.query(sql, METADATA.rowMapper(), market()));
+    }
+
+    /**
+     * Retrieves the id and name of every vendor, active or not, as names stay taken after a soft delete.
+     * Answered from the unique index on {@code (market_id, vendor)}, which also holds the id, without
+     * reading the rows.
+     * @return each vendor's name by id
+     */
+    public Map<UUID, String> findAllNames() {
+        String sql = "select id, vendor from vendors where market_id = ?";
+        return read(() -> {
+            Map<UUID, String> names = new HashMap<>();
+            jdbcTemplate.query(sql, (RowCallbackHandler) rs ->
+                    names.put(UuidUtils.fromBytes(rs.getBytes("id")), rs.getString("vendor")), market());
+            return names;
+        });
     }
 
     /**
      * Retrieves a page of active vendors from the database.
+     * The page's ids are found on the {@code (market_id, is_active, vendor)} index alone, so skipping
+     * to a deep page does not read the full rows of every vendor before it. Ordering by the index
+     * columns lets planners that ignore the equalities still walk the index.
      * @param page 0-based page number
      * @param size page size
      * @return a List of active vendors
@@ -143,12 +146,14 @@ public class VendorRepository extends AbstractJdbcRepository implements MarketRe
     public List<Vendor> findAllPaged(int page, int size) {
         int offset = page * size;
         String sql = """
-                select * from vendors
-                where is_active = true
+                %s
+                join (select id as page_id from vendors
+                      where market_id = ? and is_active = true
+                      order by market_id, is_active, vendor
+                      offset ? rows fetch next ? rows only) page on vendors.id = page.page_id
                 order by vendor
-                offset ? rows fetch next ? rows only
-                """;
-        return jdbcTemplate.query(sql, new VendorRowMapper(), offset, size);
+                """.formatted(METADATA.selectSql());
+        return read(() -> jdbcTemplate.query(sql, METADATA.rowMapper(), market(), offset, size));
     }
 
     /**
@@ -156,8 +161,8 @@ public class VendorRepository extends AbstractJdbcRepository implements MarketRe
      * @return the number of active vendors
      */
     public Long count() {
-        String sql = "select count(*) from vendors where is_active = true";
-        Long count = jdbcTemplate.queryForObject(sql, Long.class);
+        String sql = "select count(*) from vendors where market_id = ? and is_active = true";
+        Long count = read(() -> jdbcTemplate.queryForObject(sql, Long.class, market()));
         return count != null ? count : 0L;
     }
 
@@ -167,8 +172,69 @@ public class VendorRepository extends AbstractJdbcRepository implements MarketRe
      */
     @Override
     public void deleteById(UUID uuid) {
-        String sql = "update vendors set is_active = false where id = ?";
-        jdbcTemplate.update(sql, UuidUtils.toBytesObject(uuid));
+        String sql = "update vendors set is_active = false where market_id = ? and id = ?";
+        jdbcTemplate.update(sql, market(), UuidUtils.toBytes(uuid));
+    }
+
+    /**
+     * Sets flags on many vendors with one locking {@code select} and one {@code update}. Vendors
+     * that already have every requested value are neither locked nor written. Must run in a
+     * transaction, which holds the row locks until it ends; callers keep it short by passing at
+     * most {@link #IN_CLAUSE_CHUNK_SIZE} ids.
+     * @param uuids the vendors to update
+     * @param flags the flags to set and their new values
+     * @return the ids of the vendors changed
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<UUID> updateFlags(Collection<UUID> uuids, Map<VendorFlag, Boolean> flags) {
+        if (uuids.isEmpty() || flags.isEmpty()) {
+            return List.of();
+        }
+        List<VendorFlag> columns = List.copyOf(flags.keySet());
+        List<Object> params = new ArrayList<>();
+        params.add(market());
+        uuids.forEach(uuid -> params.add(UuidUtils.toBytes(uuid)));
+        columns.forEach(flag -> params.add(flags.get(flag)));
+        String differs = String.join(" or ", columns.stream()
+                .map(flag -> flag.column() + " is null or " + flag.column() + " <> ?")
+                .toList());
+        String sql = "select id from vendors where market_id = ? and id in (" + placeholders(uuids.size())
+                + ") and (" + differs + ") for update";
+        List<UUID> changed = jdbcTemplate.query(sql, (rs, rowNum) -> UuidUtils.fromBytes(rs.getBytes("id")),
+                params.toArray());
+        if (changed.isEmpty()) {
+            return changed;
+        }
+
+        String assignments = String.join(", ", columns.stream().map(flag -> flag.column() + " = ?").toList());
+        List<Object> updateParams = new ArrayList<>();
+        columns.forEach(flag -> updateParams.add(flags.get(flag)));
+        updateParams.add(market());
+        changed.forEach(uuid -> updateParams.add(UuidUtils.toBytes(uuid)));
+        jdbcTemplate.update("update vendors set " + assignments + " where market_id = ? and id in ("
+                + placeholders(changed.size()) + ")", updateParams.toArray());
+        return changed;
+    }
+
+    /**
+     * Retrieves the ids of the vendors, active or not, that were not marked present on any market
+     * day on or after a date.
+     * @param since the first market day that counts as attendance
+     */
+    public List<UUID> findIdsNotPresentSince(LocalDate since) {
+        String sql = """
+                select id from vendors v
+                where v.market_id = ? and not exists (
+                    select 1 from vendor_transactions t
+                    where t.market_id = v.market_id and t.vendor_id = v.id
+                        and t.market_date >= ? and t.present = true)
+                """;
+        return read(() -> jdbcTemplate.query(sql, (rs, rowNum) -> UuidUtils.fromBytes(rs.getBytes("id")),
+                market(), since));
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
     }
 
 }
@@ -0,0 +1,417 @@
+package com.csi43C9.baylor.farmers_market.repository;
+
+import com.csi43C9.baylor.farmers_market.entity.VendorTransaction;
+import com.csi43C9.baylor.farmers_market.repository.base.AbstractJdbcRepository;
+import com.csi43C9.baylor.farmers_market.repository.base.MarketRepository;
+import com.csi43C9.baylor.farmers_market.repository.metadata.EntityMetadata;
+import com.csi43C9.baylor.farmers_market.repository.metadata.EntityStatement;
+import com.csi43C9.baylor.farmers_market.util.UuidUtils;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * JDBC implementation of vendor transaction management.
+ * Rows are keyed by (market_id, vendor_id, market_date), so saving a transaction for a vendor
+ * and market day that already has one overwrites the existing figures. Every statement is
+ * restricted to the current market.
+ *
+ * <p>Writes also increment the market's row in {@code transaction_versions}, so anything derived
+ * from a market's transactions, such as a cached report, can tell whether they changed since with
+ * {@link #version()}. Within a transaction the row is incremented once, just before it commits,
+ * so concurrent writers to a market only wait on its lock while committing; writes outside a
+ * transaction increment it straight away.
+ */
+@Repository
+public class VendorTransactionRepository extends AbstractJdbcRepository
+        implements MarketRepository<VendorTransaction, UUID> {
+
+    private static final EntityMetadata<VendorTransaction> METADATA = EntityMetadata.of(VendorTransaction.class);
+
+    /**
+     * Overwrites the figures of the row for the entity's vendor and market date, in its market.
+     * Keeps {@code reimbursement_due}, which only the reimbursement engine writes.
+     */
+    private static final EntityStatement<VendorTransaction> UPDATE_BY_VENDOR_AND_DATE =
+            METADATA.updateBy(List.of("market_id", "vendor_id", "market_date"), Set.of("reimbursement_due"));
+
+    protected VendorTransactionRepository(JdbcTemplate jdbcTemplate) {
+        super(jdbcTemplate);
+    }
+
+    /**
+     * Inserts or overwrites the transaction for the entity's vendor and market date, in one
+     * transaction with the version increment. If a row already exists for that pair, its id is
+     * kept and copied back onto the entity. If another request inserts the pair between the
+     * update and the insert, its row is overwritten instead.
+     */
+    @Override
+    @Transactional
+    public VendorTransaction save(VendorTransaction transaction) {
+        inMarket(transaction);
+        if (!overwrite(transaction)) {
+            transaction.setId(UUID.randomUUID());
+            try {
+                insert(METADATA, transaction);
+            } catch (DuplicateKeyException e) {
+                if (!overwrite(transaction)) {
+                    throw e;
+                }
+            }
+        }
+        touch(transaction.getMarketId());
+        return transaction;
+    }
+
+    /**
+     * Overwrites the figures of the existing row for the entity's vendor and market date, and
+     * copies its id onto the entity.
+     * @return {@code false} if there is no such row
+     */
+    private boolean overwrite(VendorTransaction transaction) {
+        if (jdbcTemplate.update(UPDATE_BY_VENDOR_AND_DATE.sql(), UPDATE_BY_VENDOR_AND_DATE.params(transaction)) == 0) {
+            return false;
+        }
+        String sql = "select id from vendor_transactions where market_id = ? and vendor_id = ? and market_date = ?";
+        byte[] id = jdbcTemplate.queryForObject(sql, byte[].class, transaction.getMarketId(),
+                UuidUtils.toBytes(transaction.getVendorId()), transaction.getMarketDate());
+        transaction.setId(UuidUtils.fromBytes(id));
+        return true;
+    }
+
+    /**
+     * Upserts a batch of transactions with two JDBC batch statements: one update for every
+     * transaction, then one insert for those whose vendor and market date had no row yet.
+     * Drivers that rewrite batches report {@link java.sql.Statement#SUCCESS_NO_INFO} instead of a
+     * row count, so transactions without a positive count are looked up before they are inserted.
+     * Unlike {@link #save(VendorTransaction)}, ids of rows that already existed are not read back.
+     * Callers should run this in a transaction.
+     * @param transactions the transactions to write
+     * @return the number of transactions written
+     */
+    public int saveAll(List<VendorTransaction> transactions) {
+        transactions.forEach(this::inMarket);
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_BY_VENDOR_AND_DATE.sql(),
+                UPDATE_BY_VENDOR_AND_DATE.batchParams(transactions));
+
+        List<VendorTransaction> unconfirmed = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] < 1) {
+                unconfirmed.add(transactions.get(i));
+            }
+        }
+        List<VendorTransaction> inserts = withoutRows(unconfirmed);
+        if (!inserts.isEmpty()) {
+            inserts.forEach(transaction -> transaction.setId(UUID.randomUUID()));
+            EntityStatement<VendorTransaction> insert = METADATA.insert();
+            jdbcTemplate.batchUpdate(insert.sql(), insert.batchParams(inserts));
+        }
+        Set<String> markets = transactions.stream().map(VendorTransaction::getMarketId).collect(Collectors.toSet());
+        markets.forEach(this::touch);
+        return transactions.size();
+    }
+
+    /**
+     * Keeps the transactions whose market, vendor and market date have no row, reading the
+     * primary in one query per market and {@link #IN_CLAUSE_CHUNK_SIZE} vendors.
+     */
+    private List<VendorTransaction> withoutRows(List<VendorTransaction> transactions) {
+        Set<String> existing = new HashSet<>();
+        Map<String, Set<UUID>> vendorsByMarket = transactions.stream().collect(Collectors.groupingBy(
+                VendorTransaction::getMarketId,
+                Collectors.mapping(VendorTransaction::getVendorId, Collectors.toSet())));
+        vendorsByMarket.forEach((market, vendorIds) -> {
+            List<UUID> vendors = List.copyOf(vendorIds);
+            for (int from = 0; from < vendors.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+                List<UUID> chunk = vendors.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, vendors.size()));
+                String sql = "select vendor_id, market_date from vendor_transactions"
+                        + " where market_id = ? and vendor_id in ("
+                        + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+                List<Object> params = new ArrayList<>(chunk.size() + 1);
+                params.add(market);
+                chunk.forEach(vendor -> params.add(UuidUtils.toBytes(vendor)));
+                jdbcTemplate.query(sql, (RowCallbackHandler) rs -> existing.add(rowKey(market,
+                        UuidUtils.fromBytes(rs.getBytes("vendor_id")), rs.getObject("market_date", LocalDate.class))),
+                        params.toArray());
+            }
+        });
+        return transactions.stream()
+                .filter(transaction -> !existing.contains(rowKey(transaction.getMarketId(), transaction.getVendorId(),
+                        transaction.getMarketDate())))
+                .toList();
+    }
+
+    private static String rowKey(String market, UUID vendorId, LocalDate marketDate) {
+        return market + '/' + vendorId + '/' + marketDate;
+    }
+
+    /**
+     * Retrieves a transaction by its UUID from the database.
+     * @param uuid The UUID of the transaction to retrieve.
+     */
+    @Override
+    public Optional<VendorTransaction> findById(UUID uuid) {
+        String sql = METADATA.selectSql() + " where market_id = ? and id = ?";
+        return read(() -> {
+            try {
+                return Optional.ofNullable(jdbcTemplate.queryForObject(sql, METADATA.rowMapper(), market(),
+                        UuidUtils.toBytes(uuid)));
+            } catch (EmptyResultDataAccessException e) {
+                return Optional.empty();
+            }
+        });
+    }
+
+    /**
+     * Retrieves the transactions with the given UUIDs in chunked {@code in} queries.
+     * @param uuids The UUIDs of the transactions to retrieve.
+     */
+    @Override
+    public List<VendorTransaction> findAllById(Collection<UUID> uuids) {
+        return findAllByUuidIn(METADATA.selectSql() + " where", "id", uuids, METADATA.rowMapper());
+    }
+
+    /**
+     * Retrieves the transaction recorded for a vendor on a market date.
+     * @param vendorId the vendor's UUID
+     * @param marketDate the market day
+     */
+    public Optional<VendorTransaction> findByVendorAndDate(UUID vendorId, LocalDate marketDate) {
+        String sql = METADATA.selectSql() + " where market_id = ? and vendor_id = ? and market_date = ?";
+        return read(() -> {
+            try {
+                return Optional.ofNullable(jdbcTemplate.queryForObject(sql, METADATA.rowMapper(), market(),
+                        UuidUtils.toBytes(vendorId), marketDate));
+            } catch (EmptyResultDataAccessException e) {
+                return Optional.empty();
+            }
+        });
+    }
+
+    /**
+     * Retrieves every vendor's figures for a market date.
+     * @param marketDate the market day
+     */
+    public List<VendorTransaction> findAllByMarketDate(LocalDate marketDate) {
+        String sql = METADATA.selectSql() + " where market_id = ? and market_date = ?";
+        return read(() -> jdbcTemplate.query(sql, METADATA.rowMapper(), market(), marketDate));
+    }
+
+    /**
+     * Passes the id, benefit figures and reimbursement due of every transaction on a market date to
+     * {@code consumer} as the rows are read, without collecting them first. Reads the primary, as
+     * callers write figures derived from the rows back.
+     * @param marketDate the market day
+     * @param consumer receives each row; only the id, market, market date, benefit and reimbursement fields are set
+     */
+    public void forEachBenefitsByMarketDate(LocalDate marketDate, Consumer<VendorTransaction> consumer) {
+        String sql = """
+                select id, snap, dufb, wdfm_tokens, voucher, reimbursement_due from vendor_transactions
+                where market_id = ? and market_date = ?
+                """;
+        String market = market();
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> consumer.accept(VendorTransaction.builder()
+                .id(UuidUtils.fromBytes(rs.getBytes("id")))
+                .marketId(market)
+                .marketDate(marketDate)
+                .snap(rs.getObject("snap", Double.class))
+                .dufb(rs.getObject("dufb", Double.class))
+                .wdfmTokens(rs.getObject("wdfm_tokens", Double.class))
+                .voucher(rs.getObject("voucher", Double.class))
+                .reimbursementDue(rs.getObject("reimbursement_due", Double.class))
+                .build()), market, marketDate);
+    }
+
+    /**
+     * Sets {@code reimbursement_due} on the row of each transaction, by id, in one JDBC batch.
+     * @param transactions the transactions, with their id and new reimbursement due set
+     * @return the number of rows updated
+     */
+    public int updateReimbursementDue(List<VendorTransaction> transactions) {
+        String sql = "update vendor_transactions set reimbursement_due = ? where market_id = ? and id = ?";
+        List<Object[]> rows = transactions.stream()
+                .map(transaction -> new Object[]{transaction.getReimbursementDue(), inMarket(transaction).getMarketId(),
+                        UuidUtils.toBytes(transaction.getId())})
+                .toList();
+        int updated = 0;
+        for (int count : jdbcTemplate.batchUpdate(sql, rows)) {
+            // Drivers that rewrite batches report SUCCESS_NO_INFO (-2) instead of a row count
+            if (count != 0) {
+                updated++;
+            }
+        }
+        if (updated > 0) {
+            touch(market());
+        }
+        return updated;
+    }
+
+    /**
+     * Passes every transaction of the market between two market days to {@code consumer} as the
+     * rows are read, most recent market day first, without collecting them first.
+     * @param from first market day included; unbounded if {@code null}
+     * @param to last market day included; unbounded if {@code null}
+     * @param consumer receives each row
+     */
+    public void forEachInRange(LocalDate from, LocalDate to, Consumer<VendorTransaction> consumer) {
+        StringBuilder sql = new StringBuilder(METADATA.selectSql()).append(" where market_id = ?");
+        List<Object> params = new ArrayList<>();
+        params.add(market());
+        if (from != null) {
+            sql.append(" and market_date >= ?");
+            params.add(from);
+        }
+        if (to != null) {
+            sql.append(" and market_date <= ?");
+            params.add(to);
+        }
+        sql.append(" order by market_id, market_date desc, vendor_name");
+        RowMapper<VendorTransaction> rowMapper = METADATA.rowMapper();
+        read(() -> {
+            jdbcTemplate.query(sql.toString(), (RowCallbackHandler) rs -> consumer.accept(rowMapper.mapRow(rs, 0)),
+                    params.toArray());
+            return null;
+        });
+    }
+
+    /**
+     * @return the version of the market's transactions; changes whenever any of them is written.
+     */
+    public long version() {
+        String sql = "select version from transaction_versions where market_id = ?";
+        List<Long> version = read(() -> jdbcTemplate.queryForList(sql, Long.class, market()));
+        return version.isEmpty() ? 0 : version.getFirst();
+    }
+
+    /**
+     * Retrieves the market days with recorded figures, in no particular order.
+     * Answered from an index covering {@code market_date}, without reading the rows.
+     */
+    public List<LocalDate> findMarketDates() {
+        String sql = "select distinct market_date from vendor_transactions where market_id = ?";
+        return read(() -> jdbcTemplate.queryForList(sql, LocalDate.class, market()));
+    }
+
+    /**
+     * Retrieves all transactions of the market from the database.
+     */
+    @Override
+    public List<VendorTransaction> findAll() {
+        String sql = METADATA.selectSql() + " where market_id = ?";
+        return read(() -> jdbcTemplate.query(sql, METADATA.rowMapper(), market()));
+    }
+
+    /**
+     * Retrieves a page of transactions, most recent market day first.
+     * The page's ids are found on the {@code (market_id, market_date desc, vendor_name)} index alone.
+     * @param page 0-based page number
+     * @param size page size
+     */
+    @Override
+    public List<VendorTransaction> findAllPaged(int page, int size) {
+        int offset = page * size;
+        String sql = """
+                %s
+                join (select id as page_id from vendor_transactions
+                      where market_id = ?
+                      order by market_id, market_date desc, vendor_name
+                      offset ? rows fetch next ? rows only) page on vendor_transactions.id = page.page_id
+                order by market_date desc, vendor_name
+                """.formatted(METADATA.selectSql());
+        return read(() -> jdbcTemplate.query(sql, METADATA.rowMapper(), market(), offset, size));
+    }
+
+    /**
+     * Counts the number of transactions in the database.
+     */
+    @Override
+    public Long count() {
+        String sql = "select count(*) from vendor_transactions where market_id = ?";
+        Long count = read(() -> jdbcTemplate.queryForObject(sql, Long.class, market()));
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * Permanently removes a transaction.
+     * @param uuid The UUID of the transaction to delete.
+     */
+    @Override
+    public void deleteById(UUID uuid) {
+        String sql = "delete from vendor_transactions where market_id = ? and id = ?";
+        if (jdbcTemplate.update(sql, market(), UuidUtils.toBytes(uuid)) > 0) {
+            touch(market());
+        }
+    }
+
+    /**
+     * Increments a market's transaction version once the current transaction is about to
+     * commit, or now if there is none.
+     */
+    private void touch(String market) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            increment(market);
+            return;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof VersionIncrement pending) {
+                pending.markets.add(market);
+                return;
+            }
+        }
+        VersionIncrement pending = new VersionIncrement();
+        pending.markets.add(market);
+        TransactionSynchronizationManager.registerSynchronization(pending);
+    }
+
+    /**
+     * Increments a market's transaction version, creating it on the market's first write.
+     */
+    private void increment(String market) {
+        String update = "update transaction_versions set version = version + 1 where market_id = ?";
+        if (jdbcTemplate.update(update, market) > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update("insert into transaction_versions (market_id, version) values (?, 1)", market);
+        } catch (DuplicateKeyException e) {
+            // Another writer created it first
+            jdbcTemplate.update(update, market);
+        }
+    }
+
+    /**
+     * Increments the versions of the markets a transaction wrote to, once each, before it commits.
+     * Markets are incremented in name order, so transactions writing to the same markets lock
+     * their rows in the same order.
+     */
+    private final class VersionIncrement implements TransactionSynchronization {
+
+        private final Set<String> markets = new TreeSet<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            markets.forEach(VendorTransactionRepository.this::increment);
+        }
+    }
+}
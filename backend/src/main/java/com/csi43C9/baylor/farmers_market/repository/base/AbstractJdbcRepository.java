@@ -1,14 +1,131 @@
 package com.csi43C9.baylor.farmers_market.repository.base;
 
+import com.csi43C9.baylor.farmers_market.entity.base.IdentifiableUuid;
+import com.csi43C9.baylor.farmers_market.entity.base.MarketScoped;
+import com.csi43C9.baylor.farmers_market.repository.metadata.EntityMetadata;
+import com.csi43C9.baylor.farmers_market.repository.metadata.EntityStatement;
+import com.csi43C9.baylor.farmers_market.repository.routing.ReadRoutingContext;
+import com.csi43C9.baylor.farmers_market.tenant.TenantContext;
+import com.csi43C9.baylor.farmers_market.util.UuidUtils;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Supplier;
 
 /**
  * Abstract base class for JDBC-based repositories.
+ *
+ * <p>Market-partitioned tables lead every index with {@code market_id}. Statements on them match
+ * {@code market_id} to {@link #market()}, the market of the current {@link TenantContext}, and
+ * entities written get that market unless they already carry one, e.g. when write-behind flushes
+ * them on a background thread.
  */
 public abstract class AbstractJdbcRepository {
+    /**
+     * Largest number of keys bound into one {@code in (...)} clause.
+     */
+    protected static final int IN_CLAUSE_CHUNK_SIZE = 500;
+
     protected final JdbcTemplate jdbcTemplate;
 
     protected AbstractJdbcRepository(JdbcTemplate jdbcTemplate) {
         this.jdbcTemplate = jdbcTemplate;
     }
+
+    /**
+     * Runs a read-only query. When a read replica is configured the query may be served by it,
+     * falling back to the primary if the replica is lagging or unavailable.
+     * @param query the query to run
+     * @return the query result
+     */
+    protected <R> R read(Supplier<R> query) {
+        return ReadRoutingContext.read(query);
+    }
+
+    /**
+     * @return the market statements of the current thread are restricted to.
+     */
+    protected String market() {
+        return TenantContext.current();
+    }
+
+    /**
+     * Sets the current market on an entity that has none.
+     * @return the entity.
+     */
+    protected <T extends MarketScoped> T inMarket(T entity) {
+        if (entity.getMarketId() == null) {
+            entity.setMarketId(market());
+        }
+        return entity;
+    }
+
+    /**
+     * Runs {@code select ... where market_id = ? and <keyColumn> in (...)} over binary UUID keys,
+     * in the current market, issuing one query per {@link #IN_CLAUSE_CHUNK_SIZE} distinct keys.
+     * @param selectPrefix the statement up to and including {@code where}, e.g. {@code "select * from vendors where"}
+     * @param keyColumn the BINARY(16) column to match
+     * @param ids the keys to look up; duplicates and nulls are ignored
+     * @param rowMapper maps each matching row
+     * @return every matching row
+     */
+    protected <T> List<T> findAllByUuidIn(String selectPrefix, String keyColumn, Collection<UUID> ids,
+                                          RowMapper<T> rowMapper) {
+        List<UUID> distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+        List<T> results = new ArrayList<>(distinct.size());
+        for (int from = 0; from < distinct.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            List<UUID> chunk = distinct.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, distinct.size()));
+            String sql = selectPrefix + " market_id = ? and " + keyColumn + " in ("
+                    + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+            List<Object> params = new ArrayList<>(chunk.size() + 1);
+            params.add(market());
+            chunk.forEach(id -> params.add(UuidUtils.toBytes(id)));
+            results.addAll(read(() -> jdbcTemplate.query(sql, rowMapper, params.toArray())));
+        }
+        return results;
+    }
+
+    /**
+     * Inserts an entity with the statement derived from its metadata. A missing UUID id, and a
+     * missing market of a {@link MarketScoped} entity, are assigned before the insert; a generated
+     * Integer id is read back onto the entity afterwards.
+     * @param metadata the entity's metadata
+     * @param entity the entity to insert
+     * @return the inserted entity
+     */
+    protected <T> T insert(EntityMetadata<T> metadata, T entity) {
+        EntityStatement<T> insert = metadata.insert();
+        if (entity instanceof MarketScoped scoped) {
+            inMarket(scoped);
+        }
+        if (!metadata.hasGeneratedId()) {
+            if (entity instanceof IdentifiableUuid identifiable && identifiable.getId() == null) {
+                identifiable.setId(UUID.randomUUID());
+            }
+            jdbcTemplate.update(insert.sql(), insert.params(entity));
+            return entity;
+        }
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        String idColumn = metadata.id().column();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(insert.sql(), new String[]{idColumn});
+            new ArgumentPreparedStatementSetter(insert.params(entity)).setValues(statement);
+            return statement;
+        }, keyHolder);
+        Number key = keyHolder.getKey();
+        metadata.id().set(entity, key != null ? key.intValue() : null);
+        return entity;
+    }
 }
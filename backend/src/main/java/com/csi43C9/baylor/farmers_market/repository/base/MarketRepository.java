@@ -1,5 +1,6 @@
 package com.csi43C9.baylor.farmers_market.repository.base;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +21,13 @@ public interface MarketRepository<T, ID> {
      */
     Optional<T> findById(ID id);
 
+    /**
+     * Finds every record whose ID is in the given collection.
+     * IDs with no matching record are skipped; the result order is unspecified.
+     * @param ids The IDs of the records to find.
+     */
+    List<T> findAllById(Collection<ID> ids);
+
     /**
      * Retrieves all records of type T.
      */
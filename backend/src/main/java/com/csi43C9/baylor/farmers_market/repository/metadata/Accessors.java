@@ -0,0 +1,113 @@
+package com.csi43C9.baylor.farmers_market.repository.metadata;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Generates getter, setter and constructor lambdas with {@link LambdaMetafactory}.
+ *
+ * <p>The generated classes call the entity's accessor methods directly, so once the JIT has
+ * warmed up they cost the same as the calls in a hand-written mapper.
+ */
+final class Accessors {
+
+    private Accessors() {
+    }
+
+    /**
+     * @return a lambda calling the entity's public no-arg constructor.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> Supplier<T> constructor(MethodHandles.Lookup lookup, Class<T> type) {
+        MethodHandle handle = find(type, () -> lookup.findConstructor(type, MethodType.methodType(void.class)));
+        return (Supplier<T>) metafactory(lookup, Supplier.class, "get",
+                MethodType.methodType(Object.class), handle, MethodType.methodType(type));
+    }
+
+    /**
+     * @return a lambda calling the Lombok-style getter for the field ({@code getX}, or {@code isX}
+     *         for booleans), boxing primitives.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> Function<T, Object> getter(MethodHandles.Lookup lookup, Class<T> type, Field field) {
+        MethodType getterType = MethodType.methodType(field.getType());
+        MethodHandle handle = find(type, () -> lookup.findVirtual(type, getterName(field), getterType));
+        return (Function<T, Object>) metafactory(lookup, Function.class, "apply",
+                MethodType.methodType(Object.class, Object.class), handle,
+                MethodType.methodType(box(field.getType()), type));
+    }
+
+    /**
+     * @return a lambda calling the Lombok-style setter for the field, unboxing primitives.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> BiConsumer<T, Object> setter(MethodHandles.Lookup lookup, Class<T> type, Field field) {
+        MethodHandle handle = find(type, () -> lookup.findVirtual(type, setterName(field),
+                MethodType.methodType(void.class, field.getType())));
+        return (BiConsumer<T, Object>) metafactory(lookup, BiConsumer.class, "accept",
+                MethodType.methodType(void.class, Object.class, Object.class), handle,
+                MethodType.methodType(void.class, type, box(field.getType())));
+    }
+
+    private static Object metafactory(MethodHandles.Lookup lookup, Class<?> functionalInterface, String method,
+                                      MethodType erasedType, MethodHandle implementation, MethodType instantiatedType) {
+        try {
+            CallSite site = LambdaMetafactory.metafactory(lookup, method,
+                    MethodType.methodType(functionalInterface), erasedType, implementation, instantiatedType);
+            return site.getTarget().invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot generate accessor " + implementation, e);
+        }
+    }
+
+    private static MethodHandle find(Class<?> type, HandleLookup lookup) {
+        try {
+            return lookup.find();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException(type.getName() + " has no accessor: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Lombok names the getter of {@code boolean active} {@code isActive()}, and that of
+     * {@code boolean isActive} also {@code isActive()}.
+     */
+    private static String getterName(Field field) {
+        if (field.getType() != boolean.class) {
+            return "get" + capitalize(field.getName());
+        }
+        return hasIsPrefix(field) ? field.getName() : "is" + capitalize(field.getName());
+    }
+
+    private static String setterName(Field field) {
+        if (field.getType() == boolean.class && hasIsPrefix(field)) {
+            return "set" + field.getName().substring(2);
+        }
+        return "set" + capitalize(field.getName());
+    }
+
+    private static boolean hasIsPrefix(Field field) {
+        String name = field.getName();
+        return name.length() > 2 && name.startsWith("is") && Character.isUpperCase(name.charAt(2));
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static Class<?> box(Class<?> type) {
+        return MethodType.methodType(type).wrap().returnType();
+    }
+
+    @FunctionalInterface
+    private interface HandleLookup {
+        MethodHandle find() throws ReflectiveOperationException;
+    }
+}
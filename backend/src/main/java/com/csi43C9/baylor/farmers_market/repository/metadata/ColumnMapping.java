@@ -0,0 +1,99 @@
+package com.csi43C9.baylor.farmers_market.repository.metadata;
+
+import com.csi43C9.baylor.farmers_market.util.UuidUtils;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Binds one entity property to one column.
+ *
+ * <p>The getter and setter are generated once by {@link Accessors}, and the JDBC conversion for
+ * the property's type is chosen once here, so mapping a row does no reflection or type dispatch.
+ *
+ * @param <T> the entity type.
+ */
+public final class ColumnMapping<T> {
+
+    private final String column;
+    private final Class<?> type;
+    private final Function<T, Object> getter;
+    private final BiConsumer<T, Object> setter;
+    private final ColumnReader reader;
+    private final Function<Object, Object> writer;
+
+    ColumnMapping(String column, Class<?> type, Function<T, Object> getter, BiConsumer<T, Object> setter) {
+        this.column = column;
+        this.type = type;
+        this.getter = getter;
+        this.setter = setter;
+        this.reader = readerFor(type);
+        this.writer = type == UUID.class ? value -> UuidUtils.toBytes((UUID) value) : Function.identity();
+    }
+
+    public String column() {
+        return column;
+    }
+
+    public Class<?> type() {
+        return type;
+    }
+
+    /**
+     * @return the property value of the entity, converted to what the JDBC driver expects.
+     */
+    public Object toJdbc(T entity) {
+        return writer.apply(getter.apply(entity));
+    }
+
+    /**
+     * Reads this column from the current row into the entity.
+     */
+    public void read(ResultSet rs, T entity) throws SQLException {
+        setter.accept(entity, reader.read(rs, column));
+    }
+
+    /**
+     * Sets the property directly, e.g. to copy a generated key back onto the entity.
+     */
+    public void set(T entity, Object value) {
+        setter.accept(entity, value);
+    }
+
+    /**
+     * Primitives use the primitive getters; {@code rs.getObject(column, type)} would map SQL
+     * {@code null} to {@code null}, which a primitive setter cannot take.
+     */
+    private static ColumnReader readerFor(Class<?> type) {
+        if (type == UUID.class) {
+            return (rs, column) -> UuidUtils.fromBytes(rs.getBytes(column));
+        }
+        if (type == String.class) {
+            return ResultSet::getString;
+        }
+        if (type == boolean.class) {
+            return ResultSet::getBoolean;
+        }
+        if (type == int.class) {
+            return ResultSet::getInt;
+        }
+        if (type == long.class) {
+            return ResultSet::getLong;
+        }
+        if (type == double.class) {
+            return ResultSet::getDouble;
+        }
+        if (type.isPrimitive()) {
+            throw new IllegalArgumentException("Unsupported primitive column type: " + type);
+        }
+        return (rs, column) -> rs.getObject(column, type);
+    }
+
+    @FunctionalInterface
+    private interface ColumnReader {
+        Object read(ResultSet rs, String column) throws SQLException;
+    }
+}
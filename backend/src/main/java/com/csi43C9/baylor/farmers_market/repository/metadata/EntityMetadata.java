@@ -0,0 +1,262 @@
+package com.csi43C9.baylor.farmers_market.repository.metadata;
+
+import com.csi43C9.baylor.farmers_market.entity.base.IdentifiableInteger;
+import com.csi43C9.baylor.farmers_market.entity.base.IdentifiableUuid;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Table mapping of an {@link IdentifiableUuid} or {@link IdentifiableInteger} entity, with the
+ * SQL and {@link RowMapper} derived from it.
+ *
+ * <p>Every non-static field is a column, in declaration order. The table name comes from
+ * {@link Table} and column names from {@link Column}; both default to the snake_case form of the
+ * Java name, and {@link Transient} fields are skipped. The {@code id} field is the primary key:
+ * UUID ids are assigned by the application, Integer ids are generated by the database and left
+ * out of {@link #insert()}.
+ *
+ * <p>Metadata is built once per entity class, with accessors generated by
+ * {@link java.lang.invoke.LambdaMetafactory}; mapping rows and binding parameters afterwards
+ * does no reflection.
+ *
+ * @param <T> the entity type.
+ */
+public final class EntityMetadata<T> {
+
+    private static final String ID_FIELD = "id";
+
+    private static final ClassValue<EntityMetadata<?>> CACHE = new ClassValue<>() {
+        @Override
+        protected EntityMetadata<?> computeValue(Class<?> type) {
+            return new EntityMetadata<>(type);
+        }
+    };
+
+    private final Class<T> type;
+    private final String table;
+    private final Supplier<T> constructor;
+    private final List<ColumnMapping<T>> columns;
+    private final Map<String, ColumnMapping<T>> byColumn;
+    private final ColumnMapping<T> id;
+    private final boolean generatedId;
+    private final String selectSql;
+    private final EntityStatement<T> insert;
+    private final EntityStatement<T> updateById;
+    private final RowMapper<T> rowMapper;
+
+    /**
+     * Returns the metadata for an entity class, building it on first use.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> EntityMetadata<T> of(Class<T> type) {
+        return (EntityMetadata<T>) CACHE.get(type);
+    }
+
+    private EntityMetadata(Class<T> type) {
+        if (!IdentifiableUuid.class.isAssignableFrom(type) && !IdentifiableInteger.class.isAssignableFrom(type)) {
+            throw new IllegalArgumentException(type.getName() + " is neither IdentifiableUuid nor IdentifiableInteger");
+        }
+        MethodHandles.Lookup lookup = lookupFor(type);
+
+        this.type = type;
+        this.table = tableName(type);
+        this.constructor = Accessors.constructor(lookup, type);
+        this.columns = new ArrayList<>();
+        for (Field field : type.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers()) && !field.isAnnotationPresent(Transient.class)) {
+                columns.add(new ColumnMapping<>(columnName(field), field.getType(),
+                        Accessors.getter(lookup, type, field), Accessors.setter(lookup, type, field)));
+            }
+        }
+        this.byColumn = columns.stream()
+                .collect(Collectors.toMap(ColumnMapping::column, column -> column, (a, b) -> a, LinkedHashMap::new));
+        this.id = columns.stream()
+                .filter(column -> column.column().equals(columnName(findField(type, ID_FIELD))))
+                .findFirst()
+                .orElseThrow();
+        this.generatedId = IdentifiableInteger.class.isAssignableFrom(type);
+
+        this.selectSql = "select " + join(columns) + " from " + table;
+        List<ColumnMapping<T>> insertColumns = generatedId ? without(Set.of(id.column())) : columns;
+        this.insert = new EntityStatement<>("insert into " + table + " (" + join(insertColumns) + ") values ("
+                + String.join(", ", Collections.nCopies(insertColumns.size(), "?")) + ")", insertColumns);
+        this.updateById = updateBy(id.column());
+        this.rowMapper = this::mapRow;
+    }
+
+    public Class<T> type() {
+        return type;
+    }
+
+    public String table() {
+        return table;
+    }
+
+    /**
+     * @return the primary key column.
+     */
+    public ColumnMapping<T> id() {
+        return id;
+    }
+
+    /**
+     * @return {@code true} if the database generates the id on insert.
+     */
+    public boolean hasGeneratedId() {
+        return generatedId;
+    }
+
+    public List<ColumnMapping<T>> columns() {
+        return List.copyOf(columns);
+    }
+
+    /**
+     * @return {@code select <every column> from <table>}, to be followed by a {@code where} or {@code order by}.
+     */
+    public String selectSql() {
+        return selectSql;
+    }
+
+    /**
+     * @return an insert of every column, or of every column but the id if it is generated.
+     */
+    public EntityStatement<T> insert() {
+        return insert;
+    }
+
+    /**
+     * @return an update of every other column, matched on the id.
+     */
+    public EntityStatement<T> updateById() {
+        return updateById;
+    }
+
+    /**
+     * Derives an update of every column except the id and the key columns, matched on the key
+     * columns, e.g. to upsert on a natural key.
+     */
+    public EntityStatement<T> updateBy(String... keyColumns) {
+        return updateBy(List.of(keyColumns), Set.of());
+    }
+
+    /**
+     * Derives an update of every column except the id, the key columns and {@code keptColumns},
+     * matched on the key columns, e.g. to upsert on a natural key without overwriting columns
+     * that something else maintains.
+     */
+    public EntityStatement<T> updateBy(List<String> keyColumns, Set<String> keptColumns) {
+        List<ColumnMapping<T>> keys = keyColumns.stream().map(this::column).toList();
+        keptColumns.forEach(this::column);
+        Set<String> excluded = new HashSet<>(keyColumns);
+        excluded.addAll(keptColumns);
+        excluded.add(id.column());
+        List<ColumnMapping<T>> set = without(excluded);
+
+        String sql = "update " + table
+                + " set " + set.stream().map(c -> c.column() + " = ?").collect(Collectors.joining(", "))
+                + " where " + keys.stream().map(c -> c.column() + " = ?").collect(Collectors.joining(" and "));
+        List<ColumnMapping<T>> bindings = new ArrayList<>(set);
+        bindings.addAll(keys);
+        return new EntityStatement<>(sql, List.copyOf(bindings));
+    }
+
+    /**
+     * @return the mapping of the named column.
+     */
+    public ColumnMapping<T> column(String column) {
+        ColumnMapping<T> mapping = byColumn.get(column);
+        if (mapping == null) {
+            throw new IllegalArgumentException(table + " has no column " + column);
+        }
+        return mapping;
+    }
+
+    /**
+     * @return a {@link RowMapper} reading every column into a new entity.
+     */
+    public RowMapper<T> rowMapper() {
+        return rowMapper;
+    }
+
+    private T mapRow(ResultSet rs, int rowNum) throws SQLException {
+        T entity = constructor.get();
+        for (ColumnMapping<T> column : columns) {
+            column.read(rs, entity);
+        }
+        return entity;
+    }
+
+    private List<ColumnMapping<T>> without(Set<String> excluded) {
+        return columns.stream().filter(column -> !excluded.contains(column.column())).toList();
+    }
+
+    private static String join(List<? extends ColumnMapping<?>> columns) {
+        return columns.stream().map(ColumnMapping::column).collect(Collectors.joining(", "));
+    }
+
+    private static MethodHandles.Lookup lookupFor(Class<?> type) {
+        try {
+            return MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Cannot access " + type.getName(), e);
+        }
+    }
+
+    private static Field findField(Class<?> type, String name) {
+        try {
+            return type.getDeclaredField(name);
+        } catch (NoSuchFieldException e) {
+            throw new IllegalArgumentException(type.getName() + " has no " + name + " field", e);
+        }
+    }
+
+    private static String tableName(Class<?> type) {
+        Table table = AnnotatedElementUtils.findMergedAnnotation(type, Table.class);
+        if (table != null && !table.value().isEmpty()) {
+            return table.value();
+        }
+        return snakeCase(type.getSimpleName());
+    }
+
+    private static String columnName(Field field) {
+        Column column = AnnotatedElementUtils.findMergedAnnotation(field, Column.class);
+        if (column != null && !column.value().isEmpty()) {
+            return column.value();
+        }
+        return snakeCase(field.getName());
+    }
+
+    private static String snakeCase(String name) {
+        StringBuilder snake = new StringBuilder(name.length() + 4);
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isUpperCase(c)) {
+                if (i > 0) {
+                    snake.append('_');
+                }
+                snake.append(Character.toLowerCase(c));
+            } else {
+                snake.append(c);
+            }
+        }
+        return snake.toString();
+    }
+}
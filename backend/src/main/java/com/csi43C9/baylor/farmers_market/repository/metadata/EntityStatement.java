@@ -0,0 +1,32 @@
+package com.csi43C9.baylor.farmers_market.repository.metadata;
+
+import java.util.List;
+
+/**
+ * A SQL statement derived from {@link EntityMetadata}, with the columns bound to its
+ * {@code ?} placeholders in order.
+ *
+ * @param sql      the statement.
+ * @param bindings the column bound to each placeholder.
+ * @param <T>      the entity type.
+ */
+public record EntityStatement<T>(String sql, List<ColumnMapping<T>> bindings) {
+
+    /**
+     * @return the entity's values for each placeholder, ready to pass to {@code JdbcTemplate}.
+     */
+    public Object[] params(T entity) {
+        Object[] params = new Object[bindings.size()];
+        for (int i = 0; i < params.length; i++) {
+            params[i] = bindings.get(i).toJdbc(entity);
+        }
+        return params;
+    }
+
+    /**
+     * @return the parameters of each entity, for a JDBC batch.
+     */
+    public List<Object[]> batchParams(List<T> entities) {
+        return entities.stream().map(this::params).toList();
+    }
+}
@@ -0,0 +1,55 @@
+package com.csi43C9.baylor.farmers_market.repository.migration;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A versioned migration script named {@code V<version>__<description>.sql}, e.g.
+ * {@code V2__active_vendor_index.sql}.
+ *
+ * @param version     the version the script brings the schema to.
+ * @param description the description from the file name, with underscores as spaces.
+ * @param checksum    SHA-256 of the script with normalized line endings.
+ * @param script      the script itself.
+ */
+public record Migration(int version, String description, String checksum, Resource script) {
+
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+
+    /**
+     * Reads a script resource.
+     *
+     * @throws IllegalArgumentException if the file name does not follow {@code V<version>__<description>.sql}.
+     */
+    public static Migration of(Resource script) {
+        String fileName = script.getFilename();
+        Matcher matcher = FILE_NAME.matcher(fileName != null ? fileName : "");
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException(
+                    "Migration file name must look like V<version>__<description>.sql but was: " + fileName);
+        }
+        return new Migration(Integer.parseInt(matcher.group(1)), matcher.group(2).replace('_', ' '),
+                checksum(script), script);
+    }
+
+    private static String checksum(Resource script) {
+        try {
+            // Normalize line endings so a checkout with CRLF does not look like a changed script
+            String content = script.getContentAsString(StandardCharsets.UTF_8).replace("\r\n", "\n");
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read migration " + script, e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.csi43C9.baylor.farmers_market.repository.migration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies versioned SQL migrations from {@code farmers.market.migration.locations} at startup.
+ *
+ * <p>Applied versions are recorded in {@code schema_history} with the script's checksum. On each
+ * start, scripts newer than the history are applied in version order, and a script whose checksum
+ * differs from the recorded one fails the startup: released migrations must not be edited, add a
+ * new version instead. MariaDB commits DDL implicitly, so a script that fails halfway is not rolled
+ * back; write migrations so they can be re-run ({@code if not exists}).
+ *
+ * <p>Instances starting together take turns through a single-row lock in
+ * {@code schema_migration_lock}. The holder refreshes the lock's timestamp every third of
+ * {@code lock-timeout-ms} while it migrates, on a connection of its own, so a lock not refreshed
+ * for longer than that is assumed to belong to an instance that died and is taken over, however
+ * long the migrations take.
+ *
+ * <p>Migrations run as the first lifecycle phase, after the context is refreshed but before the
+ * web server accepts requests, so a training run that exits on refresh needs no database.
+ */
+@Component
+public class SchemaMigrator implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaMigrator.class);
+
+    private static final String CREATE_HISTORY = """
+            create table if not exists schema_history (
+                version int not null primary key,
+                description varchar(200) not null,
+                checksum varchar(64) not null,
+                installed_by varchar(255) not null,
+                installed_at timestamp not null,
+                execution_ms bigint not null
+            )""";
+    private static final String CREATE_LOCK = """
+            create table if not exists schema_migration_lock (
+                id int not null primary key,
+                locked_by varchar(255) null,
+                locked_at timestamp null
+            )""";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final String[] locations;
+    private final long lockTimeoutMs;
+    private final long lockWaitMs;
+    private final String instanceId;
+    private volatile boolean running;
+
+    public SchemaMigrator(DataSource dataSource,
+                          @Value("${farmers.market.migration.enabled:true}") boolean enabled,
+                          @Value("${farmers.market.migration.locations:classpath*:db/migration/V*__*.sql}") String[] locations,
+                          @Value("${farmers.market.migration.lock-timeout-ms:600000}") long lockTimeoutMs,
+                          @Value("${farmers.market.migration.lock-wait-ms:120000}") long lockWaitMs) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.enabled = enabled;
+        this.locations = locations;
+        this.lockTimeoutMs = lockTimeoutMs;
+        this.lockWaitMs = lockWaitMs;
+        this.instanceId = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+    }
+
+    /**
+     * Applies every pending migration.
+     *
+     * @return the migrations applied by this call; empty if the schema was up to date.
+     * @throws IllegalStateException if an applied migration was changed, or the lock could not be taken in time.
+     */
+    public List<Migration> migrate() {
+        List<Migration> migrations = load();
+        jdbcTemplate.execute(CREATE_HISTORY);
+        jdbcTemplate.execute(CREATE_LOCK);
+
+        acquireLock();
+        ScheduledExecutorService heartbeat = startHeartbeat();
+        try {
+            // Read the history under the lock: another instance may have just migrated
+            Map<Integer, String> applied = appliedChecksums();
+            List<Migration> pending = new ArrayList<>();
+            for (Migration migration : migrations) {
+                String checksum = applied.remove(migration.version());
+                if (checksum == null) {
+                    pending.add(migration);
+                } else if (!checksum.equals(migration.checksum())) {
+                    throw new IllegalStateException("Migration V" + migration.version() + " (" + migration.description()
+                            + ") was changed after it was applied; add a new migration instead");
+                }
+            }
+            if (!applied.isEmpty()) {
+                logger.warn("Database has migrations {} that this build does not know; it may be out of date",
+                        applied.keySet());
+            }
+            for (Migration migration : pending) {
+                apply(migration);
+            }
+            if (pending.isEmpty()) {
+                logger.info("Schema is up to date at version {}", migrations.isEmpty() ? 0 : migrations.getLast().version());
+            }
+            return pending;
+        } finally {
+            heartbeat.shutdownNow();
+            releaseLock();
+        }
+    }
+
+    private List<Migration> load() {
+        ResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        List<Migration> migrations = new ArrayList<>();
+        try {
+            for (String location : locations) {
+                for (Resource script : resolver.getResources(location.trim())) {
+                    migrations.add(Migration.of(script));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list migrations in " + Arrays.toString(locations), e);
+        }
+        migrations.sort(Comparator.comparingInt(Migration::version));
+        for (int i = 1; i < migrations.size(); i++) {
+            if (migrations.get(i).version() == migrations.get(i - 1).version()) {
+                throw new IllegalStateException("Two migrations have version " + migrations.get(i).version() + ": "
+                        + migrations.get(i - 1).script() + " and " + migrations.get(i).script());
+            }
+        }
+        return migrations;
+    }
+
+    private Map<Integer, String> appliedChecksums() {
+        Map<Integer, String> applied = new HashMap<>();
+        jdbcTemplate.query("select version, checksum from schema_history", rs -> {
+            applied.put(rs.getInt("version"), rs.getString("checksum"));
+        });
+        return applied;
+    }
+
+    private void apply(Migration migration) {
+        logger.info("Applying migration V{}: {}", migration.version(), migration.description());
+        long started = System.nanoTime();
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            ScriptUtils.executeSqlScript(connection, migration.script());
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+        long millis = (System.nanoTime() - started) / 1_000_000;
+        jdbcTemplate.update("insert into schema_history (version, description, checksum, installed_by, installed_at, "
+                        + "execution_ms) values (?, ?, ?, ?, ?, ?)",
+                migration.version(), migration.description(), migration.checksum(), instanceId,
+                Timestamp.from(Instant.now()), millis);
+        logger.info("Applied migration V{} in {} ms", migration.version(), millis);
+    }
+
+    private void acquireLock() {
+        try {
+            jdbcTemplate.update("insert into schema_migration_lock (id, locked_by, locked_at) values (1, null, null)");
+        } catch (DuplicateKeyException e) {
+            // The lock row already exists
+        }
+
+        long deadline = System.nanoTime() + lockWaitMs * 1_000_000;
+        while (true) {
+            Instant now = Instant.now();
+            int taken = jdbcTemplate.update("update schema_migration_lock set locked_by = ?, locked_at = ? "
+                            + "where id = 1 and (locked_by is null or locked_at < ?)",
+                    instanceId, Timestamp.from(now), Timestamp.from(now.minusMillis(lockTimeoutMs)));
+            if (taken == 1) {
+                return;
+            }
+            if (System.nanoTime() > deadline) {
+                String holder = jdbcTemplate.queryForObject(
+                        "select locked_by from schema_migration_lock where id = 1", String.class);
+                throw new IllegalStateException("Timed out after " + lockWaitMs
+                        + " ms waiting for the migration lock held by " + holder);
+            }
+            logger.info("Waiting for another instance to finish migrating");
+            try {
+                Thread.sleep(1_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the migration lock", e);
+            }
+        }
+    }
+
+    private ScheduledExecutorService startHeartbeat() {
+        ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "schema-migration-lock-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMs = Math.max(1, lockTimeoutMs / 3);
+        heartbeat.scheduleWithFixedDelay(this::refreshLockQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        return heartbeat;
+    }
+
+    private void refreshLockQuietly() {
+        try {
+            int refreshed = jdbcTemplate.update("update schema_migration_lock set locked_at = ? "
+                    + "where id = 1 and locked_by = ?", Timestamp.from(Instant.now()), instanceId);
+            if (refreshed == 0) {
+                logger.error("The migration lock was taken over by another instance while migrating");
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not refresh the migration lock", e);
+        }
+    }
+
+    private void releaseLock() {
+        jdbcTemplate.update("update schema_migration_lock set locked_by = null, locked_at = null "
+                + "where id = 1 and locked_by = ?", instanceId);
+    }
+
+    @Override
+    public void start() {
+        if (enabled) {
+            migrate();
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Runs before every other lifecycle bean, including the web server.
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MIN_VALUE;
+    }
+}
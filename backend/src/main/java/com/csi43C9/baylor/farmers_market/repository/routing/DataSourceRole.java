@@ -0,0 +1,12 @@
+package com.csi43C9.baylor.farmers_market.repository.routing;
+
+/**
+ * The database a connection is routed to by {@link ReadWriteRoutingDataSource}.
+ */
+public enum DataSourceRole {
+    /** The writable primary database. */
+    PRIMARY,
+
+    /** A read-only replica of the primary. */
+    REPLICA
+}
@@ -0,0 +1,89 @@
+package com.csi43C9.baylor.farmers_market.repository.routing;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Marks the current thread as performing a read-only repository call, so that
+ * {@link ReadWriteRoutingDataSource} may hand it a replica connection.
+ *
+ * <p>If a read routed to the replica fails with a connection-level error outside an actual
+ * transaction, the replica is reported unhealthy and the read is retried once on the primary.
+ */
+public final class ReadRoutingContext {
+
+    private static final ThreadLocal<State> CURRENT = new ThreadLocal<>();
+
+    private ReadRoutingContext() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Runs a read-only query, routing its connection to the replica when one is available.
+     * Nested calls join the outermost read.
+     */
+    public static <R> R read(Supplier<R> query) {
+        if (CURRENT.get() != null) {
+            return query.get();
+        }
+        State state = new State();
+        CURRENT.set(state);
+        try {
+            return query.get();
+        } catch (DataAccessException e) {
+            if (state.routedTo != DataSourceRole.REPLICA || !isReplicaFailure(e)
+                    || TransactionSynchronizationManager.isActualTransactionActive()) {
+                throw e;
+            }
+            state.onReplicaFailure.accept(e);
+            state.forcePrimary = true;
+            return query.get();
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * @return {@code true} if the current thread is inside {@link #read(Supplier)}.
+     */
+    static boolean isReadOnly() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * @return {@code true} if the current read already failed on the replica.
+     */
+    static boolean isPrimaryForced() {
+        State state = CURRENT.get();
+        return state != null && state.forcePrimary;
+    }
+
+    /**
+     * Records that the current read was routed to the replica, with the callback to run if it fails there.
+     */
+    static void routedToReplica(Consumer<Exception> onReplicaFailure) {
+        State state = CURRENT.get();
+        if (state != null) {
+            state.routedTo = DataSourceRole.REPLICA;
+            state.onReplicaFailure = onReplicaFailure;
+        }
+    }
+
+    private static boolean isReplicaFailure(DataAccessException e) {
+        return e instanceof DataAccessResourceFailureException
+                || e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException;
+    }
+
+    private static final class State {
+        private DataSourceRole routedTo = DataSourceRole.PRIMARY;
+        private Consumer<Exception> onReplicaFailure = e -> { };
+        private boolean forcePrimary;
+    }
+}
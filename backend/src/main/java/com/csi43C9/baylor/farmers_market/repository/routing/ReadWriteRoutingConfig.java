@@ -0,0 +1,80 @@
+package com.csi43C9.baylor.farmers_market.repository.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Configures primary/replica routing when {@code farmers.market.datasource.replica.url} is set.
+ *
+ * <p>The primary is built from the regular {@code spring.datasource.*} properties and the replica
+ * from {@code farmers.market.datasource.replica.*}. Both are Hikari pools configured by
+ * {@code spring.datasource.hikari.*}, as Spring Boot's own pool would be; the replica's settings
+ * can be overridden under {@code farmers.market.datasource.replica.hikari.*}. Without a replica URL
+ * this configuration backs off and Spring Boot's single auto-configured data source is used unchanged.
+ */
+@Configuration
+@ConditionalOnProperty("farmers.market.datasource.replica.url")
+public class ReadWriteRoutingConfig {
+
+    /**
+     * Builds the routing data source over a primary and a replica pool.
+     *
+     * @param primaryProperties the {@code spring.datasource.*} properties.
+     * @param environment       binds the {@code hikari} pool settings onto both pools.
+     * @return the {@link ReadWriteRoutingDataSource}; its pools are closed with the context.
+     */
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(
+            DataSourceProperties primaryProperties,
+            Environment environment,
+            @Value("${farmers.market.datasource.replica.url}") String replicaUrl,
+            @Value("${farmers.market.datasource.replica.username:${spring.datasource.username:}}") String replicaUsername,
+            @Value("${farmers.market.datasource.replica.password:${spring.datasource.password:}}") String replicaPassword,
+            @Value("${farmers.market.datasource.replica.read-your-writes-ms:5000}") long readYourWritesMs,
+            @Value("${farmers.market.datasource.replica.failure-cooldown-ms:30000}") long failureCooldownMs,
+            @Value("${farmers.market.datasource.replica.lag-query:}") String lagQuery,
+            @Value("${farmers.market.datasource.replica.max-lag-ms:5000}") long maxLagMs,
+            @Value("${farmers.market.datasource.replica.lag-check-interval-ms:5000}") long lagCheckIntervalMs) {
+        Binder binder = Binder.get(environment);
+        HikariDataSource primary = primaryProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+
+        HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(primaryProperties.determineDriverClassName())
+                .url(replicaUrl)
+                .username(replicaUsername)
+                .password(replicaPassword)
+                .build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+        replica.setPoolName(primary.getPoolName() != null ? primary.getPoolName() + "-replica" : "replica");
+        binder.bind("farmers.market.datasource.replica.hikari", Bindable.ofInstance(replica));
+
+        ReadWriteRoutingDataSource routing =
+                new ReadWriteRoutingDataSource(primary, replica, readYourWritesMs, failureCooldownMs);
+        routing.startLagProbe(lagQuery, maxLagMs, lagCheckIntervalMs);
+        return routing;
+    }
+
+    /**
+     * Exposes the routing data source behind a lazy proxy, so that a transaction's connection
+     * is only fetched, and routed, once its read-only flag is known.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+}
@@ -0,0 +1,218 @@
+package com.csi43C9.baylor.farmers_market.repository.routing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DataSource} that sends read-only work to a replica and everything else to the primary.
+ *
+ * <p>A connection goes to the replica when it is requested inside
+ * {@link ReadRoutingContext#read(java.util.function.Supplier)} or a
+ * {@code @Transactional(readOnly = true)} transaction, unless:
+ * <ul>
+ *   <li>the authenticated client wrote within the last {@code readYourWritesMs}, so it
+ *       sees its own write even if the replica has not caught up;</li>
+ *   <li>a replica read failed within the last {@code failureCooldownMs}; or</li>
+ *   <li>the optional lag probe last reported more than {@code maxLagMs} of replication lag.</li>
+ * </ul>
+ *
+ * <p>If a replica connection cannot be obtained, the primary is used instead. Transactions only
+ * know they are read-only once they start, so this data source should be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+    private static final int MAX_TRACKED_CLIENTS = 10_000;
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long readYourWritesNanos;
+    private final long failureCooldownNanos;
+    private final Map<String, Long> lastWriteByClient = new ConcurrentHashMap<>();
+    private volatile boolean replicaFailed;
+    private volatile long replicaFailedAt;
+    private volatile boolean replicaLagging;
+    private ScheduledExecutorService lagProbe;
+
+    /**
+     * @param primary           the writable primary.
+     * @param replica           the read-only replica.
+     * @param readYourWritesMs  how long a client's reads stay on the primary after it writes.
+     * @param failureCooldownMs how long reads stay on the primary after a replica failure.
+     */
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica,
+                                      long readYourWritesMs, long failureCooldownMs) {
+        this.primary = primary;
+        this.replica = replica;
+        this.readYourWritesNanos = TimeUnit.MILLISECONDS.toNanos(readYourWritesMs);
+        this.failureCooldownNanos = TimeUnit.MILLISECONDS.toNanos(failureCooldownMs);
+        setTargetDataSources(Map.of(DataSourceRole.PRIMARY, primary, DataSourceRole.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Periodically runs {@code lagQuery} on the replica. The query must return the replication
+     * lag in seconds; reads are kept on the primary while it exceeds {@code maxLagMs} or fails.
+     */
+    public void startLagProbe(String lagQuery, long maxLagMs, long intervalMs) {
+        if (!StringUtils.hasText(lagQuery)) {
+            return;
+        }
+        JdbcTemplate replicaTemplate = new JdbcTemplate(replica);
+        lagProbe = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-probe");
+            thread.setDaemon(true);
+            return thread;
+        });
+        lagProbe.scheduleWithFixedDelay(() -> {
+            try {
+                Double lagSeconds = replicaTemplate.queryForObject(lagQuery, Double.class);
+                boolean lagging = lagSeconds == null || lagSeconds * 1000 > maxLagMs;
+                if (lagging != replicaLagging) {
+                    logger.warn("Replica lag is {} s; routing reads to the {}", lagSeconds,
+                            lagging ? "primary" : "replica");
+                }
+                replicaLagging = lagging;
+            } catch (RuntimeException e) {
+                replicaLagging = true;
+                logger.warn("Replica lag probe failed; routing reads to the primary: {}", e.getMessage());
+            }
+        }, 0, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly = ReadRoutingContext.isReadOnly()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        String client = currentClient();
+
+        if (!readOnly) {
+            if (client != null) {
+                recordWrite(client);
+            }
+            return DataSourceRole.PRIMARY;
+        }
+        if (ReadRoutingContext.isPrimaryForced() || readRole(client) == DataSourceRole.PRIMARY) {
+            return DataSourceRole.PRIMARY;
+        }
+        ReadRoutingContext.routedToReplica(this::markReplicaFailed);
+        return DataSourceRole.REPLICA;
+    }
+
+    /**
+     * @return where a read started now on the current thread would be routed, so that callers
+     * sharing reads between threads only share reads routed alike.
+     */
+    public DataSourceRole readRole() {
+        return readRole(currentClient());
+    }
+
+    private DataSourceRole readRole(String client) {
+        return !isReplicaUsable() || wroteRecently(client) ? DataSourceRole.PRIMARY : DataSourceRole.REPLICA;
+    }
+
+    /**
+     * Routes as {@link #determineCurrentLookupKey()} decides, but if a replica connection
+     * cannot be obtained, marks the replica failed and returns a primary connection instead.
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (determineCurrentLookupKey() != DataSourceRole.REPLICA) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            markReplicaFailed(e);
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (determineCurrentLookupKey() != DataSourceRole.REPLICA) {
+            return primary.getConnection(username, password);
+        }
+        try {
+            return replica.getConnection(username, password);
+        } catch (SQLException e) {
+            markReplicaFailed(e);
+            return primary.getConnection(username, password);
+        }
+    }
+
+    /**
+     * @return {@code true} if reads may currently be sent to the replica.
+     */
+    public boolean isReplicaUsable() {
+        return !replicaLagging && (!replicaFailed || System.nanoTime() - replicaFailedAt >= failureCooldownNanos);
+    }
+
+    private void markReplicaFailed(Exception e) {
+        replicaFailedAt = System.nanoTime();
+        replicaFailed = true;
+        logger.warn("Replica read failed; routing reads to the primary for {} ms: {}",
+                TimeUnit.NANOSECONDS.toMillis(failureCooldownNanos), e.getMessage());
+    }
+
+    private void recordWrite(String client) {
+        long now = System.nanoTime();
+        lastWriteByClient.put(client, now);
+        if (lastWriteByClient.size() > MAX_TRACKED_CLIENTS) {
+            lastWriteByClient.values().removeIf(lastWrite -> now - lastWrite >= readYourWritesNanos);
+        }
+    }
+
+    private boolean wroteRecently(String client) {
+        if (client == null) {
+            return false;
+        }
+        Long lastWrite = lastWriteByClient.get(client);
+        if (lastWrite == null) {
+            return false;
+        }
+        if (System.nanoTime() - lastWrite < readYourWritesNanos) {
+            return true;
+        }
+        lastWriteByClient.remove(client, lastWrite);
+        return false;
+    }
+
+    private static String currentClient() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+
+    /**
+     * Stops the lag probe and closes both pools.
+     */
+    @Override
+    public void close() throws Exception {
+        if (lagProbe != null) {
+            lagProbe.shutdownNow();
+        }
+        if (primary instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+        if (replica instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.csi43C9.baylor.farmers_market.security;
 
 import com.csi43C9.baylor.farmers_market.security.jwt.AuthEntryPointJwt;
+import com.csi43C9.baylor.farmers_market.security.idempotency.IdempotencyFilter;
 import com.csi43C9.baylor.farmers_market.security.jwt.JwtAuthFilter;
+import com.csi43C9.baylor.farmers_market.security.ratelimit.RateLimitFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.AllArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -23,8 +26,8 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
  * <p>This class sets up the security configurations for the application,
  * including enabling web security and method security, configuring JWT
  * authentication, defining password encoding, and setting authorization
- * rules for different API endpoints. It integrates {@link JwtAuthFilter}
- * and {@link AuthEntryPointJwt} into the security chain.
+ * rules for different API endpoints. It integrates {@link JwtAuthFilter},
+ * {@link RateLimitFilter}, {@link IdempotencyFilter} and {@link AuthEntryPointJwt} into the security chain.
  */
 @Configuration
 @EnableWebSecurity
@@ -35,6 +38,8 @@ public class SecurityConfig {
     private final UserDetailsServiceImpl userDetailsService;
     private final AuthEntryPointJwt unauthorizedHandler;
     private final JwtAuthFilter jwtAuthFilter;
+    private final RateLimitFilter rateLimitFilter;
+    private final IdempotencyFilter idempotencyFilter;
 
 
     /**
@@ -65,7 +70,9 @@ public class SecurityConfig {
      * Configures the main security filter chain for the application.
      * This method defines the security rules for HTTP requests, including CSRF protection,
      * exception handling, session management, and request authorization. It also adds the
-     * {@link JwtAuthFilter} to the filter chain.
+     * {@link JwtAuthFilter} to the filter chain, followed by the {@link RateLimitFilter} so that
+     * rate limits can be applied per authenticated principal, and the {@link IdempotencyFilter},
+     * so that retried writes are replayed per principal once admitted.
      *
      * @param http the {@link HttpSecurity} builder to configure.
      * @return the built {@link SecurityFilterChain}.
@@ -78,12 +85,18 @@ public class SecurityConfig {
                 .exceptionHandling(exception -> exception.authenticationEntryPoint(unauthorizedHandler))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth ->
-                        auth.requestMatchers("/api/auth/**").permitAll()
+                        // Completing an SSE stream re-dispatches the already authorized request
+                        auth.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                                .requestMatchers("/api/auth/**").permitAll()
                                 .requestMatchers("/error").permitAll() // Allow the error path
+                                // Liveness and readiness probes carry no token; details stay hidden
+                                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
                                 .anyRequest().authenticated()
                 );
 
         http.addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+        http.addFilterAfter(rateLimitFilter, JwtAuthFilter.class);
+        http.addFilterAfter(idempotencyFilter, RateLimitFilter.class);
 
         return http.build();
     }
@@ -1,6 +1,9 @@
 package com.csi43C9.baylor.farmers_market.security;
 
+import com.csi43C9.baylor.farmers_market.tenant.Markets;
 import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -9,6 +12,7 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -19,10 +23,21 @@ import java.util.List;
  * password, and authorities) based on their username. Currently, it uses
  * a hardcoded user for demonstration but is intended to fetch
  * user data from a persistent store (e.g., a database).
+ *
+ * <p>A user may only log into the markets they are a member of, granted as
+ * {@link Markets#authority(String)} authorities. The hardcoded user is a member of the markets in
+ * {@code farmers.market.tenancy.user-markets}, or of the deployment's default market if none are listed.
  */
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
 
+    private final List<String> userMarkets;
+
+    public UserDetailsServiceImpl(Markets markets,
+                                  @Value("${farmers.market.tenancy.user-markets:}") List<String> userMarkets) {
+        List<String> members = userMarkets.stream().map(String::strip).filter(id -> !id.isEmpty()).toList();
+        this.userMarkets = members.isEmpty() ? List.of(markets.defaultMarket()) : members;
+    }
 
     /**
      * Locates the user based on the username.
@@ -38,10 +53,13 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     public UserDetails loadUserByUsername(@NonNull String username) throws UsernameNotFoundException {
         // TODO: fetch the user from the database here.
         if ("user".equals(username)) {
+            List<GrantedAuthority> authorities = new ArrayList<>();
+            authorities.add(new SimpleGrantedAuthority("ROLE_USER"));
+            userMarkets.forEach(market -> authorities.add(new SimpleGrantedAuthority(Markets.authority(market))));
             return new User(
                     "user",
                     new BCryptPasswordEncoder().encode("password"),
-                    List.of(new SimpleGrantedAuthority("ROLE_USER"))
+                    authorities
             );
         } else {
             throw new UsernameNotFoundException("User not found with username: " + username);
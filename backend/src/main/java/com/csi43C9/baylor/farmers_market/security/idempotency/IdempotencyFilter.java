@@ -0,0 +1,228 @@
+package com.csi43C9.baylor.farmers_market.security.idempotency;
+
+import com.csi43C9.baylor.farmers_market.exception.ErrorResponses;
+import com.csi43C9.baylor.farmers_market.security.CachedBodyRequest;
+import com.csi43C9.baylor.farmers_market.tenant.TenantContext;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Replays the stored response of a write retried with the same {@code Idempotency-Key} header,
+ * instead of running it again.
+ *
+ * <p>Applies to {@code POST}, {@code PUT} and {@code PATCH} requests to the vendor and transaction
+ * APIs that carry the header. Keys are scoped to the client, as in
+ * {@link com.csi43C9.baylor.farmers_market.security.ratelimit.RateLimitFilter}, to the market the
+ * request is for, and to the method and path. The first request with a key runs; a duplicate
+ * arriving while it runs waits up to {@code wait-timeout-ms} for its response and, if it is still
+ * running then, is told to retry with 409 Conflict and {@code Retry-After}. A duplicate arriving
+ * later gets the stored response at once. Replayed responses are marked with
+ * {@code Idempotent-Replayed: true} and do not touch the database. Reusing a key for a different
+ * body is rejected with 422 Unprocessable Content. Server errors are not stored, so a retry after
+ * one runs again.
+ *
+ * <p>This filter runs after admission by the rate limiter, so a waiting duplicate holds an
+ * admission permit; {@code wait-timeout-ms} is kept well below the admission timeout, and by
+ * default duplicates do not wait at all.
+ *
+ * <p>Counters are published to Micrometer under {@code farmers.market.idempotency.*}.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter implements MeterBinder {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final Set<String> METHODS = Set.of(HttpMethod.POST.name(), HttpMethod.PUT.name(),
+            HttpMethod.PATCH.name());
+    private static final Set<String> PATHS = Set.of("/api/vendor", "/api/transaction");
+
+    private final boolean enabled;
+    private final long waitTimeoutMs;
+    private final IdempotencyStore store;
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder keyReused = new LongAdder();
+    private final LongAdder untracked = new LongAdder();
+
+    public IdempotencyFilter(@Value("${farmers.market.idempotency.enabled:true}") boolean enabled,
+                             @Value("${farmers.market.idempotency.max-entries:10000}") int maxEntries,
+                             @Value("${farmers.market.idempotency.ttl-ms:3600000}") long ttlMs,
+                             @Value("${farmers.market.idempotency.wait-timeout-ms:0}") long waitTimeoutMs) {
+        this.enabled = enabled;
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.store = new IdempotencyStore(maxEntries, ttlMs);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled
+                || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null
+                || !METHODS.contains(request.getMethod())
+                || PATHS.stream().noneMatch(path -> request.getRequestURI().equals(path)
+                        || request.getRequestURI().startsWith(path + "/"));
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            ErrorResponses.write(response, HttpStatus.BAD_REQUEST,
+                    IDEMPOTENCY_KEY_HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters",
+                    request.getServletPath());
+            return;
+        }
+        CachedBodyRequest cached = new CachedBodyRequest(request);
+        String key = String.join(" ", clientKey(request), TenantContext.current(), request.getMethod(),
+                request.getRequestURI(), idempotencyKey);
+        String fingerprint = fingerprint(cached.body());
+
+        // A released key is claimed again, normally by the first waiter to retry
+        for (int attempt = 0; attempt < 3; attempt++) {
+            IdempotencyStore.Claim claim = store.claim(key, fingerprint);
+            switch (claim.status()) {
+                case ACQUIRED -> {
+                    runAndStore(cached, response, filterChain, key, claim.entry());
+                    return;
+                }
+                case UNTRACKED -> {
+                    untracked.increment();
+                    filterChain.doFilter(cached, response);
+                    return;
+                }
+                case KEY_REUSED -> {
+                    keyReused.increment();
+                    ErrorResponses.write(response, HttpStatus.UNPROCESSABLE_CONTENT,
+                            IDEMPOTENCY_KEY_HEADER + " was already used for a different request",
+                            request.getServletPath());
+                    return;
+                }
+                default -> {
+                    // DUPLICATE: wait briefly for the owner's response
+                    StoredResponse stored = await(claim.entry());
+                    if (stored != null) {
+                        replayed.increment();
+                        replay(stored, response);
+                        return;
+                    }
+                    if (!claim.entry().response().isDone()) {
+                        inProgress(request, response);
+                        return;
+                    }
+                }
+            }
+        }
+        inProgress(request, response);
+    }
+
+    private static void inProgress(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        ErrorResponses.write(response, HttpStatus.CONFLICT,
+                "A request with this " + IDEMPOTENCY_KEY_HEADER + " is still in progress", request.getServletPath());
+    }
+
+    private void runAndStore(CachedBodyRequest request, HttpServletResponse response, FilterChain filterChain,
+                             String key, IdempotencyStore.Entry entry) throws ServletException, IOException {
+        ContentCachingResponseWrapper captured = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            filterChain.doFilter(request, captured);
+            if (captured.getStatus() < HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+                store.complete(entry, new StoredResponse(captured.getStatus(), captured.getContentType(),
+                        captured.getContentAsByteArray()));
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                store.release(key, entry);
+            }
+            captured.copyBodyToResponse();
+        }
+    }
+
+    /**
+     * @return the owner's response, or {@code null} if it released the key or did not finish in time.
+     */
+    private StoredResponse await(IdempotencyStore.Entry entry) throws ServletException {
+        if (waitTimeoutMs <= 0) {
+            return entry.response().getNow(null);
+        }
+        try {
+            return entry.response().get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServletException("Interrupted waiting for a request with the same idempotency key", e);
+        } catch (ExecutionException e) {
+            throw new ServletException(e.getCause());
+        }
+    }
+
+    private static void replay(StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static String fingerprint(byte[] body) {
+        try {
+            return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("farmers.market.idempotency.replayed", replayed, LongAdder::sum)
+                .register(registry);
+        FunctionCounter.builder("farmers.market.idempotency.key.reused", keyReused, LongAdder::sum)
+                .register(registry);
+        FunctionCounter.builder("farmers.market.idempotency.untracked", untracked, LongAdder::sum)
+                .register(registry);
+        Gauge.builder("farmers.market.idempotency.keys", store, IdempotencyStore::size)
+                .register(registry);
+    }
+}
@@ -0,0 +1,137 @@
+package com.csi43C9.baylor.farmers_market.security.idempotency;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Responses of completed requests by idempotency key, and the requests still running.
+ *
+ * <p>The first request with a key becomes its owner and runs; requests arriving with the same key
+ * meanwhile get the owner's pending result to wait on, and later ones its stored response. Entries
+ * live in a {@link ConcurrentHashMap} for {@code ttlMs} after the owner started and are dropped by
+ * whichever request first notices that a sweep is due. At most {@code maxEntries} keys are held;
+ * while full, new keys are not tracked and their requests run without replay protection.
+ */
+public class IdempotencyStore {
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweepNanos;
+
+    /**
+     * @param maxEntries keys held at most.
+     * @param ttlMs      how long a key is held after its first request started.
+     */
+    public IdempotencyStore(int maxEntries, long ttlMs) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.nextSweepNanos = new AtomicLong(System.nanoTime() + ttlNanos);
+    }
+
+    /**
+     * Claims a key for a request.
+     * @param key the scoped idempotency key.
+     * @param fingerprint identifies the request's content; a key may only be reused for the same content.
+     * @return how the request should proceed.
+     */
+    public Claim claim(String key, String fingerprint) {
+        long now = System.nanoTime();
+        evictExpired(now);
+        if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+            return new Claim(ClaimStatus.UNTRACKED, null);
+        }
+        Entry fresh = new Entry(fingerprint, now);
+        Entry held = entries.putIfAbsent(key, fresh);
+        if (held != null && isExpired(held, now) && entries.replace(key, held, fresh)) {
+            held = null;
+        }
+        if (held == null) {
+            return new Claim(ClaimStatus.ACQUIRED, fresh);
+        }
+        if (!held.fingerprint.equals(fingerprint)) {
+            return new Claim(ClaimStatus.KEY_REUSED, null);
+        }
+        return new Claim(ClaimStatus.DUPLICATE, held);
+    }
+
+    /**
+     * Stores the owner's response and hands it to every request waiting on the key.
+     */
+    public void complete(Entry entry, StoredResponse response) {
+        entry.response.complete(response);
+    }
+
+    /**
+     * Forgets a key whose owner did not produce a response worth replaying, e.g. a server error,
+     * so that a retry runs again. Waiting requests are woken with {@code null} and claim the key anew.
+     */
+    public void release(String key, Entry entry) {
+        entries.remove(key, entry);
+        entry.response.complete(null);
+    }
+
+    /**
+     * @return the number of keys currently held.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return now - entry.startedNanos >= ttlNanos;
+    }
+
+    private void evictExpired(long now) {
+        long due = nextSweepNanos.get();
+        if (now - due < 0 || !nextSweepNanos.compareAndSet(due, now + ttlNanos)) {
+            return;
+        }
+        entries.values().removeIf(entry -> isExpired(entry, now));
+    }
+
+    /**
+     * How a request with an idempotency key proceeds.
+     */
+    public enum ClaimStatus {
+        /** The request owns the key: it runs, then completes or releases the entry. */
+        ACQUIRED,
+        /** An earlier request holds the key: wait for its response and replay it. */
+        DUPLICATE,
+        /** The key was used for a request with different content. */
+        KEY_REUSED,
+        /** The store is full: the request runs without replay protection. */
+        UNTRACKED
+    }
+
+    /**
+     * @param status how the request proceeds.
+     * @param entry  the key's entry, for {@link ClaimStatus#ACQUIRED} and {@link ClaimStatus#DUPLICATE}.
+     */
+    public record Claim(ClaimStatus status, Entry entry) {
+    }
+
+    /**
+     * One key's request: its fingerprint and, once the owner is done, its response.
+     */
+    public static final class Entry {
+
+        private final String fingerprint;
+        private final long startedNanos;
+        private final CompletableFuture<StoredResponse> response = new CompletableFuture<>();
+
+        Entry(String fingerprint, long startedNanos) {
+            this.fingerprint = fingerprint;
+            this.startedNanos = startedNanos;
+        }
+
+        /**
+         * @return the owner's response once stored, or {@code null} if the owner released the key.
+         */
+        public CompletableFuture<StoredResponse> response() {
+            return response;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.csi43C9.baylor.farmers_market.security.idempotency;
+
+/**
+ * A completed response kept for replay.
+ *
+ * @param status      the HTTP status.
+ * @param contentType the {@code Content-Type}, or {@code null} if the response had none.
+ * @param body        the response body.
+ */
+public record StoredResponse(int status, String contentType, byte[] body) {
+}
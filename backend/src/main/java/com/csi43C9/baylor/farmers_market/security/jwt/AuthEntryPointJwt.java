@@ -1,18 +1,22 @@
 package com.csi43C9.baylor.farmers_market.security.jwt;
 
+import com.csi43C9.baylor.farmers_market.exception.ErrorResponses;
+import com.csi43C9.baylor.farmers_market.util.LogSampler;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.MediaType;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.stereotype.Component;
-import tools.jackson.databind.ObjectMapper;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Handles unauthorized authentication attempts in a JWT-based security context.
@@ -20,12 +24,19 @@ import java.util.Map;
  * <p>This component is triggered when an unauthenticated user tries to access a secured resource.
  * It begins the authentication scheme by sending an HTTP 401 Unauthorized response
  * and providing a clear error message in JSON format to the client.
+ *
+ * <p>401s arrive in floods when many tokens expire at once or a scanner probes the API, so the
+ * body is rendered from pre-encoded fragments by {@link ErrorResponses} and at most one 401 per
+ * second is logged. Counts are published as {@code farmers.market.errors.unauthorized} and
+ * {@code farmers.market.errors.log.suppressed}.
  */
 @Component
-public class AuthEntryPointJwt implements AuthenticationEntryPoint {
+public class AuthEntryPointJwt implements AuthenticationEntryPoint, MeterBinder {
 
     private static final Logger logger = LoggerFactory.getLogger(AuthEntryPointJwt.class);
 
+    private final LongAdder unauthorized = new LongAdder();
+    private final LogSampler logSampler = new LogSampler(1, TimeUnit.SECONDS);
 
     /**
      * This method is invoked when an unauthenticated user attempts to access a secured REST endpoint.
@@ -40,18 +51,22 @@ public class AuthEntryPointJwt implements AuthenticationEntryPoint {
     @Override
     public void commence(HttpServletRequest request, HttpServletResponse response, AuthenticationException authException)
             throws IOException {
-        logger.error("Unauthorized error: {}", authException.getMessage());
-
-        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        unauthorized.increment();
+        long suppressed = logSampler.acquire();
+        if (suppressed >= 0) {
+            logger.warn("Unauthorized request to {}: {} ({} similar suppressed)",
+                    request.getServletPath(), authException.getMessage(), suppressed);
+        }
 
-        final Map<String, Object> body = new HashMap<>();
-        body.put("status", HttpServletResponse.SC_UNAUTHORIZED);
-        body.put("error", "Unauthorized");
-        body.put("message", authException.getMessage());
-        body.put("path", request.getServletPath());
+        ErrorResponses.write(response, HttpStatus.UNAUTHORIZED, authException.getMessage(), request.getServletPath());
+    }
 
-        final ObjectMapper mapper = new ObjectMapper();
-        mapper.writeValue(response.getOutputStream(), body);
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("farmers.market.errors.unauthorized", unauthorized, LongAdder::sum)
+                .register(registry);
+        FunctionCounter.builder("farmers.market.errors.log.suppressed", logSampler, LogSampler::suppressedCount)
+                .tag("source", "unauthorized")
+                .register(registry);
     }
 }
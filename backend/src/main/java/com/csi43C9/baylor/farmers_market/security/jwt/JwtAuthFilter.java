@@ -1,6 +1,7 @@
 package com.csi43C9.baylor.farmers_market.security.jwt;
 
 import com.csi43C9.baylor.farmers_market.security.UserDetailsServiceImpl;
+import com.csi43C9.baylor.farmers_market.tenant.TenantContext;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,7 +26,8 @@ import java.io.IOException;
  * <p>This filter intercepts HTTP requests, extracts JWTs from the Authorization header,
  * validates them using {@link JwtUtil}, and sets up the Spring Security authentication
  * context if the token is valid. This ensures that later security checks
- * are aware of the authenticated user.
+ * are aware of the authenticated user. The rest of the request then runs in the market named
+ * by the token's market claim, see {@link TenantContext}.
  */
 @Component
 @RequiredArgsConstructor
@@ -55,6 +57,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         final String requestUri = request.getRequestURI();
         logger.debug("Processing request for URI: {}", requestUri);
 
+        String market = null;
         try {
             String jwt = parseJwt(request);
             if (jwt != null) {
@@ -73,6 +76,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                         authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                         SecurityContextHolder.getContext().setAuthentication(authentication);
+                        market = jwtUtil.extractMarket(jwt);
                         logger.info("Authenticated user {} set in security context for URI: {}", username, requestUri);
                     } else {
                         logger.warn("JWT validation failed for user {} on URI {}", username, requestUri);
@@ -89,7 +93,14 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             logger.error("Authentication error for URI {}: {}", requestUri, e.getMessage(), e);
         }
 
-        filterChain.doFilter(request, response);
+        if (market == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        request.setAttribute(TenantContext.REQUEST_ATTRIBUTE, market);
+        try (TenantContext.Scope ignored = TenantContext.enter(market)) {
+            filterChain.doFilter(request, response);
+        }
     }
 
 
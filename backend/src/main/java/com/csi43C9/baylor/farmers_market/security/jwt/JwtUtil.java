@@ -1,5 +1,6 @@
 package com.csi43C9.baylor.farmers_market.security.jwt;
 
+import com.csi43C9.baylor.farmers_market.tenant.TenantContext;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
@@ -29,6 +30,11 @@ public class JwtUtil {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtUtil.class);
 
+    /**
+     * Claim naming the market the token was issued for.
+     */
+    static final String MARKET_CLAIM = "market";
+
     @Value("${farmers.market.jwt.secret}")
     private String jwtSecret;
 
@@ -47,6 +53,18 @@ public class JwtUtil {
     }
 
 
+    /**
+     * Extracts the market the given JWT token was issued for.
+     *
+     * @param token the JWT token from which to extract the market.
+     * @return the market, or the default market for tokens issued before markets were introduced.
+     */
+    public String extractMarket(String token) {
+        String market = extractClaim(token, claims -> claims.get(MARKET_CLAIM, String.class));
+        return market != null ? market : TenantContext.DEFAULT_MARKET;
+    }
+
+
     /**
      * Extracts the expiration date from the given JWT token.
      *
@@ -101,13 +119,26 @@ public class JwtUtil {
 
 
     /**
-     * Generates a new JWT token for the given user.
+     * Generates a new JWT token for the given user, for the default market.
      *
      * @param userDetails the {@link UserDetails} of the user for whom the token is being generated.
      * @return a JWT token as a {@link String}.
      */
     public String generateToken(UserDetails userDetails) {
+        return generateToken(userDetails, TenantContext.DEFAULT_MARKET);
+    }
+
+
+    /**
+     * Generates a new JWT token for the given user, scoping every request made with it to a market.
+     *
+     * @param userDetails the {@link UserDetails} of the user for whom the token is being generated.
+     * @param market      the market the user works for.
+     * @return a JWT token as a {@link String}.
+     */
+    public String generateToken(UserDetails userDetails, String market) {
         Map<String, Object> claims = new HashMap<>();
+        claims.put(MARKET_CLAIM, market);
         return createToken(claims, userDetails.getUsername());
     }
 
@@ -0,0 +1,257 @@
+package com.csi43C9.baylor.farmers_market.security.ratelimit;
+
+import com.csi43C9.baylor.farmers_market.dto.LoginRequest;
+import com.csi43C9.baylor.farmers_market.exception.ErrorResponses;
+import com.csi43C9.baylor.farmers_market.security.CachedBodyRequest;
+import com.csi43C9.baylor.farmers_market.util.LogSampler;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-client rate limiting and global admission control.
+ *
+ * <p>Runs right after {@link com.csi43C9.baylor.farmers_market.security.jwt.JwtAuthFilter}, so
+ * requests are keyed by the authenticated principal when there is one and by the remote address
+ * otherwise. Login attempts are keyed by the remote address and the submitted username, so users
+ * sharing an address, e.g. behind a market's NAT, do not share a budget; every anonymous attempt
+ * also takes a token from a larger per-address login budget, so rotating usernames does not buy
+ * an address unlimited attempts. {@code /api/auth/login}
+ * and the vendor API each have their own token-bucket budget; a client over budget gets 429 Too
+ * Many Requests with a {@code Retry-After} header.
+ *
+ * <p>The remote address is the one the servlet container reports. Behind a reverse proxy it comes
+ * from {@code X-Forwarded-For} as configured by {@code server.forward-headers-strategy}, and is
+ * only trusted from the proxies that setting trusts.
+ *
+ * <p>Independently of client budgets, at most {@code max-concurrent-requests} requests are served
+ * at once. A request that cannot be admitted within {@code acquire-timeout-ms} is shed with 503
+ * Service Unavailable, so overload shows up as fast rejections instead of requests queueing for
+ * a JDBC connection until the pool times out. Downloads of finished reports are not counted: they
+ * stream a file without touching the database, and a slow client would otherwise hold a slot for
+ * as long as the transfer takes.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+    private static final String LOGIN_PATH = "/api/auth/login";
+    private static final String VENDOR_PATH = "/api/vendor";
+    private static final String REPORT_PATH = "/api/report/";
+    private static final String REPORT_RESULT_SUFFIX = "/result";
+    /**
+     * Largest login body read for its username; larger or unsized bodies are keyed by address alone.
+     */
+    private static final int MAX_LOGIN_BODY = 4096;
+    private static final int MAX_USERNAME_KEY = 64;
+
+    private final boolean enabled;
+    private final RateLimiter loginLimiter;
+    private final RateLimiter loginAddressLimiter;
+    private final RateLimiter vendorLimiter;
+    private final int maxConcurrentRequests;
+    private final Semaphore admission;
+    private final long acquireTimeoutMs;
+    private final LongAdder shed = new LongAdder();
+    private final LogSampler shedLogSampler = new LogSampler(1, TimeUnit.SECONDS);
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(ObjectMapper objectMapper,
+                           @Value("${farmers.market.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${farmers.market.rate-limit.login.capacity:10}") double loginCapacity,
+                           @Value("${farmers.market.rate-limit.login.refill-per-second:0.2}") double loginRefill,
+                           @Value("${farmers.market.rate-limit.login.address-capacity:50}") double loginAddressCapacity,
+                           @Value("${farmers.market.rate-limit.login.address-refill-per-second:1}")
+                           double loginAddressRefill,
+                           @Value("${farmers.market.rate-limit.vendor.capacity:100}") double vendorCapacity,
+                           @Value("${farmers.market.rate-limit.vendor.refill-per-second:20}") double vendorRefill,
+                           @Value("${farmers.market.rate-limit.idle-eviction-ms:600000}") long idleEvictionMs,
+                           @Value("${farmers.market.rate-limit.max-concurrent-requests:32}") int maxConcurrentRequests,
+                           @Value("${farmers.market.rate-limit.acquire-timeout-ms:50}") long acquireTimeoutMs) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.loginLimiter = new RateLimiter("login", loginCapacity, loginRefill, idleEvictionMs);
+        this.loginAddressLimiter = new RateLimiter("login-address", loginAddressCapacity, loginAddressRefill,
+                idleEvictionMs);
+        this.vendorLimiter = new RateLimiter("vendor", vendorCapacity, vendorRefill, idleEvictionMs);
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.admission = new Semaphore(maxConcurrentRequests);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+        RateLimiter limiter = limiterFor(request.getRequestURI());
+        if (limiter == loginLimiter && !isAuthenticated() && request.getContentLengthLong() >= 0
+                && request.getContentLengthLong() <= MAX_LOGIN_BODY) {
+            request = new CachedBodyRequest(request);
+        }
+        if (limiter != null) {
+            long waitNanos = limiter == loginLimiter ? acquireLogin(request) : limiter.tryAcquire(clientKey(request));
+            if (waitNanos > 0) {
+                long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+                reject(request, response, HttpStatus.TOO_MANY_REQUESTS, retryAfter,
+                        "Rate limit exceeded; retry after " + retryAfter + " s");
+                return;
+            }
+        }
+
+        if (isReportDownload(request.getRequestURI())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!admit()) {
+            shed.increment();
+            long suppressed = shedLogSampler.acquire();
+            if (suppressed >= 0) {
+                logger.warn("Shedding request for URI {}: {} requests already in progress ({} similar suppressed)",
+                        request.getRequestURI(), maxConcurrentRequests, suppressed);
+            }
+            reject(request, response, HttpStatus.SERVICE_UNAVAILABLE, 1, "Server is busy; retry shortly");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            admission.release();
+        }
+    }
+
+    private RateLimiter limiterFor(String uri) {
+        if (uri.equals(LOGIN_PATH)) {
+            return loginLimiter;
+        }
+        if (uri.equals(VENDOR_PATH) || uri.startsWith(VENDOR_PATH + "/")) {
+            return vendorLimiter;
+        }
+        return null;
+    }
+
+    private static boolean isReportDownload(String uri) {
+        return uri.startsWith(REPORT_PATH) && uri.endsWith(REPORT_RESULT_SUFFIX);
+    }
+
+    /**
+     * Takes a login token from the address's budget, for anonymous attempts, and then from the
+     * client's own. The client's bucket is only created once the address's budget allows the
+     * attempt, so the number of buckets an address can create is bounded by its budget.
+     */
+    private long acquireLogin(HttpServletRequest request) {
+        if (!isAuthenticated()) {
+            long waitNanos = loginAddressLimiter.tryAcquire("ip:" + request.getRemoteAddr());
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+        }
+        return loginLimiter.tryAcquire(clientKey(request));
+    }
+
+    /**
+     * Keys authenticated requests by principal, so a user's budget follows them across
+     * addresses, and anonymous requests by remote address, plus the submitted username for logins.
+     */
+    private String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()) {
+            return "user:" + authentication.getName();
+        }
+        String address = "ip:" + request.getRemoteAddr();
+        if (request instanceof CachedBodyRequest login) {
+            return address + " login:" + loginUsername(login.body());
+        }
+        return address;
+    }
+
+    /**
+     * @return the username of a login body, lower-cased and truncated, or empty if there is none.
+     */
+    private String loginUsername(byte[] body) {
+        try {
+            LoginRequest login = objectMapper.readValue(body, LoginRequest.class);
+            String username = login != null && login.getUsername() != null ? login.getUsername().trim() : "";
+            username = username.toLowerCase(Locale.ROOT);
+            return username.length() > MAX_USERNAME_KEY ? username.substring(0, MAX_USERNAME_KEY) : username;
+        } catch (JacksonException e) {
+            // Rejected by the login endpoint; limited with the address's other malformed attempts.
+            return "";
+        }
+    }
+
+    private static boolean isAuthenticated() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated();
+    }
+
+    private boolean admit() {
+        try {
+            return admission.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+                        long retryAfterSeconds, String message) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        ErrorResponses.write(response, status, message, request.getServletPath());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bind(registry, loginLimiter);
+        bind(registry, loginAddressLimiter);
+        bind(registry, vendorLimiter);
+        FunctionCounter.builder("farmers.market.admission.shed", shed, LongAdder::sum)
+                .register(registry);
+        FunctionCounter.builder("farmers.market.errors.log.suppressed", shedLogSampler, LogSampler::suppressedCount)
+                .tag("source", "shed")
+                .register(registry);
+        Gauge.builder("farmers.market.admission.in.flight", admission,
+                        semaphore -> maxConcurrentRequests - semaphore.availablePermits())
+                .register(registry);
+    }
+
+    private static void bind(MeterRegistry registry, RateLimiter limiter) {
+        FunctionCounter.builder("farmers.market.rate.limit.allowed", limiter, RateLimiter::allowedCount)
+                .tag("budget", limiter.name())
+                .register(registry);
+        FunctionCounter.builder("farmers.market.rate.limit.rejected", limiter, RateLimiter::rejectedCount)
+                .tag("budget", limiter.name())
+                .register(registry);
+        Gauge.builder("farmers.market.rate.limit.clients", limiter, RateLimiter::size)
+                .tag("budget", limiter.name())
+                .register(registry);
+    }
+}
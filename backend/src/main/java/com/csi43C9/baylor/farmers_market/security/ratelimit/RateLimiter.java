@@ -0,0 +1,85 @@
+package com.csi43C9.baylor.farmers_market.security.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A set of {@link TokenBucket}s sharing one budget, one bucket per client key.
+ *
+ * <p>Buckets live in a {@link ConcurrentHashMap}, so clients only contend with themselves.
+ * Buckets idle for longer than {@code idleEvictionMs} are dropped by whichever request first
+ * notices that a sweep is due; a dropped bucket is indistinguishable from a full one.
+ */
+public class RateLimiter {
+
+    private final String name;
+    private final double capacity;
+    private final double refillPerSecond;
+    private final long idleEvictionNanos;
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweepNanos;
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param name            name used in metrics.
+     * @param capacity        the burst size per client.
+     * @param refillPerSecond the sustained requests per second per client.
+     * @param idleEvictionMs  how long a client's bucket is kept after its last request.
+     */
+    public RateLimiter(String name, double capacity, double refillPerSecond, long idleEvictionMs) {
+        this.name = name;
+        this.capacity = capacity;
+        this.refillPerSecond = refillPerSecond;
+        this.idleEvictionNanos = TimeUnit.MILLISECONDS.toNanos(idleEvictionMs);
+        this.nextSweepNanos = new AtomicLong(System.nanoTime() + idleEvictionNanos);
+    }
+
+    /**
+     * Takes a token from the client's bucket.
+     *
+     * @param client the principal or address the budget applies to.
+     * @return {@code 0} if the request is allowed, otherwise the nanoseconds until it would be.
+     */
+    public long tryAcquire(String client) {
+        long now = System.nanoTime();
+        evictIdle(now);
+        long wait = buckets.computeIfAbsent(client, key -> new TokenBucket(capacity, refillPerSecond, now))
+                .tryConsume(now);
+        if (wait == 0) {
+            allowed.increment();
+        } else {
+            rejected.increment();
+        }
+        return wait;
+    }
+
+    private void evictIdle(long now) {
+        long due = nextSweepNanos.get();
+        if (now - due < 0 || !nextSweepNanos.compareAndSet(due, now + idleEvictionNanos)) {
+            return;
+        }
+        buckets.values().removeIf(bucket -> now - bucket.lastUsedNanos() >= idleEvictionNanos);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return the number of clients currently tracked.
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    public long allowedCount() {
+        return allowed.sum();
+    }
+
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+}
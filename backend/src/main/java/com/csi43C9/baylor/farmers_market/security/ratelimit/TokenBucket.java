@@ -0,0 +1,61 @@
+package com.csi43C9.baylor.farmers_market.security.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free token bucket.
+ *
+ * <p>The bucket holds up to {@code capacity} tokens and refills continuously at
+ * {@code refillPerSecond}. Each request takes one token; state is swapped with a single
+ * compare-and-set, so concurrent requests for the same client never block each other.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+    private final AtomicReference<State> state;
+    private volatile long lastUsedNanos;
+
+    /**
+     * @param capacity        the burst size, and the number of tokens a new bucket starts with.
+     * @param refillPerSecond tokens added per second, up to {@code capacity}.
+     * @param nowNanos        the current {@link System#nanoTime()}.
+     */
+    public TokenBucket(double capacity, double refillPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.state = new AtomicReference<>(new State(capacity, nowNanos));
+        this.lastUsedNanos = nowNanos;
+    }
+
+    /**
+     * Takes a token if one is available.
+     *
+     * @param nowNanos the current {@link System#nanoTime()}.
+     * @return {@code 0} if a token was taken, otherwise the nanoseconds until one will be available.
+     */
+    public long tryConsume(long nowNanos) {
+        lastUsedNanos = nowNanos;
+        while (true) {
+            State current = state.get();
+            double tokens = Math.min(capacity, current.tokens() + (nowNanos - current.refilledAt()) * refillPerNano);
+            if (tokens < 1) {
+                return (long) Math.ceil((1 - tokens) / refillPerNano);
+            }
+            if (state.compareAndSet(current, new State(tokens - 1, nowNanos))) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * @return the {@link System#nanoTime()} of the last request that used this bucket.
+     */
+    public long lastUsedNanos() {
+        return lastUsedNanos;
+    }
+
+    private record State(double tokens, long refilledAt) {
+    }
+}
@@ -0,0 +1,70 @@
+package com.csi43C9.baylor.farmers_market.service;
+
+import com.csi43C9.baylor.farmers_market.repository.VendorChangeRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prunes vendor change log entries older than {@code farmers.market.vendor-changes.retention-days}
+ * every {@code prune-interval-ms}. Clients that last synced before the pruned entries are told to
+ * do a full resync by {@link VendorService#getChanges(long, int)}.
+ */
+@Component
+public class VendorChangeRetention {
+
+    private static final Logger logger = LoggerFactory.getLogger(VendorChangeRetention.class);
+
+    private final VendorChangeRepository vendorChangeRepository;
+    private final Duration retention;
+    private final ScheduledExecutorService pruner;
+
+    public VendorChangeRetention(VendorChangeRepository vendorChangeRepository,
+                                 @Value("${farmers.market.vendor-changes.retention-days:30}") int retentionDays,
+                                 @Value("${farmers.market.vendor-changes.prune-interval-ms:3600000}") long pruneIntervalMs) {
+        this.vendorChangeRepository = vendorChangeRepository;
+        this.retention = Duration.ofDays(retentionDays);
+        this.pruner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "vendor-change-pruner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pruner.scheduleWithFixedDelay(this::pruneQuietly, pruneIntervalMs, pruneIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Removes the entries older than the retention period.
+     * @return the number of entries removed
+     */
+    public int prune() {
+        int removed = vendorChangeRepository.pruneBefore(Instant.now().minus(retention));
+        if (removed > 0) {
+            logger.info("Pruned {} vendor change log entries older than {}", removed, retention);
+        }
+        return removed;
+    }
+
+    private void pruneQuietly() {
+        try {
+            prune();
+        } catch (RuntimeException e) {
+            logger.warn("Pruning the vendor change log failed; retrying on the next interval", e);
+        }
+    }
+
+    /**
+     * Stops the background pruner.
+     */
+    @PreDestroy
+    public void shutdown() {
+        pruner.shutdownNow();
+    }
+}
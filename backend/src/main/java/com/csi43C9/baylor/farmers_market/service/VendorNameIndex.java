@@ -0,0 +1,211 @@
+package com.csi43C9.baylor.farmers_market.service;
+
+import com.csi43C9.baylor.farmers_market.entity.Vendor;
+import com.csi43C9.baylor.farmers_market.entity.VendorChange;
+import com.csi43C9.baylor.farmers_market.repository.VendorRepository;
+import com.csi43C9.baylor.farmers_market.service.cache.VendorChangeListener;
+import com.csi43C9.baylor.farmers_market.tenant.Markets;
+import com.csi43C9.baylor.farmers_market.tenant.TenantContext;
+import com.csi43C9.baylor.farmers_market.util.BloomFilter;
+import com.csi43C9.baylor.farmers_market.warmup.WarmupTask;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Every vendor's name, active or not, so that a duplicate name is found in memory instead of by
+ * an insert failing on the {@code vendors_market_vendor_uindex} constraint. Names are unique
+ * within a market, so each market has its own index, used for the current market.
+ *
+ * <p>Names are compared normalized: trimmed, with runs of whitespace collapsed and in lower case,
+ * so "Green Acres" and " green  acres" are the same vendor. A {@link BloomFilter} in front of the
+ * name map answers most lookups of new names without hashing into the map. A market's index is
+ * loaded on first use, or at startup as a {@link WarmupTask}, and is kept current by {@link VendorService}
+ * as vendors are created and renamed; a soft delete keeps the name taken, as the constraint does.
+ * Vendors written by other instances are re-read when the change log poller reports them, so
+ * until then the constraint remains the final check.
+ *
+ * <p>Counters are published to Micrometer under {@code farmers.market.vendor.names.*}.
+ */
+@Component
+@Order(1)
+@RequiredArgsConstructor
+public class VendorNameIndex implements WarmupTask, VendorChangeListener, MeterBinder {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    /**
+     * Names the Bloom filter is sized for beyond those loaded, before it is rebuilt larger.
+     */
+    private static final int MIN_HEADROOM = 1024;
+
+    private final VendorRepository vendorRepository;
+    private final Markets markets;
+
+    private final Map<String, MarketNames> indexes = new ConcurrentHashMap<>();
+    private final LongAdder filtered = new LongAdder();
+    private final LongAdder found = new LongAdder();
+
+    /**
+     * Finds the vendor with a name in the current market, ignoring case and spacing.
+     * @param vendorName the name to look up.
+     * @return the id of the vendor with that name, if any.
+     */
+    public Optional<UUID> find(String vendorName) {
+        MarketNames names = index();
+        BloomFilter current = names.loaded();
+        String key = normalize(vendorName);
+        if (!current.mightContain(key)) {
+            filtered.increment();
+            return Optional.empty();
+        }
+        UUID id = names.idsByName.get(key);
+        if (id != null) {
+            found.increment();
+        }
+        return Optional.ofNullable(id);
+    }
+
+    /**
+     * Records a vendor's current name in the current market, releasing the name it had before.
+     */
+    public void put(UUID id, String vendorName) {
+        index().put(id, normalize(vendorName));
+    }
+
+    /**
+     * Reloads every vendor's name in the current market from the database.
+     */
+    public void reload() {
+        index().reload();
+    }
+
+    /**
+     * @return the number of names indexed, in every market.
+     */
+    public int size() {
+        return indexes.values().stream().mapToInt(names -> names.idsByName.size()).sum();
+    }
+
+    /**
+     * Re-reads the names of the current market's changed vendors, if its index is loaded.
+     */
+    @Override
+    public void vendorsChanged(List<VendorChange> changes) {
+        MarketNames names = indexes.get(TenantContext.current());
+        if (names == null || names.filter == null) {
+            return;
+        }
+        List<UUID> ids = changes.stream().map(VendorChange::getVendorId).distinct().toList();
+        for (Vendor vendor : vendorRepository.findAllById(ids)) {
+            names.put(vendor.getId(), normalize(vendor.getVendorName()));
+        }
+    }
+
+    /**
+     * Drops every market's index, to be reloaded on next use.
+     */
+    @Override
+    public void allVendorsChanged() {
+        indexes.clear();
+    }
+
+    @Override
+    public String name() {
+        return "vendor name index";
+    }
+
+    @Override
+    public String warmUp() {
+        markets.all().forEach(market -> TenantContext.run(market, this::reload));
+        return "indexed %d vendor names in %d markets".formatted(size(), markets.all().size());
+    }
+
+    /**
+     * @return the form names are compared in.
+     */
+    static String normalize(String vendorName) {
+        return WHITESPACE.matcher(vendorName.strip()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    private MarketNames index() {
+        return indexes.computeIfAbsent(TenantContext.current(), market -> new MarketNames());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("farmers.market.vendor.names.filtered", filtered, LongAdder::sum)
+                .register(registry);
+        FunctionCounter.builder("farmers.market.vendor.names.found", found, LongAdder::sum)
+                .register(registry);
+        Gauge.builder("farmers.market.vendor.names.indexed", this, VendorNameIndex::size)
+                .register(registry);
+    }
+
+    /**
+     * The names of one market's vendors. Loaded and written with the market current.
+     */
+    private final class MarketNames {
+
+        private final Map<String, UUID> idsByName = new ConcurrentHashMap<>();
+        private final Map<UUID, String> namesById = new ConcurrentHashMap<>();
+        private volatile BloomFilter filter;
+
+        synchronized void put(UUID id, String key) {
+            loaded();
+            String previous = namesById.put(id, key);
+            if (previous != null && !previous.equals(key)) {
+                idsByName.remove(previous, id);
+            }
+            idsByName.put(key, id);
+            if (idsByName.size() > filter.capacity()) {
+                filter = build();
+            } else {
+                filter.add(key);
+            }
+        }
+
+        synchronized void reload() {
+            idsByName.clear();
+            namesById.clear();
+            vendorRepository.findAllNames().forEach((id, vendorName) -> {
+                String key = normalize(vendorName);
+                idsByName.put(key, id);
+                namesById.put(id, key);
+            });
+            filter = build();
+        }
+
+        BloomFilter loaded() {
+            BloomFilter current = filter;
+            if (current == null) {
+                synchronized (this) {
+                    if (filter == null) {
+                        reload();
+                    }
+                    current = filter;
+                }
+            }
+            return current;
+        }
+
+        private BloomFilter build() {
+            BloomFilter built = new BloomFilter(Math.max(MIN_HEADROOM, idsByName.size() * 2));
+            idsByName.keySet().forEach(built::add);
+            return built;
+        }
+    }
+}
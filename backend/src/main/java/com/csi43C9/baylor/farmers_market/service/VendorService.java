@@ -1,14 +1,45 @@
 package com.csi43C9.baylor.farmers_market.service;
 
 import com.csi43C9.baylor.farmers_market.dto.PagedResponse;
+import com.csi43C9.baylor.farmers_market.dto.vendor.BulkVendorUpdateRequest;
+import com.csi43C9.baylor.farmers_market.dto.vendor.BulkVendorUpdateResponse;
 import com.csi43C9.baylor.farmers_market.dto.vendor.SaveVendorRequest;
+import com.csi43C9.baylor.farmers_market.dto.vendor.VendorChangesResponse;
+import com.csi43C9.baylor.farmers_market.dto.vendor.VendorDelta;
 import com.csi43C9.baylor.farmers_market.entity.Vendor;
+import com.csi43C9.baylor.farmers_market.entity.VendorChange;
+import com.csi43C9.baylor.farmers_market.entity.VendorChangeOperation;
+import com.csi43C9.baylor.farmers_market.entity.VendorFlag;
+import com.csi43C9.baylor.farmers_market.exception.DuplicateVendorException;
+import com.csi43C9.baylor.farmers_market.repository.VendorChangeRepository;
 import com.csi43C9.baylor.farmers_market.repository.VendorRepository;
+import com.csi43C9.baylor.farmers_market.repository.routing.DataSourceRole;
+import com.csi43C9.baylor.farmers_market.repository.routing.ReadWriteRoutingDataSource;
+import com.csi43C9.baylor.farmers_market.service.cache.VendorCache;
+import com.csi43C9.baylor.farmers_market.service.cache.VendorDirectory;
+import com.csi43C9.baylor.farmers_market.service.writebehind.WriteBehindBuffer;
+import com.csi43C9.baylor.farmers_market.tenant.TenantContext;
+import com.csi43C9.baylor.farmers_market.util.SingleFlight;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -16,56 +47,303 @@ import java.util.UUID;
  */
 @Service
 @RequiredArgsConstructor
-public class VendorService {
+public class VendorService implements MeterBinder {
+
+    /**
+     * Vendors updated per transaction by {@link #bulkUpdate}, so row locks are held briefly.
+     */
+    private static final int BULK_CHUNK_SIZE = 500;
 
     private final VendorRepository vendorRepository;
+    private final VendorChangeRepository vendorChangeRepository;
+    private final WriteBehindBuffer writeBehindBuffer;
+    private final VendorNameIndex vendorNameIndex;
+    private final VendorCache vendorCache;
+    private final VendorDirectory vendorDirectory;
+
+    /**
+     * Present when reads may be routed to a replica.
+     */
+    private final ObjectProvider<ReadWriteRoutingDataSource> readRouting;
+
+    /**
+     * Runs each vendor write and its change log entry in one transaction.
+     */
+    private final TransactionOperations transactionOperations;
+
+    /**
+     * Concurrent identical reads share one database call; writes detach running calls. Reads only
+     * share a call routed to the same database, so a client that has just written, and reads from
+     * the primary, never joins a replica read that may not see its write yet.
+     */
+    private final SingleFlight<VendorKey, Optional<Vendor>> vendorReads = new SingleFlight<>();
+    private final SingleFlight<PageKey, PagedResponse<Vendor>> pageReads = new SingleFlight<>();
 
     /**
      * Creates a new vendor based on the provided request DTO.
      *
      * @param request The DTO containing vendor details.
      * @return The fully persisted Vendor entity.
+     * @throws DuplicateVendorException if a vendor with the name already exists, checked in memory
+     * before any statement is sent.
      */
     public Vendor create(SaveVendorRequest request) {
+        vendorNameIndex.find(request.getVendorName()).ifPresent(existingId -> {
+            throw new DuplicateVendorException(request.getVendorName(), existingId);
+        });
         Vendor vendor = new RequestMapper().mapRequest(request);
-        return vendorRepository.save(vendor);
+        Vendor saved = saveAndLog(vendor, VendorChangeOperation.CREATED);
+        vendorNameIndex.put(saved.getId(), saved.getVendorName());
+        vendorCache.invalidate(saved.getId());
+        forgetInFlightReads();
+        return saved;
+    }
+
+    /**
+     * Updates the vendor with a name, ignoring case and spacing, or creates it if there is none.
+     * @param vendorName the name of the vendor to update or create.
+     * @param request the DTO containing the vendor's details; its name may differ from
+     * {@code vendorName}, e.g. in capitalization, and is the one stored.
+     * @return the vendor, and whether it was created.
+     */
+    public UpsertResult upsertByName(String vendorName, SaveVendorRequest request) {
+        Optional<Vendor> updated = vendorNameIndex.find(vendorName).flatMap(existingId -> update(existingId, request));
+        if (updated.isPresent()) {
+            return new UpsertResult(updated.get(), false);
+        }
+        return new UpsertResult(create(request), true);
     }
 
     /**
      * Retrieves a vendor by its UUID.
+     * An update still waiting in the write-behind queue takes precedence over the stored row.
+     * Otherwise the vendor is served from the {@link VendorCache}, and concurrent misses for the
+     * same vendor share a single database call.
      * @param uuid the UUID of the vendor to retrieve.
      * @return Vendor
      */
     public Optional<Vendor> get(UUID uuid) {
-        return vendorRepository.findById(uuid);
+        Optional<Vendor> pending = writeBehindBuffer.pendingVendor(uuid);
+        return pending.isPresent()
+                ? pending
+                : vendorCache.get(uuid, () -> vendorReads.execute(new VendorKey(TenantContext.current(), uuid, readRole()),
+                        () -> vendorRepository.findById(uuid)));
+    }
+
+    /**
+     * Retrieves many vendors by UUID with one batched query instead of one query per vendor.
+     * Vendors with an update still waiting in the write-behind queue are taken from the queue.
+     * @param uuids the UUIDs of the vendors to retrieve.
+     * @return the vendors found, in the order their UUIDs were first given; unknown UUIDs are skipped.
+     */
+    @Transactional(readOnly = true)
+    public List<Vendor> getAll(Collection<UUID> uuids) {
+        Set<UUID> requested = new LinkedHashSet<>(uuids);
+        Map<UUID, Vendor> found = new HashMap<>();
+        List<UUID> toLoad = new ArrayList<>();
+        for (UUID uuid : requested) {
+            writeBehindBuffer.pendingVendor(uuid).ifPresentOrElse(vendor -> found.put(uuid, vendor), () -> toLoad.add(uuid));
+        }
+        if (!toLoad.isEmpty()) {
+            vendorRepository.findAllById(toLoad).forEach(vendor -> found.put(vendor.getId(), vendor));
+        }
+        return requested.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 
     /**
      * Updates an existing vendor based on the provided request DTO.
+     * In write-behind mode the update is queued, and written and logged by the next flush.
      * @param uuid the UUID of the vendor to update.
      * @param request the DTO containing updated vendor details.
-     * @return the updated Vendor entity.
+     * @return the updated Vendor entity, or empty if there is no vendor with that UUID in the current market.
+     * @throws DuplicateVendorException if another vendor already has the requested name.
      */
-    public Vendor update(UUID uuid, SaveVendorRequest request) {
+    public Optional<Vendor> update(UUID uuid, SaveVendorRequest request) {
+        vendorNameIndex.find(request.getVendorName())
+                .filter(existingId -> !existingId.equals(uuid))
+                .ifPresent(existingId -> {
+                    throw new DuplicateVendorException(request.getVendorName(), existingId);
+                });
         Vendor vendor = new RequestMapper().mapRequest(request, uuid);
-        return vendorRepository.save(vendor);
+        if (writeBehindBuffer.isEnabled()) {
+            if (get(uuid).isEmpty()) {
+                return Optional.empty();
+            }
+            writeBehindBuffer.enqueueVendorUpdate(vendor);
+        } else if (!Boolean.TRUE.equals(transactionOperations.execute(status -> updateAndLog(vendor)))) {
+            return Optional.empty();
+        }
+        vendorNameIndex.put(uuid, vendor.getVendorName());
+        vendorCache.invalidate(uuid);
+        forgetInFlightReads();
+        return Optional.of(vendor);
     }
 
     /**
      * Deletes a vendor from the system.
+     * Any queued update for the vendor is flushed first so it cannot overwrite the deletion.
      * @param uuid the UUID of the vendor to delete.
      */
     public void delete(UUID uuid) {
-        vendorRepository.deleteById(uuid);
+        if (writeBehindBuffer.pendingVendor(uuid).isPresent()) {
+            writeBehindBuffer.flushAll();
+        }
+        transactionOperations.executeWithoutResult(status -> {
+            vendorRepository.deleteById(uuid);
+            vendorChangeRepository.append(List.of(uuid), VendorChangeOperation.DELETED);
+        });
+        vendorCache.invalidate(uuid);
+        forgetInFlightReads();
+    }
+
+    /**
+     * Sets flags on many vendors, e.g. deactivating every vendor that has not attended since a date.
+     * Vendors are updated in transactions of {@value #BULK_CHUNK_SIZE}, each one set-based
+     * {@code update} plus its change log entries, so no transaction locks many rows for long.
+     * Queued write-behind updates are flushed first so they cannot overwrite the new values.
+     * @param request the vendors to update, by id or by filter, and the flags to set
+     * @return how many vendors were selected and how many were changed
+     */
+    public BulkVendorUpdateResponse bulkUpdate(BulkVendorUpdateRequest request) {
+        List<UUID> ids = request.getNotPresentSince() != null
+                ? vendorRepository.findIdsNotPresentSince(request.getNotPresentSince())
+                : request.getIds().stream().filter(Objects::nonNull).distinct().toList();
+        Map<VendorFlag, Boolean> flags = request.getFlags();
+        VendorChangeOperation operation = Boolean.FALSE.equals(flags.get(VendorFlag.ACTIVE))
+                ? VendorChangeOperation.DELETED
+                : VendorChangeOperation.UPDATED;
+        if (writeBehindBuffer.isEnabled()) {
+            writeBehindBuffer.flushAll();
+        }
+
+        int updated = 0;
+        int chunks = 0;
+        for (int from = 0; from < ids.size(); from += BULK_CHUNK_SIZE) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + BULK_CHUNK_SIZE, ids.size()));
+            List<UUID> changed = transactionOperations.execute(status -> {
+                List<UUID> written = vendorRepository.updateFlags(chunk, flags);
+                vendorChangeRepository.append(written, operation);
+                return written;
+            });
+            if (changed != null) {
+                changed.forEach(vendorCache::invalidate);
+                updated += changed.size();
+            }
+            chunks++;
+        }
+        forgetInFlightReads();
+        return new BulkVendorUpdateResponse(ids.size(), updated, chunks);
+    }
+
+    /**
+     * Returns the net change to each vendor since a sequence number of the change log, so a client
+     * can keep its vendor list current in time proportional to the number of changes.
+     * Several changes to one vendor are compacted into one {@link VendorDelta}. If {@code since}
+     * is 0, or older than what the log still holds, the response asks for a full resync instead.
+     * @param since the {@code nextSince} of the client's previous sync; 0 for a first sync
+     * @param limit the most log entries to read; {@code hasMore} is set if there may be more
+     * @return the changes and the sequence number to sync from next
+     */
+    @Transactional(readOnly = true)
+    public VendorChangesResponse getChanges(long since, int limit) {
+        VendorChangeRepository.LogState state = vendorChangeRepository.state();
+        if (since <= 0 || since < state.prunedThrough() || since > state.lastSeq()) {
+            return new VendorChangesResponse(since, state.lastSeq(), true, false, List.of());
+        }
+
+        List<VendorChange> entries = vendorChangeRepository.findAfter(since, limit);
+        Map<UUID, VendorChange> latest = new LinkedHashMap<>();
+        Set<UUID> created = new HashSet<>();
+        for (VendorChange entry : entries) {
+            if (entry.getOperation() == VendorChangeOperation.CREATED) {
+                created.add(entry.getVendorId());
+            }
+            // Re-insert so vendors are ordered by their latest change
+            latest.remove(entry.getVendorId());
+            latest.put(entry.getVendorId(), entry);
+        }
+
+        List<UUID> live = latest.values().stream()
+                .filter(entry -> entry.getOperation() != VendorChangeOperation.DELETED)
+                .map(VendorChange::getVendorId)
+                .toList();
+        Map<UUID, Vendor> vendors = new HashMap<>();
+        if (!live.isEmpty()) {
+            vendorRepository.findAllById(live).forEach(vendor -> vendors.put(vendor.getId(), vendor));
+        }
+
+        List<VendorDelta> deltas = latest.values().stream()
+                .map(entry -> {
+                    VendorChangeOperation operation = entry.getOperation() != VendorChangeOperation.DELETED
+                            && created.contains(entry.getVendorId())
+                            ? VendorChangeOperation.CREATED
+                            : entry.getOperation();
+                    return new VendorDelta(entry.getSeq(), entry.getVendorId(), operation,
+                            vendors.get(entry.getVendorId()));
+                })
+                .toList();
+        long nextSince = entries.isEmpty() ? since : entries.getLast().getSeq();
+        return new VendorChangesResponse(since, nextSince, false, entries.size() == limit, deltas);
     }
 
     /**
      * Returns a paged list of all vendors in the system.
+     * With the {@link VendorDirectory} enabled the page is cut from its in-memory snapshot.
+     * Otherwise concurrent requests for the same page share a single pair of database calls.
      * @param page 0-based page number
      * @param size page size
      * @return PagedResponse
      */
     public PagedResponse<Vendor> getVendors(int page, int size) {
+        if (vendorDirectory.isEnabled()) {
+            return vendorDirectory.snapshot().page(page, size);
+        }
+        return pageReads.execute(new PageKey(TenantContext.current(), page, size, readRole()),
+                () -> loadVendors(page, size));
+    }
+
+    /**
+     * Returns every active vendor. Buffered updates are flushed first, so the export reflects them.
+     * @return the active vendors, in no particular order
+     */
+    public List<Vendor> export() {
+        writeBehindBuffer.flushAll();
+        return vendorRepository.findAll();
+    }
+
+    /**
+     * @return how many vendor and page reads ran, and how many joined an identical read already in flight.
+     */
+    public ReadCoalescingStats readStats() {
+        return new ReadCoalescingStats(
+                vendorReads.executedCount() + pageReads.executedCount(),
+                vendorReads.coalescedCount() + pageReads.coalescedCount());
+    }
+
+    /**
+     * Updates a vendor and logs the change; must run in a transaction.
+     * @return {@code false} if there is no vendor with the entity's id in its market.
+     */
+    private boolean updateAndLog(Vendor vendor) {
+        if (vendorRepository.update(vendor) == 0) {
+            return false;
+        }
+        vendorChangeRepository.append(List.of(vendor.getId()), VendorChangeOperation.UPDATED);
+        return true;
+    }
+
+    private Vendor saveAndLog(Vendor vendor, VendorChangeOperation operation) {
+        return transactionOperations.execute(status -> {
+            Vendor saved = vendorRepository.save(vendor);
+            vendorChangeRepository.append(List.of(saved.getId()), operation);
+            return saved;
+        });
+    }
+
+    private PagedResponse<Vendor> loadVendors(int page, int size) {
         List<Vendor> content = vendorRepository.findAllPaged(page, size);
         long totalElements = vendorRepository.count();
         int totalPages = (int) Math.ceil((double) totalElements / size);
@@ -79,12 +357,79 @@ public class VendorService {
         );
     }
 
+    /**
+     * Detaches reads started before a write, so that later readers cannot join them, and has the
+     * vendor directory rebuilt.
+     */
+    private void forgetInFlightReads() {
+        vendorReads.forgetAll();
+        pageReads.forgetAll();
+        vendorDirectory.invalidate();
+    }
+
+    /**
+     * The outcome of {@link #upsertByName}.
+     * @param vendor the vendor as saved.
+     * @param created whether the vendor was created rather than updated.
+     */
+    public record UpsertResult(Vendor vendor, boolean created) {
+    }
+
+    /**
+     * Read coalescing counters.
+     * @param executed reads that ran their own database call.
+     * @param coalesced reads that shared the result of an identical read already in flight.
+     */
+    public record ReadCoalescingStats(long executed, long coalesced) {
+    }
+
+    /**
+     * Publishes the read coalescing counters under {@code farmers.market.vendor.reads.*}.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bind(registry, "vendor", vendorReads);
+        bind(registry, "page", pageReads);
+    }
+
+    private static void bind(MeterRegistry registry, String read, SingleFlight<?, ?> flight) {
+        FunctionCounter.builder("farmers.market.vendor.reads.executed", flight, SingleFlight::executedCount)
+                .tag("read", read)
+                .register(registry);
+        FunctionCounter.builder("farmers.market.vendor.reads.coalesced", flight, SingleFlight::coalescedCount)
+                .tag("read", read)
+                .register(registry);
+    }
+
+    /**
+     * @return the database a read started now would be routed to.
+     */
+    private DataSourceRole readRole() {
+        ReadWriteRoutingDataSource routing = readRouting.getIfAvailable();
+        return routing != null ? routing.readRole() : DataSourceRole.PRIMARY;
+    }
+
+    /**
+     * Coalescing key of a vendor read. Keys include the market and the database the read is
+     * routed to, so a read is only ever shared within one market and by callers reading the same
+     * database.
+     */
+    private record VendorKey(String market, UUID id, DataSourceRole role) {
+    }
+
+    /**
+     * Coalescing key of a page read, scoped like {@link VendorKey}.
+     */
+    private record PageKey(String market, int page, int size, DataSourceRole role) {
+    }
+
     /**
      * Helper class for mapping vendor requests to vendor entities.
      */
     private static class RequestMapper {
         Vendor mapRequest(SaveVendorRequest request) {
             Vendor vendor = new Vendor();
+            vendor.setMarketId(TenantContext.current());
             vendor.setVendorName(request.getVendorName());
             vendor.setPointPerson(request.getPointPerson());
             vendor.setEmail(request.getEmail());
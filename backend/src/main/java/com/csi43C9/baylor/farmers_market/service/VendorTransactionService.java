@@ -0,0 +1,93 @@
+package com.csi43C9.baylor.farmers_market.service;
+
+import com.csi43C9.baylor.farmers_market.dto.transaction.SaveTransactionRequest;
+import com.csi43C9.baylor.farmers_market.entity.VendorTransaction;
+import com.csi43C9.baylor.farmers_market.repository.VendorRepository;
+import com.csi43C9.baylor.farmers_market.repository.VendorTransactionRepository;
+import com.csi43C9.baylor.farmers_market.service.analytics.TransactionColumnStore;
+import com.csi43C9.baylor.farmers_market.service.live.MarketDayAggregate;
+import com.csi43C9.baylor.farmers_market.service.writebehind.WriteBehindBuffer;
+import com.csi43C9.baylor.farmers_market.tenant.TenantContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Service class handling the business logic for recording market-day vendor transactions.
+ */
+@Service
+@RequiredArgsConstructor
+public class VendorTransactionService {
+
+    private final VendorTransactionRepository transactionRepository;
+    private final VendorRepository vendorRepository;
+    private final WriteBehindBuffer writeBehindBuffer;
+    private final MarketDayAggregate marketDayAggregate;
+    private final TransactionColumnStore transactionColumnStore;
+
+    /**
+     * Records a vendor's figures for a market date, replacing any earlier figures for that day.
+     * In write-behind mode the write is queued and the returned entity has no id yet.
+     * The figures are also applied to the analytics column store, and figures for today to the
+     * live market-day totals.
+     *
+     * @param request The DTO containing the transaction details.
+     * @return the recorded transaction, or empty if the vendor does not exist in the current market.
+     */
+    public Optional<VendorTransaction> record(SaveTransactionRequest request) {
+        if (vendorRepository.findById(request.getVendorId()).isEmpty()) {
+            return Optional.empty();
+        }
+        VendorTransaction transaction = mapRequest(request);
+        if (writeBehindBuffer.isEnabled()) {
+            writeBehindBuffer.enqueueTransaction(transaction);
+            marketDayAggregate.apply(transaction);
+            transactionColumnStore.apply(transaction);
+            return Optional.of(transaction);
+        }
+        VendorTransaction saved = transactionRepository.save(transaction);
+        marketDayAggregate.apply(saved);
+        transactionColumnStore.apply(saved);
+        return Optional.of(saved);
+    }
+
+    /**
+     * Retrieves the figures recorded for a vendor on a market date.
+     * A write still waiting in the write-behind queue takes precedence over the stored row.
+     *
+     * @param vendorId the vendor's UUID.
+     * @param marketDate the market day.
+     * @return the transaction, if one was recorded.
+     */
+    public Optional<VendorTransaction> get(UUID vendorId, LocalDate marketDate) {
+        Optional<VendorTransaction> pending = writeBehindBuffer.pendingTransaction(vendorId, marketDate);
+        return pending.isPresent() ? pending : transactionRepository.findByVendorAndDate(vendorId, marketDate);
+    }
+
+    /**
+     * @return {@code true} if writes are acknowledged before they reach the database.
+     */
+    public boolean isWriteBehind() {
+        return writeBehindBuffer.isEnabled();
+    }
+
+    private VendorTransaction mapRequest(SaveTransactionRequest request) {
+        return VendorTransaction.builder()
+                .marketId(TenantContext.current())
+                .vendorId(request.getVendorId())
+                .vendorName(request.getVendorName())
+                .marketDate(request.getMarketDate())
+                .present(request.isPresent())
+                .snap(request.getSnap())
+                .dufb(request.getDufb())
+                .wdfmTokens(request.getWdfmTokens())
+                .voucher(request.getVoucher())
+                .reportedSales(request.getReportedSales())
+                .estProduceSales(request.getEstProduceSales())
+                .estNumTransactions(request.getEstNumTransactions())
+                .build();
+    }
+}
@@ -0,0 +1,16 @@
+package com.csi43C9.baylor.farmers_market.service.analytics;
+
+/**
+ * Aggregate of one measure over one group of rows.
+ *
+ * @param rows    rows in the group.
+ * @param count   rows in the group with the measure recorded.
+ * @param sum     sum of the recorded values.
+ * @param average {@code sum / count}, or {@code null} if no row has the measure recorded.
+ */
+public record TransactionAggregate(long rows, long count, double sum, Double average) {
+
+    static TransactionAggregate of(long rows, long count, double sum) {
+        return new TransactionAggregate(rows, count, sum, count == 0 ? null : sum / count);
+    }
+}
@@ -0,0 +1,373 @@
+package com.csi43C9.baylor.farmers_market.service.analytics;
+
+import com.csi43C9.baylor.farmers_market.entity.VendorTransaction;
+import com.csi43C9.baylor.farmers_market.repository.VendorTransactionRepository;
+import com.csi43C9.baylor.farmers_market.service.writebehind.WriteBehindBuffer;
+import com.csi43C9.baylor.farmers_market.tenant.TenantContext;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory, column-oriented copy of {@code vendor_transactions} for dashboard aggregations such
+ * as SNAP share by month or reported sales per vendor.
+ *
+ * <p>Rows are held in one {@link TransactionSegment} per market and market day, and queries only
+ * read the segments of the current market. Vendor ids are encoded as dense codes by one
+ * {@link VendorDictionary} shared by every market. A day is loaded from the table, with one
+ * indexed query, the first time a query or a write touches it. Writes made through this instance are
+ * applied as they are recorded; every {@code farmers.market.analytics.refresh-interval-ms} the
+ * loaded days are reloaded in the background, overlaid with writes still waiting in the
+ * write-behind queue, to pick up writes made by other instances.
+ *
+ * <p>Queries read published segments without locking. Each segment is aggregated by a few
+ * counted loops over primitive arrays, without boxing or branches, which the JIT can unroll and
+ * vectorize; filters become a 0/1 weight per row that the loops multiply by.
+ */
+@Component
+public class TransactionColumnStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionColumnStore.class);
+    private static final String ALL_GROUP = "all";
+
+    private final VendorTransactionRepository transactionRepository;
+    private final WriteBehindBuffer writeBehindBuffer;
+    private final VendorDictionary dictionary = new VendorDictionary();
+    private final Map<MarketDay, TransactionSegment> segments = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService refresher;
+
+    /**
+     * Market days with rows in the table, by market, as of the last refresh; absent until first needed.
+     */
+    private final Map<String, NavigableSet<LocalDate>> marketDates = new ConcurrentHashMap<>();
+
+    public TransactionColumnStore(VendorTransactionRepository transactionRepository,
+                                  WriteBehindBuffer writeBehindBuffer,
+                                  @Value("${farmers.market.analytics.refresh-interval-ms:300000}") long refreshIntervalMs) {
+        this.transactionRepository = transactionRepository;
+        this.writeBehindBuffer = writeBehindBuffer;
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "transaction-column-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.refresher.scheduleWithFixedDelay(this::refreshQuietly, refreshIntervalMs, refreshIntervalMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Aggregates one measure over the rows a query selects in the current market.
+     * @param query the measure, filters and grouping.
+     * @return the aggregate of each non-empty group, ordered by group key.
+     */
+    public Map<String, TransactionAggregate> query(TransactionQuery query) {
+        List<TransactionSegment> selected = segments(query.from(), query.to());
+        // Built after loading, so it covers every code the selected segments use
+        boolean[] vendorFilter = vendorFilter(query.vendorIds());
+        int measure = query.measure().ordinal();
+
+        if (query.groupBy() == TransactionGrouping.VENDOR) {
+            return aggregateByVendor(selected, measure, query.presentOnly(), vendorFilter);
+        }
+        Map<String, Accumulator> groups = new TreeMap<>();
+        for (TransactionSegment segment : selected) {
+            double[] weights = weights(segment, query.presentOnly(), vendorFilter);
+            accumulate(segment, measure, weights, groups.computeIfAbsent(groupKey(query.groupBy(), segment.marketDate),
+                    key -> new Accumulator()));
+        }
+        Map<String, TransactionAggregate> result = new LinkedHashMap<>();
+        groups.forEach((key, accumulator) -> {
+            if (accumulator.rows > 0) {
+                result.put(key, accumulator.toAggregate());
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Applies a recorded transaction of the current market, replacing the vendor's earlier figures for that day.
+     */
+    public void apply(VendorTransaction transaction) {
+        MarketDay day = new MarketDay(TenantContext.current(), transaction.getMarketDate());
+        segment(day);
+        synchronized (this) {
+            segments.put(day, segments.get(day).with(transaction, dictionary));
+        }
+    }
+
+    /**
+     * Reloads the list of market days and every loaded day of every market from the database.
+     */
+    public void refresh() {
+        for (String market : marketDates.keySet()) {
+            TenantContext.run(market, () -> marketDates.put(market,
+                    new ConcurrentSkipListSet<>(transactionRepository.findMarketDates())));
+        }
+        for (MarketDay day : segments.keySet()) {
+            TenantContext.run(day.market(), () -> reload(day));
+        }
+    }
+
+    /**
+     * Reloads one market day of the current market from the database if it is loaded, e.g. after
+     * its rows were updated in bulk.
+     */
+    public void refresh(LocalDate marketDate) {
+        MarketDay day = new MarketDay(TenantContext.current(), marketDate);
+        if (segments.containsKey(day)) {
+            reload(day);
+        }
+    }
+
+    /**
+     * @return the segments of the market days between {@code from} and {@code to}, inclusive,
+     * loading those not loaded yet.
+     */
+    private List<TransactionSegment> segments(LocalDate from, LocalDate to) {
+        LocalDate low = from == null ? LocalDate.MIN : from;
+        LocalDate high = to == null ? LocalDate.MAX : to;
+        String market = TenantContext.current();
+        NavigableSet<LocalDate> known = marketDates.get(market);
+        if (known == null) {
+            known = new ConcurrentSkipListSet<>(transactionRepository.findMarketDates());
+            marketDates.put(market, known);
+        }
+        // Days written since the last refresh may only be in memory, e.g. queued by write-behind
+        Set<LocalDate> days = new TreeSet<>(known.subSet(low, true, high, true));
+        segments.keySet().stream()
+                .filter(day -> day.market().equals(market))
+                .map(MarketDay::date)
+                .filter(day -> !day.isBefore(low) && !day.isAfter(high))
+                .forEach(days::add);
+
+        List<TransactionSegment> selected = new ArrayList<>(days.size());
+        for (LocalDate day : days) {
+            selected.add(segment(new MarketDay(market, day)));
+        }
+        return selected;
+    }
+
+    private TransactionSegment segment(MarketDay day) {
+        TransactionSegment segment = segments.get(day);
+        if (segment != null) {
+            return segment;
+        }
+        TransactionSegment loaded = TransactionSegment.of(day.date(),
+                transactionRepository.findAllByMarketDate(day.date()), dictionary);
+        // A write applied while loading has already published a segment that includes it
+        TransactionSegment existing = segments.putIfAbsent(day, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    /**
+     * Reloads one day, with its market current. A vendor with a write still queued by write-behind
+     * keeps the queued figures, and if a write is applied while reloading the reload is dropped, to
+     * be retried next time.
+     */
+    private void reload(MarketDay day) {
+        LocalDate marketDate = day.date();
+        TransactionSegment before = segments.get(day);
+        List<VendorTransaction> stored = transactionRepository.findAllByMarketDate(marketDate);
+        synchronized (this) {
+            if (segments.get(day) != before) {
+                return;
+            }
+            Map<UUID, VendorTransaction> rows = new LinkedHashMap<>();
+            stored.forEach(transaction -> rows.put(transaction.getVendorId(), transaction));
+            for (int code : before.vendorCodes()) {
+                UUID vendorId = dictionary.decode(code);
+                writeBehindBuffer.pendingTransaction(vendorId, marketDate)
+                        .ifPresent(transaction -> rows.put(vendorId, transaction));
+            }
+            segments.put(day, TransactionSegment.of(marketDate, rows.values(), dictionary));
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            logger.warn("Refreshing the transaction column store failed; retrying on the next interval", e);
+        }
+    }
+
+    /**
+     * @return for each vendor code, whether the query selects it; {@code null} to select all vendors.
+     */
+    private boolean[] vendorFilter(Set<UUID> vendorIds) {
+        if (vendorIds.isEmpty()) {
+            return null;
+        }
+        boolean[] filter = new boolean[dictionary.size()];
+        for (UUID vendorId : vendorIds) {
+            int code = dictionary.find(vendorId);
+            if (code >= 0 && code < filter.length) {
+                filter[code] = true;
+            }
+        }
+        return filter;
+    }
+
+    /**
+     * @return a 0/1 weight per row of the segment, or {@code null} if every row is selected.
+     */
+    private static double[] weights(TransactionSegment segment, boolean presentOnly, boolean[] vendorFilter) {
+        if (!presentOnly && vendorFilter == null) {
+            return null;
+        }
+        double[] weights = new double[segment.size];
+        for (int i = 0; i < segment.size; i++) {
+            int code = segment.vendorCodes[i];
+            boolean selected = vendorFilter == null || code < vendorFilter.length && vendorFilter[code];
+            weights[i] = selected ? (presentOnly ? segment.present[i] : 1) : 0;
+        }
+        return weights;
+    }
+
+    private static void accumulate(TransactionSegment segment, int measure, double[] weights, Accumulator accumulator) {
+        int size = segment.size;
+        double[] reported = segment.reported[measure];
+        double count = 0;
+        if (weights == null) {
+            for (int i = 0; i < size; i++) {
+                count += reported[i];
+            }
+            accumulator.rows += size;
+        } else {
+            double rows = 0;
+            for (int i = 0; i < size; i++) {
+                count += reported[i] * weights[i];
+                rows += weights[i];
+            }
+            accumulator.rows += rows;
+        }
+        accumulator.count += count;
+        if (segment.values[measure] != null) {
+            accumulator.sum += sum(segment.values[measure], weights, size);
+        } else {
+            accumulator.longSum += sum(segment.longValues[measure], weights, size);
+        }
+    }
+
+    private static double sum(double[] values, double[] weights, int size) {
+        double sum = 0;
+        if (weights == null) {
+            for (int i = 0; i < size; i++) {
+                sum += values[i];
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                sum += values[i] * weights[i];
+            }
+        }
+        return sum;
+    }
+
+    private static long sum(long[] values, double[] weights, int size) {
+        long sum = 0;
+        if (weights == null) {
+            for (int i = 0; i < size; i++) {
+                sum += values[i];
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                sum += values[i] * (long) weights[i];
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Aggregates into arrays indexed by vendor code, then keys the vendors that have rows by id.
+     */
+    private Map<String, TransactionAggregate> aggregateByVendor(List<TransactionSegment> selected, int measure,
+                                                                boolean presentOnly, boolean[] vendorFilter) {
+        int vendors = dictionary.size();
+        double[] rows = new double[vendors];
+        double[] counts = new double[vendors];
+        double[] sums = new double[vendors];
+        long[] longSums = new long[vendors];
+        for (TransactionSegment segment : selected) {
+            double[] weights = weights(segment, presentOnly, vendorFilter);
+            int[] codes = segment.vendorCodes;
+            double[] reported = segment.reported[measure];
+            double[] values = segment.values[measure];
+            long[] longValues = segment.longValues[measure];
+            for (int i = 0; i < segment.size; i++) {
+                double weight = weights == null ? 1 : weights[i];
+                int code = codes[i];
+                rows[code] += weight;
+                counts[code] += reported[i] * weight;
+                if (values != null) {
+                    sums[code] += values[i] * weight;
+                } else {
+                    longSums[code] += longValues[i] * (long) weight;
+                }
+            }
+        }
+        Map<String, TransactionAggregate> result = new TreeMap<>();
+        for (int code = 0; code < vendors; code++) {
+            if (rows[code] > 0) {
+                double sum = sums[code] + longSums[code];
+                result.put(dictionary.decode(code).toString(),
+                        TransactionAggregate.of((long) rows[code], (long) counts[code], sum));
+            }
+        }
+        return result;
+    }
+
+    private static String groupKey(TransactionGrouping grouping, LocalDate marketDate) {
+        return switch (grouping) {
+            case MARKET_DATE -> marketDate.toString();
+            case MONTH -> YearMonth.from(marketDate).toString();
+            case NONE, VENDOR -> ALL_GROUP;
+        };
+    }
+
+    /**
+     * Stops the background refresher.
+     */
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * Key of the segment of one market's day.
+     */
+    private record MarketDay(String market, LocalDate date) {
+    }
+
+    /**
+     * Running totals of one group. Counts are kept as {@code double}s, as the loops produce them.
+     */
+    private static final class Accumulator {
+        private double rows;
+        private double count;
+        private double sum;
+        private long longSum;
+
+        TransactionAggregate toAggregate() {
+            return TransactionAggregate.of((long) rows, (long) count, sum + longSum);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.csi43C9.baylor.farmers_market.service.analytics;
+
+/**
+ * How {@link TransactionColumnStore#query} groups the rows it aggregates.
+ */
+public enum TransactionGrouping {
+    /** One group, keyed {@code all}. */
+    NONE,
+    /** One group per market day, keyed by ISO date. */
+    MARKET_DATE,
+    /** One group per calendar month, keyed {@code yyyy-MM}. */
+    MONTH,
+    /** One group per vendor, keyed by vendor id. */
+    VENDOR
+}
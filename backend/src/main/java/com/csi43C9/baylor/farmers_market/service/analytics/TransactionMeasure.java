@@ -0,0 +1,39 @@
+package com.csi43C9.baylor.farmers_market.service.analytics;
+
+import com.csi43C9.baylor.farmers_market.entity.VendorTransaction;
+
+import java.util.function.Function;
+
+/**
+ * Numeric columns of {@code vendor_transactions} that {@link TransactionColumnStore} aggregates.
+ */
+public enum TransactionMeasure {
+    SNAP(VendorTransaction::getSnap),
+    DUFB(VendorTransaction::getDufb),
+    WDFM_TOKENS(VendorTransaction::getWdfmTokens),
+    VOUCHER(VendorTransaction::getVoucher),
+    REIMBURSEMENT_DUE(VendorTransaction::getReimbursementDue),
+    REPORTED_SALES(VendorTransaction::getReportedSales),
+    EST_PRODUCE_SALES(VendorTransaction::getEstProduceSales),
+    EST_NUM_TRANSACTIONS(VendorTransaction::getEstNumTransactions);
+
+    private final Function<VendorTransaction, Number> value;
+
+    TransactionMeasure(Function<VendorTransaction, Number> value) {
+        this.value = value;
+    }
+
+    /**
+     * @return the measure's value in a transaction, or {@code null} if it was not recorded.
+     */
+    Number valueOf(VendorTransaction transaction) {
+        return value.apply(transaction);
+    }
+
+    /**
+     * @return {@code true} if the column holds whole numbers, stored and summed as {@code long}s.
+     */
+    boolean isIntegral() {
+        return this == EST_NUM_TRANSACTIONS;
+    }
+}
@@ -0,0 +1,29 @@
+package com.csi43C9.baylor.farmers_market.service.analytics;
+
+import lombok.Builder;
+
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * An aggregation over {@code vendor_transactions}.
+ *
+ * @param measure     the column to sum, average and count.
+ * @param from        first market day included; unbounded if {@code null}.
+ * @param to          last market day included; unbounded if {@code null}.
+ * @param vendorIds   vendors included; all vendors if empty.
+ * @param presentOnly whether only rows of vendors marked present are included.
+ * @param groupBy     how rows are grouped; {@link TransactionGrouping#NONE} if {@code null}.
+ */
+@Builder
+public record TransactionQuery(TransactionMeasure measure, LocalDate from, LocalDate to, Set<UUID> vendorIds,
+                               boolean presentOnly, TransactionGrouping groupBy) {
+
+    public TransactionQuery {
+        Objects.requireNonNull(measure, "measure");
+        vendorIds = vendorIds == null ? Set.of() : Set.copyOf(vendorIds);
+        groupBy = groupBy == null ? TransactionGrouping.NONE : groupBy;
+    }
+}
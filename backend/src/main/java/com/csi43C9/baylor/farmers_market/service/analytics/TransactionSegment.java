@@ -0,0 +1,105 @@
+package com.csi43C9.baylor.farmers_market.service.analytics;
+
+import com.csi43C9.baylor.farmers_market.entity.VendorTransaction;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * The rows of one market day, stored column by column.
+ *
+ * <p>Every measure is a primitive array indexed by row: {@code double[]}, or {@code long[]} for
+ * integral measures. A missing value is stored as 0 with a 0 in the measure's {@code reported}
+ * array, and attendance as 1 or 0, so aggregating is multiplying and adding, with no boxing or
+ * branches. Segments are never modified once published: {@link #with} returns a copy.
+ */
+final class TransactionSegment {
+
+    private static final TransactionMeasure[] MEASURES = TransactionMeasure.values();
+
+    final LocalDate marketDate;
+    final int size;
+    final int[] vendorCodes;
+    final double[] present;
+    final double[][] values;
+    final long[][] longValues;
+    final double[][] reported;
+
+    private TransactionSegment(LocalDate marketDate, int size) {
+        this.marketDate = marketDate;
+        this.size = size;
+        this.vendorCodes = new int[size];
+        this.present = new double[size];
+        this.values = new double[MEASURES.length][];
+        this.longValues = new long[MEASURES.length][];
+        this.reported = new double[MEASURES.length][];
+        for (TransactionMeasure measure : MEASURES) {
+            if (measure.isIntegral()) {
+                longValues[measure.ordinal()] = new long[size];
+            } else {
+                values[measure.ordinal()] = new double[size];
+            }
+            reported[measure.ordinal()] = new double[size];
+        }
+    }
+
+    /**
+     * @return a segment holding the given rows, which must all be of {@code marketDate} and of distinct vendors.
+     */
+    static TransactionSegment of(LocalDate marketDate, Collection<VendorTransaction> transactions,
+                                 VendorDictionary dictionary) {
+        TransactionSegment segment = new TransactionSegment(marketDate, transactions.size());
+        int row = 0;
+        for (VendorTransaction transaction : transactions) {
+            segment.set(row++, transaction, dictionary.encode(transaction.getVendorId()));
+        }
+        return segment;
+    }
+
+    /**
+     * @return a copy with the vendor's row replaced by {@code transaction}, or added if it had none.
+     */
+    TransactionSegment with(VendorTransaction transaction, VendorDictionary dictionary) {
+        int code = dictionary.encode(transaction.getVendorId());
+        int row = 0;
+        while (row < size && vendorCodes[row] != code) {
+            row++;
+        }
+        TransactionSegment copy = new TransactionSegment(marketDate, Math.max(size, row + 1));
+        System.arraycopy(vendorCodes, 0, copy.vendorCodes, 0, size);
+        System.arraycopy(present, 0, copy.present, 0, size);
+        for (int m = 0; m < MEASURES.length; m++) {
+            if (values[m] != null) {
+                System.arraycopy(values[m], 0, copy.values[m], 0, size);
+            } else {
+                System.arraycopy(longValues[m], 0, copy.longValues[m], 0, size);
+            }
+            System.arraycopy(reported[m], 0, copy.reported[m], 0, size);
+        }
+        copy.set(row, transaction, code);
+        return copy;
+    }
+
+    /**
+     * @return the codes of the vendors with a row, in row order.
+     */
+    int[] vendorCodes() {
+        return Arrays.copyOf(vendorCodes, size);
+    }
+
+    private void set(int row, VendorTransaction transaction, int code) {
+        vendorCodes[row] = code;
+        present[row] = transaction.isPresent() ? 1 : 0;
+        for (TransactionMeasure measure : MEASURES) {
+            int m = measure.ordinal();
+            Number value = measure.valueOf(transaction);
+            reported[m][row] = value == null ? 0 : 1;
+            if (measure.isIntegral()) {
+                longValues[m][row] = value == null ? 0 : value.longValue();
+            } else {
+                values[m][row] = value == null ? 0 : value.doubleValue();
+            }
+        }
+    }
+}
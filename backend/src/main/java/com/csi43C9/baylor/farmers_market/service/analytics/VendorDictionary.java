@@ -0,0 +1,59 @@
+package com.csi43C9.baylor.farmers_market.service.analytics;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns each vendor id a dense {@code int} code, so segments store vendors as an {@code int[]}
+ * and per-vendor aggregates index plain arrays. Codes are never reused.
+ */
+final class VendorDictionary {
+
+    private final Map<UUID, Integer> codes = new ConcurrentHashMap<>();
+    private volatile UUID[] ids = new UUID[256];
+    private volatile int size;
+
+    /**
+     * @return the vendor's code, assigning the next free one if it has none yet.
+     */
+    int encode(UUID vendorId) {
+        Integer code = codes.get(vendorId);
+        if (code != null) {
+            return code;
+        }
+        synchronized (this) {
+            code = codes.get(vendorId);
+            if (code != null) {
+                return code;
+            }
+            UUID[] current = ids;
+            if (size == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            current[size] = vendorId;
+            ids = current;
+            codes.put(vendorId, size);
+            return size++;
+        }
+    }
+
+    /**
+     * @return the vendor's code, or -1 if it has none.
+     */
+    int find(UUID vendorId) {
+        return codes.getOrDefault(vendorId, -1);
+    }
+
+    UUID decode(int code) {
+        return ids[code];
+    }
+
+    /**
+     * @return one more than the highest code assigned.
+     */
+    int size() {
+        return size;
+    }
+}
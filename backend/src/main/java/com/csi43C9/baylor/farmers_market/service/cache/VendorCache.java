@@ -0,0 +1,187 @@
+package com.csi43C9.baylor.farmers_market.service.cache;
+
+import com.csi43C9.baylor.farmers_market.entity.Vendor;
+import com.csi43C9.baylor.farmers_market.entity.VendorChange;
+import com.csi43C9.baylor.farmers_market.tenant.TenantContext;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Vendors by id, kept coherent across instances by {@link VendorChangePoller}.
+ *
+ * <p>Every entry is stamped with the last change log sequence number seen when its load started.
+ * Invalidating a vendor replaces its entry with a marker stamped with the sequence number of the
+ * write, and a load finishing afterwards is only stored if it started after that write was seen,
+ * so a read racing a write cannot put the old row back. Writes made through this instance are
+ * invalidated at once; writes made by other instances once the poller reads them.
+ *
+ * <p>A vendor is served from the cache at most {@code max-staleness-ms} after the poller last read
+ * the log to its end, so a cached vendor is never staler than that. While the poller is further
+ * behind, e.g. because the database is unreachable, every read goes to the database. Entries also
+ * expire {@code ttl-ms} after they were loaded, and at most {@code max-entries} are held; while
+ * full, vendors not yet cached are read without being stored.
+ *
+ * <p>Counters are published to Micrometer under {@code farmers.market.cache.vendors.*}.
+ */
+@Component
+public class VendorCache implements VendorChangeListener, MeterBinder {
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final long maxStalenessNanos;
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweepNanos;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * The last sequence number the poller read the log to; -1 until it has.
+     */
+    private volatile long seenSeq = -1;
+    private volatile long caughtUpAt;
+
+    /**
+     * Entries loaded before this sequence number are not stored; raised when every vendor changed.
+     */
+    private volatile long minVersion;
+
+    public VendorCache(@Value("${farmers.market.cache.max-entries:10000}") int maxEntries,
+                       @Value("${farmers.market.cache.ttl-ms:300000}") long ttlMs,
+                       @Value("${farmers.market.cache.max-staleness-ms:5000}") long maxStalenessMs) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.maxStalenessNanos = TimeUnit.MILLISECONDS.toNanos(maxStalenessMs);
+        this.nextSweepNanos = new AtomicLong(System.nanoTime() + ttlNanos);
+    }
+
+    /**
+     * Returns a vendor of the current market, loading and caching it on a miss.
+     * @param id the vendor's id.
+     * @param loader reads the vendor from the database.
+     * @return the vendor, or empty if there is none; absent vendors are cached too.
+     */
+    public Optional<Vendor> get(UUID id, Supplier<Optional<Vendor>> loader) {
+        long now = System.nanoTime();
+        if (!isFresh(now)) {
+            bypassed.increment();
+            return loader.get();
+        }
+        evictExpired(now);
+        Key key = new Key(TenantContext.current(), id);
+        Entry cached = entries.get(key);
+        if (cached != null && cached.vendor != null && !isExpired(cached, now)) {
+            hits.increment();
+            return cached.vendor;
+        }
+        misses.increment();
+        long version = seenSeq;
+        Optional<Vendor> loaded = loader.get();
+        if (version >= minVersion && (entries.size() < maxEntries || entries.containsKey(key))) {
+            Entry fresh = new Entry(loaded, version, System.nanoTime());
+            entries.compute(key, (k, held) -> held != null && held.version > version ? held : fresh);
+        }
+        return loaded;
+    }
+
+    /**
+     * Drops a vendor of the current market after this instance wrote it. It is not cached again
+     * until the poller has read past the write.
+     */
+    public void invalidate(UUID id) {
+        invalidate(new Key(TenantContext.current(), id), seenSeq + 1);
+    }
+
+    @Override
+    public void vendorsChanged(List<VendorChange> changes) {
+        String market = TenantContext.current();
+        for (VendorChange change : changes) {
+            invalidate(new Key(market, change.getVendorId()), change.getSeq());
+        }
+    }
+
+    @Override
+    public void allVendorsChanged() {
+        minVersion = seenSeq + 1;
+        entries.clear();
+        invalidations.increment();
+    }
+
+    @Override
+    public void caughtUp(long seq) {
+        seenSeq = seq;
+        caughtUpAt = System.nanoTime();
+    }
+
+    /**
+     * @return the number of vendors cached, including invalidation markers.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private void invalidate(Key key, long version) {
+        invalidations.increment();
+        // An entry loaded after the write was seen already reflects it
+        entries.compute(key, (k, held) -> held != null && held.version >= version
+                ? held
+                : new Entry(null, version, System.nanoTime()));
+    }
+
+    private boolean isFresh(long now) {
+        return seenSeq >= 0 && now - caughtUpAt <= maxStalenessNanos;
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return now - entry.storedAt > ttlNanos;
+    }
+
+    /**
+     * Drops expired entries and markers, at most once per {@code ttl-ms}.
+     */
+    private void evictExpired(long now) {
+        long due = nextSweepNanos.get();
+        if (now - due < 0 || !nextSweepNanos.compareAndSet(due, now + ttlNanos)) {
+            return;
+        }
+        entries.values().removeIf(entry -> isExpired(entry, now));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("farmers.market.cache.vendors.hits", hits, LongAdder::sum).register(registry);
+        FunctionCounter.builder("farmers.market.cache.vendors.misses", misses, LongAdder::sum).register(registry);
+        FunctionCounter.builder("farmers.market.cache.vendors.bypassed", bypassed, LongAdder::sum).register(registry);
+        FunctionCounter.builder("farmers.market.cache.vendors.invalidations", invalidations, LongAdder::sum)
+                .register(registry);
+        Gauge.builder("farmers.market.cache.vendors.size", this, VendorCache::size).register(registry);
+    }
+
+    private record Key(String market, UUID id) {
+    }
+
+    /**
+     * A cached vendor, or with no vendor a marker that it was invalidated.
+     * @param vendor the vendor as loaded; {@code null} for a marker.
+     * @param version the sequence number seen when the load started, or of the invalidating write.
+     * @param storedAt when the entry was stored, in {@link System#nanoTime()}.
+     */
+    private record Entry(Optional<Vendor> vendor, long version, long storedAt) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.csi43C9.baylor.farmers_market.service.cache;
+
+import com.csi43C9.baylor.farmers_market.entity.VendorChange;
+
+import java.util.List;
+
+/**
+ * Receives the vendor writes {@link VendorChangePoller} reads from the change log, including those
+ * made by other instances, to keep an in-memory copy of vendors current. Called on the poller
+ * thread, one market at a time, with that market current.
+ */
+public interface VendorChangeListener {
+
+    /**
+     * Called with the current market's entries read by one poll, oldest first.
+     */
+    void vendorsChanged(List<VendorChange> changes);
+
+    /**
+     * Called when entries may have been missed, e.g. pruned before this instance read them; every
+     * vendor of every market must be treated as changed.
+     */
+    void allVendorsChanged();
+
+    /**
+     * Called after each poll that read the log to its end.
+     * @param seq the last sequence number read
+     */
+    default void caughtUp(long seq) {
+    }
+}
@@ -0,0 +1,149 @@
+package com.csi43C9.baylor.farmers_market.service.cache;
+
+import com.csi43C9.baylor.farmers_market.entity.VendorChange;
+import com.csi43C9.baylor.farmers_market.repository.VendorChangeRepository;
+import com.csi43C9.baylor.farmers_market.tenant.TenantContext;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tails the vendor change log so in-memory vendor copies on every instance see writes made by the
+ * others, using only the database.
+ *
+ * <p>Every vendor write appends to {@code vendor_changes} in its own transaction, and entries
+ * become visible in sequence order, so reading the entries after the last sequence number seen
+ * every {@code farmers.market.cache.poll-interval-ms} finds every committed write exactly once.
+ * The entries are handed to each {@link VendorChangeListener} by market. Sequence numbers are
+ * consecutive, so a jump means the entries in between were pruned before they were read; listeners
+ * are then told that every vendor changed. The first poll starts at the end of the log, as nothing
+ * is cached yet.
+ *
+ * <p>Counters are published to Micrometer under {@code farmers.market.cache.*}.
+ */
+@Component
+public class VendorChangePoller implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(VendorChangePoller.class);
+
+    private final VendorChangeRepository vendorChangeRepository;
+    private final List<VendorChangeListener> listeners;
+    private final int batchSize;
+    private final ScheduledExecutorService poller;
+
+    private final LongAdder entriesRead = new LongAdder();
+    private final LongAdder resyncs = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * The last sequence number read; -1 until the first poll.
+     */
+    private volatile long lastSeq = -1;
+
+    public VendorChangePoller(VendorChangeRepository vendorChangeRepository,
+                              List<VendorChangeListener> listeners,
+                              @Value("${farmers.market.cache.enabled:true}") boolean enabled,
+                              @Value("${farmers.market.cache.poll-interval-ms:500}") long pollIntervalMs,
+                              @Value("${farmers.market.cache.poll-batch-size:1000}") int batchSize) {
+        this.vendorChangeRepository = vendorChangeRepository;
+        this.listeners = List.copyOf(listeners);
+        this.batchSize = batchSize;
+        this.poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "vendor-change-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (enabled) {
+            this.poller.scheduleWithFixedDelay(this::pollQuietly, 0, pollIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Reads the log to its end and hands the new entries to the listeners.
+     * @return the number of entries read.
+     */
+    public synchronized int poll() {
+        if (lastSeq < 0) {
+            lastSeq = vendorChangeRepository.state().lastSeq();
+            listeners.forEach(listener -> listener.caughtUp(lastSeq));
+            return 0;
+        }
+        int read = 0;
+        List<VendorChange> batch;
+        do {
+            batch = vendorChangeRepository.findAfterInAllMarkets(lastSeq, batchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+            if (batch.getFirst().getSeq() != lastSeq + 1) {
+                resyncs.increment();
+                logger.info("Vendor changes {} to {} were pruned before they were read; dropping cached vendors",
+                        lastSeq + 1, batch.getFirst().getSeq() - 1);
+                listeners.forEach(VendorChangeListener::allVendorsChanged);
+            }
+            dispatch(batch);
+            lastSeq = batch.getLast().getSeq();
+            read += batch.size();
+            entriesRead.add(batch.size());
+        } while (batch.size() == batchSize);
+        long caughtUpTo = lastSeq;
+        listeners.forEach(listener -> listener.caughtUp(caughtUpTo));
+        return read;
+    }
+
+    /**
+     * @return the last sequence number read; -1 before the first poll.
+     */
+    public long lastSeq() {
+        return lastSeq;
+    }
+
+    private void dispatch(List<VendorChange> batch) {
+        Map<String, List<VendorChange>> byMarket = new LinkedHashMap<>();
+        for (VendorChange change : batch) {
+            byMarket.computeIfAbsent(change.getMarketId(), market -> new ArrayList<>()).add(change);
+        }
+        byMarket.forEach((market, changes) -> TenantContext.run(market,
+                () -> listeners.forEach(listener -> listener.vendorsChanged(changes))));
+    }
+
+    private void pollQuietly() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            failures.increment();
+            logger.warn("Polling the vendor change log failed; cached vendors are bypassed until it succeeds", e);
+        }
+    }
+
+    /**
+     * Stops the background poller.
+     */
+    @PreDestroy
+    public void shutdown() {
+        poller.shutdownNow();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("farmers.market.cache.changes.read", entriesRead, LongAdder::sum).register(registry);
+        FunctionCounter.builder("farmers.market.cache.resyncs", resyncs, LongAdder::sum).register(registry);
+        FunctionCounter.builder("farmers.market.cache.poll.failures", failures, LongAdder::sum).register(registry);
+        Gauge.builder("farmers.market.cache.changes.seq", this, VendorChangePoller::lastSeq).register(registry);
+    }
+}
@@ -0,0 +1,318 @@
+package com.csi43C9.baylor.farmers_market.service.cache;
+
+import com.csi43C9.baylor.farmers_market.dto.PagedResponse;
+import com.csi43C9.baylor.farmers_market.entity.Vendor;
+import com.csi43C9.baylor.farmers_market.entity.VendorChange;
+import com.csi43C9.baylor.farmers_market.repository.VendorRepository;
+import com.csi43C9.baylor.farmers_market.tenant.Markets;
+import com.csi43C9.baylor.farmers_market.tenant.TenantContext;
+import com.csi43C9.baylor.farmers_market.warmup.WarmupTask;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The active vendors of each market as an immutable snapshot sorted by name, so vendor pages and
+ * counts are answered from memory. Enabled with {@code farmers.market.directory.enabled}.
+ *
+ * <p>A market's snapshot is loaded on first use, or at startup as a {@link WarmupTask}, and then
+ * only ever replaced whole, through a volatile reference, so readers never see a half-built one.
+ * It goes stale when a vendor of the market is written, by this instance or, as reported by
+ * {@link VendorChangePoller}, by another, and after {@code refresh-interval-ms}. A stale snapshot
+ * keeps being served while a new one is built on a background thread; if building fails, e.g.
+ * while the database is unreachable, the last good snapshot is served and the build is retried.
+ * A market is rebuilt at most once per {@code min-rebuild-interval-ms}, however often its vendors
+ * are written, so pages may lag a write by that interval plus the time a rebuild takes.
+ *
+ * <p>Vendors in a snapshot are shared by every reader and must not be modified.
+ *
+ * <p>Counters are published to Micrometer under {@code farmers.market.vendor.directory.*}.
+ */
+@Component
+@Order(1)
+public class VendorDirectory implements VendorChangeListener, WarmupTask, MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(VendorDirectory.class);
+
+    /**
+     * The order of vendor pages: by name, ignoring case, as the database collation does.
+     */
+    private static final Comparator<Vendor> BY_NAME = Comparator
+            .comparing(Vendor::getVendorName, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(Vendor::getId);
+
+    /**
+     * How long a failed build keeps readers from triggering another.
+     */
+    private static final long RETRY_DELAY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final VendorRepository vendorRepository;
+    private final Markets markets;
+    private final boolean enabled;
+    private final long maxAgeNanos;
+    private final long minRebuildIntervalNanos;
+    private final ScheduledExecutorService refresher;
+    private final Map<String, MarketDirectory> directories = new ConcurrentHashMap<>();
+
+    private final LongAdder builds = new LongAdder();
+    private final LongAdder buildFailures = new LongAdder();
+    private final LongAdder staleServed = new LongAdder();
+
+    public VendorDirectory(VendorRepository vendorRepository,
+                           Markets markets,
+                           @Value("${farmers.market.directory.enabled:false}") boolean enabled,
+                           @Value("${farmers.market.directory.refresh-interval-ms:60000}") long refreshIntervalMs,
+                           @Value("${farmers.market.directory.min-rebuild-interval-ms:500}") long minRebuildIntervalMs) {
+        this.vendorRepository = vendorRepository;
+        this.markets = markets;
+        this.enabled = enabled;
+        this.maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(refreshIntervalMs);
+        this.minRebuildIntervalNanos = TimeUnit.MILLISECONDS.toNanos(minRebuildIntervalMs);
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "vendor-directory-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (enabled) {
+            long tickMs = Math.max(1, refreshIntervalMs / 4);
+            this.refresher.scheduleWithFixedDelay(this::refreshStale, tickMs, tickMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * @return whether vendor pages are served from the directory.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the current market's snapshot, loading it if there is none yet. A stale snapshot is
+     * returned as is, and a new one built in the background.
+     * @return the last snapshot built.
+     */
+    public Snapshot snapshot() {
+        MarketDirectory directory = directories.computeIfAbsent(TenantContext.current(), MarketDirectory::new);
+        Snapshot current = directory.snapshot;
+        if (current == null) {
+            return directory.load();
+        }
+        if (directory.isStale(current, System.nanoTime())) {
+            staleServed.increment();
+            directory.refreshInBackground();
+        }
+        return current;
+    }
+
+    /**
+     * Marks the current market's snapshot stale after this instance wrote one of its vendors.
+     */
+    public void invalidate() {
+        MarketDirectory directory = directories.get(TenantContext.current());
+        if (directory != null) {
+            directory.changed();
+        }
+    }
+
+    @Override
+    public void vendorsChanged(List<VendorChange> changes) {
+        invalidate();
+    }
+
+    @Override
+    public void allVendorsChanged() {
+        directories.values().forEach(MarketDirectory::changed);
+    }
+
+    /**
+     * @return the number of vendors held, in every market.
+     */
+    public int size() {
+        return directories.values().stream()
+                .map(directory -> directory.snapshot)
+                .mapToInt(snapshot -> snapshot != null ? snapshot.vendors().size() : 0)
+                .sum();
+    }
+
+    @Override
+    public String name() {
+        return "vendor directory";
+    }
+
+    @Override
+    public String warmUp() {
+        if (!enabled) {
+            return "disabled";
+        }
+        markets.all().forEach(market -> TenantContext.run(market, this::snapshot));
+        return "loaded %d active vendors in %d markets".formatted(size(), markets.all().size());
+    }
+
+    private void refreshStale() {
+        long now = System.nanoTime();
+        for (MarketDirectory directory : directories.values()) {
+            Snapshot current = directory.snapshot;
+            if (current != null && directory.isStale(current, now)) {
+                directory.refreshInBackground();
+            }
+        }
+    }
+
+    /**
+     * Stops the background refresher.
+     */
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("farmers.market.vendor.directory.builds", builds, LongAdder::sum)
+                .register(registry);
+        FunctionCounter.builder("farmers.market.vendor.directory.build.failures", buildFailures, LongAdder::sum)
+                .register(registry);
+        FunctionCounter.builder("farmers.market.vendor.directory.stale.served", staleServed, LongAdder::sum)
+                .register(registry);
+        Gauge.builder("farmers.market.vendor.directory.size", this, VendorDirectory::size).register(registry);
+    }
+
+    /**
+     * One market's active vendors, sorted by name.
+     * @param vendors the vendors, in page order.
+     * @param generation the market's write count when the build started.
+     * @param builtAt when the build started, in {@link System#nanoTime()}.
+     */
+    public record Snapshot(List<Vendor> vendors, long generation, long builtAt) {
+
+        /**
+         * @return the number of active vendors.
+         */
+        public long count() {
+            return vendors.size();
+        }
+
+        /**
+         * @param page 0-based page number
+         * @param size page size
+         * @return the page, ordered like the database orders it.
+         */
+        public PagedResponse<Vendor> page(int page, int size) {
+            long offset = (long) page * size;
+            List<Vendor> content = offset < vendors.size()
+                    ? vendors.subList((int) offset, (int) Math.min(offset + size, vendors.size()))
+                    : List.of();
+            int totalPages = (int) Math.ceil((double) vendors.size() / size);
+            return new PagedResponse<>(content, page, size, vendors.size(), totalPages);
+        }
+    }
+
+    /**
+     * The snapshot of one market and what decides when it is rebuilt.
+     */
+    private final class MarketDirectory {
+
+        private final String market;
+
+        /**
+         * Incremented by every write to the market's vendors.
+         */
+        private final AtomicLong generation = new AtomicLong();
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private volatile Snapshot snapshot;
+        private volatile long retryAt;
+
+        private MarketDirectory(String market) {
+            this.market = market;
+        }
+
+        synchronized Snapshot load() {
+            if (snapshot == null) {
+                build();
+            }
+            return snapshot;
+        }
+
+        void changed() {
+            generation.incrementAndGet();
+            refreshInBackground();
+        }
+
+        boolean isStale(Snapshot current, long now) {
+            return current.generation() != generation.get() || now - current.builtAt() > maxAgeNanos;
+        }
+
+        /**
+         * Builds a new snapshot on the refresher thread, unless one is being built or waiting to
+         * be, none was ever loaded or the last build failed less than a second ago. The build
+         * starts no sooner than the minimum rebuild interval after the last one started.
+         */
+        void refreshInBackground() {
+            Snapshot current = snapshot;
+            long now = System.nanoTime();
+            if (current == null || now - retryAt < 0 || !refreshing.compareAndSet(false, true)) {
+                return;
+            }
+            long delayNanos = Math.max(0, current.builtAt() + minRebuildIntervalNanos - now);
+            try {
+                refresher.schedule(() -> {
+                    try {
+                        TenantContext.run(market, this::refresh);
+                    } finally {
+                        refreshing.set(false);
+                    }
+                    // Written to while building: build once more, after the minimum interval
+                    Snapshot built = snapshot;
+                    if (built != null && built.generation() != generation.get()) {
+                        refreshInBackground();
+                    }
+                }, delayNanos, TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                refreshing.set(false);
+            }
+        }
+
+        /**
+         * Builds one snapshot. Writes made while building leave it stale, for the next refresh.
+         */
+        private void refresh() {
+            try {
+                build();
+            } catch (RuntimeException e) {
+                buildFailures.increment();
+                retryAt = System.nanoTime() + RETRY_DELAY_NANOS;
+                logger.warn("Rebuilding the vendor directory of market {} failed; serving the previous one", market, e);
+            }
+        }
+
+        private void build() {
+            long started = System.nanoTime();
+            long version = generation.get();
+            List<Vendor> vendors = new ArrayList<>(vendorRepository.findAll());
+            vendors.sort(BY_NAME);
+            snapshot = new Snapshot(List.copyOf(vendors), version, started);
+            builds.increment();
+        }
+    }
+}
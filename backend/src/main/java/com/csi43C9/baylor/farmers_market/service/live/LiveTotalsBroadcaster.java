@@ -0,0 +1,302 @@
+package com.csi43C9.baylor.farmers_market.service.live;
+
+import com.csi43C9.baylor.farmers_market.tenant.TenantContext;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pushes {@link MarketDayAggregate} totals to dashboard subscribers over Server-Sent Events.
+ *
+ * <p>One publisher thread checks the aggregate every {@code push-interval-ms} and, when its version
+ * has moved, encodes a {@code totals} event once and hands it to every subscriber. Each subscriber
+ * holds at most one undelivered event: a newer event replaces an older one still waiting, so a slow
+ * client skips intermediate totals instead of buffering them, and is disconnected once a single
+ * write has been blocked for {@code slow-client-timeout-ms}. Writes run on virtual threads, so a
+ * stalled client never delays the others. Idle streams get a comment line every
+ * {@code heartbeat-ms} to keep proxies from closing them. At most {@code max-subscribers} streams
+ * are open at once; while any are, the aggregate is reloaded every {@code resync-interval-ms} to
+ * include writes made by other instances.
+ *
+ * <p>A subscriber receives the totals of the market its request was for. Each tick handles every
+ * market with open streams in turn, with that market current.
+ *
+ * <p>Counters are published to Micrometer under {@code farmers.market.live.*}.
+ */
+@Component
+public class LiveTotalsBroadcaster implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveTotalsBroadcaster.class);
+    private static final String TOTALS_EVENT = "totals";
+
+    private final MarketDayAggregate aggregate;
+    private final int maxSubscribers;
+    private final long emitterTimeoutMs;
+    private final long heartbeatNanos;
+    private final long slowClientTimeoutNanos;
+    private final long resyncIntervalNanos;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService publisher;
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder conflated = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    private final Map<String, Published> published = new HashMap<>();
+    private long lastResync = System.nanoTime();
+
+    public LiveTotalsBroadcaster(MarketDayAggregate aggregate,
+                                 @Value("${farmers.market.live.max-subscribers:200}") int maxSubscribers,
+                                 @Value("${farmers.market.live.push-interval-ms:1000}") long pushIntervalMs,
+                                 @Value("${farmers.market.live.heartbeat-ms:15000}") long heartbeatMs,
+                                 @Value("${farmers.market.live.slow-client-timeout-ms:10000}") long slowClientTimeoutMs,
+                                 @Value("${farmers.market.live.resync-interval-ms:60000}") long resyncIntervalMs,
+                                 @Value("${farmers.market.live.emitter-timeout-ms:1800000}") long emitterTimeoutMs) {
+        this.aggregate = aggregate;
+        this.maxSubscribers = maxSubscribers;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.heartbeatNanos = TimeUnit.MILLISECONDS.toNanos(heartbeatMs);
+        this.slowClientTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(slowClientTimeoutMs);
+        this.resyncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(resyncIntervalMs);
+        this.publisher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "live-totals-publisher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.publisher.scheduleWithFixedDelay(this::publishQuietly, pushIntervalMs, pushIntervalMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a stream that starts with the current market's totals.
+     * @return the emitter to return from the controller, or empty if {@code max-subscribers} streams are open.
+     */
+    public Optional<SseEmitter> subscribe() {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        return register(emitter) ? Optional.of(emitter) : Optional.empty();
+    }
+
+    /**
+     * Adds an emitter as a subscriber of the current market and queues its current totals.
+     * @return {@code false} if the subscriber limit has been reached.
+     */
+    boolean register(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter, TenantContext.current());
+        synchronized (subscribers) {
+            if (subscribers.size() >= maxSubscribers) {
+                rejected.increment();
+                return false;
+            }
+            subscribers.add(subscriber);
+        }
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscriber.offer(totalsEvent(aggregate.snapshot()));
+        return true;
+    }
+
+    /**
+     * @return the number of open streams.
+     */
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Runs one publisher tick: resyncs the aggregate if due, pushes changed totals or a heartbeat,
+     * and disconnects stalled clients.
+     */
+    synchronized void publish() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        long now = System.nanoTime();
+        boolean resync = now - lastResync >= resyncIntervalNanos;
+        if (resync) {
+            lastResync = now;
+        }
+
+        Map<String, List<Subscriber>> byMarket = new HashMap<>();
+        for (Subscriber subscriber : subscribers) {
+            byMarket.computeIfAbsent(subscriber.market, market -> new ArrayList<>()).add(subscriber);
+        }
+        published.keySet().retainAll(byMarket.keySet());
+        byMarket.forEach((market, audience) -> TenantContext.run(market, () -> publish(market, audience, now, resync)));
+
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.isStalled(now)) {
+                evicted.increment();
+                subscribers.remove(subscriber);
+                subscriber.emitter.complete();
+            }
+        }
+    }
+
+    /**
+     * Pushes one market's changed totals or a heartbeat to that market's subscribers.
+     */
+    private void publish(String market, List<Subscriber> audience, long now, boolean resync) {
+        if (resync) {
+            aggregate.resync();
+        }
+        Published state = published.computeIfAbsent(market, key -> new Published(now));
+        MarketDayTotals totals = aggregate.snapshot();
+        if (totals.version() != state.version) {
+            state.version = totals.version();
+            state.lastHeartbeat = now;
+            Set<DataWithMediaType> event = totalsEvent(totals);
+            audience.forEach(subscriber -> subscriber.offer(event));
+        } else if (now - state.lastHeartbeat >= heartbeatNanos) {
+            state.lastHeartbeat = now;
+            Set<DataWithMediaType> heartbeat = SseEmitter.event().comment("heartbeat").build();
+            audience.forEach(subscriber -> subscriber.offerIfIdle(heartbeat));
+        }
+    }
+
+    private void publishQuietly() {
+        try {
+            publish();
+        } catch (RuntimeException e) {
+            logger.warn("Publishing live market-day totals failed; retrying on the next tick", e);
+        }
+    }
+
+    /**
+     * Encodes the totals once for all subscribers.
+     */
+    private Set<DataWithMediaType> totalsEvent(MarketDayTotals totals) {
+        return SseEmitter.event()
+                .name(TOTALS_EVENT)
+                .id(Long.toString(totals.version()))
+                .data(mapper.writeValueAsString(totals))
+                .build();
+    }
+
+    /**
+     * Stops publishing and closes every open stream.
+     */
+    @PreDestroy
+    public void shutdown() {
+        publisher.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+        senders.shutdownNow();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("farmers.market.live.subscribers", subscribers, Set::size).register(registry);
+        FunctionCounter.builder("farmers.market.live.rejected", rejected, LongAdder::sum).register(registry);
+        FunctionCounter.builder("farmers.market.live.conflated", conflated, LongAdder::sum).register(registry);
+        FunctionCounter.builder("farmers.market.live.evicted", evicted, LongAdder::sum).register(registry);
+    }
+
+    /**
+     * What was last sent to one market's subscribers.
+     */
+    private static final class Published {
+
+        private long version = -1;
+        private long lastHeartbeat;
+
+        private Published(long now) {
+            this.lastHeartbeat = now;
+        }
+    }
+
+    /**
+     * One open stream, the market it follows, and the single event waiting to be written to it.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final String market;
+        private final AtomicReference<Set<DataWithMediaType>> pending = new AtomicReference<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile long sendStartedAt;
+
+        private Subscriber(SseEmitter emitter, String market) {
+            this.emitter = emitter;
+            this.market = market;
+        }
+
+        /**
+         * Queues an event, replacing one still waiting.
+         */
+        void offer(Set<DataWithMediaType> event) {
+            if (pending.getAndSet(event) != null) {
+                conflated.increment();
+            }
+            scheduleDrain();
+        }
+
+        /**
+         * Queues an event only if nothing is waiting.
+         */
+        void offerIfIdle(Set<DataWithMediaType> event) {
+            if (pending.compareAndSet(null, event)) {
+                scheduleDrain();
+            }
+        }
+
+        boolean isStalled(long now) {
+            long started = sendStartedAt;
+            return started != 0 && now - started > slowClientTimeoutNanos;
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Set<DataWithMediaType> event;
+                while ((event = pending.getAndSet(null)) != null) {
+                    sendStartedAt = System.nanoTime();
+                    emitter.send(event);
+                    sendStartedAt = 0;
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away or the stream was completed; the container cleans up
+                subscribers.remove(this);
+                pending.set(null);
+            } finally {
+                sendStartedAt = 0;
+                draining.set(false);
+            }
+            if (pending.get() != null && subscribers.contains(this)) {
+                scheduleDrain();
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.csi43C9.baylor.farmers_market.service.live;
+
+import com.csi43C9.baylor.farmers_market.entity.VendorTransaction;
+import com.csi43C9.baylor.farmers_market.repository.VendorTransactionRepository;
+import com.csi43C9.baylor.farmers_market.service.writebehind.WriteBehindBuffer;
+import com.csi43C9.baylor.farmers_market.tenant.TenantContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory totals for the current market day, shared by every live dashboard subscriber of a
+ * market. Each market has its own figures and totals, and every method acts on the current one.
+ *
+ * <p>Holds the latest figures of each vendor for today (in {@code farmers.market.live.zone}), so
+ * recording a vendor again replaces its contribution rather than adding to it. Writes made through
+ * this instance are applied as they are recorded; {@link #resync()} reloads the day from the
+ * database, overlaid with writes still waiting in the write-behind queue, to pick up writes made by
+ * other instances.
+ */
+@Component
+public class MarketDayAggregate {
+
+    private final VendorTransactionRepository transactionRepository;
+    private final WriteBehindBuffer writeBehindBuffer;
+    private final ZoneId zone;
+
+    private final Map<String, MarketDay> markets = new ConcurrentHashMap<>();
+
+    public MarketDayAggregate(VendorTransactionRepository transactionRepository,
+                              WriteBehindBuffer writeBehindBuffer,
+                              @Value("${farmers.market.live.zone:America/Chicago}") ZoneId zone) {
+        this.transactionRepository = transactionRepository;
+        this.writeBehindBuffer = writeBehindBuffer;
+        this.zone = zone;
+    }
+
+    /**
+     * Applies a vendor's recorded figures to the current market; figures for any day other than
+     * today are ignored.
+     */
+    public void apply(VendorTransaction transaction) {
+        LocalDate today = today();
+        if (!today.equals(transaction.getMarketDate())) {
+            return;
+        }
+        MarketDay day = day();
+        MarketDayTotals totals = day.totals;
+        if (totals == null || !today.equals(totals.marketDate())) {
+            resync();
+        }
+        synchronized (day) {
+            day.figures.put(transaction.getVendorId(), transaction);
+            day.recompute(today);
+        }
+    }
+
+    /**
+     * @return the current market's totals, loading today's figures first if the day has changed.
+     */
+    public MarketDayTotals snapshot() {
+        MarketDay day = day();
+        MarketDayTotals current = day.totals;
+        if (current == null || !today().equals(current.marketDate())) {
+            resync();
+            current = day.totals;
+        }
+        return current;
+    }
+
+    /**
+     * Reloads the current market's figures for today from the database. A vendor with a write still
+     * queued by write-behind keeps the queued figures.
+     */
+    public void resync() {
+        LocalDate today = today();
+        MarketDay day = day();
+        List<VendorTransaction> stored = transactionRepository.findAllByMarketDate(today);
+        synchronized (day) {
+            Set<UUID> known = new HashSet<>(day.figures.keySet());
+            if (day.totals == null || !today.equals(day.totals.marketDate())) {
+                known.clear();
+            }
+            day.figures.clear();
+            for (VendorTransaction transaction : stored) {
+                day.figures.put(transaction.getVendorId(), transaction);
+            }
+            for (UUID vendorId : known) {
+                Optional<VendorTransaction> pending = writeBehindBuffer.pendingTransaction(vendorId, today);
+                pending.ifPresent(transaction -> day.figures.put(vendorId, transaction));
+            }
+            day.recompute(today);
+        }
+    }
+
+    private MarketDay day() {
+        return markets.computeIfAbsent(TenantContext.current(), market -> new MarketDay());
+    }
+
+    private LocalDate today() {
+        return LocalDate.now(zone);
+    }
+
+    private static double valueOf(Double value) {
+        return value == null ? 0 : value;
+    }
+
+    /**
+     * Today's figures and totals of one market.
+     */
+    private static final class MarketDay {
+
+        private final Map<UUID, VendorTransaction> figures = new HashMap<>();
+        private volatile MarketDayTotals totals;
+
+        /**
+         * Sums the figures from scratch; a market day has at most a few hundred vendors, and this
+         * avoids the drift of repeatedly subtracting and adding doubles.
+         */
+        private void recompute(LocalDate marketDate) {
+            int present = 0;
+            double snap = 0;
+            double dufb = 0;
+            double tokens = 0;
+            double sales = 0;
+            for (VendorTransaction transaction : figures.values()) {
+                if (transaction.isPresent()) {
+                    present++;
+                }
+                snap += valueOf(transaction.getSnap());
+                dufb += valueOf(transaction.getDufb());
+                tokens += valueOf(transaction.getWdfmTokens());
+                sales += valueOf(transaction.getReportedSales());
+            }
+            long version = totals == null ? 0 : totals.version();
+            MarketDayTotals unchanged = new MarketDayTotals(marketDate, version, present, snap, dufb, tokens, sales);
+            if (!unchanged.equals(totals)) {
+                totals = new MarketDayTotals(marketDate, version + 1, present, snap, dufb, tokens, sales);
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.csi43C9.baylor.farmers_market.service.live;
+
+import java.time.LocalDate;
+
+/**
+ * Running totals for one market day, as pushed to dashboard subscribers.
+ *
+ * @param marketDate     the market day the totals are for.
+ * @param version        increases every time any total changes; also the SSE event id.
+ * @param vendorsPresent vendors marked present.
+ * @param snap           SNAP benefits redeemed.
+ * @param dufb           Double Up Food Bucks redeemed.
+ * @param wdfmTokens     WIC Farmers' Market Nutrition Program tokens redeemed.
+ * @param reportedSales  sales reported by vendors.
+ */
+public record MarketDayTotals(LocalDate marketDate, long version, int vendorsPresent, double snap, double dufb,
+                              double wdfmTokens, double reportedSales) {
+}
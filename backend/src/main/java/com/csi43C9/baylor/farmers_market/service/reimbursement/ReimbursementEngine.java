@@ -0,0 +1,208 @@
+package com.csi43C9.baylor.farmers_market.service.reimbursement;
+
+import com.csi43C9.baylor.farmers_market.entity.VendorTransaction;
+import com.csi43C9.baylor.farmers_market.repository.VendorTransactionRepository;
+import com.csi43C9.baylor.farmers_market.service.analytics.TransactionColumnStore;
+import com.csi43C9.baylor.farmers_market.service.writebehind.WriteBehindBuffer;
+import com.csi43C9.baylor.farmers_market.tenant.TenantContext;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Derives {@code reimbursement_due} for every vendor on a market date from the SNAP, DUFB, WDFM
+ * token and voucher figures, using the {@link ReimbursementRules} configured under
+ * {@code farmers.market.reimbursement.*}.
+ *
+ * <p>A run flushes writes queued by write-behind, reads the day's benefit columns in one query,
+ * computes every vendor's reimbursement in parallel on a dedicated fork-join pool of
+ * {@code parallelism} threads, and writes back the reimbursements that changed in one JDBC batch.
+ * Running a day again with the same figures and rules writes nothing, and only one run per day
+ * proceeds at a time.
+ *
+ * <p>Runs are published to Micrometer under {@code farmers.market.reimbursement.*}.
+ */
+@Service
+public class ReimbursementEngine implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReimbursementEngine.class);
+
+    /**
+     * Rows a fork-join task computes itself rather than splitting further.
+     */
+    private static final int LEAF_SIZE = 256;
+
+    private final VendorTransactionRepository transactionRepository;
+    private final WriteBehindBuffer writeBehindBuffer;
+    private final TransactionColumnStore transactionColumnStore;
+    private final TransactionOperations transactionOperations;
+    private final ReimbursementRules rules;
+    private final ForkJoinPool pool;
+
+    private final Set<MarketDay> running = ConcurrentHashMap.newKeySet();
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder runNanos = new LongAdder();
+    private final LongAdder rowsUpdated = new LongAdder();
+
+    public ReimbursementEngine(VendorTransactionRepository transactionRepository,
+                               WriteBehindBuffer writeBehindBuffer,
+                               TransactionColumnStore transactionColumnStore,
+                               TransactionOperations transactionOperations,
+                               @Value("${farmers.market.reimbursement.snap-rate:1.0}") double snapRate,
+                               @Value("${farmers.market.reimbursement.dufb-rate:1.0}") double dufbRate,
+                               @Value("${farmers.market.reimbursement.wdfm-token-value:1.0}") double wdfmTokenValue,
+                               @Value("${farmers.market.reimbursement.voucher-rate:1.0}") double voucherRate,
+                               @Value("${farmers.market.reimbursement.parallelism:0}") int parallelism) {
+        this.transactionRepository = transactionRepository;
+        this.writeBehindBuffer = writeBehindBuffer;
+        this.transactionColumnStore = transactionColumnStore;
+        this.transactionOperations = transactionOperations;
+        this.rules = new ReimbursementRules(snapRate, dufbRate, wdfmTokenValue, voucherRate);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Computes and stores the reimbursement due to every vendor of the current market with figures
+     * on a market date.
+     * @param marketDate the market day
+     * @return the run's report, or empty if a run for the same market and day is already in progress
+     */
+    public Optional<ReimbursementReport> run(LocalDate marketDate) {
+        MarketDay day = new MarketDay(TenantContext.current(), marketDate);
+        if (!running.add(day)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(compute(marketDate));
+        } finally {
+            running.remove(day);
+        }
+    }
+
+    private ReimbursementReport compute(LocalDate marketDate) {
+        long started = System.nanoTime();
+        // Figures still queued by write-behind must be in the table before it is read
+        writeBehindBuffer.flushAll();
+        long flushed = System.nanoTime();
+
+        List<VendorTransaction> rows = new ArrayList<>();
+        transactionRepository.forEachBenefitsByMarketDate(marketDate, rows::add);
+        long loaded = System.nanoTime();
+
+        double[] due = new double[rows.size()];
+        pool.invoke(new ComputeTask(rules, rows, due, 0, due.length));
+        long computed = System.nanoTime();
+
+        List<VendorTransaction> changed = new ArrayList<>();
+        BigDecimal totalDue = BigDecimal.ZERO;
+        for (int i = 0; i < due.length; i++) {
+            VendorTransaction row = rows.get(i);
+            totalDue = totalDue.add(BigDecimal.valueOf(due[i]));
+            if (!Objects.equals(row.getReimbursementDue(), due[i])) {
+                row.setReimbursementDue(due[i]);
+                changed.add(row);
+            }
+        }
+        int updated = 0;
+        if (!changed.isEmpty()) {
+            Integer written = transactionOperations.execute(
+                    status -> transactionRepository.updateReimbursementDue(changed));
+            updated = written != null ? written : 0;
+            transactionColumnStore.refresh(marketDate);
+        }
+        long finished = System.nanoTime();
+
+        runs.increment();
+        runNanos.add(finished - started);
+        rowsUpdated.add(updated);
+        ReimbursementReport report = new ReimbursementReport(marketDate, rows.size(), updated,
+                totalDue.setScale(2, RoundingMode.HALF_UP).doubleValue(),
+                millis(loaded - flushed), millis(computed - loaded), millis(finished - computed),
+                millis(finished - started));
+        logger.info("Reimbursement run: {}", report);
+        return report;
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionTimer.builder("farmers.market.reimbursement.runs", this,
+                        engine -> engine.runs.sum(), engine -> engine.runNanos.sum(), TimeUnit.NANOSECONDS)
+                .register(registry);
+        FunctionCounter.builder("farmers.market.reimbursement.updated", rowsUpdated, LongAdder::sum)
+                .register(registry);
+    }
+
+    /**
+     * A market's day, the unit runs are exclusive on.
+     */
+    private record MarketDay(String market, LocalDate date) {
+    }
+
+    /**
+     * Stops the compute pool.
+     */
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Computes the reimbursement of rows {@code from} (inclusive) to {@code to} (exclusive) into
+     * {@code due}, splitting the range in halves down to {@link #LEAF_SIZE} rows.
+     */
+    private static final class ComputeTask extends RecursiveAction {
+
+        private final ReimbursementRules rules;
+        private final List<VendorTransaction> rows;
+        private final double[] due;
+        private final int from;
+        private final int to;
+
+        ComputeTask(ReimbursementRules rules, List<VendorTransaction> rows, double[] due, int from, int to) {
+            this.rules = rules;
+            this.rows = rows;
+            this.due = due;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                for (int i = from; i < to; i++) {
+                    VendorTransaction row = rows.get(i);
+                    due[i] = rules.reimbursementDue(row.getSnap(), row.getDufb(), row.getWdfmTokens(),
+                            row.getVoucher());
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ComputeTask(rules, rows, due, from, middle), new ComputeTask(rules, rows, due, middle, to));
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.csi43C9.baylor.farmers_market.service.reimbursement;
+
+import java.time.LocalDate;
+
+/**
+ * The outcome and timing of one reimbursement run.
+ *
+ * @param marketDate    the market day computed.
+ * @param transactions  transactions read.
+ * @param updated       rows whose reimbursement due changed and was written; 0 when run again unchanged.
+ * @param totalDue      reimbursement due to all vendors for the day.
+ * @param loadMillis    time spent reading the day's transactions.
+ * @param computeMillis time spent computing reimbursements.
+ * @param writeMillis   time spent writing changed reimbursements back.
+ * @param totalMillis   time of the whole run, including flushing queued writes.
+ */
+public record ReimbursementReport(LocalDate marketDate, int transactions, int updated, double totalDue,
+                                  long loadMillis, long computeMillis, long writeMillis, long totalMillis) {
+}
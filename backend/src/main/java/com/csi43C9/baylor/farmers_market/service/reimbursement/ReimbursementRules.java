@@ -0,0 +1,30 @@
+package com.csi43C9.baylor.farmers_market.service.reimbursement;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * How much the market pays a vendor back for each benefit redeemed at its stand.
+ *
+ * @param snapRate       dollars reimbursed per SNAP dollar.
+ * @param dufbRate       dollars reimbursed per Double Up Food Bucks dollar.
+ * @param wdfmTokenValue dollars reimbursed per WDFM token.
+ * @param voucherRate    dollars reimbursed per voucher dollar.
+ */
+public record ReimbursementRules(double snapRate, double dufbRate, double wdfmTokenValue, double voucherRate) {
+
+    /**
+     * @return the reimbursement due for the given benefits, rounded half up to the cent; a missing figure counts as 0.
+     */
+    public double reimbursementDue(Double snap, Double dufb, Double wdfmTokens, Double voucher) {
+        double due = valueOf(snap) * snapRate
+                + valueOf(dufb) * dufbRate
+                + valueOf(wdfmTokens) * wdfmTokenValue
+                + valueOf(voucher) * voucherRate;
+        return BigDecimal.valueOf(due).setScale(2, RoundingMode.HALF_UP).doubleValue();
+    }
+
+    private static double valueOf(Double figure) {
+        return figure == null ? 0 : figure;
+    }
+}
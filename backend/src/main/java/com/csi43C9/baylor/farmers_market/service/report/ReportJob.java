@@ -0,0 +1,121 @@
+package com.csi43C9.baylor.farmers_market.service.report;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One run of a report, from submission until its result expires. Read by request threads while a
+ * worker updates it.
+ */
+public final class ReportJob {
+
+    private final UUID id;
+    private final ReportKey key;
+    private final Instant submittedAt;
+    private final LongAdder rowsRead = new LongAdder();
+
+    private volatile ReportJobStatus status = ReportJobStatus.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+    private volatile Path result;
+
+    ReportJob(UUID id, ReportKey key, Instant submittedAt) {
+        this.id = id;
+        this.key = key;
+        this.submittedAt = submittedAt;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public ReportType getType() {
+        return key.type();
+    }
+
+    public LocalDate getFrom() {
+        return key.from();
+    }
+
+    public LocalDate getTo() {
+        return key.to();
+    }
+
+    public ReportJobStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * @return rows read from the database so far, as a measure of progress.
+     */
+    public long getRowsRead() {
+        return rowsRead.sum();
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * @return why the job failed; {@code null} unless it did.
+     */
+    public String getError() {
+        return error;
+    }
+
+    ReportKey key() {
+        return key;
+    }
+
+    Path result() {
+        return result;
+    }
+
+    void rowRead() {
+        rowsRead.increment();
+    }
+
+    // The status is set last, so whoever sees it change also sees the fields set with it
+
+    void started() {
+        startedAt = Instant.now();
+        status = ReportJobStatus.RUNNING;
+    }
+
+    void succeeded(Path file) {
+        result = file;
+        finishedAt = Instant.now();
+        status = ReportJobStatus.SUCCEEDED;
+    }
+
+    void failed(String message) {
+        error = message;
+        finishedAt = Instant.now();
+        status = ReportJobStatus.FAILED;
+    }
+
+    /**
+     * Identifies the content of a report: two jobs with equal keys produce the same result.
+     * @param market the market reported on.
+     * @param type the report.
+     * @param from first market day included; {@code null} if unbounded or not applicable.
+     * @param to last market day included; {@code null} if unbounded or not applicable.
+     * @param vendorVersion the market's last vendor change when submitted, if the report reads vendors.
+     * @param transactionVersion the market's transaction version when submitted, if the report reads them.
+     */
+    record ReportKey(String market, ReportType type, LocalDate from, LocalDate to,
+                     long vendorVersion, long transactionVersion) {
+    }
+}
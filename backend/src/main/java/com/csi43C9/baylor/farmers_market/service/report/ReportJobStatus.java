@@ -0,0 +1,15 @@
+package com.csi43C9.baylor.farmers_market.service.report;
+
+/**
+ * Where a {@link ReportJob} is in its lifecycle.
+ */
+public enum ReportJobStatus {
+    /** Waiting for a free worker. */
+    QUEUED,
+    /** Being written by a worker. */
+    RUNNING,
+    /** Written; the result can be downloaded. */
+    SUCCEEDED,
+    /** Stopped by an error; submitting the same report again runs it anew. */
+    FAILED
+}
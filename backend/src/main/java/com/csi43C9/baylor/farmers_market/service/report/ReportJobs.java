@@ -0,0 +1,278 @@
+package com.csi43C9.baylor.farmers_market.service.report;
+
+import com.csi43C9.baylor.farmers_market.repository.VendorChangeRepository;
+import com.csi43C9.baylor.farmers_market.repository.VendorTransactionRepository;
+import com.csi43C9.baylor.farmers_market.service.report.ReportJob.ReportKey;
+import com.csi43C9.baylor.farmers_market.service.writebehind.WriteBehindBuffer;
+import com.csi43C9.baylor.farmers_market.tenant.TenantContext;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs reports in the background and keeps their results on disk for {@code ttl-ms}.
+ *
+ * <p>Reports run on {@code workers} low-priority threads of their own, so at most that many JDBC
+ * connections are ever taken by reports; keep it well below the pool size. Their reads go to the
+ * read replica when one is configured. At most {@code max-queued} reports wait for a worker, and
+ * further submissions are refused rather than queued without bound.
+ *
+ * <p>A submission is identified by its market, report, date range and the versions of the data it
+ * reads: the last vendor change and the market's transaction version, taken after write-behind
+ * has been flushed. Submitting a report whose job is still queued, running or retained returns
+ * that job, so identical reports are computed once and served from the same file until the data
+ * they read is written. Failed jobs are not reused.
+ *
+ * <p>Each result is written to {@code <id>.csv.part} and renamed to {@code <id>.csv} once
+ * complete, in a directory created under {@code farmers.market.reports.dir} for this instance and
+ * deleted on shutdown. Jobs are only visible in the market that submitted them.
+ *
+ * <p>Jobs are published to Micrometer under {@code farmers.market.reports.*}.
+ */
+@Component
+public class ReportJobs implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportJobs.class);
+
+    private final ReportWriter reportWriter;
+    private final VendorChangeRepository vendorChangeRepository;
+    private final VendorTransactionRepository transactionRepository;
+    private final WriteBehindBuffer writeBehindBuffer;
+    private final Duration ttl;
+    private final Path directory;
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService sweeper;
+
+    private final Map<UUID, ReportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<ReportKey, ReportJob> jobsByKey = new ConcurrentHashMap<>();
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder runNanos = new LongAdder();
+
+    public ReportJobs(ReportWriter reportWriter,
+                      VendorChangeRepository vendorChangeRepository,
+                      VendorTransactionRepository transactionRepository,
+                      WriteBehindBuffer writeBehindBuffer,
+                      @Value("${farmers.market.reports.workers:2}") int workers,
+                      @Value("${farmers.market.reports.max-queued:20}") int maxQueued,
+                      @Value("${farmers.market.reports.ttl-ms:3600000}") long ttlMs,
+                      @Value("${farmers.market.reports.dir:${java.io.tmpdir}}") String dir) {
+        this.reportWriter = reportWriter;
+        this.vendorChangeRepository = vendorChangeRepository;
+        this.transactionRepository = transactionRepository;
+        this.writeBehindBuffer = writeBehindBuffer;
+        this.ttl = Duration.ofMillis(ttlMs);
+        try {
+            this.directory = Files.createTempDirectory(Files.createDirectories(Path.of(dir)), "farmers-market-reports-");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create a report directory under " + dir, e);
+        }
+        AtomicInteger threads = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxQueued), runnable -> {
+                    Thread thread = new Thread(runnable, "report-worker-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                });
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "report-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long sweepMs = Math.max(1000, ttlMs / 10);
+        this.sweeper.scheduleWithFixedDelay(this::sweepQuietly, sweepMs, sweepMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Submits a report of the current market, or finds the job already computing it.
+     * @param type the report.
+     * @param from first market day included; unbounded if {@code null}. Ignored by vendor reports.
+     * @param to last market day included; unbounded if {@code null}. Ignored by vendor reports.
+     * @return the job, or empty if too many reports are already waiting.
+     */
+    public Optional<Submission> submit(ReportType type, LocalDate from, LocalDate to) {
+        // Writes still queued by write-behind must count towards the versions
+        writeBehindBuffer.flushAll();
+        boolean ranged = type.readsTransactions();
+        ReportKey key = new ReportKey(TenantContext.current(), type, ranged ? from : null, ranged ? to : null,
+                type.readsVendors() ? vendorChangeRepository.lastSeq() : 0,
+                type.readsTransactions() ? transactionRepository.version() : 0);
+        synchronized (jobsByKey) {
+            ReportJob existing = jobsByKey.get(key);
+            if (existing != null && existing.getStatus() != ReportJobStatus.FAILED) {
+                reused.increment();
+                return Optional.of(new Submission(existing, true));
+            }
+            ReportJob job = new ReportJob(UUID.randomUUID(), key, Instant.now());
+            try {
+                workers.execute(() -> run(job));
+            } catch (RejectedExecutionException e) {
+                rejected.increment();
+                return Optional.empty();
+            }
+            jobs.put(job.getId(), job);
+            jobsByKey.put(key, job);
+            submitted.increment();
+            return Optional.of(new Submission(job, false));
+        }
+    }
+
+    /**
+     * @return the current market's job with the given id; empty if there is none or it expired.
+     */
+    public Optional<ReportJob> find(UUID id) {
+        return Optional.ofNullable(jobs.get(id)).filter(job -> job.key().market().equals(TenantContext.current()));
+    }
+
+    /**
+     * @return the file holding a job's result; empty unless the job succeeded and has not expired.
+     */
+    public Optional<Path> result(ReportJob job) {
+        return Optional.ofNullable(job.result()).filter(Files::isReadable);
+    }
+
+    private void run(ReportJob job) {
+        long started = System.nanoTime();
+        job.started();
+        ReportKey key = job.key();
+        Path part = directory.resolve(job.getId() + ".csv.part");
+        Path file = directory.resolve(job.getId() + ".csv");
+        try {
+            try (TenantContext.Scope ignored = TenantContext.enter(key.market());
+                 Writer out = Files.newBufferedWriter(part, StandardCharsets.UTF_8)) {
+                reportWriter.write(key.type(), key.from(), key.to(), out, job::rowRead);
+            }
+            Files.move(part, file, StandardCopyOption.ATOMIC_MOVE);
+            job.succeeded(file);
+            succeeded.increment();
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(part);
+            job.failed("The report could not be written");
+            failed.increment();
+            logger.warn("Report {} ({}) of market {} failed", job.getId(), key.type(), key.market(), e);
+        } finally {
+            runNanos.add(System.nanoTime() - started);
+        }
+    }
+
+    /**
+     * Forgets jobs that finished more than {@code ttl-ms} ago and deletes their results.
+     * @return the number of jobs forgotten.
+     */
+    int sweep() {
+        Instant expiry = Instant.now().minus(ttl);
+        int swept = 0;
+        for (ReportJob job : jobs.values()) {
+            Instant finishedAt = job.getFinishedAt();
+            if (finishedAt == null || finishedAt.isAfter(expiry)) {
+                continue;
+            }
+            synchronized (jobsByKey) {
+                jobsByKey.remove(job.key(), job);
+            }
+            jobs.remove(job.getId());
+            if (job.result() != null) {
+                deleteQuietly(job.result());
+            }
+            swept++;
+        }
+        return swept;
+    }
+
+    private void sweepQuietly() {
+        try {
+            sweep();
+        } catch (RuntimeException e) {
+            logger.warn("Sweeping expired reports failed; retrying on the next tick", e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Cannot delete report file {}", path, e);
+        }
+    }
+
+    /**
+     * Stops the workers, abandoning reports still queued or running, and deletes every result.
+     */
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+        workers.shutdownNow();
+        try {
+            workers.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            FileSystemUtils.deleteRecursively(directory);
+        } catch (IOException e) {
+            logger.warn("Cannot delete report directory {}", directory, e);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("farmers.market.reports.submitted", submitted, LongAdder::sum).register(registry);
+        FunctionCounter.builder("farmers.market.reports.reused", reused, LongAdder::sum).register(registry);
+        FunctionCounter.builder("farmers.market.reports.rejected", rejected, LongAdder::sum).register(registry);
+        FunctionCounter.builder("farmers.market.reports.succeeded", succeeded, LongAdder::sum).register(registry);
+        FunctionCounter.builder("farmers.market.reports.failed", failed, LongAdder::sum).register(registry);
+        FunctionTimer.builder("farmers.market.reports.runs", this,
+                        reports -> reports.succeeded.sum() + reports.failed.sum(),
+                        reports -> reports.runNanos.sum(), TimeUnit.NANOSECONDS)
+                .register(registry);
+        Gauge.builder("farmers.market.reports.queued", workers, executor -> executor.getQueue().size())
+                .register(registry);
+        Gauge.builder("farmers.market.reports.running", workers, ThreadPoolExecutor::getActiveCount)
+                .register(registry);
+        Gauge.builder("farmers.market.reports.retained", jobs, Map::size).register(registry);
+    }
+
+    /**
+     * The outcome of a submission.
+     * @param job the job computing the report.
+     * @param reused whether the job was submitted earlier with the same report and data versions.
+     */
+    public record Submission(ReportJob job, boolean reused) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.csi43C9.baylor.farmers_market.service.report;
+
+/**
+ * The reports {@link ReportJobs} can produce, each as CSV with a header row.
+ */
+public enum ReportType {
+    /** Every active vendor and its details. */
+    VENDORS(false, true),
+    /** Every transaction in the date range, most recent market day first. */
+    TRANSACTIONS(true, false),
+    /** One row per vendor with its attendance and figures summed over the date range. */
+    VENDOR_TOTALS(true, false);
+
+    private final boolean readsTransactions;
+    private final boolean readsVendors;
+
+    ReportType(boolean readsTransactions, boolean readsVendors) {
+        this.readsTransactions = readsTransactions;
+        this.readsVendors = readsVendors;
+    }
+
+    /**
+     * @return whether the report changes when transactions are written.
+     */
+    public boolean readsTransactions() {
+        return readsTransactions;
+    }
+
+    /**
+     * @return whether the report changes when vendors are written.
+     */
+    public boolean readsVendors() {
+        return readsVendors;
+    }
+}
@@ -0,0 +1,176 @@
+package com.csi43C9.baylor.farmers_market.service.report;
+
+import com.csi43C9.baylor.farmers_market.entity.Vendor;
+import com.csi43C9.baylor.farmers_market.entity.VendorTransaction;
+import com.csi43C9.baylor.farmers_market.repository.VendorRepository;
+import com.csi43C9.baylor.farmers_market.repository.VendorTransactionRepository;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Writes reports of the current market as CSV, one header row followed by one row per record.
+ * Transactions are streamed from the database as they are written rather than collected first.
+ */
+@Component
+public class ReportWriter {
+
+    private static final String[] VENDOR_COLUMNS = {"id", "vendor", "point_person", "email", "location", "miles",
+        "products", "is_active", "is_farmer", "is_produce", "woman_owned", "bipoc_owned", "veteran_owned"};
+    private static final String[] TRANSACTION_COLUMNS = {"vendor_id", "vendor", "market_date", "present", "snap",
+        "dufb", "wdfm_tokens", "voucher", "reimbursement_due", "reported_sales", "est_produce_sales",
+        "est_num_transactions"};
+    private static final String[] VENDOR_TOTAL_COLUMNS = {"vendor_id", "vendor", "market_days", "snap", "dufb",
+        "wdfm_tokens", "voucher", "reimbursement_due", "reported_sales", "est_produce_sales",
+        "est_num_transactions"};
+
+    private final VendorRepository vendorRepository;
+    private final VendorTransactionRepository transactionRepository;
+
+    public ReportWriter(VendorRepository vendorRepository, VendorTransactionRepository transactionRepository) {
+        this.vendorRepository = vendorRepository;
+        this.transactionRepository = transactionRepository;
+    }
+
+    /**
+     * Writes a report.
+     * @param type the report.
+     * @param from first market day included; unbounded if {@code null}. Ignored by vendor reports.
+     * @param to last market day included; unbounded if {@code null}. Ignored by vendor reports.
+     * @param out receives the CSV.
+     * @param onRow called for every row read from the database.
+     * @throws IOException if writing to {@code out} fails.
+     */
+    public void write(ReportType type, LocalDate from, LocalDate to, Writer out, Runnable onRow) throws IOException {
+        Csv csv = new Csv(out);
+        try {
+            switch (type) {
+                case VENDORS -> writeVendors(csv, onRow);
+                case TRANSACTIONS -> writeTransactions(csv, from, to, onRow);
+                case VENDOR_TOTALS -> writeVendorTotals(csv, from, to, onRow);
+                default -> throw new IllegalArgumentException("Unknown report " + type);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+    }
+
+    private void writeVendors(Csv csv, Runnable onRow) {
+        csv.row((Object[]) VENDOR_COLUMNS);
+        for (Vendor vendor : vendorRepository.findAll()) {
+            onRow.run();
+            csv.row(vendor.getId(), vendor.getVendorName(), vendor.getPointPerson(), vendor.getEmail(),
+                    vendor.getLocation(), vendor.getMiles(), vendor.getProducts(), vendor.isActive(),
+                    vendor.isFarmer(), vendor.isProduce(), vendor.isWomanOwned(), vendor.isBipocOwned(),
+                    vendor.isVeteranOwned());
+        }
+    }
+
+    private void writeTransactions(Csv csv, LocalDate from, LocalDate to, Runnable onRow) {
+        csv.row((Object[]) TRANSACTION_COLUMNS);
+        transactionRepository.forEachInRange(from, to, transaction -> {
+            onRow.run();
+            csv.row(transaction.getVendorId(), transaction.getVendorName(), transaction.getMarketDate(),
+                    transaction.isPresent(), transaction.getSnap(), transaction.getDufb(),
+                    transaction.getWdfmTokens(), transaction.getVoucher(), transaction.getReimbursementDue(),
+                    transaction.getReportedSales(), transaction.getEstProduceSales(),
+                    transaction.getEstNumTransactions());
+        });
+    }
+
+    private void writeVendorTotals(Csv csv, LocalDate from, LocalDate to, Runnable onRow) {
+        Map<UUID, VendorTotals> totals = new LinkedHashMap<>();
+        transactionRepository.forEachInRange(from, to, transaction -> {
+            onRow.run();
+            totals.computeIfAbsent(transaction.getVendorId(), id -> new VendorTotals(transaction.getVendorName()))
+                    .add(transaction);
+        });
+        csv.row((Object[]) VENDOR_TOTAL_COLUMNS);
+        totals.forEach((id, vendor) -> csv.row(id, vendor.name, vendor.marketDays, vendor.snap, vendor.dufb,
+                vendor.wdfmTokens, vendor.voucher, vendor.reimbursementDue, vendor.reportedSales,
+                vendor.estProduceSales, vendor.estNumTransactions));
+    }
+
+    /**
+     * One vendor's figures summed over the market days reported on. Rows arrive most recent first,
+     * so the name is the vendor's latest.
+     */
+    private static final class VendorTotals {
+        private final String name;
+        private int marketDays;
+        private double snap;
+        private double dufb;
+        private double wdfmTokens;
+        private double voucher;
+        private double reimbursementDue;
+        private double reportedSales;
+        private double estProduceSales;
+        private long estNumTransactions;
+
+        private VendorTotals(String name) {
+            this.name = name;
+        }
+
+        private void add(VendorTransaction transaction) {
+            if (transaction.isPresent()) {
+                marketDays++;
+            }
+            snap += valueOf(transaction.getSnap());
+            dufb += valueOf(transaction.getDufb());
+            wdfmTokens += valueOf(transaction.getWdfmTokens());
+            voucher += valueOf(transaction.getVoucher());
+            reimbursementDue += valueOf(transaction.getReimbursementDue());
+            reportedSales += valueOf(transaction.getReportedSales());
+            estProduceSales += valueOf(transaction.getEstProduceSales());
+            if (transaction.getEstNumTransactions() != null) {
+                estNumTransactions += transaction.getEstNumTransactions();
+            }
+        }
+
+        private static double valueOf(Double value) {
+            return value != null ? value : 0;
+        }
+    }
+
+    /**
+     * Writes RFC 4180 rows; {@code null} values are written as empty fields.
+     */
+    private static final class Csv {
+        private final Writer out;
+
+        private Csv(Writer out) {
+            this.out = out;
+        }
+
+        private void row(Object... values) {
+            try {
+                for (int i = 0; i < values.length; i++) {
+                    if (i > 0) {
+                        out.write(',');
+                    }
+                    if (values[i] != null) {
+                        out.write(escape(values[i].toString()));
+                    }
+                }
+                out.write("\r\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                    && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.csi43C9.baylor.farmers_market.service.writebehind;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory write-behind queue that keeps only the latest pending value per key.
+ *
+ * <p>Writers call {@link #enqueue(Object, Object)} and return immediately; a later
+ * {@link #flush()} hands the pending values to the batch writer in chunks of at most
+ * {@code maxBatchSize}. Enqueuing a key that is already pending replaces the older value
+ * (last write wins), so a burst of updates to the same key costs a single database write.
+ *
+ * <p>Values stay visible through {@link #peek(Object)} until their batch has been written,
+ * so callers can overlay pending writes on database reads. If the batch writer fails, the
+ * batch's values are written again one at a time, so one bad value cannot hold back the rest.
+ * A value that still fails is put back for the next flush, unless a newer value for the same key
+ * has been enqueued meanwhile; after {@code maxAttempts} failures it is dropped and logged in full
+ * to the {@code <class name>.dead-letter} logger. Failures the database reports as transient, e.g.
+ * an unreachable database, put the whole batch back without counting an attempt.
+ *
+ * @param <K> the coalescing key type.
+ * @param <V> the value type.
+ */
+public class CoalescingWriteQueue<K, V> {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoalescingWriteQueue.class);
+    private static final Logger DEAD_LETTERS = LoggerFactory.getLogger(CoalescingWriteQueue.class.getName()
+            + ".dead-letter");
+
+    private final String name;
+    private final Consumer<List<V>> batchWriter;
+    private final int maxBatchSize;
+    private final int maxPending;
+    private final long maxLagNanos;
+    private final int maxAttempts;
+
+    private final ConcurrentHashMap<K, V> pending = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<K, V> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<K, Integer> failedAttempts = new ConcurrentHashMap<>();
+    private final AtomicLong oldestPendingNanos = new AtomicLong();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+
+    /**
+     * @param name         name used in logs and metrics.
+     * @param batchWriter  writes one batch of values; expected to be transactional.
+     * @param maxBatchSize the largest batch handed to the writer at once.
+     * @param maxPending   pending size at which the enqueuing thread flushes synchronously.
+     * @param maxLagMs     age of the oldest pending value at which the enqueuing thread flushes synchronously.
+     * @param maxAttempts  failed writes of a value after which it is dropped to the dead-letter log.
+     */
+    public CoalescingWriteQueue(String name, Consumer<List<V>> batchWriter,
+                                int maxBatchSize, int maxPending, long maxLagMs, int maxAttempts) {
+        this.name = name;
+        this.batchWriter = batchWriter;
+        this.maxBatchSize = maxBatchSize;
+        this.maxPending = maxPending;
+        this.maxLagNanos = TimeUnit.MILLISECONDS.toNanos(maxLagMs);
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Queues a value for writing, replacing any value still pending for the same key.
+     * Flushes on the calling thread if the queue has grown past its size or lag bound.
+     */
+    public void enqueue(K key, V value) {
+        enqueued.increment();
+        if (pending.put(key, value) != null) {
+            coalesced.increment();
+        }
+        failedAttempts.remove(key);
+        oldestPendingNanos.compareAndSet(0L, System.nanoTime());
+
+        if (pending.size() >= maxPending || lagNanos() >= maxLagNanos) {
+            flush();
+        }
+    }
+
+    /**
+     * Returns the value pending or being written for the key, if any.
+     */
+    public Optional<V> peek(K key) {
+        V value = pending.get(key);
+        return Optional.ofNullable(value != null ? value : inFlight.get(key));
+    }
+
+    /**
+     * Writes every pending value in batches. Only one flush runs at a time, so values written
+     * for the same key always reach the database in enqueue order. Values that fail are put
+     * back once the flush is done, so a flush never retries them itself.
+     *
+     * @return the number of values written.
+     */
+    public int flush() {
+        flushLock.lock();
+        try {
+            int total = 0;
+            Map<K, V> retry = new LinkedHashMap<>();
+            while (!pending.isEmpty()) {
+                oldestPendingNanos.set(0L);
+                Map<K, V> batch = drain();
+                if (batch.isEmpty()) {
+                    break;
+                }
+                total += write(batch, retry);
+            }
+            requeue(retry);
+            return total;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private Map<K, V> drain() {
+        Map<K, V> batch = new LinkedHashMap<>();
+        for (K key : pending.keySet()) {
+            if (batch.size() >= maxBatchSize) {
+                break;
+            }
+            V value = pending.remove(key);
+            if (value != null) {
+                inFlight.put(key, value);
+                batch.put(key, value);
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Writes a batch, and if that fails, each of its values on its own. Values to retry stay
+     * visible through {@link #peek(Object)} until {@link #requeue(Map)} puts them back.
+     *
+     * @param retry receives the values to put back for the next flush.
+     * @return the number of values written.
+     */
+    private int write(Map<K, V> batch, Map<K, V> retry) {
+        try {
+            writeAll(batch.values());
+            batch.forEach((key, value) -> succeeded(key, value, retry));
+            return batch.size();
+        } catch (RuntimeException e) {
+            failedFlushes.increment();
+            if (isTransient(e)) {
+                logger.warn("Write-behind flush of {} {} entries failed; will retry", batch.size(), name, e);
+                retry.putAll(batch);
+                return 0;
+            }
+            logger.warn("Write-behind flush of {} {} entries failed; writing them one at a time",
+                    batch.size(), name, e);
+        }
+
+        int total = 0;
+        for (Map.Entry<K, V> entry : batch.entrySet()) {
+            K key = entry.getKey();
+            V value = entry.getValue();
+            try {
+                writeAll(List.of(value));
+                succeeded(key, value, retry);
+                total++;
+            } catch (RuntimeException e) {
+                failedFlushes.increment();
+                failed(key, value, retry, e);
+            }
+        }
+        return total;
+    }
+
+    private void writeAll(Collection<V> values) {
+        batchWriter.accept(new ArrayList<>(values));
+        flushes.increment();
+        written.add(values.size());
+    }
+
+    private void succeeded(K key, V value, Map<K, V> retry) {
+        failedAttempts.remove(key);
+        retry.remove(key);
+        inFlight.remove(key, value);
+    }
+
+    /**
+     * Keeps a value that failed on its own for the next flush, or drops it to the dead-letter
+     * log once it has failed {@link #maxAttempts} times.
+     */
+    private void failed(K key, V value, Map<K, V> retry, RuntimeException e) {
+        if (isTransient(e)) {
+            retry.put(key, value);
+            return;
+        }
+        int attempts = failedAttempts.merge(key, 1, Integer::sum);
+        if (attempts < maxAttempts) {
+            logger.error("Write-behind write of {} {} failed (attempt {} of {}); will retry", name, key,
+                    attempts, maxAttempts, e);
+            retry.put(key, value);
+            return;
+        }
+        failedAttempts.remove(key);
+        retry.remove(key);
+        inFlight.remove(key, value);
+        deadLettered.increment();
+        DEAD_LETTERS.error("Dropped {} write for {} after {} failed attempts: {}", name, key, attempts, value, e);
+    }
+
+    /**
+     * Puts failed values back unless a newer value for the same key has been enqueued meanwhile.
+     */
+    private void requeue(Map<K, V> retry) {
+        if (retry.isEmpty()) {
+            return;
+        }
+        retry.forEach((key, value) -> {
+            if (pending.putIfAbsent(key, value) != null) {
+                failedAttempts.remove(key);
+            }
+            inFlight.remove(key, value);
+        });
+        oldestPendingNanos.compareAndSet(0L, System.nanoTime());
+    }
+
+    /**
+     * @return {@code true} if the failure says nothing about the values written, such as a lost
+     * connection or a lock timeout.
+     */
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException;
+    }
+
+    private long lagNanos() {
+        long oldest = oldestPendingNanos.get();
+        return oldest == 0L ? 0L : System.nanoTime() - oldest;
+    }
+
+    /**
+     * Returns a point-in-time snapshot of the queue's counters.
+     */
+    public WriteBehindStats stats() {
+        return new WriteBehindStats(
+                name,
+                enqueued.sum(),
+                coalesced.sum(),
+                written.sum(),
+                flushes.sum(),
+                failedFlushes.sum(),
+                deadLettered.sum(),
+                pending.size(),
+                TimeUnit.NANOSECONDS.toMillis(lagNanos())
+        );
+    }
+}
@@ -0,0 +1,237 @@
+package com.csi43C9.baylor.farmers_market.service.writebehind;
+
+import com.csi43C9.baylor.farmers_market.entity.Vendor;
+import com.csi43C9.baylor.farmers_market.entity.VendorChangeOperation;
+import com.csi43C9.baylor.farmers_market.entity.VendorTransaction;
+import com.csi43C9.baylor.farmers_market.repository.VendorChangeRepository;
+import com.csi43C9.baylor.farmers_market.repository.VendorRepository;
+import com.csi43C9.baylor.farmers_market.repository.VendorTransactionRepository;
+import com.csi43C9.baylor.farmers_market.tenant.TenantContext;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Opt-in write-behind mode for high-frequency vendor and transaction updates.
+ *
+ * <p>When {@code farmers.market.write-behind.enabled} is set, vendor updates and market-day
+ * transactions are queued in memory instead of written synchronously. Updates to the same
+ * vendor, or to the same vendor and market date, coalesce so that only the last one is
+ * written. A background thread flushes each queue in batched transactions every
+ * {@code flush-interval-ms}; callers flush synchronously once a queue holds
+ * {@code max-pending} values or its oldest value is older than {@code max-lag-ms}.
+ * Vendor updates reach the vendor change log when they are flushed, in the same transaction.
+ * A value whose write keeps failing is dropped after {@code max-attempts} flushes and logged in
+ * full to the {@code CoalescingWriteQueue.dead-letter} logger.
+ * Everything still pending is flushed when the application shuts down.
+ *
+ * <p>Queued values keep the market they were written in, and are only visible to and coalesced
+ * with values of the same market.
+ *
+ * <p>Coalescing counters are published to Micrometer under {@code farmers.market.write.behind.*}.
+ */
+@Component
+public class WriteBehindBuffer implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindBuffer.class);
+
+    private final boolean enabled;
+    private final CoalescingWriteQueue<VendorKey, Vendor> vendorQueue;
+    private final CoalescingWriteQueue<TransactionKey, VendorTransaction> transactionQueue;
+    private final ScheduledExecutorService flusher;
+
+    public WriteBehindBuffer(VendorRepository vendorRepository,
+                             VendorChangeRepository vendorChangeRepository,
+                             VendorTransactionRepository transactionRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${farmers.market.write-behind.enabled:false}") boolean enabled,
+                             @Value("${farmers.market.write-behind.flush-interval-ms:500}") long flushIntervalMs,
+                             @Value("${farmers.market.write-behind.max-batch-size:500}") int maxBatchSize,
+                             @Value("${farmers.market.write-behind.max-pending:10000}") int maxPending,
+                             @Value("${farmers.market.write-behind.max-lag-ms:2000}") long maxLagMs,
+                             @Value("${farmers.market.write-behind.max-attempts:5}") int maxAttempts) {
+        this.enabled = enabled;
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        this.vendorQueue = new CoalescingWriteQueue<>("vendor",
+                batch -> tx.executeWithoutResult(status -> {
+                    int[] counts = vendorRepository.updateAll(batch);
+                    updatedIds(batch, counts).forEach((market, ids) -> TenantContext.run(market,
+                            () -> vendorChangeRepository.append(ids, VendorChangeOperation.UPDATED)));
+                }),
+                maxBatchSize, maxPending, maxLagMs, maxAttempts);
+        this.transactionQueue = new CoalescingWriteQueue<>("vendor_transaction",
+                batch -> tx.executeWithoutResult(status -> transactionRepository.saveAll(batch)),
+                maxBatchSize, maxPending, maxLagMs, maxAttempts);
+
+        if (enabled) {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "write-behind-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs,
+                    TimeUnit.MILLISECONDS);
+            logger.info("Write-behind enabled: flush every {} ms, batches of {}, at most {} pending or {} ms lag",
+                    flushIntervalMs, maxBatchSize, maxPending, maxLagMs);
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    /**
+     * @return {@code true} if writes should be queued instead of written synchronously.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues an update of an existing vendor, in the vendor's market or else the current one.
+     */
+    public void enqueueVendorUpdate(Vendor vendor) {
+        if (vendor.getMarketId() == null) {
+            vendor.setMarketId(TenantContext.current());
+        }
+        vendorQueue.enqueue(new VendorKey(vendor.getMarketId(), vendor.getId()), vendor);
+    }
+
+    /**
+     * Queues an upsert of a vendor's figures for a market date, in the transaction's market or else the current one.
+     */
+    public void enqueueTransaction(VendorTransaction transaction) {
+        if (transaction.getMarketId() == null) {
+            transaction.setMarketId(TenantContext.current());
+        }
+        transactionQueue.enqueue(new TransactionKey(transaction.getMarketId(), transaction.getVendorId(),
+                transaction.getMarketDate()), transaction);
+    }
+
+    /**
+     * Returns the not-yet-written update for the vendor in the current market, if any.
+     */
+    public Optional<Vendor> pendingVendor(UUID vendorId) {
+        return vendorQueue.peek(new VendorKey(TenantContext.current(), vendorId));
+    }
+
+    /**
+     * Returns the not-yet-written transaction for the vendor and market date in the current market, if any.
+     */
+    public Optional<VendorTransaction> pendingTransaction(UUID vendorId, LocalDate marketDate) {
+        return transactionQueue.peek(new TransactionKey(TenantContext.current(), vendorId, marketDate));
+    }
+
+    /**
+     * Writes everything pending in both queues.
+     */
+    public void flushAll() {
+        vendorQueue.flush();
+        transactionQueue.flush();
+    }
+
+    /**
+     * @return counters for each queue.
+     */
+    public List<WriteBehindStats> stats() {
+        return List.of(vendorQueue.stats(), transactionQueue.stats());
+    }
+
+    /**
+     * Returns the ids of the vendors a batch update matched, by market. Drivers that do not report
+     * per-row counts return {@link java.sql.Statement#SUCCESS_NO_INFO}, which counts as matched.
+     */
+    private static Map<String, List<UUID>> updatedIds(List<Vendor> batch, int[] counts) {
+        Map<String, List<UUID>> ids = new LinkedHashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            if (counts[i] != 0) {
+                Vendor vendor = batch.get(i);
+                ids.computeIfAbsent(vendor.getMarketId(), market -> new ArrayList<>()).add(vendor.getId());
+            }
+        }
+        return ids;
+    }
+
+    private void flushQuietly() {
+        try {
+            flushAll();
+        } catch (RuntimeException e) {
+            // Already logged; anything left pending is retried on the next tick.
+        }
+    }
+
+    /**
+     * Stops the background flusher and writes whatever is still pending.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushAll();
+        logger.info("Write-behind flushed on shutdown: {}", stats());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bind(registry, vendorQueue);
+        bind(registry, transactionQueue);
+    }
+
+    private static void bind(MeterRegistry registry, CoalescingWriteQueue<?, ?> queue) {
+        String name = queue.stats().queue();
+        counter(registry, "farmers.market.write.behind.enqueued", name, queue, WriteBehindStats::enqueued);
+        counter(registry, "farmers.market.write.behind.coalesced", name, queue, WriteBehindStats::coalesced);
+        counter(registry, "farmers.market.write.behind.written", name, queue, WriteBehindStats::written);
+        counter(registry, "farmers.market.write.behind.failed.flushes", name, queue, WriteBehindStats::failedFlushes);
+        counter(registry, "farmers.market.write.behind.dead.lettered", name, queue, WriteBehindStats::deadLettered);
+        Gauge.builder("farmers.market.write.behind.pending", queue, q -> q.stats().pending())
+                .tag("queue", name)
+                .register(registry);
+        Gauge.builder("farmers.market.write.behind.lag", queue, q -> q.stats().lagMs())
+                .tag("queue", name)
+                .baseUnit("milliseconds")
+                .register(registry);
+        Gauge.builder("farmers.market.write.behind.coalescing.ratio", queue, q -> q.stats().coalescingRatio())
+                .tag("queue", name)
+                .register(registry);
+    }
+
+    private static void counter(MeterRegistry registry, String meter, String name,
+                                CoalescingWriteQueue<?, ?> queue, ToDoubleFunction<WriteBehindStats> value) {
+        FunctionCounter.builder(meter, queue, q -> value.applyAsDouble(q.stats()))
+                .tag("queue", name)
+                .register(registry);
+    }
+
+    private record VendorKey(String marketId, UUID vendorId) {
+    }
+
+    private record TransactionKey(String marketId, UUID vendorId, LocalDate marketDate) {
+    }
+}
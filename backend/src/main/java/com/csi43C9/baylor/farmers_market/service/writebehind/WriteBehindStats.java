@@ -0,0 +1,25 @@
+package com.csi43C9.baylor.farmers_market.service.writebehind;
+
+/**
+ * Point-in-time counters for a {@link CoalescingWriteQueue}.
+ *
+ * @param queue         the queue name.
+ * @param enqueued      total values enqueued.
+ * @param coalesced     values that replaced a still-pending value for the same key.
+ * @param written       values handed to the batch writer successfully.
+ * @param flushes       successful batch writes.
+ * @param failedFlushes batch and single-value writes that threw.
+ * @param deadLettered  values dropped to the dead-letter log after failing too often.
+ * @param pending       values currently waiting to be written.
+ * @param lagMs         age of the oldest pending value in milliseconds.
+ */
+public record WriteBehindStats(String queue, long enqueued, long coalesced, long written,
+                               long flushes, long failedFlushes, long deadLettered, int pending, long lagMs) {
+
+    /**
+     * Fraction of enqueued values that never needed their own database write.
+     */
+    public double coalescingRatio() {
+        return enqueued == 0 ? 0.0 : (double) coalesced / enqueued;
+    }
+}
@@ -0,0 +1,27 @@
+package com.csi43C9.baylor.farmers_market.tenant;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tags {@code http.server.requests} metrics with the market of the request, so request rates,
+ * latencies and errors can be broken down per market. Requests without a token, such as logins,
+ * are tagged {@code none}. The tag is read when the request completes, after
+ * {@link com.csi43C9.baylor.farmers_market.security.jwt.JwtAuthFilter} has recorded the market.
+ */
+@Component
+public class MarketObservationConvention extends DefaultServerRequestObservationConvention {
+
+    static final String MARKET_TAG = "market";
+    private static final String NO_MARKET = "none";
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        Object market = context.getCarrier().getAttribute(TenantContext.REQUEST_ATTRIBUTE);
+        return super.getLowCardinalityKeyValues(context)
+                .and(KeyValue.of(MARKET_TAG, market != null ? market.toString() : NO_MARKET));
+    }
+}
@@ -0,0 +1,59 @@
+package com.csi43C9.baylor.farmers_market.tenant;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The markets this deployment serves, from {@code farmers.market.tenancy.markets}. Tokens are only
+ * issued for these markets, and startup and background work that covers every market iterates them.
+ */
+@Component
+public class Markets {
+
+    /**
+     * Prefix of the granted authority that makes a user a member of a market.
+     */
+    public static final String AUTHORITY_PREFIX = "MARKET_";
+
+    private final Set<String> ids;
+
+    public Markets(@Value("${farmers.market.tenancy.markets:" + TenantContext.DEFAULT_MARKET + "}") List<String> ids) {
+        this.ids = new LinkedHashSet<>();
+        ids.stream().map(String::strip).filter(id -> !id.isEmpty()).forEach(this.ids::add);
+        if (this.ids.isEmpty()) {
+            this.ids.add(TenantContext.DEFAULT_MARKET);
+        }
+    }
+
+    /**
+     * @return every market served, in configured order; the first is the one logins default to.
+     */
+    public List<String> all() {
+        return List.copyOf(ids);
+    }
+
+    /**
+     * @return the market a login that names none is for.
+     */
+    public String defaultMarket() {
+        return ids.iterator().next();
+    }
+
+    /**
+     * @return {@code true} if this deployment serves {@code market}.
+     */
+    public boolean contains(String market) {
+        return ids.contains(market);
+    }
+
+    /**
+     * @return the granted authority a user needs to log into {@code market}.
+     */
+    public static String authority(String market) {
+        return AUTHORITY_PREFIX + market;
+    }
+}
@@ -0,0 +1,84 @@
+package com.csi43C9.baylor.farmers_market.tenant;
+
+import java.util.function.Supplier;
+
+/**
+ * The market the current thread works for. Repositories add it to every statement, so a request
+ * only ever reads and writes its own market's rows.
+ *
+ * <p>{@link com.csi43C9.baylor.farmers_market.security.jwt.JwtAuthFilter} enters the market named
+ * in the request's token for the rest of the request. Background work, such as write-behind
+ * flushes or cache refreshes, enters the market of the data it handles with {@link #run} or
+ * {@link #call}. Outside any of these, {@link #DEFAULT_MARKET} is used, so a deployment serving a
+ * single market needs no configuration.
+ */
+public final class TenantContext {
+
+    /**
+     * The market of rows written before markets were introduced, and of threads that entered none.
+     */
+    public static final String DEFAULT_MARKET = "default";
+
+    /**
+     * Request attribute holding the market of an authenticated request, e.g. to tag its metrics.
+     */
+    public static final String REQUEST_ATTRIBUTE = TenantContext.class.getName() + ".market";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * @return the market the current thread works for.
+     */
+    public static String current() {
+        String market = CURRENT.get();
+        return market != null ? market : DEFAULT_MARKET;
+    }
+
+    /**
+     * Makes {@code market} current until the returned scope is closed, which restores the market
+     * that was current before.
+     */
+    public static Scope enter(String market) {
+        String previous = CURRENT.get();
+        CURRENT.set(market);
+        return () -> {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        };
+    }
+
+    /**
+     * Runs {@code work} with {@code market} current.
+     */
+    public static void run(String market, Runnable work) {
+        try (Scope ignored = enter(market)) {
+            work.run();
+        }
+    }
+
+    /**
+     * Runs {@code work} with {@code market} current.
+     * @return what {@code work} returned.
+     */
+    public static <R> R call(String market, Supplier<R> work) {
+        try (Scope ignored = enter(market)) {
+            return work.get();
+        }
+    }
+
+    /**
+     * A market entered with {@link #enter(String)}.
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
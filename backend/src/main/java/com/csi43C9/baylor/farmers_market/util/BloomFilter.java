@@ -0,0 +1,84 @@
+package com.csi43C9.baylor.farmers_market.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A Bloom filter over strings: {@link #mightContain} never misses a string that was added, and
+ * answers {@code true} for one that was not with a probability of about 1% while at most
+ * {@code capacity} strings have been added.
+ *
+ * <p>Uses 10 bits and 7 probes per expected string, derived from one 64-bit FNV-1a hash by double
+ * hashing. Strings cannot be removed. Adding is thread-safe, and a string added by one thread is
+ * seen by {@code mightContain} in others once {@code add} has returned.
+ */
+public class BloomFilter {
+
+    private static final int BITS_PER_ENTRY = 10;
+    private static final int PROBES = 7;
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final int capacity;
+    private final long bitCount;
+    private final AtomicLongArray words;
+
+    /**
+     * @param capacity the number of strings the false-positive rate is sized for.
+     */
+    public BloomFilter(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        long bits = Math.max(Long.SIZE, (long) this.capacity * BITS_PER_ENTRY);
+        this.words = new AtomicLongArray((int) ((bits + Long.SIZE - 1) / Long.SIZE));
+        this.bitCount = (long) words.length() * Long.SIZE;
+    }
+
+    public void add(String value) {
+        long hash = hash(value);
+        for (int probe = 0; probe < PROBES; probe++) {
+            long bit = bit(hash, probe);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+    }
+
+    /**
+     * @return {@code false} if {@code value} was certainly never added.
+     */
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        for (int probe = 0; probe < PROBES; probe++) {
+            long bit = bit(hash, probe);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of strings the filter was sized for.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    private long bit(long hash, int probe) {
+        int high = (int) (hash >>> 32);
+        int low = (int) hash;
+        long combined = (low + (long) probe * high) & Long.MAX_VALUE;
+        return combined % bitCount;
+    }
+
+    private static long hash(String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,61 @@
+package com.csi43C9.baylor.farmers_market.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lets at most one log statement through per interval and counts the rest, so that a flood of
+ * identical errors costs one log line per interval instead of one per error.
+ *
+ * <pre>{@code
+ * long suppressed = sampler.acquire();
+ * if (suppressed >= 0) {
+ *     logger.warn("Something failed ({} similar suppressed)", suppressed);
+ * }
+ * }</pre>
+ *
+ * <p>Suppressed calls only update counters and do not allocate.
+ */
+public class LogSampler {
+
+    private final long intervalNanos;
+    private final AtomicLong nextLogAt = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicLong suppressedSinceLog = new AtomicLong();
+    private final LongAdder logged = new LongAdder();
+    private final LongAdder suppressed = new LongAdder();
+
+    public LogSampler(long interval, TimeUnit unit) {
+        this.intervalNanos = unit.toNanos(interval);
+    }
+
+    /**
+     * @return the number of calls suppressed since the last one let through if this call should
+     * log, or {@code -1} if it should not.
+     */
+    public long acquire() {
+        long now = System.nanoTime();
+        long next = nextLogAt.get();
+        if ((next == Long.MIN_VALUE || now - next >= 0) && nextLogAt.compareAndSet(next, now + intervalNanos)) {
+            logged.increment();
+            return suppressedSinceLog.getAndSet(0);
+        }
+        suppressed.increment();
+        suppressedSinceLog.incrementAndGet();
+        return -1;
+    }
+
+    /**
+     * @return the number of calls let through.
+     */
+    public long loggedCount() {
+        return logged.sum();
+    }
+
+    /**
+     * @return the number of calls suppressed.
+     */
+    public long suppressedCount() {
+        return suppressed.sum();
+    }
+}
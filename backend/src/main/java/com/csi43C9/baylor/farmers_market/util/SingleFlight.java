@@ -0,0 +1,85 @@
+package com.csi43C9.baylor.farmers_market.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical calls so that only one of them does the work.
+ *
+ * <p>The first caller for a key runs the supplier; callers arriving with the same key while it
+ * is still running wait for and share its result (or exception). Once the call completes the key
+ * is released, so the next caller starts a fresh call and never sees a completed result again.
+ *
+ * @param <K> the key identifying identical calls.
+ * @param <V> the result type.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Runs the supplier for the key, or joins the call already running for it.
+     */
+    public V execute(K key, Supplier<V> supplier) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, call);
+        if (running != null) {
+            coalesced.increment();
+            return join(running);
+        }
+
+        executed.increment();
+        try {
+            V result = supplier.get();
+            call.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * Detaches every running call, so that callers arriving from now on start fresh calls.
+     * Callers already waiting still receive the result of the call they joined.
+     * Used after a write, so no later read joins a call that may have missed it.
+     */
+    public void forgetAll() {
+        inFlight.clear();
+    }
+
+    /**
+     * @return how many calls actually ran their supplier.
+     */
+    public long executedCount() {
+        return executed.sum();
+    }
+
+    /**
+     * @return how many calls joined another call instead of running their own.
+     */
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    private static <V> V join(CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -25,13 +25,6 @@ public final class UuidUtils {
         return bb.array();
     }
 
-    /**
-     * Wraps the byte array in an Object array for use in a prepared statement.
-     */
-    public static Object[] toBytesObject(UUID uuid) {
-        return new Object[]{toBytes(uuid)};
-    }
-
     /**
      * Converts a byte array back to a UUID.
      */
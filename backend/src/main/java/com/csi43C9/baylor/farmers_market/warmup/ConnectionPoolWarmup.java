@@ -0,0 +1,76 @@
+package com.csi43C9.baylor.farmers_market.warmup;
+
+import com.csi43C9.baylor.farmers_market.repository.routing.ReadRoutingContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Opens {@code farmers.market.warmup.connections} JDBC connections at once, for writes and for
+ * reads, then returns them, so the pools hold that many established connections before traffic
+ * arrives. With a replica configured, reads are routed to it and its pool is filled too.
+ */
+@Component
+@Order(0)
+public class ConnectionPoolWarmup implements WarmupTask {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    private final DataSource dataSource;
+    private final int connections;
+
+    public ConnectionPoolWarmup(DataSource dataSource,
+                                @Value("${farmers.market.warmup.connections:10}") int connections) {
+        this.dataSource = dataSource;
+        this.connections = connections;
+    }
+
+    @Override
+    public String name() {
+        return "connection pool";
+    }
+
+    @Override
+    public String warmUp() {
+        int primary = open();
+        int read = ReadRoutingContext.read(this::open);
+        return "opened %d connections for writes and %d for reads".formatted(primary, read);
+    }
+
+    /**
+     * Holds {@link #connections} connections open together, so the pool cannot hand out the same one twice.
+     * @return the number of connections that were valid
+     */
+    private int open() {
+        List<Connection> opened = new ArrayList<>(connections);
+        try {
+            int valid = 0;
+            for (int i = 0; i < connections; i++) {
+                Connection connection = dataSource.getConnection();
+                opened.add(connection);
+                // Fetches the physical connection even behind a lazy connection proxy
+                if (connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    valid++;
+                }
+            }
+            return valid;
+        } catch (SQLException e) {
+            throw new DataAccessResourceFailureException("Could not open warmup connection", e);
+        } finally {
+            for (Connection connection : opened) {
+                try {
+                    connection.close();
+                } catch (SQLException ignored) {
+                    // The pool discards connections it cannot take back
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.csi43C9.baylor.farmers_market.warmup;
+
+import com.csi43C9.baylor.farmers_market.security.jwt.JwtUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Signs a token for a placeholder user and verifies it {@code farmers.market.warmup.iterations}
+ * times, as the JWT filter does on every authenticated request, so key decoding, signature checks
+ * and claim parsing are compiled before the first request.
+ */
+@Component
+@Order(3)
+public class JwtWarmup implements WarmupTask {
+
+    private final JwtUtil jwtUtil;
+    private final int iterations;
+
+    public JwtWarmup(JwtUtil jwtUtil, @Value("${farmers.market.warmup.iterations:10000}") int iterations) {
+        this.jwtUtil = jwtUtil;
+        this.iterations = iterations;
+    }
+
+    @Override
+    public String name() {
+        return "JWT verification";
+    }
+
+    @Override
+    public String warmUp() {
+        UserDetails user = User.withUsername("warmup").password("").authorities(List.of()).build();
+        String token = jwtUtil.generateToken(user);
+        return WarmupLoop.repeat("token verifications", iterations, () -> {
+            if (!jwtUtil.validateToken(token, user)) {
+                throw new IllegalStateException("Warmup token did not verify");
+            }
+        });
+    }
+}
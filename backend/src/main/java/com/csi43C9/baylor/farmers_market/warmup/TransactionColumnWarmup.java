@@ -0,0 +1,52 @@
+package com.csi43C9.baylor.farmers_market.warmup;
+
+import com.csi43C9.baylor.farmers_market.service.analytics.TransactionAggregate;
+import com.csi43C9.baylor.farmers_market.service.analytics.TransactionColumnStore;
+import com.csi43C9.baylor.farmers_market.service.analytics.TransactionGrouping;
+import com.csi43C9.baylor.farmers_market.service.analytics.TransactionMeasure;
+import com.csi43C9.baylor.farmers_market.service.analytics.TransactionQuery;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Map;
+
+/**
+ * Loads the market days of the last {@code farmers.market.warmup.transaction-days} days into the
+ * {@link TransactionColumnStore}, so dashboard analytics over recent markets are answered from
+ * memory from the first request.
+ */
+@Component
+@Order(2)
+public class TransactionColumnWarmup implements WarmupTask {
+
+    private final TransactionColumnStore transactionColumnStore;
+    private final int days;
+    private final ZoneId zone;
+
+    public TransactionColumnWarmup(TransactionColumnStore transactionColumnStore,
+                                   @Value("${farmers.market.warmup.transaction-days:90}") int days,
+                                   @Value("${farmers.market.live.zone:America/Chicago}") ZoneId zone) {
+        this.transactionColumnStore = transactionColumnStore;
+        this.days = days;
+        this.zone = zone;
+    }
+
+    @Override
+    public String name() {
+        return "transaction analytics";
+    }
+
+    @Override
+    public String warmUp() {
+        Map<String, TransactionAggregate> loaded = transactionColumnStore.query(TransactionQuery.builder()
+                .measure(TransactionMeasure.SNAP)
+                .groupBy(TransactionGrouping.MARKET_DATE)
+                .from(LocalDate.now(zone).minusDays(days))
+                .build());
+        long rows = loaded.values().stream().mapToLong(TransactionAggregate::rows).sum();
+        return "loaded %d market days with %d transactions".formatted(loaded.size(), rows);
+    }
+}
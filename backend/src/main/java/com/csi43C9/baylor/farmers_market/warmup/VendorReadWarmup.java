@@ -0,0 +1,117 @@
+package com.csi43C9.baylor.farmers_market.warmup;
+
+import com.csi43C9.baylor.farmers_market.controller.codec.VendorColumnarCodec;
+import com.csi43C9.baylor.farmers_market.dto.PagedResponse;
+import com.csi43C9.baylor.farmers_market.entity.Vendor;
+import com.csi43C9.baylor.farmers_market.repository.VendorRepository;
+import com.csi43C9.baylor.farmers_market.service.VendorService;
+import com.csi43C9.baylor.farmers_market.tenant.Markets;
+import com.csi43C9.baylor.farmers_market.tenant.TenantContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Reads the first {@code farmers.market.warmup.vendor-pages} vendor pages and the active vendor
+ * directory of every market, so their rows are in the database's buffer pool, then repeats the
+ * directory read and page serialization to JSON and the columnar encoding in the market with the
+ * most active vendors until about {@code farmers.market.warmup.iterations} vendors have gone
+ * through the row mapper and each encoder.
+ */
+@Component
+@Order(1)
+public class VendorReadWarmup implements WarmupTask {
+
+    private final VendorService vendorService;
+    private final VendorRepository vendorRepository;
+    private final ObjectMapper objectMapper;
+    private final Markets markets;
+    private final int pages;
+    private final int pageSize;
+    private final int iterations;
+
+    public VendorReadWarmup(VendorService vendorService,
+                            VendorRepository vendorRepository,
+                            ObjectMapper objectMapper,
+                            Markets markets,
+                            @Value("${farmers.market.warmup.vendor-pages:5}") int pages,
+                            @Value("${farmers.market.warmup.page-size:10}") int pageSize,
+                            @Value("${farmers.market.warmup.iterations:10000}") int iterations) {
+        this.vendorService = vendorService;
+        this.vendorRepository = vendorRepository;
+        this.objectMapper = objectMapper;
+        this.markets = markets;
+        this.pages = pages;
+        this.pageSize = pageSize;
+        this.iterations = iterations;
+    }
+
+    @Override
+    public String name() {
+        return "vendor reads";
+    }
+
+    @Override
+    public String warmUp() {
+        MarketReads largest = null;
+        int vendors = 0;
+        for (String market : markets.all()) {
+            MarketReads reads = TenantContext.call(market, () -> readMarket(market));
+            vendors += reads.directory().size();
+            if (largest == null || reads.directory().size() > largest.directory().size()) {
+                largest = reads;
+            }
+        }
+        if (largest == null || largest.directory().isEmpty()) {
+            return "read %d pages in %d markets; no active vendors to warm the row mapper and encoders with"
+                    .formatted(pages, markets.all().size());
+        }
+
+        MarketReads busiest = largest;
+        String reads = TenantContext.call(busiest.market(), () -> WarmupLoop.repeat("directory reads",
+                perVendor(busiest.directory().size()), vendorRepository::findAll));
+        int pageVendors = Math.max(1, busiest.firstPage().getData().size());
+        String json = WarmupLoop.repeat("JSON page encodings", perVendor(pageVendors),
+                () -> objectMapper.writeValueAsBytes(busiest.firstPage()));
+        String columnar = WarmupLoop.repeat("columnar page encodings", perVendor(pageVendors),
+                () -> encodeColumnar(busiest.firstPage()));
+        return "read %d pages and %d active vendors in %d markets; %s; %s; %s".formatted(pages, vendors,
+                markets.all().size(), reads, json, columnar);
+    }
+
+    /**
+     * Reads the current market's first pages and its active vendors once.
+     */
+    private MarketReads readMarket(String market) {
+        PagedResponse<Vendor> firstPage = vendorService.getVendors(0, pageSize);
+        for (int page = 1; page < pages; page++) {
+            vendorService.getVendors(page, pageSize);
+        }
+        return new MarketReads(market, firstPage, vendorRepository.findAll());
+    }
+
+    /**
+     * @return how many times to repeat an operation on {@code vendors} vendors to handle about
+     * {@link #iterations} vendors in all.
+     */
+    private int perVendor(int vendors) {
+        return Math.max(1, iterations / vendors);
+    }
+
+    private static void encodeColumnar(PagedResponse<Vendor> page) {
+        try {
+            VendorColumnarCodec.encode(page, OutputStream.nullOutputStream());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record MarketReads(String market, PagedResponse<Vendor> firstPage, List<Vendor> directory) {
+    }
+}
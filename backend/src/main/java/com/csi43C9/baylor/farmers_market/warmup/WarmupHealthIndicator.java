@@ -0,0 +1,26 @@
+package com.csi43C9.baylor.farmers_market.warmup;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports {@code OUT_OF_SERVICE} under the {@code warmup} health contributor until
+ * {@link WarmupRunner} has finished. Included in the readiness group, so
+ * {@code /actuator/health/readiness} only reports {@code UP} once the instance is warm.
+ */
+@Component
+@RequiredArgsConstructor
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    private final WarmupRunner warmupRunner;
+
+    @Override
+    public Health health() {
+        if (warmupRunner.isComplete()) {
+            return Health.up().build();
+        }
+        return Health.outOfService().withDetail("reason", "warming up").build();
+    }
+}
@@ -0,0 +1,68 @@
+package com.csi43C9.baylor.farmers_market.warmup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs every {@link WarmupTask} once the context has started, so that the first requests after a
+ * deploy do not meet an empty connection pool, cold data and interpreted code.
+ *
+ * <p>Spring Boot only moves the readiness state to {@code ACCEPTING_TRAFFIC} after application
+ * runners return, and {@link WarmupHealthIndicator} reports {@code OUT_OF_SERVICE} until this
+ * runner is done, so the instance is kept out of the load balancer for the whole warmup. Set
+ * {@code farmers.market.warmup.enabled=false} to report ready without warming up.
+ */
+@Component
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmupRunner.class);
+
+    private final List<WarmupTask> tasks;
+    private final boolean enabled;
+    private volatile boolean complete;
+
+    public WarmupRunner(List<WarmupTask> tasks, @Value("${farmers.market.warmup.enabled:true}") boolean enabled) {
+        this.tasks = tasks;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            logger.info("Warmup disabled; reporting ready");
+            complete = true;
+            return;
+        }
+        long started = System.nanoTime();
+        for (WarmupTask task : tasks) {
+            long taskStarted = System.nanoTime();
+            try {
+                String effect = task.warmUp();
+                logger.info("Warmup {} took {} ms: {}", task.name(), millisSince(taskStarted), effect);
+            } catch (RuntimeException e) {
+                logger.warn("Warmup {} failed after {} ms; continuing without it", task.name(),
+                        millisSince(taskStarted), e);
+            }
+        }
+        complete = true;
+        logger.info("Warmup finished in {} ms; reporting ready", millisSince(started));
+    }
+
+    /**
+     * @return whether every warmup task has run.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    private static long millisSince(long started) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+    }
+}
@@ -0,0 +1,20 @@
+package com.csi43C9.baylor.farmers_market.warmup;
+
+/**
+ * One step of the startup warmup run by {@link WarmupRunner} before the instance reports ready.
+ * Tasks run one after another, in {@link org.springframework.core.annotation.Order} order.
+ */
+public interface WarmupTask {
+
+    /**
+     * @return the task's name in warmup log lines.
+     */
+    String name();
+
+    /**
+     * Warms what the task covers. A task that throws is logged and skipped; it does not keep the
+     * instance from becoming ready.
+     * @return a short description of what was warmed, for the log.
+     */
+    String warmUp();
+}
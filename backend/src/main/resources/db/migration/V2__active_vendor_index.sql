@@ -0,0 +1,4 @@
+-- Serves the active vendor listing (where is_active = true order by vendor) and count().
+-- The count is answered from the index alone; the listing walks the index in vendor order
+-- and only fetches full rows for the requested page (see VendorRepository.findAllPaged).
+create index if not exists vendors_active_vendor_index on vendors (is_active, vendor);
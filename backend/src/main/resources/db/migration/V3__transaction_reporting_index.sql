@@ -0,0 +1,3 @@
+-- Serves the transaction listing (order by market_date desc, vendor_name) and reports over a
+-- range of market days, which otherwise scan and sort the whole table.
+create index if not exists vt_market_date_vendor_name_index on vendor_transactions (market_date desc, vendor_name);
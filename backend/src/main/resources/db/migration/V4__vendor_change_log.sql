@@ -0,0 +1,23 @@
+-- Change log behind GET /api/vendor/changes. Sequence numbers are handed out from the single
+-- vendor_change_log_state row (see VendorChangeRepository); pruned_through is the last sequence
+-- number removed by retention, so clients further behind are told to resync.
+create table if not exists vendor_changes
+(
+    seq        bigint      not null primary key,
+    vendor_id  binary(16)  not null,
+    operation  varchar(16) not null,
+    changed_at timestamp   not null
+);
+
+create index if not exists vendor_changes_changed_at_index on vendor_changes (changed_at);
+
+create table if not exists vendor_change_log_state
+(
+    id             int    not null primary key,
+    last_seq       bigint not null,
+    pruned_through bigint not null
+);
+
+insert into vendor_change_log_state (id, last_seq, pruned_through)
+select 1, 0, 0 from dual
+where not exists (select 1 from vendor_change_log_state where id = 1);
@@ -0,0 +1,22 @@
+-- Market tenancy: every vendor, transaction and change log entry belongs to one market, named in
+-- the market claim of the caller's token. Existing rows belong to the 'default' market.
+-- Indexes lead with market_id, so a market's queries only touch its own index range however
+-- many markets share the tables. Physical partitioning by market is not possible while the
+-- primary keys are the id alone, as every unique key of a partitioned table must include the
+-- partitioning column.
+alter table vendors add column if not exists market_id varchar(64) not null default 'default' after id;
+alter table vendor_transactions add column if not exists market_id varchar(64) not null default 'default' after id;
+alter table vendor_changes add column if not exists market_id varchar(64) not null default 'default' after seq;
+
+-- Vendor names are unique within a market; the new index is created before the old one is
+-- dropped, so names stay unique throughout.
+create unique index if not exists vendors_market_vendor_uindex on vendors (market_id, vendor);
+alter table vendors drop index if exists vendors_vendor_uindex;
+
+create index if not exists vendors_market_active_vendor_index on vendors (market_id, is_active, vendor);
+drop index if exists vendors_active_vendor_index on vendors;
+
+create index if not exists vt_market_id_date_vendor_name_index on vendor_transactions (market_id, market_date desc, vendor_name);
+drop index if exists vt_market_date_vendor_name_index on vendor_transactions;
+
+create index if not exists vendor_changes_market_seq_index on vendor_changes (market_id, seq);
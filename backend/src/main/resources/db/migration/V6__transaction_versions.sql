@@ -0,0 +1,8 @@
+-- Version of each market's transactions, incremented by every write to vendor_transactions (see
+-- VendorTransactionRepository), so a cached report over transactions can tell whether they
+-- changed without reading them.
+create table if not exists transaction_versions
+(
+    market_id varchar(64) not null primary key,
+    version   bigint      not null
+);
@@ -0,0 +1,5 @@
+-- A vendor's figures are unique per market and market date. The market leads the key, as in the
+-- V5 indexes; the new key is created before the old one is dropped, so the pair stays unique
+-- throughout.
+create unique index if not exists vt_market_vendor_date_uindex on vendor_transactions (market_id, vendor_id, market_date);
+alter table vendor_transactions drop index if exists vt_vendor_id_market_date_uindex;
@@ -0,0 +1,94 @@
+package com.csi43C9.baylor.farmers_market.controller;
+
+import com.csi43C9.baylor.farmers_market.security.SecurityConfig;
+import com.csi43C9.baylor.farmers_market.security.UserDetailsServiceImpl;
+import com.csi43C9.baylor.farmers_market.security.idempotency.IdempotencyFilter;
+import com.csi43C9.baylor.farmers_market.security.jwt.AuthEntryPointJwt;
+import com.csi43C9.baylor.farmers_market.security.jwt.JwtAuthFilter;
+import com.csi43C9.baylor.farmers_market.security.jwt.JwtUtil;
+import com.csi43C9.baylor.farmers_market.security.ratelimit.RateLimitFilter;
+import com.csi43C9.baylor.farmers_market.tenant.Markets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for market selection at login in {@link AuthController}.
+ */
+@WebMvcTest(AuthController.class)
+@Import({SecurityConfig.class, AuthEntryPointJwt.class, JwtAuthFilter.class, RateLimitFilter.class,
+        IdempotencyFilter.class, Markets.class})
+@TestPropertySource(properties = "farmers.market.tenancy.markets=north,south")
+class AuthControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private AuthenticationManager authenticationManager;
+
+    @MockitoBean
+    private UserDetailsServiceImpl userDetailsService;
+
+    @MockitoBean
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        UserDetails user = new User("user", "password", List.of(new SimpleGrantedAuthority("ROLE_USER"),
+                new SimpleGrantedAuthority(Markets.authority("north"))));
+        when(authenticationManager.authenticate(any()))
+                .thenReturn(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        when(jwtUtil.generateToken(any(), eq("north"))).thenReturn("north-token");
+    }
+
+    /**
+     * Verifies that a user gets a token for a market they are a member of.
+     *
+     * @throws Exception if mock MVC request fails.
+     */
+    @Test
+    void loginIssuesTokenForMemberMarket() throws Exception {
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"user\",\"password\":\"password\",\"market\":\"north\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accessToken").value("north-token"));
+    }
+
+    /**
+     * Verifies that a user cannot log into a market the deployment serves but they do not belong to.
+     *
+     * @throws Exception if mock MVC request fails.
+     */
+    @Test
+    void loginRejectsMarketUserIsNotMemberOf() throws Exception {
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"user\",\"password\":\"password\",\"market\":\"south\"}"))
+                .andExpect(status().isForbidden());
+        verify(jwtUtil, never()).generateToken(any(), eq("south"));
+    }
+}
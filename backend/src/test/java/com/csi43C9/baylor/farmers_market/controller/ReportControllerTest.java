@@ -0,0 +1,153 @@
+package com.csi43C9.baylor.farmers_market.controller;
+
+import com.csi43C9.baylor.farmers_market.security.SecurityConfig;
+import com.csi43C9.baylor.farmers_market.security.UserDetailsServiceImpl;
+import com.csi43C9.baylor.farmers_market.security.idempotency.IdempotencyFilter;
+import com.csi43C9.baylor.farmers_market.security.jwt.AuthEntryPointJwt;
+import com.csi43C9.baylor.farmers_market.security.jwt.JwtAuthFilter;
+import com.csi43C9.baylor.farmers_market.security.jwt.JwtUtil;
+import com.csi43C9.baylor.farmers_market.security.ratelimit.RateLimitFilter;
+import com.csi43C9.baylor.farmers_market.service.report.ReportJob;
+import com.csi43C9.baylor.farmers_market.service.report.ReportJobStatus;
+import com.csi43C9.baylor.farmers_market.service.report.ReportJobs;
+import com.csi43C9.baylor.farmers_market.service.report.ReportType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for {@link ReportController}: submitting, polling and downloading reports.
+ */
+@WebMvcTest(ReportController.class)
+@Import({SecurityConfig.class, AuthEntryPointJwt.class, JwtAuthFilter.class, RateLimitFilter.class,
+        IdempotencyFilter.class})
+class ReportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ReportJobs reportJobs;
+
+    @MockitoBean
+    private UserDetailsServiceImpl userDetailsService;
+
+    @MockitoBean
+    private JwtUtil jwtUtil;
+
+    @TempDir
+    private Path dir;
+
+    /**
+     * Verifies that a submitted report is accepted with the location to poll.
+     *
+     * @throws Exception if mock MVC request fails.
+     */
+    @Test
+    @WithMockUser
+    void submitReportReturnsAcceptedJob() throws Exception {
+        ReportJob job = job(ReportJobStatus.QUEUED);
+        when(reportJobs.submit(ReportType.VENDOR_TOTALS, LocalDate.of(2025, 4, 1), LocalDate.of(2025, 10, 31)))
+                .thenReturn(Optional.of(new ReportJobs.Submission(job, true)));
+
+        mockMvc.perform(post("/api/report")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"type\":\"VENDOR_TOTALS\",\"from\":\"2025-04-01\",\"to\":\"2025-10-31\"}"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, "/api/report/" + job.getId()))
+                .andExpect(jsonPath("$.status").value("QUEUED"))
+                .andExpect(jsonPath("$.reused").value(true));
+    }
+
+    /**
+     * Verifies that a range ending before it starts is rejected without submitting anything.
+     *
+     * @throws Exception if mock MVC request fails.
+     */
+    @Test
+    @WithMockUser
+    void submitReportRejectsReversedRange() throws Exception {
+        mockMvc.perform(post("/api/report")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"type\":\"TRANSACTIONS\",\"from\":\"2025-10-31\",\"to\":\"2025-04-01\"}"))
+                .andExpect(status().isBadRequest());
+        verify(reportJobs, never()).submit(any(), any(), any());
+    }
+
+    /**
+     * Verifies that a client is told to retry later while the report queue is full.
+     *
+     * @throws Exception if mock MVC request fails.
+     */
+    @Test
+    @WithMockUser
+    void submitReportReturnsUnavailableWhenQueueIsFull() throws Exception {
+        when(reportJobs.submit(ReportType.VENDORS, null, null)).thenReturn(Optional.empty());
+
+        mockMvc.perform(post("/api/report")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"type\":\"VENDORS\"}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+    }
+
+    /**
+     * Verifies that a result is only downloadable once the job succeeded, and unknown jobs are 404.
+     *
+     * @throws Exception if mock MVC request fails.
+     */
+    @Test
+    @WithMockUser
+    void downloadReportStreamsFinishedResult() throws Exception {
+        ReportJob running = job(ReportJobStatus.RUNNING);
+        ReportJob done = job(ReportJobStatus.SUCCEEDED);
+        Path file = Files.writeString(dir.resolve("report.csv"), "id,vendor\r\n");
+        when(reportJobs.find(running.getId())).thenReturn(Optional.of(running));
+        when(reportJobs.find(done.getId())).thenReturn(Optional.of(done));
+        when(reportJobs.result(done)).thenReturn(Optional.of(file));
+
+        mockMvc.perform(get("/api/report/" + running.getId() + "/result"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(get("/api/report/" + UUID.randomUUID() + "/result"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/report/" + done.getId() + "/result"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"vendors-" + done.getId() + ".csv\""))
+                .andExpect(content().string("id,vendor\r\n"));
+    }
+
+    private static ReportJob job(ReportJobStatus status) {
+        ReportJob job = mock(ReportJob.class);
+        when(job.getId()).thenReturn(UUID.randomUUID());
+        when(job.getType()).thenReturn(ReportType.VENDORS);
+        when(job.getStatus()).thenReturn(status);
+        return job;
+    }
+}
@@ -1,13 +1,22 @@
 package com.csi43C9.baylor.farmers_market.controller;
 
+import com.csi43C9.baylor.farmers_market.controller.codec.VendorColumnarCodec;
+import com.csi43C9.baylor.farmers_market.controller.codec.VendorColumnarHttpMessageConverter;
 import com.csi43C9.baylor.farmers_market.dto.PagedResponse;
+import com.csi43C9.baylor.farmers_market.dto.vendor.BulkVendorUpdateRequest;
+import com.csi43C9.baylor.farmers_market.dto.vendor.BulkVendorUpdateResponse;
 import com.csi43C9.baylor.farmers_market.dto.vendor.SaveVendorRequest;
+import com.csi43C9.baylor.farmers_market.dto.vendor.VendorChangesResponse;
+import com.csi43C9.baylor.farmers_market.dto.vendor.VendorLookupRequest;
 import com.csi43C9.baylor.farmers_market.entity.Vendor;
+import com.csi43C9.baylor.farmers_market.exception.DuplicateVendorException;
 import com.csi43C9.baylor.farmers_market.security.SecurityConfig;
 import com.csi43C9.baylor.farmers_market.security.UserDetailsServiceImpl;
+import com.csi43C9.baylor.farmers_market.security.idempotency.IdempotencyFilter;
 import com.csi43C9.baylor.farmers_market.security.jwt.AuthEntryPointJwt;
 import com.csi43C9.baylor.farmers_market.security.jwt.JwtAuthFilter;
 import com.csi43C9.baylor.farmers_market.security.jwt.JwtUtil;
+import com.csi43C9.baylor.farmers_market.security.ratelimit.RateLimitFilter;
 import com.csi43C9.baylor.farmers_market.service.VendorService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,16 +28,24 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import tools.jackson.databind.ObjectMapper;
 
+import java.io.ByteArrayInputStream;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -38,7 +55,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * using {@link MockMvc} to simulate the web layer.
  */
 @WebMvcTest(VendorController.class)
-@Import({SecurityConfig.class, AuthEntryPointJwt.class, JwtAuthFilter.class})
+@Import({SecurityConfig.class, AuthEntryPointJwt.class, JwtAuthFilter.class, RateLimitFilter.class,
+        IdempotencyFilter.class, VendorColumnarHttpMessageConverter.class})
 class VendorControllerTest {
 
     @Autowired
@@ -134,6 +152,23 @@ class VendorControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    /**
+     * Verifies that updating a vendor that does not exist returns 404 Not Found.
+     * @throws Exception if mock MVC request fails.
+     */
+    @Test
+    @WithMockUser
+    void updateUnknownVendorReturns404() throws Exception {
+        SaveVendorRequest request = new SaveVendorRequest();
+        request.setVendorName("Test Vendor");
+        when(vendorService.update(any(UUID.class), any(SaveVendorRequest.class))).thenReturn(Optional.empty());
+
+        mockMvc.perform(patch("/api/vendor/" + UUID.randomUUID())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isNotFound());
+    }
+
     /**
      * Verifies that the endpoint returns a paged response containing all vendors.
      * @throws Exception if mock MVC request fails.
@@ -152,6 +187,93 @@ class VendorControllerTest {
                 .andExpect(jsonPath("$.totalElements").value(0));
     }
 
+    /**
+     * Verifies that a client asking for the columnar encoding gets a page it can decode.
+     * @throws Exception if mock MVC request fails.
+     */
+    @Test
+    @WithMockUser
+    void getAllVendorsNegotiatesColumnarEncoding() throws Exception {
+        Vendor vendor = Vendor.builder().id(UUID.randomUUID()).vendorName("Test Vendor").isFarmer(true).build();
+        when(vendorService.getVendors(0, 10)).thenReturn(new PagedResponse<>(List.of(vendor), 0, 10, 1L, 1));
+
+        byte[] body = mockMvc.perform(get("/api/vendor?page=0&size=10").accept(VendorColumnarCodec.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(VendorColumnarCodec.MEDIA_TYPE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        PagedResponse<Vendor> decoded = VendorColumnarCodec.decode(new ByteArrayInputStream(body));
+        assertThat(decoded.getData()).containsExactly(vendor);
+        assertThat(decoded.getTotalElements()).isEqualTo(1);
+    }
+
+    /**
+     * Verifies that the export answers in JSON by default and in the columnar encoding on request,
+     * and that a vendor list from an endpoint without the columnar media type stays JSON.
+     * @throws Exception if mock MVC request fails.
+     */
+    @Test
+    @WithMockUser
+    void exportVendorsDefaultsToJson() throws Exception {
+        Vendor vendor = Vendor.builder().id(UUID.randomUUID()).vendorName("Test Vendor").build();
+        when(vendorService.export()).thenReturn(List.of(vendor));
+        when(vendorService.getAll(List.of(vendor.getId()))).thenReturn(List.of(vendor));
+        VendorLookupRequest request = new VendorLookupRequest();
+        request.setIds(List.of(vendor.getId()));
+
+        mockMvc.perform(get("/api/vendor/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].vendorName").value("Test Vendor"));
+
+        mockMvc.perform(get("/api/vendor/export").accept(VendorColumnarCodec.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(VendorColumnarCodec.MEDIA_TYPE));
+
+        mockMvc.perform(post("/api/vendor/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    /**
+     * Verifies that the lookup endpoint resolves many vendors in one request.
+     * @throws Exception if mock MVC request fails.
+     */
+    @Test
+    @WithMockUser
+    void lookupVendorsReturnsFoundVendors() throws Exception {
+        UUID id = UUID.randomUUID();
+        Vendor vendor = new Vendor();
+        vendor.setId(id);
+        vendor.setVendorName("Test Vendor");
+        VendorLookupRequest request = new VendorLookupRequest();
+        request.setIds(List.of(id, UUID.randomUUID()));
+
+        when(vendorService.getAll(request.getIds())).thenReturn(List.of(vendor));
+
+        mockMvc.perform(post("/api/vendor/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].vendorName").value("Test Vendor"));
+    }
+
+    /**
+     * Verifies that the lookup endpoint rejects an empty id list.
+     * @throws Exception if mock MVC request fails.
+     */
+    @Test
+    @WithMockUser
+    void lookupVendorsWithoutIdsReturnsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/vendor/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": []}"))
+                .andExpect(status().isBadRequest());
+    }
+
     /**
      * Verifies that the delete endpoint triggers the service's delete method.
      * @throws Exception if mock MVC request fails.
@@ -169,4 +291,104 @@ class VendorControllerTest {
         verify(vendorService).delete(id);
     }
 
+    /**
+     * Verifies that the change feed passes the client's sequence number through and caps the
+     * number of log entries read per request.
+     *
+     * @throws Exception if mock MVC request fails.
+     */
+    @Test
+    @WithMockUser
+    void getVendorChangesCapsLimit() throws Exception {
+        when(vendorService.getChanges(42, 1000))
+                .thenReturn(new VendorChangesResponse(42, 42, false, false, List.of()));
+
+        mockMvc.perform(get("/api/vendor/changes").param("since", "42").param("limit", "50000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextSince").value(42))
+                .andExpect(jsonPath("$.fullResync").value(false));
+
+        verify(vendorService).getChanges(42, 1000);
+    }
+
+    /**
+     * Verifies that a bulk update by filter returns the affected counts.
+     *
+     * @throws Exception if mock MVC request fails.
+     */
+    @Test
+    @WithMockUser
+    void bulkUpdateVendorsReturnsCounts() throws Exception {
+        when(vendorService.bulkUpdate(any(BulkVendorUpdateRequest.class)))
+                .thenReturn(new BulkVendorUpdateResponse(120, 97, 1));
+
+        mockMvc.perform(patch("/api/vendor/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"notPresentSince\": \"2025-06-01\", \"flags\": {\"ACTIVE\": false}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.matched").value(120))
+                .andExpect(jsonPath("$.updated").value(97));
+    }
+
+    /**
+     * Verifies that a bulk update giving both ids and a filter is rejected.
+     *
+     * @throws Exception if mock MVC request fails.
+     */
+    @Test
+    @WithMockUser
+    void bulkUpdateVendorsWithIdsAndFilterReturnsBadRequest() throws Exception {
+        mockMvc.perform(patch("/api/vendor/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [\"" + UUID.randomUUID() + "\"], \"notPresentSince\": \"2025-06-01\", "
+                                + "\"flags\": {\"ACTIVE\": false}}"))
+                .andExpect(status().isBadRequest());
+
+        verify(vendorService, never()).bulkUpdate(any(BulkVendorUpdateRequest.class));
+    }
+
+    /**
+     * Verifies that an upsert by name answers 201 Created when it creates the vendor and 200 OK
+     * when it updates one.
+     * @throws Exception if mock MVC request fails.
+     */
+    @Test
+    @WithMockUser
+    void upsertVendorByNameReturnsCreatedOrOk() throws Exception {
+        SaveVendorRequest request = new SaveVendorRequest();
+        request.setVendorName("Green Acres");
+        Vendor vendor = Vendor.builder().id(UUID.randomUUID()).vendorName("Green Acres").build();
+        when(vendorService.upsertByName(eq("Green Acres"), any(SaveVendorRequest.class)))
+                .thenReturn(new VendorService.UpsertResult(vendor, true))
+                .thenReturn(new VendorService.UpsertResult(vendor, false));
+
+        mockMvc.perform(put("/api/vendor/by-name/Green Acres")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(vendor.getId().toString()));
+        mockMvc.perform(put("/api/vendor/by-name/Green Acres")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+    }
+
+    /**
+     * Verifies that a duplicate vendor name is answered with 409 Conflict.
+     * @throws Exception if mock MVC request fails.
+     */
+    @Test
+    @WithMockUser
+    void createVendorWithDuplicateNameReturnsConflict() throws Exception {
+        SaveVendorRequest request = new SaveVendorRequest();
+        request.setVendorName("Green Acres");
+        when(vendorService.create(any(SaveVendorRequest.class)))
+                .thenThrow(new DuplicateVendorException("Green Acres", UUID.randomUUID()));
+
+        mockMvc.perform(post("/api/vendor")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("A vendor named 'Green Acres' already exists"));
+    }
 }
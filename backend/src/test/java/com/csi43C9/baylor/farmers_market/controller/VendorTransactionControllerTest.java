@@ -0,0 +1,197 @@
+package com.csi43C9.baylor.farmers_market.controller;
+
+import com.csi43C9.baylor.farmers_market.dto.transaction.SaveTransactionRequest;
+import com.csi43C9.baylor.farmers_market.security.SecurityConfig;
+import com.csi43C9.baylor.farmers_market.security.UserDetailsServiceImpl;
+import com.csi43C9.baylor.farmers_market.security.idempotency.IdempotencyFilter;
+import com.csi43C9.baylor.farmers_market.security.jwt.AuthEntryPointJwt;
+import com.csi43C9.baylor.farmers_market.security.jwt.JwtAuthFilter;
+import com.csi43C9.baylor.farmers_market.security.jwt.JwtUtil;
+import com.csi43C9.baylor.farmers_market.security.ratelimit.RateLimitFilter;
+import com.csi43C9.baylor.farmers_market.service.VendorTransactionService;
+import com.csi43C9.baylor.farmers_market.service.analytics.TransactionAggregate;
+import com.csi43C9.baylor.farmers_market.service.analytics.TransactionColumnStore;
+import com.csi43C9.baylor.farmers_market.service.analytics.TransactionGrouping;
+import com.csi43C9.baylor.farmers_market.service.analytics.TransactionMeasure;
+import com.csi43C9.baylor.farmers_market.service.analytics.TransactionQuery;
+import com.csi43C9.baylor.farmers_market.service.live.LiveTotalsBroadcaster;
+import com.csi43C9.baylor.farmers_market.service.reimbursement.ReimbursementEngine;
+import com.csi43C9.baylor.farmers_market.service.reimbursement.ReimbursementReport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for the live totals stream and analytics of {@link VendorTransactionController}.
+ */
+@WebMvcTest(VendorTransactionController.class)
+@Import({SecurityConfig.class, AuthEntryPointJwt.class, JwtAuthFilter.class, RateLimitFilter.class,
+        IdempotencyFilter.class})
+class VendorTransactionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private VendorTransactionService transactionService;
+
+    @MockitoBean
+    private LiveTotalsBroadcaster liveTotalsBroadcaster;
+
+    @MockitoBean
+    private TransactionColumnStore transactionColumnStore;
+
+    @MockitoBean
+    private ReimbursementEngine reimbursementEngine;
+
+    @MockitoBean
+    private UserDetailsServiceImpl userDetailsService;
+
+    @MockitoBean
+    private JwtUtil jwtUtil;
+
+    /**
+     * Verifies that recording figures for a vendor outside the caller's market returns 404.
+     *
+     * @throws Exception if mock MVC request fails.
+     */
+    @Test
+    @WithMockUser
+    void recordTransactionReturnsNotFoundForUnknownVendor() throws Exception {
+        when(transactionService.record(any(SaveTransactionRequest.class))).thenReturn(Optional.empty());
+
+        mockMvc.perform(post("/api/transaction")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"vendorId\":\"" + UUID.randomUUID()
+                                + "\",\"vendorName\":\"Acme Farm\",\"marketDate\":\"2025-06-07\",\"present\":true}"))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Verifies that an authenticated client gets an event stream, and that completing it
+     * re-dispatches through the security chain without being rejected.
+     *
+     * @throws Exception if mock MVC request fails.
+     */
+    @Test
+    @WithMockUser
+    void streamLiveTotalsOpensEventStream() throws Exception {
+        SseEmitter emitter = new SseEmitter();
+        when(liveTotalsBroadcaster.subscribe()).thenReturn(Optional.of(emitter));
+
+        MvcResult result = mockMvc.perform(get("/api/transaction/live"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        emitter.send(SseEmitter.event().name("totals").data("{}"));
+        emitter.complete();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string("event:totals\ndata:{}\n\n"));
+    }
+
+    /**
+     * Verifies that a client over the subscriber limit is told to retry later.
+     *
+     * @throws Exception if mock MVC request fails.
+     */
+    @Test
+    @WithMockUser
+    void streamLiveTotalsReturnsUnavailableWhenFull() throws Exception {
+        when(liveTotalsBroadcaster.subscribe()).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/transaction/live"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+    }
+
+    /**
+     * Verifies that the stream requires authentication.
+     *
+     * @throws Exception if mock MVC request fails.
+     */
+    @Test
+    void streamLiveTotalsRequiresAuthentication() throws Exception {
+        mockMvc.perform(get("/api/transaction/live"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    /**
+     * Verifies that the analytics parameters become a column store query and its groups are returned.
+     *
+     * @throws Exception if mock MVC request fails.
+     */
+    @Test
+    @WithMockUser
+    void analyzeTransactionsQueriesColumnStore() throws Exception {
+        UUID vendorId = UUID.randomUUID();
+        TransactionQuery query = TransactionQuery.builder()
+                .measure(TransactionMeasure.SNAP)
+                .groupBy(TransactionGrouping.MONTH)
+                .from(LocalDate.of(2025, 4, 1))
+                .vendorIds(Set.of(vendorId))
+                .presentOnly(true)
+                .build();
+        when(transactionColumnStore.query(query))
+                .thenReturn(Map.of("2025-06", new TransactionAggregate(4, 3, 30.0, 10.0)));
+
+        mockMvc.perform(get("/api/transaction/analytics")
+                        .param("measure", "SNAP")
+                        .param("groupBy", "MONTH")
+                        .param("from", "2025-04-01")
+                        .param("vendorId", vendorId.toString())
+                        .param("presentOnly", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.measure").value("SNAP"))
+                .andExpect(jsonPath("$.groups['2025-06'].count").value(3))
+                .andExpect(jsonPath("$.groups['2025-06'].average").value(10.0));
+    }
+
+    /**
+     * Verifies that a reimbursement run's report is returned, and that a run for a day already
+     * being computed is refused.
+     *
+     * @throws Exception if mock MVC request fails.
+     */
+    @Test
+    @WithMockUser
+    void computeReimbursementsReturnsReport() throws Exception {
+        LocalDate marketDate = LocalDate.of(2025, 6, 7);
+        when(reimbursementEngine.run(marketDate))
+                .thenReturn(Optional.of(new ReimbursementReport(marketDate, 40, 12, 812.5, 3, 1, 5, 10)))
+                .thenReturn(Optional.empty());
+
+        mockMvc.perform(post("/api/transaction/reimbursements/2025-06-07"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(12))
+                .andExpect(jsonPath("$.totalDue").value(812.5));
+        mockMvc.perform(post("/api/transaction/reimbursements/2025-06-07"))
+                .andExpect(status().isConflict());
+    }
+}
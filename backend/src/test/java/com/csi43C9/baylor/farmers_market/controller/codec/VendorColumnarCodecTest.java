@@ -0,0 +1,114 @@
+package com.csi43C9.baylor.farmers_market.controller.codec;
+
+import com.csi43C9.baylor.farmers_market.dto.PagedResponse;
+import com.csi43C9.baylor.farmers_market.entity.Vendor;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link VendorColumnarCodec}.
+ * Verifies that pages survive a round trip, including nulls and flags, and come out smaller than JSON.
+ */
+class VendorColumnarCodecTest {
+
+    /**
+     * Verifies that every field, null strings and miles, and every flag combination decode as written.
+     */
+    @Test
+    void roundTripsEveryField() throws IOException {
+        List<Vendor> vendors = List.of(
+                Vendor.builder().id(UUID.randomUUID()).vendorName("Green Acres").pointPerson("Ana Diaz")
+                        .email("ana@example.com").location("Waco, TX").miles(12).products("Eggs, honey")
+                        .isActive(true).isFarmer(true).isProduce(true).womanOwned(true).bipocOwned(true)
+                        .veteranOwned(true).build(),
+                Vendor.builder().id(UUID.randomUUID()).vendorName("Näive Bakery ☀").miles(0).build(),
+                Vendor.builder().id(UUID.randomUUID()).vendorName("Far Out Farm").miles(Integer.MAX_VALUE)
+                        .isActive(true).veteranOwned(true).build(),
+                Vendor.builder().id(UUID.randomUUID()).miles(-3).build());
+        PagedResponse<Vendor> page = new PagedResponse<>(vendors, 3, 4, 1_000_000L, 250_000);
+
+        PagedResponse<Vendor> decoded = VendorColumnarCodec.decode(new ByteArrayInputStream(encode(page)));
+
+        assertThat(decoded).isEqualTo(page);
+    }
+
+    /**
+     * Verifies that repeated strings are written once, so a page sharing one location is much
+     * smaller than the same page in JSON.
+     */
+    @Test
+    void dictionaryEncodesRepeatedStrings() throws IOException {
+        List<Vendor> vendors = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            vendors.add(Vendor.builder().id(UUID.randomUUID()).vendorName("Vendor " + i)
+                    .location("Heart of Texas Fairgrounds, Waco").products("Seasonal vegetables")
+                    .miles(i).isActive(true).build());
+        }
+        PagedResponse<Vendor> page = new PagedResponse<>(vendors, 0, 100, 100L, 1);
+
+        byte[] columnar = encode(page);
+        byte[] json = JsonMapper.builder().build().writeValueAsBytes(page);
+
+        assertThat(occurrences(columnar, "Heart of Texas Fairgrounds")).isEqualTo(1);
+        assertThat(columnar.length).isLessThan(json.length / 3);
+        assertThat(VendorColumnarCodec.decode(new ByteArrayInputStream(columnar))).isEqualTo(page);
+    }
+
+    /**
+     * Verifies that an empty page round-trips.
+     */
+    @Test
+    void roundTripsEmptyPage() throws IOException {
+        PagedResponse<Vendor> page = new PagedResponse<>(List.of(), 0, 10, 0L, 0);
+
+        assertThat(VendorColumnarCodec.decode(new ByteArrayInputStream(encode(page)))).isEqualTo(page);
+    }
+
+    /**
+     * Verifies that bodies that are not columnar pages, or are cut short, are rejected.
+     */
+    @Test
+    void rejectsMalformedInput() throws IOException {
+        byte[] encoded = encode(new PagedResponse<>(
+                List.of(Vendor.builder().id(UUID.randomUUID()).vendorName("Cut Short").build()), 0, 1, 1L, 1));
+        byte[] truncated = new byte[encoded.length - 4];
+        System.arraycopy(encoded, 0, truncated, 0, truncated.length);
+
+        assertThatThrownBy(() -> VendorColumnarCodec.decode(new ByteArrayInputStream("{\"data\":[]}".getBytes(StandardCharsets.UTF_8))))
+                .isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> VendorColumnarCodec.decode(new ByteArrayInputStream(truncated)))
+                .isInstanceOf(IOException.class);
+    }
+
+    private static byte[] encode(PagedResponse<Vendor> page) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        VendorColumnarCodec.encode(page, out);
+        return out.toByteArray();
+    }
+
+    private static int occurrences(byte[] haystack, String needle) {
+        byte[] bytes = needle.getBytes(StandardCharsets.UTF_8);
+        int count = 0;
+        for (int i = 0; i + bytes.length <= haystack.length; i++) {
+            int j = 0;
+            while (j < bytes.length && haystack[i + j] == bytes[j]) {
+                j++;
+            }
+            if (j == bytes.length) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
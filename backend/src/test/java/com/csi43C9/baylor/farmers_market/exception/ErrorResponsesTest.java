@@ -0,0 +1,62 @@
+package com.csi43C9.baylor.farmers_market.exception;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link ErrorResponses}.
+ * Verifies that the pre-encoded bodies are valid JSON, escape their values and are reused.
+ */
+class ErrorResponsesTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Verifies that a body written to a servlet response parses back to the original values,
+     * including characters that need escaping.
+     */
+    @Test
+    void writeEscapesMessageAndPath() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        String path = "/api/vendor/\"quoted\"\\back\nslash/caf\u00e9/\uD83C\uDF3D";
+
+        ErrorResponses.write(response, HttpStatus.TOO_MANY_REQUESTS, "Retry \"later\"", path);
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getContentType()).isEqualTo(MediaType.APPLICATION_JSON_VALUE);
+        JsonNode body = mapper.readTree(response.getContentAsString(StandardCharsets.UTF_8));
+        assertThat(body.get("status").asInt()).isEqualTo(429);
+        assertThat(body.get("error").asString()).isEqualTo("Too Many Requests");
+        assertThat(body.get("message").asString()).isEqualTo("Retry \"later\"");
+        assertThat(body.get("path").asString()).isEqualTo(path);
+    }
+
+    /**
+     * Verifies that a handler body carries a timestamp and the same bytes are reused for
+     * repeated errors within a second.
+     */
+    @Test
+    void entityReusesBodyForRepeatedErrors() {
+        ResponseEntity<byte[]> first = ErrorResponses.entity(HttpStatus.CONFLICT, "Duplicate entry");
+        ResponseEntity<byte[]> second = ErrorResponses.entity(HttpStatus.CONFLICT, "Duplicate entry");
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        JsonNode body = mapper.readTree(first.getBody());
+        assertThat(body.get("status").asInt()).isEqualTo(409);
+        assertThat(body.get("error").asString()).isEqualTo("Conflict");
+        assertThat(body.get("message").asString()).isEqualTo("Duplicate entry");
+        assertThat(body.has("timestamp")).isTrue();
+        if (body.get("timestamp").equals(mapper.readTree(second.getBody()).get("timestamp"))) {
+            assertThat(second.getBody()).isSameAs(first.getBody());
+        }
+    }
+}
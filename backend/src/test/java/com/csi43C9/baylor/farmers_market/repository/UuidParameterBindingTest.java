@@ -0,0 +1,83 @@
+package com.csi43C9.baylor.farmers_market.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.invocation.Invocation;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mockingDetails;
+
+/**
+ * Verifies that lookups and deletes by id bind the id's 16 bytes as a parameter of its own.
+ * H2 unwraps a one-element {@code Object[]} bound as a parameter, while MariaDB's driver does not,
+ * so the database tests cannot catch a nested array.
+ */
+@ExtendWith(MockitoExtension.class)
+class UuidParameterBindingTest {
+
+    private final UUID id = UUID.randomUUID();
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Verifies the parameters of the vendor lookup and soft delete.
+     */
+    @Test
+    void vendorStatementsBindIdBytes() {
+        VendorRepository repository = new VendorRepository(jdbcTemplate);
+
+        repository.findById(id);
+        repository.deleteById(id);
+
+        assertIdBound(queryParams());
+        assertIdBound(updateParams());
+    }
+
+    /**
+     * Verifies the parameters of the transaction lookup and delete.
+     */
+    @Test
+    void transactionStatementsBindIdBytes() {
+        VendorTransactionRepository repository = new VendorTransactionRepository(jdbcTemplate);
+
+        repository.findById(id);
+        repository.deleteById(id);
+
+        assertIdBound(queryParams());
+        assertIdBound(updateParams());
+    }
+
+    private Object[] queryParams() {
+        return params("queryForObject");
+    }
+
+    private Object[] updateParams() {
+        return params("update");
+    }
+
+    /**
+     * @return the statement parameters of the one call to {@code method}, as passed to its varargs.
+     */
+    private Object[] params(String method) {
+        List<Invocation> calls = mockingDetails(jdbcTemplate).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals(method))
+                .toList();
+        assertThat(calls).hasSize(1);
+        Object[] raw = calls.getFirst().getRawArguments();
+        return (Object[]) raw[raw.length - 1];
+    }
+
+    private void assertIdBound(Object[] params) {
+        assertThat(params).hasSize(2);
+        assertThat(List.of(params)).noneMatch(param -> param instanceof Object[]);
+        assertThat(params[1]).isInstanceOf(byte[].class);
+        assertThat((byte[]) params[1]).hasSize(16);
+    }
+}
@@ -0,0 +1,95 @@
+package com.csi43C9.baylor.farmers_market.repository;
+
+import com.csi43C9.baylor.farmers_market.entity.VendorChange;
+import com.csi43C9.baylor.farmers_market.entity.VendorChangeOperation;
+import com.csi43C9.baylor.farmers_market.tenant.TenantContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.test.autoconfigure.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Persistence layer tests for {@link VendorChangeRepository}.
+ * Each test runs in a transaction that is rolled back, so the log starts empty.
+ */
+@JdbcTest
+@Import(VendorChangeRepository.class)
+class VendorChangeRepositoryTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private VendorChangeRepository vendorChangeRepository;
+
+    /**
+     * Verifies that appended entries get consecutive sequence numbers across calls and are read
+     * back in order after a given sequence number.
+     */
+    @Test
+    void appendAssignsConsecutiveSequenceNumbers() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        vendorChangeRepository.append(List.of(first, second), VendorChangeOperation.UPDATED);
+        vendorChangeRepository.append(List.of(first), VendorChangeOperation.DELETED);
+
+        assertThat(vendorChangeRepository.state()).isEqualTo(new VendorChangeRepository.LogState(3, 0));
+        List<VendorChange> changes = vendorChangeRepository.findAfter(1, 10);
+        assertThat(changes).extracting(VendorChange::getSeq).containsExactly(2L, 3L);
+        assertThat(changes).extracting(VendorChange::getVendorId).containsExactly(second, first);
+        assertThat(changes).extracting(VendorChange::getOperation)
+                .containsExactly(VendorChangeOperation.UPDATED, VendorChangeOperation.DELETED);
+        assertThat(vendorChangeRepository.findAfter(0, 2)).hasSize(2);
+    }
+
+    /**
+     * Verifies that each market reads only its own entries, while every market's entries can be
+     * read together in sequence order.
+     */
+    @Test
+    void marketsShareSequenceNumbersButNotEntries() {
+        UUID north = UUID.randomUUID();
+        UUID south = UUID.randomUUID();
+
+        TenantContext.run("north", () -> vendorChangeRepository.append(List.of(north), VendorChangeOperation.CREATED));
+        TenantContext.run("south", () -> vendorChangeRepository.append(List.of(south), VendorChangeOperation.CREATED));
+
+        assertThat(TenantContext.call("south", () -> vendorChangeRepository.findAfter(0, 10)))
+                .extracting(VendorChange::getVendorId).containsExactly(south);
+        assertThat(vendorChangeRepository.findAfterInAllMarkets(0, 10))
+                .extracting(VendorChange::getSeq, VendorChange::getMarketId)
+                .containsExactly(tuple(1L, "north"), tuple(2L, "south"));
+        assertThat(TenantContext.call("north", vendorChangeRepository::lastSeq)).isEqualTo(1);
+        assertThat(TenantContext.call("east", vendorChangeRepository::lastSeq)).isZero();
+    }
+
+    /**
+     * Verifies that pruning removes only entries older than the cutoff and records the last
+     * sequence number removed.
+     */
+    @Test
+    void pruneBeforeRemovesOldEntriesAndRecordsHighWaterMark() {
+        vendorChangeRepository.append(List.of(UUID.randomUUID(), UUID.randomUUID()), VendorChangeOperation.CREATED);
+        jdbcTemplate.update("update vendor_changes set changed_at = ?",
+                Timestamp.from(Instant.now().minus(40, ChronoUnit.DAYS)));
+        vendorChangeRepository.append(List.of(UUID.randomUUID()), VendorChangeOperation.UPDATED);
+
+        int removed = vendorChangeRepository.pruneBefore(Instant.now().minus(30, ChronoUnit.DAYS));
+
+        assertThat(removed).isEqualTo(2);
+        assertThat(vendorChangeRepository.state()).isEqualTo(new VendorChangeRepository.LogState(3, 2));
+        assertThat(vendorChangeRepository.findAfter(0, 10)).extracting(VendorChange::getSeq).containsExactly(3L);
+        assertThat(vendorChangeRepository.pruneBefore(Instant.now().minus(30, ChronoUnit.DAYS))).isZero();
+    }
+}
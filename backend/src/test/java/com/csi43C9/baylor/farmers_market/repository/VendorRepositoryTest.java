@@ -1,6 +1,9 @@
 package com.csi43C9.baylor.farmers_market.repository;
 
 import com.csi43C9.baylor.farmers_market.entity.Vendor;
+import com.csi43C9.baylor.farmers_market.entity.VendorFlag;
+import com.csi43C9.baylor.farmers_market.tenant.TenantContext;
+import com.csi43C9.baylor.farmers_market.util.UuidUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,7 +11,10 @@ import org.springframework.boot.jdbc.test.autoconfigure.JdbcTest;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.context.annotation.Import;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -141,11 +147,111 @@ class VendorRepositoryTest {
         assertThat(vendorRepository.count()).isEqualTo(0);
     }
 
+    /**
+     * Verifies that findAllById() returns every matching vendor, including soft-deleted ones,
+     * across more ids than fit in a single IN clause.
+     */
+    @Test
+    void findAllByIdReturnsMatchingVendorsAcrossChunks() {
+        Vendor first = vendorRepository.save(createDummyVendor("Vendor A"));
+        Vendor second = vendorRepository.save(createDummyVendor("Vendor B"));
+        vendorRepository.deleteById(second.getId());
+
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        ids.add(first.getId());
+        ids.add(second.getId());
+        ids.add(first.getId());
+
+        List<Vendor> found = vendorRepository.findAllById(ids);
+
+        assertThat(found).extracting(Vendor::getVendorName).containsExactlyInAnyOrder("Vendor A", "Vendor B");
+    }
+
     /**
      * Creates a dummy Vendor entity with the specified name.
      * @param name Vendor name
      * @return Vendor
      */
+    /**
+     * Verifies that a bulk flag update changes only the vendors that differ and reports them.
+     */
+    @Test
+    void updateFlagsChangesOnlyDifferingVendors() {
+        Vendor active = vendorRepository.save(createDummyVendor("Active Farm"));
+        Vendor inactive = vendorRepository.save(createDummyVendor("Inactive Farm"));
+        vendorRepository.deleteById(inactive.getId());
+
+        List<UUID> changed = vendorRepository.updateFlags(List.of(active.getId(), inactive.getId(), UUID.randomUUID()),
+                Map.of(VendorFlag.ACTIVE, false, VendorFlag.FARMER, false));
+
+        assertThat(changed).containsExactly(active.getId());
+        assertThat(vendorRepository.findById(active.getId())).get()
+                .extracting(Vendor::isActive).isEqualTo(false);
+    }
+
+    /**
+     * Verifies that only vendors with no attendance on or after the date are selected, and that
+     * attendance recorded under another market does not count.
+     */
+    @Test
+    void findIdsNotPresentSinceSkipsRecentAttendees() {
+        Vendor recent = vendorRepository.save(createDummyVendor("Recent Farm"));
+        Vendor lapsed = vendorRepository.save(createDummyVendor("Lapsed Farm"));
+        Vendor absent = vendorRepository.save(createDummyVendor("Absent Farm"));
+        String insert = "insert into vendor_transactions (id, vendor_id, vendor_name, market_date, present) values (?, ?, ?, ?, ?)";
+        jdbcTemplate.update(insert, UuidUtils.toBytes(UUID.randomUUID()), UuidUtils.toBytes(recent.getId()),
+                "Recent Farm", LocalDate.of(2025, 9, 6), true);
+        jdbcTemplate.update(insert, UuidUtils.toBytes(UUID.randomUUID()), UuidUtils.toBytes(lapsed.getId()),
+                "Lapsed Farm", LocalDate.of(2025, 5, 3), true);
+        jdbcTemplate.update(insert, UuidUtils.toBytes(UUID.randomUUID()), UuidUtils.toBytes(absent.getId()),
+                "Absent Farm", LocalDate.of(2025, 9, 6), false);
+        jdbcTemplate.update("insert into vendor_transactions (id, market_id, vendor_id, vendor_name, market_date, present)"
+                        + " values (?, ?, ?, ?, ?, ?)", UuidUtils.toBytes(UUID.randomUUID()), "south",
+                UuidUtils.toBytes(absent.getId()), "Absent Farm", LocalDate.of(2025, 9, 13), true);
+
+        assertThat(vendorRepository.findIdsNotPresentSince(LocalDate.of(2025, 8, 1)))
+                .containsExactlyInAnyOrder(lapsed.getId(), absent.getId());
+    }
+
+    /**
+     * Verifies that every vendor's name is returned, including soft-deleted vendors, whose names stay taken.
+     */
+    @Test
+    void findAllNamesIncludesInactiveVendors() {
+        Vendor active = vendorRepository.save(createDummyVendor("Active Farm"));
+        Vendor inactive = vendorRepository.save(createDummyVendor("Closed Farm"));
+        vendorRepository.deleteById(inactive.getId());
+
+        assertThat(vendorRepository.findAllNames()).containsOnly(
+                Map.entry(active.getId(), "Active Farm"),
+                Map.entry(inactive.getId(), "Closed Farm"));
+    }
+
+    /**
+     * Verifies that a vendor is only visible from its own market, and that markets may reuse a name.
+     */
+    @Test
+    void vendorsAreIsolatedByMarket() {
+        Vendor north = TenantContext.call("north", () -> vendorRepository.save(createDummyVendor("Green Farms")));
+        Vendor south = TenantContext.call("south", () -> vendorRepository.save(createDummyVendor("Green Farms")));
+
+        assertThat(north.getMarketId()).isEqualTo("north");
+        TenantContext.run("north", () -> {
+            assertThat(vendorRepository.findById(north.getId())).isPresent();
+            assertThat(vendorRepository.findById(south.getId())).isEmpty();
+            assertThat(vendorRepository.findAll()).extracting(Vendor::getId).containsExactly(north.getId());
+            assertThat(vendorRepository.count()).isEqualTo(1);
+        });
+        assertThat(vendorRepository.findAll()).isEmpty();
+
+        TenantContext.run("north", () -> vendorRepository.deleteById(south.getId()));
+        assertThat(TenantContext.call("south", () -> vendorRepository.findById(south.getId())))
+                .get().extracting(Vendor::isActive).isEqualTo(true);
+    }
+
     private Vendor createDummyVendor(String name) {
         return Vendor.builder().vendorName(name).isActive(true).build();
     }
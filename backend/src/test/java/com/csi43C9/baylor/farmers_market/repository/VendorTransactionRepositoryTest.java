@@ -0,0 +1,323 @@
+package com.csi43C9.baylor.farmers_market.repository;
+
+import com.csi43C9.baylor.farmers_market.entity.VendorTransaction;
+import com.csi43C9.baylor.farmers_market.tenant.TenantContext;
+import com.csi43C9.baylor.farmers_market.util.UuidUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.test.autoconfigure.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+
+/**
+ * Persistence layer tests for {@link VendorTransactionRepository}.
+ * Uses an in-memory database to verify the per-vendor, per-market-date upsert.
+ */
+@JdbcTest
+@Import(VendorTransactionRepository.class)
+class VendorTransactionRepositoryTest {
+
+    private static final LocalDate MARKET_DATE = LocalDate.of(2025, 6, 7);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private VendorTransactionRepository transactionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Clear the transaction table before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE TABLE vendor_transactions");
+    }
+
+    /**
+     * Verifies that saving twice for the same vendor and date overwrites the first row and keeps its id.
+     */
+    @Test
+    void saveOverwritesExistingVendorAndDate() {
+        UUID vendorId = UUID.randomUUID();
+        VendorTransaction first = transactionRepository.save(createTransaction(vendorId, 10.0));
+
+        VendorTransaction second = transactionRepository.save(createTransaction(vendorId, 25.0));
+
+        assertThat(second.getId()).isEqualTo(first.getId());
+        assertThat(transactionRepository.count()).isEqualTo(1);
+        Optional<VendorTransaction> stored = transactionRepository.findByVendorAndDate(vendorId, MARKET_DATE);
+        assertThat(stored).isPresent();
+        assertThat(stored.get().getSnap()).isEqualTo(25.0);
+        assertThat(stored.get().isPresent()).isTrue();
+    }
+
+    /**
+     * Verifies that when another request inserts the vendor and date between the update and the
+     * insert, the save overwrites that row instead of failing on the unique key.
+     */
+    @Test
+    void saveOverwritesRowInsertedConcurrently() {
+        UUID vendorId = UUID.randomUUID();
+        UUID competitorId = UUID.randomUUID();
+        JdbcTemplate racing = spy(jdbcTemplate);
+        doAnswer(invocation -> {
+            jdbcTemplate.update("insert into vendor_transactions (id, vendor_id, vendor_name, market_date, present, snap)"
+                    + " values (?, ?, ?, ?, ?, ?)", UuidUtils.toBytes(competitorId), UuidUtils.toBytes(vendorId),
+                    "Competitor", MARKET_DATE, false, 5.0);
+            return 0;
+        }).doCallRealMethod().when(racing).update(startsWith("update vendor_transactions"), any(Object[].class));
+
+        VendorTransaction saved = new VendorTransactionRepository(racing).save(createTransaction(vendorId, 10.0));
+
+        assertThat(saved.getId()).isEqualTo(competitorId);
+        assertThat(transactionRepository.count()).isEqualTo(1);
+        assertThat(transactionRepository.findByVendorAndDate(vendorId, MARKET_DATE))
+                .hasValueSatisfying(stored -> assertThat(stored.getSnap()).isEqualTo(10.0));
+    }
+
+    /**
+     * Verifies that the same vendor and date in two markets are separate rows, each only
+     * overwritten within its own market.
+     */
+    @Test
+    void saveKeepsMarketsApart() {
+        UUID vendorId = UUID.randomUUID();
+        VendorTransaction north = TenantContext.call("north", () -> transactionRepository.save(
+                createTransaction(vendorId, 10.0)));
+        VendorTransaction south = TenantContext.call("south", () -> transactionRepository.save(
+                createTransaction(vendorId, 20.0)));
+        TenantContext.run("north", () -> transactionRepository.save(createTransaction(vendorId, 15.0)));
+
+        assertThat(south.getId()).isNotEqualTo(north.getId());
+        assertThat(TenantContext.call("north", () -> transactionRepository.findByVendorAndDate(vendorId, MARKET_DATE)))
+                .hasValueSatisfying(stored -> assertThat(stored.getSnap()).isEqualTo(15.0));
+        assertThat(TenantContext.call("south", () -> transactionRepository.findByVendorAndDate(vendorId, MARKET_DATE)))
+                .hasValueSatisfying(stored -> assertThat(stored.getSnap()).isEqualTo(20.0));
+    }
+
+    /**
+     * Verifies that overwriting a vendor's figures keeps the reimbursement due the engine computed.
+     */
+    @Test
+    void upsertsKeepReimbursementDue() {
+        UUID vendorId = UUID.randomUUID();
+        VendorTransaction saved = transactionRepository.save(createTransaction(vendorId, 10.0));
+        saved.setReimbursementDue(10.0);
+        transactionRepository.updateReimbursementDue(List.of(saved));
+
+        transactionRepository.save(createTransaction(vendorId, 20.0));
+        transactionRepository.saveAll(List.of(createTransaction(vendorId, 30.0)));
+
+        Optional<VendorTransaction> stored = transactionRepository.findByVendorAndDate(vendorId, MARKET_DATE);
+        assertThat(stored).map(VendorTransaction::getSnap).contains(30.0);
+        assertThat(stored).map(VendorTransaction::getReimbursementDue).contains(10.0);
+    }
+
+    /**
+     * Verifies that a batch upsert inserts new rows and updates existing ones.
+     */
+    @Test
+    void saveAllUpsertsBatch() {
+        UUID existing = UUID.randomUUID();
+        transactionRepository.save(createTransaction(existing, 1.0));
+
+        int written = transactionRepository.saveAll(List.of(
+                createTransaction(existing, 2.0),
+                createTransaction(UUID.randomUUID(), 3.0)));
+
+        assertThat(written).isEqualTo(2);
+        assertThat(transactionRepository.count()).isEqualTo(2);
+        assertThat(transactionRepository.findByVendorAndDate(existing, MARKET_DATE))
+                .map(VendorTransaction::getSnap)
+                .contains(2.0);
+    }
+
+    /**
+     * Verifies that a batch upsert still inserts new rows when the driver reports
+     * {@link Statement#SUCCESS_NO_INFO} instead of row counts, as batches rewritten by
+     * MariaDB's driver do.
+     */
+    @Test
+    void saveAllInsertsWhenDriverReportsNoRowCounts() {
+        UUID existing = UUID.randomUUID();
+        transactionRepository.save(createTransaction(existing, 1.0));
+        JdbcTemplate rewritingTemplate = new JdbcTemplate(jdbcTemplate.getDataSource()) {
+            @Override
+            public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+                int[] counts = super.batchUpdate(sql, batchArgs);
+                Arrays.fill(counts, Statement.SUCCESS_NO_INFO);
+                return counts;
+            }
+        };
+        VendorTransactionRepository repository = new VendorTransactionRepository(rewritingTemplate);
+
+        repository.saveAll(List.of(createTransaction(existing, 2.0), createTransaction(UUID.randomUUID(), 3.0)));
+
+        assertThat(transactionRepository.count()).isEqualTo(2);
+        assertThat(transactionRepository.findByVendorAndDate(existing, MARKET_DATE))
+                .map(VendorTransaction::getSnap)
+                .contains(2.0);
+    }
+
+    /**
+     * Verifies that only the figures for the requested market date are returned.
+     */
+    @Test
+    void findAllByMarketDateReturnsOnlyThatDay() {
+        UUID vendorId = UUID.randomUUID();
+        transactionRepository.save(createTransaction(vendorId, 4.0));
+        VendorTransaction otherDay = createTransaction(vendorId, 5.0);
+        otherDay.setMarketDate(MARKET_DATE.plusWeeks(1));
+        transactionRepository.save(otherDay);
+
+        assertThat(transactionRepository.findAllByMarketDate(MARKET_DATE))
+                .extracting(VendorTransaction::getSnap)
+                .containsExactly(4.0);
+    }
+
+    /**
+     * Verifies that each market day with figures is listed once.
+     */
+    @Test
+    void findMarketDatesListsEachDayOnce() {
+        transactionRepository.save(createTransaction(UUID.randomUUID(), 1.0));
+        transactionRepository.save(createTransaction(UUID.randomUUID(), 2.0));
+        VendorTransaction otherDay = createTransaction(UUID.randomUUID(), 3.0);
+        otherDay.setMarketDate(MARKET_DATE.plusWeeks(1));
+        transactionRepository.save(otherDay);
+
+        assertThat(transactionRepository.findMarketDates())
+                .containsExactlyInAnyOrder(MARKET_DATE, MARKET_DATE.plusWeeks(1));
+    }
+
+    /**
+     * Verifies that a day's benefit figures are streamed and that reimbursements are written back by id.
+     */
+    @Test
+    void updateReimbursementDueWritesStreamedRows() {
+        transactionRepository.save(createTransaction(UUID.randomUUID(), 4.0));
+        VendorTransaction otherDay = createTransaction(UUID.randomUUID(), 9.0);
+        otherDay.setMarketDate(MARKET_DATE.plusWeeks(1));
+        transactionRepository.save(otherDay);
+
+        List<VendorTransaction> rows = new ArrayList<>();
+        transactionRepository.forEachBenefitsByMarketDate(MARKET_DATE, rows::add);
+        assertThat(rows).singleElement().satisfies(row -> {
+            assertThat(row.getSnap()).isEqualTo(4.0);
+            assertThat(row.getDufb()).isNull();
+            assertThat(row.getReimbursementDue()).isNull();
+        });
+
+        rows.getFirst().setReimbursementDue(4.0);
+        assertThat(transactionRepository.updateReimbursementDue(rows)).isEqualTo(1);
+        assertThat(transactionRepository.findById(rows.getFirst().getId()))
+                .map(VendorTransaction::getReimbursementDue)
+                .contains(4.0);
+        assertThat(transactionRepository.findById(otherDay.getId()))
+                .map(VendorTransaction::getReimbursementDue)
+                .isEmpty();
+    }
+
+    /**
+     * Verifies that rows are streamed most recent market day first within the optional bounds.
+     */
+    @Test
+    void forEachInRangeStreamsBoundedDays() {
+        for (int week = 0; week < 3; week++) {
+            VendorTransaction transaction = createTransaction(UUID.randomUUID(), week);
+            transaction.setMarketDate(MARKET_DATE.plusWeeks(week));
+            transactionRepository.save(transaction);
+        }
+
+        List<Double> all = new ArrayList<>();
+        transactionRepository.forEachInRange(null, null, row -> all.add(row.getSnap()));
+        List<Double> bounded = new ArrayList<>();
+        transactionRepository.forEachInRange(MARKET_DATE.plusWeeks(1), MARKET_DATE.plusWeeks(1),
+                row -> bounded.add(row.getSnap()));
+
+        assertThat(all).containsExactly(2.0, 1.0, 0.0);
+        assertThat(bounded).containsExactly(1.0);
+    }
+
+    /**
+     * Verifies that the version changes with every write, and not with writes matching no row.
+     * Runs without the test transaction, so each write commits on its own.
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void versionChangesOnEveryWrite() {
+        long initial = transactionRepository.version();
+
+        VendorTransaction saved = transactionRepository.save(createTransaction(UUID.randomUUID(), 1.0));
+        long afterInsert = transactionRepository.version();
+        transactionRepository.save(createTransaction(saved.getVendorId(), 2.0));
+        long afterUpdate = transactionRepository.version();
+        transactionRepository.deleteById(UUID.randomUUID());
+        long afterNoop = transactionRepository.version();
+        transactionRepository.deleteById(saved.getId());
+
+        assertThat(afterInsert).isGreaterThan(initial);
+        assertThat(afterUpdate).isGreaterThan(afterInsert);
+        assertThat(afterNoop).isEqualTo(afterUpdate);
+        assertThat(transactionRepository.version()).isGreaterThan(afterNoop);
+    }
+
+    /**
+     * Verifies that writes in one transaction change the version once, when it commits, and that
+     * a transaction rolled back does not change it.
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void versionChangesOncePerTransaction() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        long initial = transactionRepository.version();
+
+        long during = tx.execute(status -> {
+            transactionRepository.save(createTransaction(UUID.randomUUID(), 1.0));
+            transactionRepository.save(createTransaction(UUID.randomUUID(), 2.0));
+            transactionRepository.saveAll(List.of(createTransaction(UUID.randomUUID(), 3.0)));
+            return transactionRepository.version();
+        });
+        long committed = transactionRepository.version();
+        tx.executeWithoutResult(status -> {
+            transactionRepository.save(createTransaction(UUID.randomUUID(), 4.0));
+            status.setRollbackOnly();
+        });
+
+        assertThat(during).isEqualTo(initial);
+        assertThat(committed).isEqualTo(initial + 1);
+        assertThat(transactionRepository.version()).isEqualTo(committed);
+    }
+
+    private VendorTransaction createTransaction(UUID vendorId, double snap) {
+        return VendorTransaction.builder()
+                .vendorId(vendorId)
+                .vendorName("Vendor " + vendorId)
+                .marketDate(MARKET_DATE)
+                .present(true)
+                .snap(snap)
+                .build();
+    }
+}
@@ -0,0 +1,169 @@
+package com.csi43C9.baylor.farmers_market.repository.metadata;
+
+import com.csi43C9.baylor.farmers_market.entity.Vendor;
+import com.csi43C9.baylor.farmers_market.entity.VendorTransaction;
+import com.csi43C9.baylor.farmers_market.entity.base.IdentifiableInteger;
+import com.csi43C9.baylor.farmers_market.repository.base.AbstractJdbcRepository;
+import com.csi43C9.baylor.farmers_market.util.UuidUtils;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.relational.core.mapping.Table;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link EntityMetadata}.
+ * Verifies the derived SQL, parameter binding and row mapping for UUID and Integer keyed entities.
+ */
+class EntityMetadataTest {
+
+    /**
+     * Verifies the statements derived for {@link Vendor}, including the {@code @Column} override
+     * and Lombok's accessors for {@code boolean isActive}.
+     */
+    @Test
+    void derivesVendorStatements() {
+        EntityMetadata<Vendor> metadata = EntityMetadata.of(Vendor.class);
+
+        assertThat(metadata.insert().sql()).isEqualTo(
+                "insert into vendors (id, market_id, vendor, point_person, email, location, miles, products, "
+                        + "is_active, is_farmer, is_produce, woman_owned, bipoc_owned, veteran_owned) "
+                        + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+        EntityStatement<Vendor> update = metadata.updateBy("id", "market_id");
+        assertThat(update.sql()).startsWith("update vendors set vendor = ?, point_person = ?")
+                .endsWith("veteran_owned = ? where id = ? and market_id = ?");
+
+        UUID id = UUID.randomUUID();
+        Vendor vendor = Vendor.builder().id(id).marketId("north").vendorName("Farm").isActive(true).miles(3).build();
+        Object[] params = update.params(vendor);
+        assertThat(params[0]).isEqualTo("Farm");
+        assertThat(params[4]).isEqualTo(3);
+        assertThat(params[6]).isEqualTo(true);
+        assertThat(params[params.length - 2]).isEqualTo(UuidUtils.toBytes(id));
+        assertThat(params[params.length - 1]).isEqualTo("north");
+    }
+
+    /**
+     * Verifies that an update keyed on other columns binds the remaining columns first and the keys last.
+     */
+    @Test
+    void updateByNaturalKeyBindsKeysLast() {
+        EntityMetadata<VendorTransaction> metadata = EntityMetadata.of(VendorTransaction.class);
+        EntityStatement<VendorTransaction> update = metadata.updateBy("market_id", "vendor_id", "market_date");
+
+        assertThat(update.sql()).startsWith("update vendor_transactions set vendor_name = ?, present = ?")
+                .endsWith("where market_id = ? and vendor_id = ? and market_date = ?")
+                .doesNotContain("id = ?,");
+        assertThat(update.bindings()).last().extracting(ColumnMapping::column).isEqualTo("market_date");
+    }
+
+    /**
+     * Verifies that an update keyed on other columns can leave columns it does not own unchanged.
+     */
+    @Test
+    void updateByKeepsExcludedColumns() {
+        EntityMetadata<VendorTransaction> metadata = EntityMetadata.of(VendorTransaction.class);
+        EntityStatement<VendorTransaction> update = metadata.updateBy(
+                List.of("market_id", "vendor_id", "market_date"), Set.of("reimbursement_due"));
+
+        assertThat(update.sql()).contains("voucher = ?").doesNotContain("reimbursement_due");
+        assertThat(update.bindings()).extracting(ColumnMapping::column).doesNotContain("reimbursement_due");
+        assertThatThrownBy(() -> metadata.updateBy(List.of("market_id"), Set.of("no_such_column")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Verifies that a row is mapped through the generated setters, keeping SQL nulls for wrappers.
+     */
+    @Test
+    void mapsRows() throws Exception {
+        UUID id = UUID.randomUUID();
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getBytes("id")).thenReturn(UuidUtils.toBytes(id));
+        when(rs.getString("vendor")).thenReturn("Farm");
+        when(rs.getObject("miles", Integer.class)).thenReturn(null);
+        when(rs.getBoolean("is_active")).thenReturn(true);
+        when(rs.getBoolean("woman_owned")).thenReturn(true);
+
+        Vendor vendor = EntityMetadata.of(Vendor.class).rowMapper().mapRow(rs, 0);
+
+        assertThat(vendor.getId()).isEqualTo(id);
+        assertThat(vendor.getVendorName()).isEqualTo("Farm");
+        assertThat(vendor.getMiles()).isNull();
+        assertThat(vendor.isActive()).isTrue();
+        assertThat(vendor.isWomanOwned()).isTrue();
+        assertThat(vendor.isFarmer()).isFalse();
+    }
+
+    /**
+     * Verifies that an Integer keyed entity leaves its id out of the insert and receives the generated key.
+     */
+    @Test
+    void integerIdIsGeneratedOnInsert() {
+        EntityMetadata<Category> metadata = EntityMetadata.of(Category.class);
+        assertThat(metadata.hasGeneratedId()).isTrue();
+        assertThat(metadata.insert().sql()).isEqualTo("insert into categories (category_name) values (?)");
+        assertThat(metadata.selectSql()).isEqualTo("select id, category_name from categories");
+
+        EmbeddedDatabase db = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true).build();
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(db);
+            jdbcTemplate.execute("create table categories (id int auto_increment primary key, category_name varchar(64))");
+            CategoryRepository repository = new CategoryRepository(jdbcTemplate);
+
+            Category first = repository.insert(category("Produce"));
+            Category second = repository.insert(category("Dairy"));
+
+            assertThat(second.getId()).isEqualTo(first.getId() + 1);
+            assertThat(jdbcTemplate.query(metadata.selectSql() + " where id = ?", metadata.rowMapper(), second.getId()))
+                    .singleElement()
+                    .satisfies(found -> assertThat(found.getCategoryName()).isEqualTo("Dairy"));
+        } finally {
+            db.shutdown();
+        }
+    }
+
+    private static Category category(String name) {
+        Category category = new Category();
+        category.setCategoryName(name);
+        return category;
+    }
+
+    /**
+     * Minimal Integer keyed entity.
+     */
+    @Data
+    @NoArgsConstructor
+    @Table("categories")
+    public static class Category implements IdentifiableInteger {
+        private Integer id;
+        private String categoryName;
+        @Transient
+        private String displayLabel;
+    }
+
+    private static class CategoryRepository extends AbstractJdbcRepository {
+        CategoryRepository(JdbcTemplate jdbcTemplate) {
+            super(jdbcTemplate);
+        }
+
+        Category insert(Category category) {
+            return insert(EntityMetadata.of(Category.class), category);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.csi43C9.baylor.farmers_market.repository.migration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link SchemaMigrator}.
+ * Runs the bundled migrations against an empty H2 database in MySQL mode and verifies the
+ * history, checksum validation and cross-instance lock, including its refresh during long migrations.
+ */
+class SchemaMigratorTest {
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("shutdown");
+    }
+
+    private SchemaMigrator migrator(long lockTimeoutMs, long lockWaitMs) {
+        return new SchemaMigrator(dataSource, true, new String[]{"classpath*:db/migration/V*__*.sql"},
+                lockTimeoutMs, lockWaitMs);
+    }
+
+    /**
+     * Verifies that an empty database gets every migration, in order, and that a second run
+     * finds nothing to do.
+     */
+    @Test
+    void appliesPendingMigrationsOnce() {
+        SchemaMigrator migrator = migrator(60_000, 1_000);
+
+        assertThat(migrator.migrate()).extracting(Migration::version).containsExactly(1, 2, 3, 4, 5, 6, 7);
+        assertThat(jdbcTemplate.queryForList("select version from schema_history order by version", Integer.class))
+                .containsExactly(1, 2, 3, 4, 5, 6, 7);
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.indexes "
+                        + "where index_name = 'VENDORS_MARKET_ACTIVE_VENDOR_INDEX'",
+                Integer.class)).isPositive();
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.indexes "
+                        + "where index_name = 'VT_MARKET_VENDOR_DATE_UINDEX'",
+                Integer.class)).isPositive();
+        assertThat(jdbcTemplate.queryForObject(
+                "select locked_by from schema_migration_lock where id = 1", String.class)).isNull();
+
+        assertThat(migrator.migrate()).isEmpty();
+    }
+
+    /**
+     * Verifies that a migration edited after it was applied fails the run instead of being skipped.
+     */
+    @Test
+    void rejectsMigrationChangedAfterItWasApplied() {
+        SchemaMigrator migrator = migrator(60_000, 1_000);
+        migrator.migrate();
+        jdbcTemplate.update("update schema_history set checksum = 'edited' where version = 2");
+
+        assertThatThrownBy(migrator::migrate)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("V2");
+        assertThat(jdbcTemplate.queryForObject(
+                "select locked_by from schema_migration_lock where id = 1", String.class)).isNull();
+    }
+
+    /**
+     * Verifies that a lock held by a live instance is waited for, and a stale one is taken over.
+     */
+    @Test
+    void waitsForLiveLockAndTakesOverStaleLock() {
+        migrator(60_000, 1_000).migrate();
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.update("update schema_migration_lock set locked_by = 'other', locked_at = ? where id = 1", now);
+
+        assertThatThrownBy(() -> migrator(60_000, 0).migrate())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("other");
+
+        Timestamp longAgo = Timestamp.from(Instant.now().minus(1, ChronoUnit.HOURS));
+        jdbcTemplate.update("update schema_migration_lock set locked_at = ? where id = 1", longAgo);
+        assertThat(migrator(60_000, 0).migrate()).isEmpty();
+    }
+
+    /**
+     * Verifies that a migration running longer than the lock timeout keeps its lock refreshed, so
+     * another instance waits for it rather than taking the lock over and migrating concurrently.
+     */
+    @Test
+    void longMigrationKeepsLockRefreshed() throws Exception {
+        String[] slow = {"classpath*:db/slow-migration/V*__*.sql"};
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<List<Migration>> first = pool.submit(() -> new SchemaMigrator(dataSource, true, slow, 300, 0)
+                    .migrate());
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (lockHolder() == null && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(lockHolder()).isNotNull();
+
+            List<Migration> second = new SchemaMigrator(dataSource, true, slow, 300, 5_000).migrate();
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).extracting(Migration::version).containsExactly(1);
+            assertThat(second).isEmpty();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private String lockHolder() {
+        try {
+            List<String> holders = jdbcTemplate.queryForList(
+                    "select locked_by from schema_migration_lock where id = 1", String.class);
+            return holders.isEmpty() ? null : holders.getFirst();
+        } catch (BadSqlGrammarException e) {
+            // The lock table is not created yet
+            return null;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.csi43C9.baylor.farmers_market.repository.plan;
+
+import com.csi43C9.baylor.farmers_market.repository.base.AbstractJdbcRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Records the distinct SQL statements issued by repositories during the test suite.
+ *
+ * <p>Capturing is on when the {@value #CAPTURE_FILE_PROPERTY} system property names a file, as the
+ * Gradle {@code test} task does. Each statement is attributed to the repository method that issued
+ * it, found by walking the stack for a subclass of {@link AbstractJdbcRepository}; statements
+ * issued by tests themselves, such as {@code truncate}, are ignored. New statements are appended to
+ * the file as {@code <Repository>.<method> TAB <sql>} lines, which {@link QueryPlanTest} reads.
+ */
+final class CapturedStatements {
+
+    static final String CAPTURE_FILE_PROPERTY = "queryplan.captureFile";
+
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+    private static final Pattern LAMBDA = Pattern.compile("lambda\\$(\\w+)\\$\\d+");
+    private static final Set<String> SEEN = ConcurrentHashMap.newKeySet();
+
+    private CapturedStatements() {
+    }
+
+    /**
+     * @return the file statements are appended to, or {@code null} if capturing is off.
+     */
+    static Path captureFile() {
+        String file = System.getProperty(CAPTURE_FILE_PROPERTY);
+        return file == null || file.isBlank() ? null : Path.of(file);
+    }
+
+    /**
+     * Records a statement if a repository issued it and it has not been recorded before.
+     */
+    static void record(String sql) {
+        Path file = captureFile();
+        if (file == null) {
+            return;
+        }
+        String caller = repositoryCaller();
+        if (caller == null) {
+            return;
+        }
+        String line = caller + "\t" + sql.replaceAll("\\s+", " ").trim();
+        if (SEEN.add(line)) {
+            append(file, line);
+        }
+    }
+
+    /**
+     * Reads the statements captured so far.
+     */
+    static List<CapturedStatement> read(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return List.of();
+        }
+        return Files.readAllLines(file, StandardCharsets.UTF_8).stream()
+                .filter(line -> !line.isBlank())
+                .map(line -> line.split("\t", 2))
+                .map(parts -> new CapturedStatement(parts[0], parts[1]))
+                .distinct()
+                .toList();
+    }
+
+    private static synchronized void append(Path file, String line) {
+        try {
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, line + System.lineSeparator(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String repositoryCaller() {
+        return STACK_WALKER.walk(frames -> frames
+                .filter(frame -> AbstractJdbcRepository.class.isAssignableFrom(frame.getDeclaringClass())
+                        && frame.getDeclaringClass() != AbstractJdbcRepository.class)
+                .findFirst()
+                .map(frame -> frame.getDeclaringClass().getSimpleName() + "." + methodName(frame.getMethodName()))
+                .orElse(null));
+    }
+
+    /**
+     * Attributes statements run inside a lambda, e.g. {@code read(() -> ...)}, to the enclosing method.
+     */
+    private static String methodName(String name) {
+        Matcher lambda = LAMBDA.matcher(name);
+        return lambda.matches() ? lambda.group(1) : name;
+    }
+
+    /**
+     * A statement and the repository method that issued it.
+     *
+     * @param caller the issuing method, e.g. {@code VendorRepository.findAllPaged}.
+     * @param sql    the statement with whitespace collapsed.
+     */
+    record CapturedStatement(String caller, String sql) {
+    }
+}
@@ -0,0 +1,156 @@
+package com.csi43C9.baylor.farmers_market.repository.plan;
+
+import com.csi43C9.baylor.farmers_market.repository.plan.CapturedStatements.CapturedStatement;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs {@code EXPLAIN} on every statement the repositories issued during the test suite and
+ * fails on full table scans and sorts that no index serves, unless allowed in
+ * {@code query-plan-allowlist.txt}.
+ *
+ * <p>The statements are captured by {@link SqlCapturingDataSource} while the {@code test} task
+ * runs; the {@code queryPlanTest} task runs this class afterwards. Plans come from H2 in MySQL
+ * mode on the test schema, seeded and analyzed so the planner sees realistic row counts. H2 and
+ * MariaDB plan differently, but a statement no index can serve scans on both.
+ */
+@Tag("query-plan")
+class QueryPlanTest {
+
+    private static final int SEEDED_VENDORS = 2_000;
+    private static final int SEEDED_MARKET_DAYS = 10;
+
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * What a plan can do that needs an allowlist entry.
+     */
+    enum Issue {
+        /** Reads every row of a table. */
+        FULL_SCAN,
+        /** Has an {@code order by} that no index serves, so the matching rows are sorted. */
+        FILESORT
+    }
+
+    @BeforeEach
+    void seedDatabase() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("""
+                insert into vendors (id, vendor, is_active)
+                select cast(random_uuid() as binary(16)), 'Vendor ' || x, mod(x, 10) <> 0
+                from system_range(1, ?)""", SEEDED_VENDORS);
+        jdbcTemplate.update("""
+                insert into vendor_transactions (id, vendor_id, vendor_name, market_date, present)
+                select cast(random_uuid() as binary(16)), v.id, v.vendor, dateadd('week', d.x, date '2025-04-05'), true
+                from vendors v cross join system_range(0, ?) d""", SEEDED_MARKET_DAYS - 1);
+        jdbcTemplate.execute("analyze");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("shutdown");
+    }
+
+    /**
+     * Explains each captured statement and asserts that every scan or unindexed sort is
+     * allowlisted, and that every allowlist entry for a captured method is still needed.
+     */
+    @Test
+    void repositoryStatementsUseIndexes() throws IOException {
+        Path captureFile = CapturedStatements.captureFile();
+        assumeTrue(captureFile != null, "Run through the Gradle queryPlanTest task to capture statements");
+        List<CapturedStatement> statements = CapturedStatements.read(captureFile);
+        assertThat(statements).as("statements captured in %s", captureFile).isNotEmpty();
+
+        Set<String> allowed = allowlist();
+        Set<String> used = new HashSet<>();
+        List<String> violations = new ArrayList<>();
+        StringBuilder report = new StringBuilder();
+
+        for (CapturedStatement statement : statements) {
+            String plan = jdbcTemplate.queryForObject("explain " + statement.sql(), String.class);
+            Set<Issue> issues = issues(plan);
+            report.append("-- ").append(statement.caller()).append(' ').append(issues).append('\n')
+                    .append(statement.sql()).append('\n').append(plan).append("\n\n");
+            for (Issue issue : issues) {
+                String key = statement.caller() + " " + issue;
+                if (allowed.contains(key)) {
+                    used.add(key);
+                } else {
+                    violations.add(key + ": " + statement.sql() + "\n" + plan);
+                }
+            }
+        }
+        Path reportFile = captureFile.resolveSibling("plans.txt");
+        Files.writeString(reportFile, report, StandardCharsets.UTF_8);
+
+        assertThat(violations).as("statements with plans that are not allowlisted (all plans in %s)", reportFile)
+                .isEmpty();
+        // Entries for methods the suite never called cannot be judged either way
+        Set<String> called = new HashSet<>();
+        statements.forEach(statement -> called.add(statement.caller()));
+        List<String> stale = allowed.stream()
+                .filter(entry -> !used.contains(entry) && called.contains(entry.split(" ")[0]))
+                .toList();
+        assertThat(stale).as("allowlist entries no longer needed").isEmpty();
+    }
+
+    /**
+     * Finds the issues in an H2 plan. A sort counts as served by an index if any {@code order by}
+     * in the statement is, so a join that re-sorts an already limited page is not flagged.
+     */
+    static Set<Issue> issues(String plan) {
+        Set<Issue> issues = EnumSet.noneOf(Issue.class);
+        if (plan.contains(".tableScan */") && !plan.contains("/* direct lookup */")) {
+            issues.add(Issue.FULL_SCAN);
+        }
+        if (plan.toUpperCase(Locale.ROOT).contains("ORDER BY") && !plan.contains("/* index sorted */")) {
+            issues.add(Issue.FILESORT);
+        }
+        return issues;
+    }
+
+    /**
+     * Reads {@code <Repository>.<method> <ISSUE>} entries; anything after them on the line is the reason.
+     */
+    private static Set<String> allowlist() throws IOException {
+        Set<String> entries = new HashSet<>();
+        String content = new ClassPathResource("query-plan-allowlist.txt").getContentAsString(StandardCharsets.UTF_8);
+        for (String line : content.split("\n")) {
+            String entry = line.strip();
+            if (entry.isEmpty() || entry.startsWith("#")) {
+                continue;
+            }
+            String[] parts = entry.split("\\s+");
+            if (parts.length < 3) {
+                throw new IllegalArgumentException("Allowlist entry needs a method, an issue and a reason: " + entry);
+            }
+            entries.add(parts[0] + " " + Issue.valueOf(parts[1]));
+        }
+        return entries;
+    }
+}
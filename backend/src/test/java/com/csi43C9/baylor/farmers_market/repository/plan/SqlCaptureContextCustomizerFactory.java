@@ -0,0 +1,65 @@
+package com.csi43C9.baylor.farmers_market.repository.plan;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ContextConfigurationAttributes;
+import org.springframework.test.context.ContextCustomizer;
+import org.springframework.test.context.ContextCustomizerFactory;
+import org.springframework.test.context.MergedContextConfiguration;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Wraps the {@link DataSource} of every Spring test context in a {@link SqlCapturingDataSource}
+ * while statement capturing is on. Registered in {@code META-INF/spring.factories}.
+ */
+public class SqlCaptureContextCustomizerFactory implements ContextCustomizerFactory {
+
+    @Override
+    public ContextCustomizer createContextCustomizer(Class<?> testClass,
+                                                     List<ContextConfigurationAttributes> configAttributes) {
+        return CapturedStatements.captureFile() != null ? new SqlCaptureContextCustomizer() : null;
+    }
+
+    /**
+     * Registers {@link CapturingPostProcessor}. Stateless, so all instances are equal and do not
+     * split the test context cache.
+     */
+    private static final class SqlCaptureContextCustomizer implements ContextCustomizer {
+
+        @Override
+        public void customizeContext(ConfigurableApplicationContext context, MergedContextConfiguration config) {
+            if (context.getBeanFactory() instanceof BeanDefinitionRegistry registry) {
+                RootBeanDefinition definition = new RootBeanDefinition(CapturingPostProcessor.class);
+                definition.setRole(RootBeanDefinition.ROLE_INFRASTRUCTURE);
+                registry.registerBeanDefinition(CapturingPostProcessor.class.getName(), definition);
+            }
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof SqlCaptureContextCustomizer;
+        }
+
+        @Override
+        public int hashCode() {
+            return SqlCaptureContextCustomizer.class.hashCode();
+        }
+    }
+
+    /**
+     * Wraps each data source bean once it is initialized.
+     */
+    static final class CapturingPostProcessor implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            return bean instanceof DataSource dataSource && !(bean instanceof SqlCapturingDataSource)
+                    ? new SqlCapturingDataSource(dataSource)
+                    : bean;
+        }
+    }
+}
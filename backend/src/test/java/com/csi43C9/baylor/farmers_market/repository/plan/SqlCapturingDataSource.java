@@ -0,0 +1,72 @@
+package com.csi43C9.baylor.farmers_market.repository.plan;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * {@link DataSource} that passes the SQL of every statement prepared or executed on its
+ * connections to {@link CapturedStatements}.
+ */
+class SqlCapturingDataSource extends DelegatingDataSource {
+
+    private static final Set<String> PREPARING_METHODS = Set.of("prepareStatement", "prepareCall");
+    private static final Set<String> EXECUTING_METHODS =
+            Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "addBatch");
+
+    SqlCapturingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return capturing(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return capturing(super.getConnection(username, password));
+    }
+
+    private static Connection capturing(Connection connection) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            if (PREPARING_METHODS.contains(method.getName()) && args != null && args[0] instanceof String sql) {
+                CapturedStatements.record(sql);
+            }
+            Object result = invoke(connection, method, args);
+            return result instanceof Statement statement && "createStatement".equals(method.getName())
+                    ? capturing(statement)
+                    : result;
+        });
+    }
+
+    private static Statement capturing(Statement statement) {
+        return proxy(Statement.class, (proxy, method, args) -> {
+            if (EXECUTING_METHODS.contains(method.getName()) && args != null && args[0] instanceof String sql) {
+                CapturedStatements.record(sql);
+            }
+            return invoke(statement, method, args);
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(SqlCapturingDataSource.class.getClassLoader(),
+                new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.csi43C9.baylor.farmers_market.repository.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link ReadWriteRoutingConfig}.
+ * Verifies that the pools it builds honor Spring Boot's {@code spring.datasource.hikari.*} settings.
+ */
+class ReadWriteRoutingConfigTest {
+
+    /**
+     * Verifies that both pools take the Hikari settings, and that the replica's own settings override them.
+     */
+    @Test
+    void poolsAreConfiguredFromHikariProperties() throws Exception {
+        DataSourceProperties properties = new DataSourceProperties();
+        properties.setUrl("jdbc:h2:mem:primary");
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.datasource.hikari.maximum-pool-size", "25")
+                .withProperty("spring.datasource.hikari.connection-timeout", "4000")
+                .withProperty("spring.datasource.hikari.pool-name", "market")
+                .withProperty("farmers.market.datasource.replica.hikari.maximum-pool-size", "40");
+
+        try (ReadWriteRoutingDataSource routing = new ReadWriteRoutingConfig().readWriteRoutingDataSource(
+                properties, environment, "jdbc:h2:mem:replica", "sa", "", 5000, 30_000, "", 5000, 5000)) {
+            Map<Object, DataSource> pools = routing.getResolvedDataSources();
+            HikariDataSource primary = (HikariDataSource) pools.get(DataSourceRole.PRIMARY);
+            HikariDataSource replica = (HikariDataSource) pools.get(DataSourceRole.REPLICA);
+
+            assertThat(primary.getMaximumPoolSize()).isEqualTo(25);
+            assertThat(primary.getConnectionTimeout()).isEqualTo(4000);
+            assertThat(primary.getPoolName()).isEqualTo("market");
+            assertThat(replica.getMaximumPoolSize()).isEqualTo(40);
+            assertThat(replica.getConnectionTimeout()).isEqualTo(4000);
+            assertThat(replica.getPoolName()).isEqualTo("market-replica");
+            assertThat(replica.getJdbcUrl()).isEqualTo("jdbc:h2:mem:replica");
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.csi43C9.baylor.farmers_market.repository.routing;
+
+import com.csi43C9.baylor.farmers_market.entity.Vendor;
+import com.csi43C9.baylor.farmers_market.repository.VendorRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link ReadWriteRoutingDataSource} using two embedded databases as primary and replica.
+ * Each database is seeded with a differently named vendor so the tests can tell where a read went.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+    private VendorRepository vendorRepository;
+    private DataSource dataSource;
+
+    /**
+     * Creates both databases, seeds them, and wires a repository over the routing data source.
+     */
+    @BeforeEach
+    void setUp() {
+        primary = embedded("primary");
+        replica = embedded("replica");
+        new JdbcTemplate(primary).update("insert into vendors (id, vendor) values (random_uuid(), 'On Primary')");
+        new JdbcTemplate(replica).update("insert into vendors (id, vendor) values (random_uuid(), 'On Replica')");
+
+        useRouting(new ReadWriteRoutingDataSource(primary, replica, 60_000, 60_000));
+    }
+
+    /**
+     * Shuts down both embedded databases and clears any authentication.
+     */
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    /**
+     * Verifies that read-only repository methods are served by the replica.
+     */
+    @Test
+    void readsGoToReplica() {
+        assertThat(names(vendorRepository.findAll())).containsExactly("On Replica");
+        assertThat(vendorRepository.count()).isEqualTo(1);
+    }
+
+    /**
+     * Verifies that writes go to the primary.
+     */
+    @Test
+    void writesGoToPrimary() {
+        vendorRepository.save(Vendor.builder().vendorName("New Vendor").isActive(true).build());
+
+        Integer onPrimary = new JdbcTemplate(primary).queryForObject(
+                "select count(*) from vendors where vendor = 'New Vendor'", Integer.class);
+        assertThat(onPrimary).isEqualTo(1);
+    }
+
+    /**
+     * Verifies that @Transactional(readOnly = true) work is routed to the replica.
+     */
+    @Test
+    void readOnlyTransactionGoesToReplica() {
+        TransactionTemplate readOnly = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        readOnly.setReadOnly(true);
+
+        List<Vendor> vendors = readOnly.execute(status -> new JdbcTemplate(dataSource)
+                .query("select * from vendors", (rs, rowNum) -> Vendor.builder().vendorName(rs.getString("vendor")).build()));
+
+        assertThat(names(vendors)).containsExactly("On Replica");
+    }
+
+    /**
+     * Verifies that a client reads from the primary right after its own write.
+     */
+    @Test
+    void clientReadsItsOwnWritesFromPrimary() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "volunteer", null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+
+        UUID id = vendorRepository.save(Vendor.builder().vendorName("Just Written").isActive(true).build()).getId();
+
+        assertThat(vendorRepository.findById(id)).isPresent();
+        assertThat(names(vendorRepository.findAll())).containsExactlyInAnyOrder("On Primary", "Just Written");
+    }
+
+    /**
+     * Verifies that the route reported for reads sharing a call follows the client's own writes.
+     */
+    @Test
+    void readRoleFollowsClientWrites() {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replica, 60_000, 60_000);
+        useRouting(routing);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "volunteer", null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+
+        assertThat(routing.readRole()).isEqualTo(DataSourceRole.REPLICA);
+        vendorRepository.save(Vendor.builder().vendorName("Just Written").isActive(true).build());
+        assertThat(routing.readRole()).isEqualTo(DataSourceRole.PRIMARY);
+    }
+
+    /**
+     * Verifies that reads fall back to the primary when the replica cannot be reached.
+     */
+    @Test
+    void readsFallBackToPrimaryWhenReplicaFails() throws SQLException {
+        DataSource broken = mock(DataSource.class);
+        when(broken.getConnection()).thenThrow(new SQLException("replica down"));
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, broken, 60_000, 60_000);
+        useRouting(routing);
+
+        assertThat(names(vendorRepository.findAll())).containsExactly("On Primary");
+        assertThat(routing.isReplicaUsable()).isFalse();
+    }
+
+    private void useRouting(ReadWriteRoutingDataSource routing) {
+        dataSource = new LazyConnectionDataSourceProxy(routing);
+        vendorRepository = new TestVendorRepository(new JdbcTemplate(dataSource));
+    }
+
+    private static EmbeddedDatabase embedded(String name) {
+        return new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName(name + UUID.randomUUID())
+                .addScript("schema.sql")
+                .build();
+    }
+
+    private static List<String> names(List<Vendor> vendors) {
+        return vendors.stream().map(Vendor::getVendorName).toList();
+    }
+
+    /**
+     * Exposes the repository's protected constructor to the test.
+     */
+    private static final class TestVendorRepository extends VendorRepository {
+        TestVendorRepository(JdbcTemplate jdbcTemplate) {
+            super(jdbcTemplate);
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.csi43C9.baylor.farmers_market.security;
 
+import com.csi43C9.baylor.farmers_market.security.idempotency.IdempotencyFilter;
 import com.csi43C9.baylor.farmers_market.security.jwt.AuthEntryPointJwt;
 import com.csi43C9.baylor.farmers_market.security.jwt.JwtAuthFilter;
 import com.csi43C9.baylor.farmers_market.security.jwt.JwtUtil;
+import com.csi43C9.baylor.farmers_market.security.ratelimit.RateLimitFilter;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
@@ -29,7 +31,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  */
 @WebMvcTest(controllers = TestController.class) // Focuses Spring Boot tests on the web layer for TestController
 // Imports necessary security components to build the security context for testing
-@Import({SecurityConfig.class, AuthEntryPointJwt.class, JwtAuthFilter.class})
+@Import({SecurityConfig.class, AuthEntryPointJwt.class, JwtAuthFilter.class, RateLimitFilter.class,
+        IdempotencyFilter.class})
 class SecurityConfigTest {
 
     @Autowired
@@ -54,6 +57,17 @@ class SecurityConfigTest {
                 .andExpect(status().isOk());
     }
 
+    /**
+     * Tests that the readiness probe (`/actuator/health/readiness`) responds without a token,
+     * as load balancer and Kubernetes probes send none.
+     * @throws Exception if an error occurs during the mock MVC request.
+     */
+    @Test
+    void testHealthProbeIsPermittedWithoutAuth() throws Exception {
+        mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(status().isOk());
+    }
+
     /**
      * Tests that a protected endpoint (`/api/protected`) returns an HTTP 401 Unauthorized
      * status when no authentication token is provided.
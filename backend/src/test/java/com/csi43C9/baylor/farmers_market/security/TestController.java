@@ -30,4 +30,14 @@ public class TestController {
     public String protectedEndpoint() {
         return "Protected content";
     }
+
+    /**
+     * Stands in for the actuator's readiness probe, which is not part of the web test slice.
+     * Used to verify that probes are permitted without a token.
+     * @return a simple string indicating the probe's status.
+     */
+    @GetMapping("/actuator/health/readiness")
+    public String readinessProbe() {
+        return "UP";
+    }
 }
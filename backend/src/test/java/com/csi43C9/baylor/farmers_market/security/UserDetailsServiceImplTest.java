@@ -1,11 +1,17 @@
 package com.csi43C9.baylor.farmers_market.security;
 
+import com.csi43C9.baylor.farmers_market.tenant.Markets;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -25,7 +31,7 @@ class UserDetailsServiceImplTest {
      */
     @BeforeEach
     void setUp() {
-        userDetailsService = new UserDetailsServiceImpl();
+        userDetailsService = new UserDetailsServiceImpl(new Markets(List.of("north", "south")), List.of());
     }
 
     /**
@@ -69,4 +75,20 @@ class UserDetailsServiceImplTest {
         });
         assertThat(exception.getMessage()).isEqualTo("User not found with username: " + username);
     }
+
+    /**
+     * Verifies that the user is a member of the default market only, unless configured otherwise.
+     */
+    @Test
+    void testUserIsMemberOfConfiguredMarkets() {
+        assertThat(userDetailsService.loadUserByUsername("user").getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority).collect(Collectors.toSet()))
+                .isEqualTo(Set.of("ROLE_USER", "MARKET_north"));
+
+        UserDetailsServiceImpl configured = new UserDetailsServiceImpl(new Markets(List.of("north", "south")),
+                List.of("south", " "));
+        assertThat(configured.loadUserByUsername("user").getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority).collect(Collectors.toSet()))
+                .isEqualTo(Set.of("ROLE_USER", "MARKET_south"));
+    }
 }
@@ -0,0 +1,204 @@
+package com.csi43C9.baylor.farmers_market.security.idempotency;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link IdempotencyFilter}.
+ * Verifies replay of completed writes, rejection of reused keys, that server errors are not
+ * replayed, and that a concurrent duplicate waits for the first request or is told to retry.
+ */
+class IdempotencyFilterTest {
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * Verifies that a retry gets the first response, marked as replayed, without running again,
+     * and that another user's identical key is not shared.
+     */
+    @Test
+    void retryReplaysStoredResponse() throws Exception {
+        IdempotencyFilter filter = filter();
+        FilterChain chain = respond(201);
+
+        MockHttpServletResponse first = perform(filter, request("key-1", "{\"vendorName\":\"Farm\"}"), chain);
+        MockHttpServletResponse retry = perform(filter, request("key-1", "{\"vendorName\":\"Farm\"}"), chain);
+
+        assertThat(first.getStatus()).isEqualTo(201);
+        assertThat(first.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+        assertThat(retry.getStatus()).isEqualTo(201);
+        assertThat(retry.getContentAsString()).isEqualTo("{\"run\":1}");
+        assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(executions).hasValue(1);
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("bob", null, List.of()));
+        assertThat(perform(filter, request("key-1", "{\"vendorName\":\"Farm\"}"), chain).getContentAsString())
+                .isEqualTo("{\"run\":2}");
+    }
+
+    /**
+     * Verifies that reusing a key for a different body is rejected, and that reads and requests
+     * without a key always run.
+     */
+    @Test
+    void reusedKeyIsRejected() throws Exception {
+        IdempotencyFilter filter = filter();
+        FilterChain chain = respond(200);
+        perform(filter, request("key-1", "{\"vendorName\":\"Farm\"}"), chain);
+
+        MockHttpServletResponse reused = perform(filter, request("key-1", "{\"vendorName\":\"Bakery\"}"), chain);
+        MockHttpServletRequest read = request("key-1", "");
+        read.setMethod("GET");
+        perform(filter, read, chain);
+        perform(filter, request(null, "{\"vendorName\":\"Farm\"}"), chain);
+
+        assertThat(reused.getStatus()).isEqualTo(422);
+        assertThat(reused.getContentAsString()).contains("\"status\":422");
+        assertThat(executions).hasValue(3);
+    }
+
+    /**
+     * Verifies that a server error is not stored, so the retry runs again.
+     */
+    @Test
+    void serverErrorIsNotReplayed() throws Exception {
+        IdempotencyFilter filter = filter();
+
+        perform(filter, request("key-1", "{}"), respond(500));
+        MockHttpServletResponse retry = perform(filter, request("key-1", "{}"), respond(200));
+
+        assertThat(retry.getStatus()).isEqualTo(200);
+        assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+        assertThat(executions).hasValue(2);
+    }
+
+    /**
+     * Verifies that a duplicate sent while the first request runs waits for and replays its response.
+     */
+    @Test
+    void concurrentDuplicateWaitsForFirst() throws Exception {
+        IdempotencyFilter filter = filter();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain slowChain = (request, response) -> {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(200).doFilter(request, response);
+        };
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<MockHttpServletResponse> first = pool.submit(() -> perform(filter, request("key-1", "{}"), slowChain));
+            assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<MockHttpServletResponse> duplicate =
+                    pool.submit(() -> perform(filter, request("key-1", "{}"), slowChain));
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+            assertThat(duplicate.get(5, TimeUnit.SECONDS).getHeader(IdempotencyFilter.REPLAYED_HEADER))
+                    .isEqualTo("true");
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(executions).hasValue(1);
+    }
+
+    /**
+     * Verifies that without a wait, a duplicate sent while the first request runs gets 409 with
+     * Retry-After at once, and a retry after it finished gets the replayed response.
+     */
+    @Test
+    void concurrentDuplicateIsToldToRetryWithoutWait() throws Exception {
+        IdempotencyFilter filter = new IdempotencyFilter(true, 100, 60_000, 0);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain slowChain = (request, response) -> {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(200).doFilter(request, response);
+        };
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<MockHttpServletResponse> first = pool.submit(() -> perform(filter, request("key-1", "{}"), slowChain));
+            assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+            MockHttpServletResponse duplicate = perform(filter, request("key-1", "{}"), slowChain);
+            release.countDown();
+
+            assertThat(duplicate.getStatus()).isEqualTo(409);
+            assertThat(duplicate.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+            assertThat(first.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+            assertThat(perform(filter, request("key-1", "{}"), slowChain).getHeader(IdempotencyFilter.REPLAYED_HEADER))
+                    .isEqualTo("true");
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(executions).hasValue(1);
+    }
+
+    private static IdempotencyFilter filter() {
+        return new IdempotencyFilter(true, 100, 60_000, 5_000);
+    }
+
+    /**
+     * @return a chain that reads the body and answers with the given status and the number of the run.
+     */
+    private FilterChain respond(int status) {
+        return (request, response) -> {
+            request.getInputStream().readAllBytes();
+            int run = executions.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(status);
+            response.setContentType("application/json");
+            response.getOutputStream().write(("{\"run\":" + run + "}").getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    private static MockHttpServletResponse perform(IdempotencyFilter filter, MockHttpServletRequest request,
+                                                   FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String key, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/vendor");
+        request.setRemoteAddr("10.0.0.1");
+        if (key != null) {
+            request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key);
+        }
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -2,6 +2,7 @@ package com.csi43C9.baylor.farmers_market.security.jwt;
 
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
+import com.csi43C9.baylor.farmers_market.tenant.TenantContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -78,6 +79,16 @@ class JwtUtilTest {
         assertThat(expiration).isAfter(new Date());
     }
 
+    /**
+     * Tests that the market a token is issued for is extracted from it, and that a token issued
+     * without one is for the default market.
+     */
+    @Test
+    void testExtractMarket() {
+        assertThat(jwtUtil.extractMarket(jwtUtil.generateToken(userDetails, "north"))).isEqualTo("north");
+        assertThat(jwtUtil.extractMarket(jwtUtil.generateToken(userDetails))).isEqualTo(TenantContext.DEFAULT_MARKET);
+    }
+
     /**
      * Tests the validation of a valid JWT token against the correct UserDetails.
      * Asserts that the token is considered valid.
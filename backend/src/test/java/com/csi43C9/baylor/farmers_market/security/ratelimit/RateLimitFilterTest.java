@@ -0,0 +1,175 @@
+package com.csi43C9.baylor.farmers_market.security.ratelimit;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link RateLimitFilter}.
+ * Verifies per-client budgets, 429 responses with Retry-After and concurrency shedding.
+ */
+class RateLimitFilterTest {
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * Verifies that a client over its login budget receives 429 with a Retry-After header,
+     * while another address keeps its own budget.
+     */
+    @Test
+    void loginBudgetIsPerAddress() throws Exception {
+        RateLimitFilter filter = filter(2, 100, 10);
+
+        assertThat(login(filter, "10.0.0.1", "volunteer").getStatus()).isEqualTo(200);
+        assertThat(login(filter, "10.0.0.1", "volunteer").getStatus()).isEqualTo(200);
+        MockHttpServletResponse limited = login(filter, "10.0.0.1", "volunteer");
+
+        assertThat(limited.getStatus()).isEqualTo(429);
+        assertThat(limited.getHeader("Retry-After")).isEqualTo("10");
+        assertThat(limited.getContentAsString()).contains("\"status\":429");
+        assertThat(login(filter, "10.0.0.2", "volunteer").getStatus()).isEqualTo(200);
+    }
+
+    /**
+     * Verifies that users logging in from a shared address, e.g. behind NAT, each have their own
+     * login budget, that usernames are matched ignoring case, and that the body still reaches the handler.
+     */
+    @Test
+    void loginBudgetIsPerUsernameAtAnAddress() throws Exception {
+        RateLimitFilter filter = filter(1, 100, 10);
+
+        assertThat(login(filter, "10.0.0.1", "volunteer").getStatus()).isEqualTo(200);
+        assertThat(login(filter, "10.0.0.1", "Volunteer").getStatus()).isEqualTo(429);
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(loginRequest("10.0.0.1", "manager"), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(chain.getRequest().getInputStream().readAllBytes())
+                .asString(StandardCharsets.UTF_8)
+                .contains("\"manager\"");
+    }
+
+    /**
+     * Verifies that an address rotating usernames runs out of its address-wide login budget.
+     */
+    @Test
+    void rotatingUsernamesExhaustsAddressBudget() throws Exception {
+        RateLimitFilter filter = filter(2, 100, 10);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(login(filter, "10.0.0.1", "user" + i).getStatus()).isEqualTo(200);
+        }
+        MockHttpServletResponse limited = login(filter, "10.0.0.1", "user5");
+
+        assertThat(limited.getStatus()).isEqualTo(429);
+        assertThat(limited.getHeader("Retry-After")).isNotNull();
+        assertThat(login(filter, "10.0.0.2", "user5").getStatus()).isEqualTo(200);
+    }
+
+    /**
+     * Verifies that vendor API requests are keyed by principal and do not consume the login budget.
+     */
+    @Test
+    void vendorBudgetIsPerPrincipal() throws Exception {
+        RateLimitFilter filter = filter(1, 1, 10);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice", null, List.of()));
+
+        assertThat(perform(filter, "GET", "/api/vendor", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(perform(filter, "GET", "/api/vendor/abc", "10.0.0.2").getStatus()).isEqualTo(429);
+        assertThat(perform(filter, "POST", "/api/auth/login", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(perform(filter, "GET", "/api/vendors-report", "10.0.0.1").getStatus()).isEqualTo(200);
+    }
+
+    /**
+     * Verifies that requests beyond the concurrency limit are shed with 503, except report
+     * downloads, which do not count towards it.
+     */
+    @Test
+    void excessConcurrentRequestsAreShed() throws Exception {
+        RateLimitFilter filter = filter(100, 100, 1);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain slowChain = (request, response) -> {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            pool.submit(() -> {
+                filter.doFilter(request("GET", "/api/transaction", "10.0.0.1"), new MockHttpServletResponse(), slowChain);
+                return null;
+            });
+            assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+            MockHttpServletResponse shed = perform(filter, "GET", "/api/transaction", "10.0.0.2");
+            assertThat(shed.getStatus()).isEqualTo(503);
+            assertThat(shed.getHeader("Retry-After")).isEqualTo("1");
+            assertThat(perform(filter, "GET", "/api/report/" + UUID.randomUUID() + "/result", "10.0.0.2")
+                    .getStatus()).isEqualTo(200);
+        } finally {
+            release.countDown();
+            pool.shutdown();
+        }
+        assertThat(pool.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(perform(filter, "GET", "/api/transaction", "10.0.0.2").getStatus()).isEqualTo(200);
+    }
+
+    private static RateLimitFilter filter(double loginCapacity, double vendorCapacity, int maxConcurrent) {
+        return new RateLimitFilter(new ObjectMapper(), true, loginCapacity, 0.1, 5, 0.1, vendorCapacity, 0.1, 60_000,
+                maxConcurrent, 10);
+    }
+
+    private static MockHttpServletResponse perform(RateLimitFilter filter, String method, String uri, String address)
+            throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(method, uri, address), response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletResponse login(RateLimitFilter filter, String address, String username)
+            throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(loginRequest(address, username), response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest loginRequest(String address, String username) {
+        MockHttpServletRequest request = request("POST", "/api/auth/login", address);
+        request.setContentType("application/json");
+        request.setContent(("{\"username\":\"" + username + "\",\"password\":\"secret\"}")
+                .getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private static MockHttpServletRequest request(String method, String uri, String address) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(address);
+        return request;
+    }
+}
@@ -0,0 +1,47 @@
+package com.csi43C9.baylor.farmers_market.security.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link TokenBucket}.
+ * Verifies burst capacity, continuous refill and the reported wait time.
+ */
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Verifies that a new bucket allows a full burst and then reports how long to wait.
+     */
+    @Test
+    void burstThenReportsWait() {
+        TokenBucket bucket = new TokenBucket(3, 1, 0);
+
+        assertThat(bucket.tryConsume(0)).isZero();
+        assertThat(bucket.tryConsume(0)).isZero();
+        assertThat(bucket.tryConsume(0)).isZero();
+
+        assertThat(bucket.tryConsume(0)).isEqualTo(SECOND);
+        assertThat(bucket.tryConsume(SECOND / 2)).isEqualTo(SECOND / 2);
+    }
+
+    /**
+     * Verifies that tokens refill over time but never beyond the capacity.
+     */
+    @Test
+    void refillIsCappedAtCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 10, 0);
+        bucket.tryConsume(0);
+        bucket.tryConsume(0);
+
+        long later = 60 * SECOND;
+        assertThat(bucket.tryConsume(later)).isZero();
+        assertThat(bucket.tryConsume(later)).isZero();
+        assertThat(bucket.tryConsume(later)).isPositive();
+        assertThat(bucket.lastUsedNanos()).isEqualTo(later);
+    }
+}
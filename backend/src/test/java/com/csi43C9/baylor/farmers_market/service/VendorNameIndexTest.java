@@ -0,0 +1,97 @@
+package com.csi43C9.baylor.farmers_market.service;
+
+import com.csi43C9.baylor.farmers_market.repository.VendorRepository;
+import com.csi43C9.baylor.farmers_market.tenant.Markets;
+import com.csi43C9.baylor.farmers_market.tenant.TenantContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link VendorNameIndex}.
+ * Verifies that names match ignoring case and spacing, that renames release the old name, that
+ * markets have separate names, and that the index grows past its initial Bloom filter.
+ */
+@ExtendWith(MockitoExtension.class)
+class VendorNameIndexTest {
+
+    @Mock
+    private VendorRepository vendorRepository;
+
+    @Mock
+    private Markets markets;
+
+    @InjectMocks
+    private VendorNameIndex index;
+
+    /**
+     * Verifies that names loaded from the database are found ignoring case and spacing, and loaded only once.
+     */
+    @Test
+    void findsLoadedNamesIgnoringCaseAndSpacing() {
+        UUID id = UUID.randomUUID();
+        when(vendorRepository.findAllNames()).thenReturn(Map.of(id, "Green  Acres Farm"));
+
+        assertThat(index.find(" green acres FARM ")).contains(id);
+        assertThat(index.find("Green Acres")).isEmpty();
+        verify(vendorRepository).findAllNames();
+    }
+
+    /**
+     * Verifies that renaming a vendor frees its previous name for other vendors.
+     */
+    @Test
+    void renameReleasesPreviousName() {
+        UUID id = UUID.randomUUID();
+        when(vendorRepository.findAllNames()).thenReturn(Map.of(id, "Old Name"));
+
+        index.put(id, "New Name");
+
+        assertThat(index.find("old name")).isEmpty();
+        assertThat(index.find("new name")).contains(id);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    /**
+     * Verifies that a name taken in one market is still free in another.
+     */
+    @Test
+    void marketsHaveSeparateNames() {
+        UUID id = UUID.randomUUID();
+        when(vendorRepository.findAllNames()).thenReturn(Map.of());
+
+        TenantContext.run("north", () -> index.put(id, "Green Acres"));
+
+        assertThat(TenantContext.call("north", () -> index.find("green acres"))).contains(id);
+        assertThat(TenantContext.call("south", () -> index.find("green acres"))).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    /**
+     * Verifies that every name stays findable after more are added than the filter was first sized for.
+     */
+    @Test
+    void growsPastInitialCapacity() {
+        when(vendorRepository.findAllNames()).thenReturn(Map.of());
+        Map<UUID, String> added = new HashMap<>();
+        for (int i = 0; i < 5_000; i++) {
+            UUID id = UUID.randomUUID();
+            added.put(id, "Vendor " + i);
+            index.put(id, "Vendor " + i);
+        }
+
+        assertThat(index.size()).isEqualTo(5_000);
+        added.forEach((id, vendorName) -> assertThat(index.find(vendorName)).contains(id));
+        assertThat(index.find("Vendor 5000")).isEmpty();
+    }
+}
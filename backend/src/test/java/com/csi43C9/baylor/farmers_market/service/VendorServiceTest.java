@@ -1,20 +1,51 @@
 package com.csi43C9.baylor.farmers_market.service;
 
 import com.csi43C9.baylor.farmers_market.dto.PagedResponse;
+import com.csi43C9.baylor.farmers_market.dto.vendor.BulkVendorUpdateRequest;
+import com.csi43C9.baylor.farmers_market.dto.vendor.BulkVendorUpdateResponse;
 import com.csi43C9.baylor.farmers_market.dto.vendor.SaveVendorRequest;
+import com.csi43C9.baylor.farmers_market.dto.vendor.VendorChangesResponse;
+import com.csi43C9.baylor.farmers_market.dto.vendor.VendorDelta;
 import com.csi43C9.baylor.farmers_market.entity.Vendor;
+import com.csi43C9.baylor.farmers_market.entity.VendorChange;
+import com.csi43C9.baylor.farmers_market.entity.VendorChangeOperation;
+import com.csi43C9.baylor.farmers_market.entity.VendorFlag;
+import com.csi43C9.baylor.farmers_market.exception.DuplicateVendorException;
+import com.csi43C9.baylor.farmers_market.repository.VendorChangeRepository;
 import com.csi43C9.baylor.farmers_market.repository.VendorRepository;
+import com.csi43C9.baylor.farmers_market.repository.routing.DataSourceRole;
+import com.csi43C9.baylor.farmers_market.repository.routing.ReadWriteRoutingDataSource;
+import com.csi43C9.baylor.farmers_market.service.cache.VendorCache;
+import com.csi43C9.baylor.farmers_market.service.cache.VendorDirectory;
+import com.csi43C9.baylor.farmers_market.service.writebehind.WriteBehindBuffer;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -28,6 +59,27 @@ class VendorServiceTest {
     @Mock
     private VendorRepository vendorRepository;
 
+    @Mock
+    private VendorChangeRepository vendorChangeRepository;
+
+    @Mock
+    private WriteBehindBuffer writeBehindBuffer;
+
+    @Mock
+    private VendorNameIndex vendorNameIndex;
+
+    @Spy
+    private VendorCache vendorCache = new VendorCache(100, 60_000, 60_000);
+
+    @Mock
+    private VendorDirectory vendorDirectory;
+
+    @Mock
+    private ObjectProvider<ReadWriteRoutingDataSource> readRouting;
+
+    @Spy
+    private TransactionOperations transactionOperations = TransactionOperations.withoutTransaction();
+
     @InjectMocks
     private VendorService vendorService;
 
@@ -42,13 +94,67 @@ class VendorServiceTest {
         request.setPointPerson("Judge Baylor");
         request.setEmail("judge@baylor.edu");
 
-        when(vendorRepository.save(any(Vendor.class))).thenAnswer(i -> i.getArguments()[0]);
+        when(vendorRepository.save(any(Vendor.class))).thenAnswer(i -> {
+            Vendor vendor = i.getArgument(0);
+            vendor.setId(UUID.randomUUID());
+            return vendor;
+        });
 
         Vendor result = vendorService.create(request);
 
         assertThat(result.getVendorName()).isEqualTo(request.getVendorName());
         assertThat(result.getPointPerson()).isEqualTo(request.getPointPerson());
         verify(vendorRepository).save(any(Vendor.class));
+        verify(vendorChangeRepository).append(List.of(result.getId()), VendorChangeOperation.CREATED);
+        verify(vendorNameIndex).put(result.getId(), "Mclane Stadium Market");
+    }
+
+    /**
+     * Verifies that creating a vendor whose name is taken is rejected from the name index,
+     * without a statement being sent.
+     */
+    @Test
+    void createRejectsDuplicateNameWithoutSaving() {
+        UUID existing = UUID.randomUUID();
+        SaveVendorRequest request = new SaveVendorRequest();
+        request.setVendorName("Green Acres");
+        when(vendorNameIndex.find("Green Acres")).thenReturn(Optional.of(existing));
+
+        assertThatThrownBy(() -> vendorService.create(request))
+                .isInstanceOf(DuplicateVendorException.class)
+                .hasMessage("A vendor named 'Green Acres' already exists")
+                .extracting("existingId").isEqualTo(existing);
+        verify(vendorRepository, never()).save(any(Vendor.class));
+    }
+
+    /**
+     * Verifies that an upsert by name updates the vendor holding the name, and creates one if none does.
+     */
+    @Test
+    void upsertByNameUpdatesExistingOrCreates() {
+        UUID existing = UUID.randomUUID();
+        SaveVendorRequest request = new SaveVendorRequest();
+        request.setVendorName("Green Acres");
+        when(vendorNameIndex.find("green acres")).thenReturn(Optional.of(existing));
+        when(vendorNameIndex.find("Green Acres")).thenReturn(Optional.of(existing));
+        when(vendorNameIndex.find("Blue Sky")).thenReturn(Optional.empty());
+        when(vendorRepository.update(any(Vendor.class))).thenReturn(1);
+        when(vendorRepository.save(any(Vendor.class))).thenAnswer(i -> {
+            Vendor vendor = i.getArgument(0);
+            vendor.setId(UUID.randomUUID());
+            return vendor;
+        });
+
+        VendorService.UpsertResult updated = vendorService.upsertByName("green acres", request);
+        request.setVendorName("Blue Sky");
+        VendorService.UpsertResult created = vendorService.upsertByName("Blue Sky", request);
+
+        assertThat(updated.created()).isFalse();
+        assertThat(updated.vendor().getId()).isEqualTo(existing);
+        assertThat(created.created()).isTrue();
+        assertThat(created.vendor().getId()).isNotEqualTo(existing);
+        verify(vendorChangeRepository).append(List.of(existing), VendorChangeOperation.UPDATED);
+        verify(vendorChangeRepository).append(List.of(created.vendor().getId()), VendorChangeOperation.CREATED);
     }
 
     /**
@@ -69,6 +175,25 @@ class VendorServiceTest {
         assertThat(result.getData()).hasSize(1);
     }
 
+    /**
+     * Verifies that with the directory enabled, pages are cut from its snapshot without a query,
+     * and that a write has it rebuilt.
+     */
+    @Test
+    void getVendorsServesDirectorySnapshotWhenEnabled() {
+        Vendor vendor = Vendor.builder().id(UUID.randomUUID()).vendorName("Green Acres").isActive(true).build();
+        when(vendorDirectory.isEnabled()).thenReturn(true);
+        when(vendorDirectory.snapshot()).thenReturn(new VendorDirectory.Snapshot(List.of(vendor), 0, 0));
+
+        PagedResponse<Vendor> result = vendorService.getVendors(0, 10);
+        vendorService.delete(vendor.getId());
+
+        assertThat(result.getData()).containsExactly(vendor);
+        assertThat(result.getTotalElements()).isEqualTo(1);
+        verify(vendorRepository, never()).findAllPaged(anyInt(), anyInt());
+        verify(vendorDirectory).invalidate();
+    }
+
     /**
      * Verifies that the service calls the repository's findById() method with the correct ID.
      */
@@ -79,6 +204,25 @@ class VendorServiceTest {
         verify(vendorRepository).findById(id);
     }
 
+    /**
+     * Verifies that a vendor is read once while cached, and read again after this instance deletes it.
+     */
+    @Test
+    void getServesCachedVendorUntilItIsWritten() {
+        UUID id = UUID.randomUUID();
+        Vendor stored = Vendor.builder().id(id).vendorName("Cached Farms").isActive(true).build();
+        when(vendorRepository.findById(id)).thenReturn(Optional.of(stored));
+        vendorCache.caughtUp(0);
+
+        assertThat(vendorService.get(id)).contains(stored);
+        assertThat(vendorService.get(id)).contains(stored);
+        verify(vendorRepository, times(1)).findById(id);
+
+        vendorService.delete(id);
+        vendorService.get(id);
+        verify(vendorRepository, times(2)).findById(id);
+    }
+
     /**
      * Verifies that the service calls the repository's deleteById() method with the correct ID.
      */
@@ -87,5 +231,194 @@ class VendorServiceTest {
         UUID id = UUID.randomUUID();
         vendorService.delete(id);
         verify(vendorRepository).deleteById(id);
+        verify(vendorChangeRepository).append(List.of(id), VendorChangeOperation.DELETED);
+    }
+
+    /**
+     * Verifies that in write-behind mode an update is queued instead of saved directly, and that
+     * cached reads of the vendor and the vendor directory are invalidated as for a direct update.
+     */
+    @Test
+    void updateVendorIsQueuedInWriteBehindMode() {
+        UUID id = UUID.randomUUID();
+        SaveVendorRequest request = new SaveVendorRequest();
+        request.setVendorName("Queued Farms");
+        when(writeBehindBuffer.isEnabled()).thenReturn(true);
+        when(vendorRepository.findById(id)).thenReturn(Optional.of(Vendor.builder().id(id).build()));
+
+        Vendor result = vendorService.update(id, request).orElseThrow();
+
+        assertThat(result.getId()).isEqualTo(id);
+        verify(writeBehindBuffer).enqueueVendorUpdate(result);
+        verify(vendorRepository, never()).update(any(Vendor.class));
+        verify(vendorChangeRepository, never()).append(any(), any());
+        verify(vendorCache).invalidate(id);
+        verify(vendorDirectory).invalidate();
+    }
+
+    /**
+     * Verifies that updating an unknown vendor in write-behind mode queues nothing.
+     */
+    @Test
+    void updateUnknownVendorIsNotQueuedInWriteBehindMode() {
+        UUID id = UUID.randomUUID();
+        SaveVendorRequest request = new SaveVendorRequest();
+        request.setVendorName("Missing Farms");
+        when(writeBehindBuffer.isEnabled()).thenReturn(true);
+        when(vendorRepository.findById(id)).thenReturn(Optional.empty());
+
+        assertThat(vendorService.update(id, request)).isEmpty();
+        verify(writeBehindBuffer, never()).enqueueVendorUpdate(any());
+        verify(vendorNameIndex, never()).put(any(), any());
+    }
+
+    /**
+     * Verifies that updating an unknown vendor directly logs no change.
+     */
+    @Test
+    void updateUnknownVendorLogsNothing() {
+        UUID id = UUID.randomUUID();
+        SaveVendorRequest request = new SaveVendorRequest();
+        request.setVendorName("Missing Farms");
+        when(vendorRepository.update(any(Vendor.class))).thenReturn(0);
+
+        assertThat(vendorService.update(id, request)).isEmpty();
+        verify(vendorChangeRepository, never()).append(any(), any());
+        verify(vendorNameIndex, never()).put(any(), any());
+    }
+
+    /**
+     * Verifies that a read routed to the primary, e.g. for a client that has just written, does not
+     * join a concurrent read of the same vendor routed to the replica.
+     */
+    @Test
+    void getVendorDoesNotShareReadsAcrossRoutes() throws Exception {
+        UUID id = UUID.randomUUID();
+        Vendor stale = Vendor.builder().id(id).vendorName("Old Name").build();
+        Vendor fresh = Vendor.builder().id(id).vendorName("New Name").build();
+        ReadWriteRoutingDataSource routing = mock(ReadWriteRoutingDataSource.class);
+        when(readRouting.getIfAvailable()).thenReturn(routing);
+        when(routing.readRole()).thenReturn(DataSourceRole.REPLICA, DataSourceRole.PRIMARY);
+        CountDownLatch replicaReadStarted = new CountDownLatch(1);
+        CountDownLatch releaseReplicaRead = new CountDownLatch(1);
+        when(vendorRepository.findById(id)).thenAnswer(invocation -> {
+            replicaReadStarted.countDown();
+            releaseReplicaRead.await();
+            return Optional.of(stale);
+        }).thenReturn(Optional.of(fresh));
+
+        CompletableFuture<Optional<Vendor>> replicaRead = CompletableFuture.supplyAsync(() -> vendorService.get(id));
+        assertThat(replicaReadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Optional<Vendor>> primaryRead = CompletableFuture.supplyAsync(() -> vendorService.get(id));
+
+        assertThat(primaryRead.get(5, TimeUnit.SECONDS)).contains(fresh);
+        releaseReplicaRead.countDown();
+        assertThat(replicaRead.get(5, TimeUnit.SECONDS)).contains(stale);
+        verify(vendorRepository, times(2)).findById(id);
+    }
+
+    /**
+     * Verifies that a vendor update still waiting in the write-behind queue is returned
+     * instead of the stored row.
+     */
+    @Test
+    void getVendorPrefersPendingWriteBehindUpdate() {
+        UUID id = UUID.randomUUID();
+        Vendor pending = Vendor.builder().id(id).vendorName("Pending Name").build();
+        when(writeBehindBuffer.pendingVendor(id)).thenReturn(Optional.of(pending));
+
+        assertThat(vendorService.get(id)).contains(pending);
+        verify(vendorRepository, never()).findById(id);
+    }
+
+    /**
+     * Verifies that getAll() resolves vendors with one repository call, in request order.
+     */
+    @Test
+    void getAllLoadsVendorsInOneBatch() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        Vendor vendorA = Vendor.builder().id(first).vendorName("A").build();
+        Vendor vendorB = Vendor.builder().id(second).vendorName("B").build();
+        when(vendorRepository.findAllById(List.of(second, first))).thenReturn(List.of(vendorA, vendorB));
+
+        List<Vendor> result = vendorService.getAll(List.of(second, first, second));
+
+        assertThat(result).containsExactly(vendorB, vendorA);
+        verify(vendorRepository).findAllById(List.of(second, first));
+    }
+
+    /**
+     * Verifies that several changes to one vendor are returned as one delta, that a vendor created
+     * and then updated since the last sync is reported as created, and that deleted vendors carry
+     * no payload.
+     */
+    @Test
+    void getChangesCompactsChangesPerVendor() {
+        UUID created = UUID.randomUUID();
+        UUID deleted = UUID.randomUUID();
+        Vendor createdVendor = Vendor.builder().id(created).vendorName("New Farm").build();
+        when(vendorChangeRepository.state()).thenReturn(new VendorChangeRepository.LogState(14, 5));
+        when(vendorChangeRepository.findAfter(10, 100)).thenReturn(List.of(
+                change(11, created, VendorChangeOperation.CREATED),
+                change(12, deleted, VendorChangeOperation.UPDATED),
+                change(13, created, VendorChangeOperation.UPDATED),
+                change(14, deleted, VendorChangeOperation.DELETED)));
+        when(vendorRepository.findAllById(List.of(created))).thenReturn(List.of(createdVendor));
+
+        VendorChangesResponse response = vendorService.getChanges(10, 100);
+
+        assertThat(response.isFullResync()).isFalse();
+        assertThat(response.isHasMore()).isFalse();
+        assertThat(response.getNextSince()).isEqualTo(14);
+        assertThat(response.getChanges()).containsExactly(
+                new VendorDelta(13, created, VendorChangeOperation.CREATED, createdVendor),
+                new VendorDelta(14, deleted, VendorChangeOperation.DELETED, null));
+    }
+
+    /**
+     * Verifies that a client behind the pruned part of the log, or syncing for the first time,
+     * is told to resync in full without reading the log.
+     */
+    @Test
+    void getChangesRequestsFullResyncWhenLogWasPruned() {
+        when(vendorChangeRepository.state()).thenReturn(new VendorChangeRepository.LogState(40, 20));
+
+        VendorChangesResponse behind = vendorService.getChanges(19, 100);
+        VendorChangesResponse first = vendorService.getChanges(0, 100);
+
+        assertThat(behind.isFullResync()).isTrue();
+        assertThat(behind.getNextSince()).isEqualTo(40);
+        assertThat(behind.getChanges()).isEmpty();
+        assertThat(first.isFullResync()).isTrue();
+        verify(vendorChangeRepository, never()).findAfter(anyLong(), anyInt());
+    }
+
+    /**
+     * Verifies that a bulk deactivation is split into chunks, each logged as deletions, and that
+     * only vendors actually changed are counted.
+     */
+    @Test
+    void bulkUpdateRunsInChunksAndCountsChangedVendors() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 1_200; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        BulkVendorUpdateRequest request = new BulkVendorUpdateRequest();
+        request.setIds(ids);
+        request.setFlags(Map.of(VendorFlag.ACTIVE, false));
+        when(vendorRepository.updateFlags(anyList(), any())).thenAnswer(i -> List.of(i.<List<UUID>>getArgument(0).getFirst()));
+
+        BulkVendorUpdateResponse response = vendorService.bulkUpdate(request);
+
+        assertThat(response.getMatched()).isEqualTo(1_200);
+        assertThat(response.getChunks()).isEqualTo(3);
+        assertThat(response.getUpdated()).isEqualTo(3);
+        verify(vendorRepository).updateFlags(ids.subList(1_000, 1_200), request.getFlags());
+        verify(vendorChangeRepository, times(3)).append(anyList(), eq(VendorChangeOperation.DELETED));
+    }
+
+    private static VendorChange change(long seq, UUID vendorId, VendorChangeOperation operation) {
+        return VendorChange.builder().seq(seq).vendorId(vendorId).operation(operation).build();
     }
 }
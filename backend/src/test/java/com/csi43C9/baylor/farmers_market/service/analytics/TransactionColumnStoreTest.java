@@ -0,0 +1,168 @@
+package com.csi43C9.baylor.farmers_market.service.analytics;
+
+import com.csi43C9.baylor.farmers_market.entity.VendorTransaction;
+import com.csi43C9.baylor.farmers_market.repository.VendorTransactionRepository;
+import com.csi43C9.baylor.farmers_market.service.writebehind.WriteBehindBuffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link TransactionColumnStore}.
+ * Verifies filtered and grouped aggregates, that writes replace a vendor's row, and that
+ * reloads keep queued writes.
+ */
+@ExtendWith(MockitoExtension.class)
+class TransactionColumnStoreTest {
+
+    private static final LocalDate JUNE_7 = LocalDate.of(2025, 6, 7);
+    private static final LocalDate JUNE_14 = LocalDate.of(2025, 6, 14);
+    private static final LocalDate JULY_5 = LocalDate.of(2025, 7, 5);
+
+    @Mock
+    private VendorTransactionRepository transactionRepository;
+
+    @Mock
+    private WriteBehindBuffer writeBehindBuffer;
+
+    private TransactionColumnStore store;
+    private final UUID farm = UUID.randomUUID();
+    private final UUID bakery = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        store = new TransactionColumnStore(transactionRepository, writeBehindBuffer, 3_600_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.shutdown();
+    }
+
+    /**
+     * Verifies sums, counts and averages per month, with a missing value counted as a row but
+     * not in the average.
+     */
+    @Test
+    void aggregatesByMonth() {
+        stored(JUNE_7, transaction(farm, JUNE_7, true, 10.0, 4L), transaction(bakery, JUNE_7, true, null, 2L));
+        stored(JUNE_14, transaction(farm, JUNE_14, true, 20.0, 6L));
+        stored(JULY_5, transaction(bakery, JULY_5, false, 5.0, null));
+
+        Map<String, TransactionAggregate> snap = store.query(query(TransactionMeasure.SNAP, TransactionGrouping.MONTH));
+        Map<String, TransactionAggregate> customers =
+                store.query(query(TransactionMeasure.EST_NUM_TRANSACTIONS, TransactionGrouping.NONE));
+
+        assertThat(snap).containsExactly(
+                Map.entry("2025-06", new TransactionAggregate(3, 2, 30.0, 15.0)),
+                Map.entry("2025-07", new TransactionAggregate(1, 1, 5.0, 5.0)));
+        assertThat(customers).containsExactly(Map.entry("all", new TransactionAggregate(4, 3, 12.0, 4.0)));
+    }
+
+    /**
+     * Verifies the date range, vendor and attendance filters, and grouping by vendor.
+     */
+    @Test
+    void filtersAndGroupsByVendor() {
+        stored(JUNE_7, transaction(farm, JUNE_7, true, 10.0, null), transaction(bakery, JUNE_7, false, 3.0, null));
+        stored(JUNE_14, transaction(farm, JUNE_14, true, 20.0, null), transaction(bakery, JUNE_14, true, 7.0, null));
+        when(transactionRepository.findMarketDates()).thenReturn(List.of(JUNE_7, JUNE_14, JULY_5));
+
+        Map<String, TransactionAggregate> byVendor = store.query(TransactionQuery.builder()
+                .measure(TransactionMeasure.SNAP)
+                .groupBy(TransactionGrouping.VENDOR)
+                .to(JUNE_14)
+                .presentOnly(true)
+                .build());
+        Map<String, TransactionAggregate> bakeryOnly = store.query(TransactionQuery.builder()
+                .measure(TransactionMeasure.SNAP)
+                .groupBy(TransactionGrouping.MARKET_DATE)
+                .from(JUNE_7)
+                .to(JUNE_14)
+                .vendorIds(Set.of(bakery))
+                .build());
+
+        assertThat(byVendor).containsOnly(
+                Map.entry(farm.toString(), new TransactionAggregate(2, 2, 30.0, 15.0)),
+                Map.entry(bakery.toString(), new TransactionAggregate(1, 1, 7.0, 7.0)));
+        assertThat(bakeryOnly).containsExactly(
+                Map.entry(JUNE_7.toString(), new TransactionAggregate(1, 1, 3.0, 3.0)),
+                Map.entry(JUNE_14.toString(), new TransactionAggregate(1, 1, 7.0, 7.0)));
+        verify(transactionRepository, never()).findAllByMarketDate(JULY_5);
+    }
+
+    /**
+     * Verifies that recording a vendor again replaces its row, and that a day first seen through
+     * a write is loaded before the write is applied.
+     */
+    @Test
+    void applyReplacesVendorRow() {
+        stored(JUNE_7, transaction(farm, JUNE_7, true, 10.0, null));
+        stored(JUNE_14);
+        when(transactionRepository.findMarketDates()).thenReturn(List.of(JUNE_7));
+
+        store.apply(transaction(bakery, JUNE_7, true, 5.0, null));
+        store.apply(transaction(bakery, JUNE_7, true, 8.0, null));
+        store.apply(transaction(farm, JUNE_14, true, 1.0, null));
+
+        assertThat(store.query(query(TransactionMeasure.SNAP, TransactionGrouping.MARKET_DATE))).containsExactly(
+                Map.entry(JUNE_7.toString(), new TransactionAggregate(2, 2, 18.0, 9.0)),
+                Map.entry(JUNE_14.toString(), new TransactionAggregate(1, 1, 1.0, 1.0)));
+    }
+
+    /**
+     * Verifies that a refresh picks up stored changes but keeps a vendor's write still queued by write-behind.
+     */
+    @Test
+    void refreshKeepsQueuedWrites() {
+        when(transactionRepository.findMarketDates()).thenReturn(List.of(JUNE_7));
+        when(transactionRepository.findAllByMarketDate(JUNE_7))
+                .thenReturn(List.of(transaction(farm, JUNE_7, true, 10.0, null)))
+                .thenReturn(List.of(transaction(farm, JUNE_7, true, 12.0, null)));
+        VendorTransaction queued = transaction(bakery, JUNE_7, true, 5.0, null);
+        store.apply(queued);
+        when(writeBehindBuffer.pendingTransaction(any(), any())).thenReturn(Optional.empty());
+        when(writeBehindBuffer.pendingTransaction(bakery, JUNE_7)).thenReturn(Optional.of(queued));
+
+        store.refresh();
+
+        assertThat(store.query(query(TransactionMeasure.SNAP, TransactionGrouping.NONE)))
+                .containsExactly(Map.entry("all", new TransactionAggregate(2, 2, 17.0, 8.5)));
+    }
+
+    private void stored(LocalDate marketDate, VendorTransaction... transactions) {
+        when(transactionRepository.findAllByMarketDate(marketDate)).thenReturn(List.of(transactions));
+        when(transactionRepository.findMarketDates()).thenReturn(List.of(JUNE_7, JUNE_14, JULY_5));
+    }
+
+    private static TransactionQuery query(TransactionMeasure measure, TransactionGrouping groupBy) {
+        return TransactionQuery.builder().measure(measure).groupBy(groupBy).build();
+    }
+
+    private static VendorTransaction transaction(UUID vendorId, LocalDate marketDate, boolean present, Double snap,
+                                                 Long customers) {
+        return VendorTransaction.builder()
+                .vendorId(vendorId)
+                .marketDate(marketDate)
+                .present(present)
+                .snap(snap)
+                .estNumTransactions(customers)
+                .build();
+    }
+}
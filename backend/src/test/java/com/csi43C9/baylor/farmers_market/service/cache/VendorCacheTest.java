@@ -0,0 +1,129 @@
+package com.csi43C9.baylor.farmers_market.service.cache;
+
+import com.csi43C9.baylor.farmers_market.entity.Vendor;
+import com.csi43C9.baylor.farmers_market.entity.VendorChange;
+import com.csi43C9.baylor.farmers_market.entity.VendorChangeOperation;
+import com.csi43C9.baylor.farmers_market.tenant.TenantContext;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link VendorCache}.
+ * Verifies that loads racing a write are not stored, that markets are cached separately, and that
+ * the cache is bypassed while the change log poller is behind.
+ */
+class VendorCacheTest {
+
+    private final VendorCache cache = new VendorCache(100, 60_000, 60_000);
+    private final UUID id = UUID.randomUUID();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    /**
+     * Verifies that a load started before a write was seen is returned but not cached, while one
+     * started after it is.
+     */
+    @Test
+    void loadRacingAWriteIsNotStored() {
+        Vendor before = vendor("Before");
+        Vendor after = vendor("After");
+        cache.caughtUp(5);
+
+        Optional<Vendor> raced = cache.get(id, () -> {
+            cache.vendorsChanged(List.of(change(6)));
+            return load(before).get();
+        });
+        assertThat(raced).contains(before);
+        assertThat(cache.get(id, load(after))).contains(after);
+        assertThat(loads).hasValue(2);
+
+        cache.caughtUp(6);
+        assertThat(cache.get(id, load(after))).contains(after);
+        assertThat(cache.get(id, load(after))).contains(after);
+        assertThat(loads).hasValue(3);
+    }
+
+    /**
+     * Verifies that a change log entry for a vendor cached after the write leaves it cached.
+     */
+    @Test
+    void entryLoadedAfterTheWriteSurvivesItsInvalidation() {
+        cache.caughtUp(6);
+        cache.get(id, load(vendor("After")));
+
+        cache.vendorsChanged(List.of(change(6)));
+
+        assertThat(cache.get(id, load(vendor("Other")))).get().extracting(Vendor::getVendorName).isEqualTo("After");
+        assertThat(loads).hasValue(1);
+    }
+
+    /**
+     * Verifies that the same id is cached separately per market.
+     */
+    @Test
+    void marketsAreCachedSeparately() {
+        cache.caughtUp(0);
+        TenantContext.run("north", () -> cache.get(id, load(vendor("North"))));
+
+        Optional<Vendor> south = TenantContext.call("south", () -> cache.get(id, load(vendor("South"))));
+
+        assertThat(south).get().extracting(Vendor::getVendorName).isEqualTo("South");
+        assertThat(loads).hasValue(2);
+    }
+
+    /**
+     * Verifies that every read goes to the database until the poller has caught up, and again once
+     * it has fallen further behind than the staleness bound.
+     */
+    @Test
+    void bypassedWhilePollerIsBehind() throws InterruptedException {
+        VendorCache bounded = new VendorCache(100, 60_000, 1);
+
+        bounded.get(id, load(vendor("First")));
+        bounded.caughtUp(0);
+        Thread.sleep(10);
+        bounded.get(id, load(vendor("Second")));
+
+        assertThat(loads).hasValue(2);
+        assertThat(bounded.size()).isZero();
+    }
+
+    /**
+     * Verifies that entries are dropped, and loads started before are not stored, once changes may have been missed.
+     */
+    @Test
+    void allVendorsChangedDropsEverything() {
+        cache.caughtUp(3);
+        cache.get(id, load(vendor("Cached")));
+
+        Optional<Vendor> raced = cache.get(UUID.randomUUID(), () -> {
+            cache.allVendorsChanged();
+            return Optional.empty();
+        });
+
+        assertThat(raced).isEmpty();
+        assertThat(cache.size()).isZero();
+    }
+
+    private Supplier<Optional<Vendor>> load(Vendor vendor) {
+        return () -> {
+            loads.incrementAndGet();
+            return Optional.of(vendor);
+        };
+    }
+
+    private Vendor vendor(String name) {
+        return Vendor.builder().id(id).vendorName(name).isActive(true).build();
+    }
+
+    private VendorChange change(long seq) {
+        return new VendorChange(seq, TenantContext.DEFAULT_MARKET, id, VendorChangeOperation.UPDATED, Instant.now());
+    }
+}
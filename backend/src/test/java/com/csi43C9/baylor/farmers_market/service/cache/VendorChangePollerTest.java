@@ -0,0 +1,99 @@
+package com.csi43C9.baylor.farmers_market.service.cache;
+
+import com.csi43C9.baylor.farmers_market.entity.Vendor;
+import com.csi43C9.baylor.farmers_market.entity.VendorChangeOperation;
+import com.csi43C9.baylor.farmers_market.repository.VendorChangeRepository;
+import com.csi43C9.baylor.farmers_market.tenant.TenantContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.test.autoconfigure.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link VendorChangePoller} with two instances, each with its own {@link VendorCache},
+ * sharing one database. Pollers are driven by calling {@code poll()}; the scheduled poll is disabled.
+ */
+@JdbcTest
+@Import(VendorChangeRepository.class)
+class VendorChangePollerTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private VendorChangeRepository vendorChangeRepository;
+
+    private final VendorCache firstCache = new VendorCache(100, 60_000, 60_000);
+    private final VendorCache secondCache = new VendorCache(100, 60_000, 60_000);
+
+    /**
+     * Verifies that a vendor written through one instance is served stale by the other only until
+     * its poller reads the write, and only in the market it was written in.
+     */
+    @Test
+    void otherInstanceDropsVendorOnceItReadsTheWrite() {
+        VendorChangePoller first = poller(firstCache, 10);
+        VendorChangePoller second = poller(secondCache, 10);
+        first.poll();
+        second.poll();
+        UUID id = UUID.randomUUID();
+        secondCache.get(id, () -> Optional.of(vendor(id, "Old Name")));
+        TenantContext.run("north", () -> secondCache.get(id, () -> Optional.of(vendor(id, "North Name"))));
+
+        vendorChangeRepository.append(List.of(id), VendorChangeOperation.UPDATED);
+        firstCache.invalidate(id);
+
+        assertThat(name(secondCache.get(id, () -> Optional.of(vendor(id, "New Name"))))).isEqualTo("Old Name");
+        assertThat(second.poll()).isEqualTo(1);
+        assertThat(name(secondCache.get(id, () -> Optional.of(vendor(id, "New Name"))))).isEqualTo("New Name");
+        assertThat(name(TenantContext.call("north", () -> secondCache.get(id, Optional::empty))))
+                .isEqualTo("North Name");
+        assertThat(first.poll()).isEqualTo(1);
+        assertThat(first.lastSeq()).isEqualTo(second.lastSeq());
+    }
+
+    /**
+     * Verifies that the log is read in batches, and that entries pruned before they were read
+     * drop every cached vendor.
+     */
+    @Test
+    void prunedEntriesDropEveryCachedVendor() {
+        VendorChangePoller poller = poller(firstCache, 2);
+        poller.poll();
+        UUID cached = UUID.randomUUID();
+        firstCache.get(cached, () -> Optional.of(vendor(cached, "Cached")));
+
+        vendorChangeRepository.append(List.of(UUID.randomUUID(), UUID.randomUUID()), VendorChangeOperation.CREATED);
+        jdbcTemplate.update("update vendor_changes set changed_at = ?",
+                Timestamp.from(Instant.now().minus(40, ChronoUnit.DAYS)));
+        vendorChangeRepository.append(List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()),
+                VendorChangeOperation.UPDATED);
+        vendorChangeRepository.pruneBefore(Instant.now().minus(30, ChronoUnit.DAYS));
+
+        assertThat(poller.poll()).isEqualTo(3);
+        assertThat(firstCache.size()).isEqualTo(3);
+        assertThat(poller.lastSeq()).isEqualTo(vendorChangeRepository.state().lastSeq());
+    }
+
+    private VendorChangePoller poller(VendorCache cache, int batchSize) {
+        return new VendorChangePoller(vendorChangeRepository, List.of(cache), false, 500, batchSize);
+    }
+
+    private static Vendor vendor(UUID id, String name) {
+        return Vendor.builder().id(id).vendorName(name).isActive(true).build();
+    }
+
+    private static String name(Optional<Vendor> vendor) {
+        return vendor.map(Vendor::getVendorName).orElse(null);
+    }
+}
@@ -0,0 +1,168 @@
+package com.csi43C9.baylor.farmers_market.service.cache;
+
+import com.csi43C9.baylor.farmers_market.dto.PagedResponse;
+import com.csi43C9.baylor.farmers_market.entity.Vendor;
+import com.csi43C9.baylor.farmers_market.repository.VendorRepository;
+import com.csi43C9.baylor.farmers_market.tenant.Markets;
+import com.csi43C9.baylor.farmers_market.tenant.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link VendorDirectory}.
+ * Verifies that pages are cut from a sorted snapshot, that a stale snapshot is served while a new
+ * one is built, that the last good snapshot survives failed builds, and that steady writes do not
+ * rebuild back to back.
+ */
+@ExtendWith(MockitoExtension.class)
+class VendorDirectoryTest {
+
+    @Mock
+    private VendorRepository vendorRepository;
+
+    private VendorDirectory directory;
+
+    @BeforeEach
+    void setUp() {
+        directory = new VendorDirectory(vendorRepository, new Markets(List.of("north", "south")), true, 60_000, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        directory.shutdown();
+    }
+
+    /**
+     * Verifies that vendors are paged in name order, ignoring case, from one database read.
+     */
+    @Test
+    void pagesAreCutFromSortedSnapshot() {
+        when(vendorRepository.findAll()).thenReturn(List.of(vendor("carrot farm"), vendor("Apple Orchard"),
+                vendor("Bee Honey")));
+
+        PagedResponse<Vendor> first = directory.snapshot().page(0, 2);
+        PagedResponse<Vendor> second = directory.snapshot().page(1, 2);
+        PagedResponse<Vendor> beyond = directory.snapshot().page(5, 2);
+
+        assertThat(first.getData()).extracting(Vendor::getVendorName).containsExactly("Apple Orchard", "Bee Honey");
+        assertThat(second.getData()).extracting(Vendor::getVendorName).containsExactly("carrot farm");
+        assertThat(beyond.getData()).isEmpty();
+        assertThat(first.getTotalElements()).isEqualTo(3);
+        assertThat(first.getTotalPages()).isEqualTo(2);
+        verify(vendorRepository).findAll();
+    }
+
+    /**
+     * Verifies that after a write the previous snapshot is still served while the new one is
+     * built in the background, and is then replaced.
+     */
+    @Test
+    void staleSnapshotIsServedWhileRebuilding() throws InterruptedException {
+        when(vendorRepository.findAll())
+                .thenReturn(List.of(vendor("Apple Orchard")))
+                .thenReturn(List.of(vendor("Apple Orchard"), vendor("Bee Honey")));
+        VendorDirectory.Snapshot before = directory.snapshot();
+
+        directory.invalidate();
+        VendorDirectory.Snapshot rebuilt = await(directory::snapshot, snapshot -> snapshot != before);
+
+        assertThat(before.count()).isEqualTo(1);
+        assertThat(rebuilt.count()).isEqualTo(2);
+        verify(vendorRepository, times(2)).findAll();
+    }
+
+    /**
+     * Verifies that a failed rebuild leaves the last good snapshot in place.
+     */
+    @Test
+    void lastGoodSnapshotSurvivesFailedRebuild() throws InterruptedException {
+        when(vendorRepository.findAll())
+                .thenReturn(List.of(vendor("Apple Orchard")))
+                .thenThrow(new DataAccessResourceFailureException("database unreachable"));
+        VendorDirectory.Snapshot before = directory.snapshot();
+
+        directory.allVendorsChanged();
+        // Wait for the rebuild to be attempted, then read again
+        await(this::findAllCalls, calls -> calls == 2);
+
+        assertThat(directory.snapshot()).isSameAs(before);
+    }
+
+    /**
+     * Verifies that a market written to during every build is rebuilt at most once per minimum
+     * rebuild interval, rather than continuously, and still keeps being rebuilt.
+     */
+    @Test
+    void writesDuringBuildsAreRebuiltAtBoundedRate() throws InterruptedException {
+        VendorDirectory throttled = new VendorDirectory(vendorRepository, new Markets(List.of("north")), true,
+                60_000, 100);
+        try {
+            when(vendorRepository.findAll()).thenAnswer(invocation -> {
+                throttled.invalidate();
+                return List.of(vendor("Apple Orchard"));
+            });
+            TenantContext.run("north", throttled::snapshot);
+
+            TenantContext.run("north", throttled::invalidate);
+            Thread.sleep(450);
+
+            assertThat(findAllCalls()).isBetween(2L, 7L);
+        } finally {
+            throttled.shutdown();
+        }
+    }
+
+    /**
+     * Verifies that each market has its own snapshot, and a write to one leaves the other current.
+     */
+    @Test
+    void marketsHaveSeparateSnapshots() {
+        when(vendorRepository.findAll())
+                .thenReturn(List.of(vendor("North Farm")))
+                .thenReturn(List.of(vendor("South Farm"), vendor("South Dairy")));
+        directory.warmUp();
+
+        TenantContext.run("south", directory::invalidate);
+
+        assertThat(TenantContext.call("north", () -> directory.snapshot().count())).isEqualTo(1);
+        assertThat(directory.size()).isEqualTo(3);
+    }
+
+    private long findAllCalls() {
+        return mockingDetails(vendorRepository).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("findAll"))
+                .count();
+    }
+
+    private static <T> T await(Supplier<T> read, Predicate<T> done) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        T value = read.get();
+        while (!done.test(value) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            value = read.get();
+        }
+        assertThat(done.test(value)).isTrue();
+        return value;
+    }
+
+    private static Vendor vendor(String name) {
+        return Vendor.builder().id(UUID.randomUUID()).vendorName(name).isActive(true).build();
+    }
+}
@@ -0,0 +1,130 @@
+package com.csi43C9.baylor.farmers_market.service.live;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link LiveTotalsBroadcaster}.
+ * Verifies the subscriber limit, conflation of events for a slow client and eviction of stalled clients.
+ * Publishing is driven by calling {@code publish()} directly; the scheduled publisher never fires.
+ */
+class LiveTotalsBroadcasterTest {
+
+    private static final long NEVER_MS = TimeUnit.HOURS.toMillis(1);
+
+    private final MarketDayAggregate aggregate = mock(MarketDayAggregate.class);
+    private LiveTotalsBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        when(aggregate.snapshot()).thenReturn(totals(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    /**
+     * Verifies that subscribers beyond the limit are turned away.
+     */
+    @Test
+    void subscribeRejectsBeyondLimit() {
+        broadcaster = new LiveTotalsBroadcaster(aggregate, 2, NEVER_MS, NEVER_MS, NEVER_MS, NEVER_MS, NEVER_MS);
+
+        assertThat(broadcaster.subscribe()).isPresent();
+        assertThat(broadcaster.subscribe()).isPresent();
+        assertThat(broadcaster.subscribe()).isEmpty();
+        assertThat(broadcaster.subscriberCount()).isEqualTo(2);
+    }
+
+    /**
+     * Verifies that while a client is still receiving one event, newer totals replace each other
+     * and only the latest is sent next.
+     */
+    @Test
+    void slowClientReceivesOnlyLatestTotals() throws Exception {
+        broadcaster = new LiveTotalsBroadcaster(aggregate, 10, NEVER_MS, NEVER_MS, NEVER_MS, NEVER_MS, NEVER_MS);
+        BlockingEmitter emitter = new BlockingEmitter();
+        broadcaster.register(emitter);
+        assertThat(emitter.firstSendStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        when(aggregate.snapshot()).thenReturn(totals(2));
+        broadcaster.publish();
+        when(aggregate.snapshot()).thenReturn(totals(3));
+        broadcaster.publish();
+        emitter.release.countDown();
+
+        assertThat(emitter.awaitSends(2)).isTrue();
+        assertThat(emitter.sent).hasSize(2);
+        assertThat(emitter.sent.get(0)).contains("id:1");
+        assertThat(emitter.sent.get(1)).contains("id:3").contains("\"snap\":3.0");
+    }
+
+    /**
+     * Verifies that a client blocked in a write longer than the slow-client timeout is disconnected.
+     */
+    @Test
+    void stalledClientIsDisconnected() throws Exception {
+        broadcaster = new LiveTotalsBroadcaster(aggregate, 10, NEVER_MS, NEVER_MS, 0, NEVER_MS, NEVER_MS);
+        BlockingEmitter emitter = new BlockingEmitter();
+        broadcaster.register(emitter);
+        assertThat(emitter.firstSendStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(5);
+
+        broadcaster.publish();
+
+        assertThat(broadcaster.subscriberCount()).isZero();
+        emitter.release.countDown();
+    }
+
+    private static MarketDayTotals totals(long version) {
+        return new MarketDayTotals(LocalDate.of(2025, 6, 7), version, 1, version, 0, 0, 0);
+    }
+
+    /**
+     * Emitter whose first write blocks until released, recording what it was asked to send.
+     */
+    private static final class BlockingEmitter extends SseEmitter {
+
+        private final CountDownLatch firstSendStarted = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final List<String> sent = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(Set<DataWithMediaType> items) {
+            if (sent.isEmpty()) {
+                firstSendStarted.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            sent.add(items.stream().map(item -> item.getData().toString()).collect(Collectors.joining()));
+        }
+
+        boolean awaitSends(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (sent.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            return sent.size() >= count;
+        }
+    }
+}
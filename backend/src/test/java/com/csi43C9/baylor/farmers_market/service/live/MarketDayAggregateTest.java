@@ -0,0 +1,111 @@
+package com.csi43C9.baylor.farmers_market.service.live;
+
+import com.csi43C9.baylor.farmers_market.entity.VendorTransaction;
+import com.csi43C9.baylor.farmers_market.repository.VendorTransactionRepository;
+import com.csi43C9.baylor.farmers_market.service.writebehind.WriteBehindBuffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link MarketDayAggregate}.
+ * Verifies that recording a vendor again replaces its contribution and that resyncs keep queued writes.
+ */
+@ExtendWith(MockitoExtension.class)
+class MarketDayAggregateTest {
+
+    private static final ZoneId ZONE = ZoneId.of("America/Chicago");
+
+    @Mock
+    private VendorTransactionRepository transactionRepository;
+
+    @Mock
+    private WriteBehindBuffer writeBehindBuffer;
+
+    private MarketDayAggregate aggregate;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        aggregate = new MarketDayAggregate(transactionRepository, writeBehindBuffer, ZONE);
+        today = LocalDate.now(ZONE);
+    }
+
+    /**
+     * Verifies that today's totals start from the stored figures, that recording a vendor again
+     * replaces its earlier figures, and that figures for another day are ignored.
+     */
+    @Test
+    void applyReplacesVendorContribution() {
+        UUID stored = UUID.randomUUID();
+        UUID recorded = UUID.randomUUID();
+        when(transactionRepository.findAllByMarketDate(today)).thenReturn(List.of(transaction(stored, today, 10.0)));
+
+        aggregate.apply(transaction(recorded, today, 5.0));
+        aggregate.apply(transaction(recorded, today, 7.5));
+        aggregate.apply(transaction(recorded, today.minusWeeks(1), 100.0));
+
+        MarketDayTotals totals = aggregate.snapshot();
+        assertThat(totals.marketDate()).isEqualTo(today);
+        assertThat(totals.vendorsPresent()).isEqualTo(2);
+        assertThat(totals.snap()).isEqualTo(17.5);
+        assertThat(totals.reportedSales()).isEqualTo(200.0);
+    }
+
+    /**
+     * Verifies that the version only moves when a total changes.
+     */
+    @Test
+    void versionChangesOnlyWithTotals() {
+        UUID vendorId = UUID.randomUUID();
+        when(transactionRepository.findAllByMarketDate(today)).thenReturn(List.of());
+
+        long initial = aggregate.snapshot().version();
+        aggregate.apply(transaction(vendorId, today, 5.0));
+        long afterChange = aggregate.snapshot().version();
+        aggregate.apply(transaction(vendorId, today, 5.0));
+
+        assertThat(afterChange).isGreaterThan(initial);
+        assertThat(aggregate.snapshot().version()).isEqualTo(afterChange);
+    }
+
+    /**
+     * Verifies that a resync keeps a vendor's figures that are still queued for write-behind
+     * instead of reverting to the stored row.
+     */
+    @Test
+    void resyncKeepsWritesStillQueued() {
+        UUID vendorId = UUID.randomUUID();
+        VendorTransaction queued = transaction(vendorId, today, 9.0);
+        when(transactionRepository.findAllByMarketDate(today)).thenReturn(List.of(transaction(vendorId, today, 1.0)));
+        when(writeBehindBuffer.pendingTransaction(any(), any())).thenReturn(Optional.empty());
+        aggregate.apply(queued);
+        when(writeBehindBuffer.pendingTransaction(vendorId, today)).thenReturn(Optional.of(queued));
+
+        aggregate.resync();
+
+        assertThat(aggregate.snapshot().snap()).isEqualTo(9.0);
+    }
+
+    private static VendorTransaction transaction(UUID vendorId, LocalDate marketDate, double snap) {
+        return VendorTransaction.builder()
+                .vendorId(vendorId)
+                .marketDate(marketDate)
+                .present(true)
+                .snap(snap)
+                .reportedSales(100.0)
+                .build();
+    }
+}
@@ -0,0 +1,141 @@
+package com.csi43C9.baylor.farmers_market.service.reimbursement;
+
+import com.csi43C9.baylor.farmers_market.entity.VendorTransaction;
+import com.csi43C9.baylor.farmers_market.repository.VendorTransactionRepository;
+import com.csi43C9.baylor.farmers_market.service.analytics.TransactionColumnStore;
+import com.csi43C9.baylor.farmers_market.service.writebehind.WriteBehindBuffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link ReimbursementEngine}.
+ * Verifies the configured rules, that only changed reimbursements are written, and that a day
+ * is not computed twice at once.
+ */
+@ExtendWith(MockitoExtension.class)
+class ReimbursementEngineTest {
+
+    private static final LocalDate MARKET_DATE = LocalDate.of(2025, 6, 7);
+
+    @Mock
+    private VendorTransactionRepository transactionRepository;
+
+    @Mock
+    private WriteBehindBuffer writeBehindBuffer;
+
+    @Mock
+    private TransactionColumnStore transactionColumnStore;
+
+    private ReimbursementEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new ReimbursementEngine(transactionRepository, writeBehindBuffer, transactionColumnStore,
+                TransactionOperations.withoutTransaction(), 1.0, 1.0, 2.5, 0.5, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    /**
+     * Verifies each vendor's reimbursement under the configured rates, with missing figures as 0,
+     * over enough vendors to be split across fork-join tasks.
+     */
+    @Test
+    void computesEveryVendorWithConfiguredRules() {
+        List<VendorTransaction> rows = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            rows.add(row(i, null, 2.0, 0.5, null));
+        }
+        stored(rows);
+        when(transactionRepository.updateReimbursementDue(anyList()))
+                .thenAnswer(call -> call.getArgument(0, List.class).size());
+
+        ReimbursementReport report = engine.run(MARKET_DATE).orElseThrow();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<VendorTransaction>> written = ArgumentCaptor.forClass(List.class);
+        verify(transactionRepository).updateReimbursementDue(written.capture());
+        assertThat(written.getValue()).hasSize(1000)
+                .allSatisfy(transaction -> assertThat(transaction.getReimbursementDue())
+                        .isEqualTo(transaction.getSnap() + 5.25));
+        assertThat(report.transactions()).isEqualTo(1000);
+        assertThat(report.updated()).isEqualTo(1000);
+        assertThat(report.totalDue()).isEqualTo(1000 * 5.25 + 999 * 1000 / 2.0);
+        verify(writeBehindBuffer).flushAll();
+        verify(transactionColumnStore).refresh(MARKET_DATE);
+    }
+
+    /**
+     * Verifies that reimbursements already stored are not written again, so repeating a run is a no-op.
+     */
+    @Test
+    void rerunWritesNothing() {
+        stored(List.of(row(10, 0.125, null, null, 10.13)));
+
+        ReimbursementReport report = engine.run(MARKET_DATE).orElseThrow();
+
+        assertThat(report.updated()).isZero();
+        assertThat(report.totalDue()).isEqualTo(10.13);
+        verify(transactionRepository, never()).updateReimbursementDue(anyList());
+        verify(transactionColumnStore, never()).refresh(MARKET_DATE);
+    }
+
+    /**
+     * Verifies that a run requested while the same day is being computed is refused.
+     */
+    @Test
+    void refusesConcurrentRunForSameDay() {
+        List<Optional<ReimbursementReport>> nested = new ArrayList<>();
+        doAnswer(call -> nested.add(engine.run(MARKET_DATE))).when(writeBehindBuffer).flushAll();
+        stored(List.of());
+
+        assertThat(engine.run(MARKET_DATE)).isPresent();
+        assertThat(nested).containsExactly(Optional.empty());
+    }
+
+    private void stored(List<VendorTransaction> rows) {
+        doAnswer(call -> {
+            Consumer<VendorTransaction> consumer = call.getArgument(1);
+            rows.forEach(consumer);
+            return null;
+        }).when(transactionRepository).forEachBenefitsByMarketDate(eq(MARKET_DATE), any());
+    }
+
+    private static VendorTransaction row(double snap, Double dufb, Double wdfmTokens, Double voucher,
+                                         Double reimbursementDue) {
+        return VendorTransaction.builder()
+                .id(UUID.randomUUID())
+                .marketDate(MARKET_DATE)
+                .snap(snap)
+                .dufb(dufb)
+                .wdfmTokens(wdfmTokens)
+                .voucher(voucher)
+                .reimbursementDue(reimbursementDue)
+                .build();
+    }
+}
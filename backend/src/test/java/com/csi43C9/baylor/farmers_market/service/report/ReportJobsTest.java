@@ -0,0 +1,221 @@
+package com.csi43C9.baylor.farmers_market.service.report;
+
+import com.csi43C9.baylor.farmers_market.entity.Vendor;
+import com.csi43C9.baylor.farmers_market.entity.VendorTransaction;
+import com.csi43C9.baylor.farmers_market.repository.VendorChangeRepository;
+import com.csi43C9.baylor.farmers_market.repository.VendorRepository;
+import com.csi43C9.baylor.farmers_market.repository.VendorTransactionRepository;
+import com.csi43C9.baylor.farmers_market.service.writebehind.WriteBehindBuffer;
+import com.csi43C9.baylor.farmers_market.tenant.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link ReportJobs}.
+ * Verifies that reports are written in the background, that identical reports are computed once
+ * until their data changes, that the queue is bounded and that results expire.
+ */
+@ExtendWith(MockitoExtension.class)
+class ReportJobsTest {
+
+    private static final LocalDate FROM = LocalDate.of(2025, 4, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 10, 31);
+
+    @Mock
+    private VendorRepository vendorRepository;
+
+    @Mock
+    private VendorTransactionRepository transactionRepository;
+
+    @Mock
+    private VendorChangeRepository vendorChangeRepository;
+
+    @Mock
+    private WriteBehindBuffer writeBehindBuffer;
+
+    @TempDir
+    private Path dir;
+
+    private ReportJobs reportJobs;
+
+    @AfterEach
+    void tearDown() {
+        reportJobs.shutdown();
+    }
+
+    /**
+     * Verifies that a report is written as CSV after flushing write-behind, with fields quoted
+     * where needed, and that progress is counted.
+     */
+    @Test
+    void writesReportInBackground() throws Exception {
+        reportJobs = reportJobs(2, 10, 60_000);
+        when(vendorChangeRepository.lastSeq()).thenReturn(7L);
+        Vendor vendor = Vendor.builder().id(UUID.randomUUID()).vendorName("Smith, Jones & Co").email("a@b.c")
+                .isActive(true).build();
+        when(vendorRepository.findAll()).thenReturn(List.of(vendor));
+
+        ReportJobs.Submission submission = reportJobs.submit(ReportType.VENDORS, FROM, TO).orElseThrow();
+        ReportJob job = awaitFinished(submission.job());
+
+        verify(writeBehindBuffer).flushAll();
+        assertThat(submission.reused()).isFalse();
+        assertThat(job.getStatus()).isEqualTo(ReportJobStatus.SUCCEEDED);
+        assertThat(job.getRowsRead()).isEqualTo(1);
+        assertThat(job.getFrom()).isNull();
+        List<String> lines = Files.readAllLines(reportJobs.result(job).orElseThrow());
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0)).startsWith("id,vendor,point_person,email,");
+        assertThat(lines.get(1)).startsWith(vendor.getId() + ",\"Smith, Jones & Co\",,a@b.c,");
+    }
+
+    /**
+     * Verifies that vendor totals sum each vendor's figures over the range.
+     */
+    @Test
+    void sumsVendorTotals() throws Exception {
+        reportJobs = reportJobs(1, 10, 60_000);
+        UUID vendorId = UUID.randomUUID();
+        doAnswer(call -> {
+            Consumer<VendorTransaction> consumer = call.getArgument(2);
+            consumer.accept(transaction(vendorId, TO, 10.0));
+            consumer.accept(transaction(vendorId, FROM, 2.5));
+            return null;
+        }).when(transactionRepository).forEachInRange(any(), any(), any());
+
+        ReportJob job = awaitFinished(reportJobs.submit(ReportType.VENDOR_TOTALS, FROM, TO).orElseThrow().job());
+
+        List<String> lines = Files.readAllLines(reportJobs.result(job).orElseThrow());
+        assertThat(lines).containsExactly(
+                "vendor_id,vendor,market_days,snap,dufb,wdfm_tokens,voucher,reimbursement_due,reported_sales,"
+                        + "est_produce_sales,est_num_transactions",
+                vendorId + ",Farm,2,12.5,0.0,0.0,0.0,0.0,0.0,0.0,0");
+        verify(transactionRepository).forEachInRange(any(), any(), any());
+    }
+
+    /**
+     * Verifies that submitting an identical report returns the earlier job until the transactions
+     * it read are written.
+     */
+    @Test
+    void identicalReportsAreComputedOnceUntilDataChanges() throws Exception {
+        reportJobs = reportJobs(1, 10, 60_000);
+        when(transactionRepository.version()).thenReturn(3L, 3L, 4L);
+
+        ReportJob first = awaitFinished(reportJobs.submit(ReportType.TRANSACTIONS, FROM, TO).orElseThrow().job());
+        ReportJobs.Submission again = reportJobs.submit(ReportType.TRANSACTIONS, FROM, TO).orElseThrow();
+        ReportJobs.Submission changed = reportJobs.submit(ReportType.TRANSACTIONS, FROM, TO).orElseThrow();
+
+        assertThat(again.reused()).isTrue();
+        assertThat(again.job()).isSameAs(first);
+        assertThat(changed.reused()).isFalse();
+        assertThat(changed.job()).isNotSameAs(first);
+        awaitFinished(changed.job());
+    }
+
+    /**
+     * Verifies that reports beyond the workers and the queue are refused rather than queued.
+     */
+    @Test
+    void refusesReportsBeyondQueue() throws Exception {
+        reportJobs = reportJobs(1, 1, 60_000);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        doAnswer(call -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(transactionRepository).forEachInRange(any(), any(), any());
+
+        Optional<ReportJobs.Submission> running = reportJobs.submit(ReportType.TRANSACTIONS, FROM, TO);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        Optional<ReportJobs.Submission> queued = reportJobs.submit(ReportType.TRANSACTIONS, FROM, FROM);
+        Optional<ReportJobs.Submission> refused = reportJobs.submit(ReportType.TRANSACTIONS, TO, TO);
+
+        assertThat(running).isPresent();
+        assertThat(queued).isPresent();
+        assertThat(queued.get().job().getStatus()).isEqualTo(ReportJobStatus.QUEUED);
+        assertThat(refused).isEmpty();
+        release.countDown();
+        awaitFinished(queued.get().job());
+    }
+
+    /**
+     * Verifies that jobs are only visible in the market that submitted them.
+     */
+    @Test
+    void jobsAreScopedToTheirMarket() throws Exception {
+        reportJobs = reportJobs(1, 10, 60_000);
+        ReportJob job = TenantContext.call("north",
+                () -> reportJobs.submit(ReportType.VENDORS, null, null).orElseThrow().job());
+        awaitFinished(job);
+
+        assertThat(TenantContext.call("north", () -> reportJobs.find(job.getId()))).contains(job);
+        assertThat(TenantContext.call("south", () -> reportJobs.find(job.getId()))).isEmpty();
+    }
+
+    /**
+     * Verifies that finished jobs are forgotten and their results deleted once they expire.
+     */
+    @Test
+    void expiredResultsAreDeleted() throws Exception {
+        reportJobs = reportJobs(1, 10, 0);
+        ReportJob job = awaitFinished(reportJobs.submit(ReportType.VENDORS, null, null).orElseThrow().job());
+        Path result = reportJobs.result(job).orElseThrow();
+
+        assertThat(reportJobs.sweep()).isEqualTo(1);
+
+        assertThat(result).doesNotExist();
+        assertThat(reportJobs.find(job.getId())).isEmpty();
+        assertThat(reportJobs.submit(ReportType.VENDORS, null, null).orElseThrow().reused()).isFalse();
+    }
+
+    private ReportJobs reportJobs(int workers, int maxQueued, long ttlMs) {
+        ReportWriter writer = new ReportWriter(vendorRepository, transactionRepository);
+        return new ReportJobs(writer, vendorChangeRepository, transactionRepository, writeBehindBuffer,
+                workers, maxQueued, ttlMs, dir.toString());
+    }
+
+    private static ReportJob awaitFinished(ReportJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!isFinished(job) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(isFinished(job)).isTrue();
+        return job;
+    }
+
+    private static boolean isFinished(ReportJob job) {
+        return job.getStatus() == ReportJobStatus.SUCCEEDED || job.getStatus() == ReportJobStatus.FAILED;
+    }
+
+    private static VendorTransaction transaction(UUID vendorId, LocalDate marketDate, double snap) {
+        VendorTransaction transaction = new VendorTransaction();
+        transaction.setVendorId(vendorId);
+        transaction.setVendorName("Farm");
+        transaction.setMarketDate(marketDate);
+        transaction.setPresent(true);
+        transaction.setSnap(snap);
+        return transaction;
+    }
+}
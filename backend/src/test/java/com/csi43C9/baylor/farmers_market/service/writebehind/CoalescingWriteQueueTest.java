@@ -0,0 +1,161 @@
+package com.csi43C9.baylor.farmers_market.service.writebehind;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link CoalescingWriteQueue}.
+ * Verifies last-write-wins coalescing, batching, size-triggered flushing, retry after failure
+ * and dead-lettering of values that keep failing.
+ */
+class CoalescingWriteQueueTest {
+
+    private final List<List<String>> batches = new ArrayList<>();
+
+    /**
+     * Verifies that repeated writes to the same key are written once, with the latest value.
+     */
+    @Test
+    void repeatedWritesToSameKeyAreCoalesced() {
+        CoalescingWriteQueue<String, String> queue =
+                new CoalescingWriteQueue<>("test", batches::add, 100, 100, 60_000, 3);
+
+        queue.enqueue("a", "a1");
+        queue.enqueue("a", "a2");
+        queue.enqueue("b", "b1");
+        queue.enqueue("a", "a3");
+
+        assertThat(queue.peek("a")).contains("a3");
+        assertThat(queue.flush()).isEqualTo(2);
+        assertThat(batches).hasSize(1);
+        assertThat(batches.getFirst()).containsExactlyInAnyOrder("a3", "b1");
+
+        WriteBehindStats stats = queue.stats();
+        assertThat(stats.enqueued()).isEqualTo(4);
+        assertThat(stats.coalesced()).isEqualTo(2);
+        assertThat(stats.written()).isEqualTo(2);
+        assertThat(stats.pending()).isZero();
+        assertThat(stats.coalescingRatio()).isEqualTo(0.5);
+        assertThat(queue.peek("a")).isEmpty();
+    }
+
+    /**
+     * Verifies that a flush is split into batches no larger than the configured size.
+     */
+    @Test
+    void flushSplitsIntoBatches() {
+        List<Integer> sizes = new ArrayList<>();
+        CoalescingWriteQueue<Integer, Integer> queue =
+                new CoalescingWriteQueue<>("test", batch -> sizes.add(batch.size()), 2, 100, 60_000, 3);
+        for (int i = 0; i < 5; i++) {
+            queue.enqueue(i, i);
+        }
+
+        assertThat(queue.flush()).isEqualTo(5);
+        assertThat(sizes).containsExactly(2, 2, 1);
+    }
+
+    /**
+     * Verifies that the enqueuing thread flushes once the pending bound is reached.
+     */
+    @Test
+    void reachingMaxPendingFlushesSynchronously() {
+        CoalescingWriteQueue<String, String> queue =
+                new CoalescingWriteQueue<>("test", batches::add, 100, 2, 60_000, 3);
+
+        queue.enqueue("a", "a1");
+        assertThat(batches).isEmpty();
+        queue.enqueue("b", "b1");
+
+        assertThat(batches).hasSize(1);
+        assertThat(queue.stats().pending()).isZero();
+    }
+
+    /**
+     * Verifies that a failed batch is re-queued without overwriting newer values.
+     */
+    @Test
+    void failedFlushRequeuesBatch() {
+        List<String> written = new ArrayList<>();
+        boolean[] fail = {true};
+        CoalescingWriteQueue<String, String> queue = new CoalescingWriteQueue<>("test", batch -> {
+            if (fail[0]) {
+                throw new IllegalStateException("constraint violated");
+            }
+            written.addAll(batch);
+        }, 100, 100, 60_000, 3);
+
+        queue.enqueue("a", "a1");
+        assertThat(queue.flush()).isZero();
+        assertThat(queue.peek("a")).contains("a1");
+        assertThat(queue.stats().failedFlushes()).isEqualTo(2);
+
+        queue.enqueue("a", "a2");
+        fail[0] = false;
+        assertThat(queue.flush()).isEqualTo(1);
+        assertThat(written).containsExactly("a2");
+    }
+
+    /**
+     * Verifies that a value that fails on its own does not hold back the rest of its batch,
+     * and is dropped once it has failed the configured number of times.
+     */
+    @Test
+    void poisonValueIsWrittenAloneAndDeadLettered() {
+        List<String> written = new ArrayList<>();
+        CoalescingWriteQueue<String, String> queue = new CoalescingWriteQueue<>("test", batch -> {
+            if (batch.contains("poison")) {
+                throw new IllegalStateException("constraint violated");
+            }
+            written.addAll(batch);
+        }, 100, 100, 60_000, 3);
+        queue.enqueue("a", "a1");
+        queue.enqueue("p", "poison");
+        queue.enqueue("b", "b1");
+
+        assertThat(queue.flush()).isEqualTo(2);
+        assertThat(written).containsExactlyInAnyOrder("a1", "b1");
+        assertThat(queue.peek("p")).contains("poison");
+
+        assertThat(queue.flush()).isZero();
+        assertThat(queue.peek("p")).contains("poison");
+        assertThat(queue.flush()).isZero();
+
+        WriteBehindStats stats = queue.stats();
+        assertThat(queue.peek("p")).isEmpty();
+        assertThat(stats.pending()).isZero();
+        assertThat(stats.deadLettered()).isEqualTo(1);
+        assertThat(written).containsExactlyInAnyOrder("a1", "b1");
+    }
+
+    /**
+     * Verifies that transient failures, such as an unreachable database, re-queue the batch
+     * without counting towards dropping its values.
+     */
+    @Test
+    void transientFailuresAreRetriedWithoutLimit() {
+        boolean[] fail = {true};
+        CoalescingWriteQueue<String, String> queue = new CoalescingWriteQueue<>("test", batch -> {
+            if (fail[0]) {
+                throw new DataAccessResourceFailureException("database unavailable");
+            }
+            batches.add(batch);
+        }, 100, 100, 60_000, 3);
+        queue.enqueue("a", "a1");
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(queue.flush()).isZero();
+        }
+        assertThat(queue.peek("a")).contains("a1");
+        assertThat(queue.stats().deadLettered()).isZero();
+
+        fail[0] = false;
+        assertThat(queue.flush()).isEqualTo(1);
+        assertThat(batches).containsExactly(List.of("a1"));
+    }
+}
@@ -0,0 +1,45 @@
+package com.csi43C9.baylor.farmers_market.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link LogSampler}.
+ * Verifies that one call per interval is let through and the rest are counted.
+ */
+class LogSamplerTest {
+
+    /**
+     * Verifies that only the first call within an interval may log.
+     */
+    @Test
+    void letsOneCallThroughPerInterval() {
+        LogSampler sampler = new LogSampler(1, TimeUnit.HOURS);
+
+        assertThat(sampler.acquire()).isZero();
+        assertThat(sampler.acquire()).isEqualTo(-1);
+        assertThat(sampler.acquire()).isEqualTo(-1);
+
+        assertThat(sampler.loggedCount()).isEqualTo(1);
+        assertThat(sampler.suppressedCount()).isEqualTo(2);
+    }
+
+    /**
+     * Verifies that the next call let through reports how many were suppressed before it.
+     */
+    @Test
+    void reportsSuppressedCallsOnNextLog() throws InterruptedException {
+        LogSampler sampler = new LogSampler(20, TimeUnit.MILLISECONDS);
+        sampler.acquire();
+        sampler.acquire();
+        sampler.acquire();
+
+        Thread.sleep(30);
+
+        assertThat(sampler.acquire()).isEqualTo(2);
+        assertThat(sampler.loggedCount()).isEqualTo(2);
+    }
+}
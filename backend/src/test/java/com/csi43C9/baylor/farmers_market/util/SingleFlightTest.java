@@ -0,0 +1,123 @@
+package com.csi43C9.baylor.farmers_market.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link SingleFlight}.
+ * Verifies that concurrent identical calls share one execution and that completed calls are not reused.
+ */
+class SingleFlightTest {
+
+    private final SingleFlight<String, Integer> flight = new SingleFlight<>();
+
+    /**
+     * Verifies that callers arriving while a call is running share its result.
+     */
+    @Test
+    void concurrentCallersShareOneExecution() throws Exception {
+        int callers = 8;
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            results.add(pool.submit(() -> flight.execute("page-0", () -> {
+                calls.incrementAndGet();
+                await(release);
+                return 42;
+            })));
+            waitUntil(() -> flight.executedCount() == 1);
+            for (int i = 1; i < callers; i++) {
+                results.add(pool.submit(() -> flight.execute("page-0", calls::incrementAndGet)));
+            }
+            waitUntil(() -> flight.coalescedCount() == callers - 1);
+            release.countDown();
+
+            for (Future<Integer> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+            }
+            assertThat(calls).hasValue(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Verifies that a call made after another completed runs again instead of reusing its result.
+     */
+    @Test
+    void completedCallIsNotReused() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThat(flight.execute("vendor", calls::incrementAndGet)).isEqualTo(1);
+        assertThat(flight.execute("vendor", calls::incrementAndGet)).isEqualTo(2);
+        assertThat(flight.executedCount()).isEqualTo(2);
+        assertThat(flight.coalescedCount()).isZero();
+    }
+
+    /**
+     * Verifies that a failure is rethrown to the caller and does not poison later calls.
+     */
+    @Test
+    void failureIsRethrownAndReleasesKey() {
+        assertThatThrownBy(() -> flight.execute("vendor", () -> {
+            throw new IllegalStateException("db down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(flight.execute("vendor", () -> 7)).isEqualTo(7);
+    }
+
+    /**
+     * Verifies that callers arriving after {@link SingleFlight#forgetAll()} start a fresh call.
+     */
+    @Test
+    void forgetAllDetachesRunningCall() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> stale = pool.submit(() -> flight.execute("vendor", () -> {
+                await(release);
+                return 1;
+            }));
+            waitUntil(() -> flight.executedCount() == 1);
+
+            flight.forgetAll();
+
+            assertThat(flight.execute("vendor", () -> 2)).isEqualTo(2);
+            release.countDown();
+            assertThat(stale.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+            assertThat(flight.coalescedCount()).isZero();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
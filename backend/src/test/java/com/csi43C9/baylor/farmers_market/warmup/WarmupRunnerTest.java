@@ -0,0 +1,91 @@
+package com.csi43C9.baylor.farmers_market.warmup;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.health.contributor.Status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link WarmupRunner} and {@link WarmupHealthIndicator}.
+ * Verifies that tasks run in order, that a failing task does not block readiness, and that
+ * the health indicator only reports up once warmup has finished.
+ */
+class WarmupRunnerTest {
+
+    private final List<String> ran = new ArrayList<>();
+
+    /**
+     * Verifies that every task runs in order, past a failing one, before the indicator reports up.
+     */
+    @Test
+    void runsTasksInOrderThenReportsUp() {
+        WarmupRunner runner = new WarmupRunner(List.of(task("pool"), failingTask("reads"), task("jwt")), true);
+        WarmupHealthIndicator indicator = new WarmupHealthIndicator(runner);
+        assertThat(indicator.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+
+        runner.run(new DefaultApplicationArguments());
+
+        assertThat(ran).containsExactly("pool", "reads", "jwt");
+        assertThat(indicator.health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    /**
+     * Verifies that with warmup disabled no task runs and the indicator reports up.
+     */
+    @Test
+    void disabledReportsUpWithoutRunningTasks() {
+        WarmupRunner runner = new WarmupRunner(List.of(task("pool")), false);
+
+        runner.run(new DefaultApplicationArguments());
+
+        assertThat(ran).isEmpty();
+        assertThat(new WarmupHealthIndicator(runner).health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    /**
+     * Verifies that a warmup loop runs its body about the requested number of times and reports both timings.
+     */
+    @Test
+    void loopReportsFirstAndLastTimings() {
+        int[] runs = {0};
+
+        String effect = WarmupLoop.repeat("increments", 1000, () -> runs[0]++);
+
+        assertThat(runs[0]).isEqualTo(1000);
+        assertThat(effect).startsWith("1000 increments, ").contains("each at first").contains("each at last");
+    }
+
+    private WarmupTask task(String name) {
+        return new WarmupTask() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public String warmUp() {
+                ran.add(name);
+                return "done";
+            }
+        };
+    }
+
+    private WarmupTask failingTask(String name) {
+        return new WarmupTask() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public String warmUp() {
+                ran.add(name);
+                throw new IllegalStateException("database unavailable");
+            }
+        };
+    }
+}
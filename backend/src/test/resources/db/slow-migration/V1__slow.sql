@@ -0,0 +1,3 @@
+-- Takes longer than the lock timeout SchemaMigratorTest uses, to check the lock is refreshed
+create alias if not exists slow_sleep for 'java.lang.Thread.sleep(long)';
+call slow_sleep(1500);
@@ -1,8 +1,13 @@
 drop table if exists vendors;
+drop table if exists vendor_transactions;
+drop table if exists vendor_changes;
+drop table if exists vendor_change_log_state;
+drop table if exists transaction_versions;
 
 create table vendors
 (
     id            binary(16) primary key,
+    market_id     VARCHAR(64)  not null default 'default',
     vendor        VARCHAR(255) not null,
     point_person  VARCHAR(255),
     email         VARCHAR(255),
@@ -15,4 +20,54 @@ create table vendors
     woman_owned   boolean default false,
     bipoc_owned   boolean default false,
     veteran_owned boolean default false
-);
\ No newline at end of file
+);
+
+create table vendor_transactions
+(
+    id                   binary(16) primary key,
+    market_id            VARCHAR(64)  not null default 'default',
+    vendor_id            binary(16)   not null,
+    vendor_name          VARCHAR(255) not null,
+    market_date          date         not null,
+    present              boolean default false,
+    snap                 double,
+    dufb                 double,
+    wdfm_tokens          double,
+    voucher              double,
+    reimbursement_due    double,
+    reported_sales       double,
+    est_produce_sales    double,
+    est_num_transactions bigint,
+    constraint vt_market_vendor_date_uindex unique (market_id, vendor_id, market_date)
+);
+
+create unique index vendors_market_vendor_uindex on vendors (market_id, vendor);
+create index vendors_market_active_vendor_index on vendors (market_id, is_active, vendor);
+create index vt_market_id_date_vendor_name_index on vendor_transactions (market_id, market_date desc, vendor_name);
+
+create table vendor_changes
+(
+    seq        bigint      not null primary key,
+    market_id  varchar(64) not null default 'default',
+    vendor_id  binary(16)  not null,
+    operation  varchar(16) not null,
+    changed_at timestamp   not null
+);
+
+create index vendor_changes_changed_at_index on vendor_changes (changed_at);
+create index vendor_changes_market_seq_index on vendor_changes (market_id, seq);
+
+create table vendor_change_log_state
+(
+    id             int    not null primary key,
+    last_seq       bigint not null,
+    pruned_through bigint not null
+);
+
+insert into vendor_change_log_state (id, last_seq, pruned_through) values (1, 0, 0);
+
+create table transaction_versions
+(
+    market_id varchar(64) not null primary key,
+    version   bigint      not null
+);